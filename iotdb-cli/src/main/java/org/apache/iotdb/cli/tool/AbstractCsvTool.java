@@ -85,6 +85,24 @@ public abstract class AbstractCsvTool {
     return str;
   }
 
+  protected static int parsePositiveInt(CommandLine commandLine, String arg, String name,
+      int defaultValue) throws ArgsErrorException {
+    String str = commandLine.getOptionValue(arg);
+    if (str == null) {
+      return defaultValue;
+    }
+    try {
+      int value = Integer.parseInt(str);
+      if (value > 0) {
+        return value;
+      }
+    } catch (NumberFormatException e) {
+      // report it below
+    }
+    throw new ArgsErrorException(String.format("%s should be a positive integer, but is %s", name,
+        str));
+  }
+
   protected static void setTimeZone() throws IoTDBSQLException, TException {
     if (timeZoneID != null) {
       connection.setTimeZone(timeZoneID);
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * CsvExportWriter writes rows in the csv format of ExportCsv into a stream, which is usually
+ * compressed.
+ */
+public class CsvExportWriter implements ExportWriter {
+
+  private BufferedWriter writer;
+  private LongFunction<String> timeFormatter;
+
+  /**
+   * @param columns the labels of the columns, the time column included
+   * @param timeFormatter formats the times of the rows
+   */
+  public CsvExportWriter(OutputStream out, List<String> columns,
+      LongFunction<String> timeFormatter) throws IOException {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    this.timeFormatter = timeFormatter;
+    writer.write(String.join(",", columns));
+    writer.write('\n');
+  }
+
+  @Override
+  public void write(long time, String[] values) throws IOException {
+    writer.write(timeFormatter.apply(time));
+    for (String value : values) {
+      writer.write(',');
+      if (value != null) {
+        writer.write(value);
+      }
+    }
+    writer.write('\n');
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
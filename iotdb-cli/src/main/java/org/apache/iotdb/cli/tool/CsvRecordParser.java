@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+
+/**
+ * CsvRecordParser parses the lines of a csv file into typed records, one record for each device
+ * which has a value in the line. A parser is not thread-safe, each import thread uses its own one.
+ */
+public class CsvRecordParser {
+
+  private static final char SEPARATOR = ',';
+
+  /**
+   * the time formats tried for a time which is not a number, the first one is ISO8601.
+   */
+  private static final List<DateTimeFormatter> TIME_FORMATTERS = new ArrayList<>();
+
+  static {
+    TIME_FORMATTERS.add(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    TIME_FORMATTERS.add(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    for (String format : AbstractCsvTool.SUPPORT_TIME_FORMAT) {
+      if (format.contains("yyyy")) {
+        TIME_FORMATTERS.add(DateTimeFormatter.ofPattern(format));
+      }
+    }
+  }
+
+  private final List<String> measurements = new ArrayList<>();
+  private final List<TSDataType> dataTypes;
+  private final ZoneId zoneId;
+
+  /**
+   * the indexes of the columns of each device in the csv file, the time column excluded.
+   */
+  private final Map<String, List<Integer>> deviceToColumns = new LinkedHashMap<>();
+
+  /**
+   * the time format of the last parsed time, most files use only one.
+   */
+  private DateTimeFormatter lastTimeFormatter;
+
+  /**
+   * @param timeseries the timeseries of the columns of the csv file, the time column excluded
+   * @param dataTypes the data types of the timeseries
+   * @param zoneId the time zone of the times which have no offset
+   */
+  public CsvRecordParser(List<String> timeseries, List<TSDataType> dataTypes, ZoneId zoneId) {
+    this.dataTypes = dataTypes;
+    this.zoneId = zoneId;
+    for (int i = 0; i < timeseries.size(); i++) {
+      String path = timeseries.get(i);
+      int separatorIndex = path.lastIndexOf('.');
+      deviceToColumns.computeIfAbsent(path.substring(0, separatorIndex), k -> new ArrayList<>())
+          .add(i);
+      measurements.add(path.substring(separatorIndex + 1));
+    }
+  }
+
+  /**
+   * parse a line of the csv file. An empty field means that the timeseries has no value, and a
+   * device which has no value in the line gets no record.
+   *
+   * @throws IllegalArgumentException if the line is not complete, or the time or a value of the
+   * line cannot be parsed
+   */
+  public List<TSRecord> parse(String line) {
+    String[] fields = split(line, measurements.size() + 1);
+    long time = parseTime(fields[0].trim());
+    List<TSRecord> records = new ArrayList<>(deviceToColumns.size());
+    for (Entry<String, List<Integer>> entry : deviceToColumns.entrySet()) {
+      TSRecord record = null;
+      for (int column : entry.getValue()) {
+        String value = fields[column + 1];
+        if (value.isEmpty()) {
+          continue;
+        }
+        if (record == null) {
+          record = new TSRecord(time, entry.getKey());
+        }
+        try {
+          if (dataTypes.get(column) == TSDataType.BOOLEAN) {
+            record.addTuple(new BooleanDataPoint(measurements.get(column), parseBoolean(value)));
+          } else {
+            record.addTuple(DataPoint.getDataPoint(dataTypes.get(column),
+                measurements.get(column), value));
+          }
+        } catch (UnSupportedDataTypeException e) {
+          throw new IllegalArgumentException(e.getMessage(), e);
+        }
+      }
+      if (record != null) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+
+  /**
+   * parse a boolean by the rules of the server for inserted values: true or false in any case, 1 or
+   * 0.
+   */
+  static boolean parseBoolean(String value) {
+    switch (value.toLowerCase()) {
+      case "true":
+      case "1":
+        return true;
+      case "false":
+      case "0":
+        return false;
+      default:
+        throw new IllegalArgumentException(String.format(
+            "the BOOLEAN value should be true/TRUE, false/FALSE, 1 or 0, but is %s", value));
+    }
+  }
+
+  /**
+   * split a line into the given number of fields, the last field keeps the rest of the line.
+   */
+  private static String[] split(String line, int fieldNum) {
+    String[] fields = new String[fieldNum];
+    int start = 0;
+    for (int i = 0; i < fieldNum - 1; i++) {
+      int end = line.indexOf(SEPARATOR, start);
+      if (end < 0) {
+        throw new IllegalArgumentException(String.format(
+            "the line has %d fields but %d are expected", i + 1, fieldNum));
+      }
+      fields[i] = line.substring(start, end);
+      start = end + 1;
+    }
+    fields[fieldNum - 1] = line.substring(start);
+    return fields;
+  }
+
+  /**
+   * parse a time which is either a number of milliseconds or in one of the supported formats.
+   */
+  long parseTime(String str) {
+    if (str.isEmpty()) {
+      throw new IllegalArgumentException("the time is empty");
+    }
+    if (Character.isDigit(str.charAt(str.length() - 1)) && str.indexOf(':') < 0) {
+      try {
+        return Long.parseLong(str);
+      } catch (NumberFormatException e) {
+        // it is a formatted time
+      }
+    }
+    if (lastTimeFormatter != null) {
+      try {
+        return parseTime(str, lastTimeFormatter);
+      } catch (DateTimeException e) {
+        // the time has another format
+      }
+    }
+    for (DateTimeFormatter formatter : TIME_FORMATTERS) {
+      try {
+        long time = parseTime(str, formatter);
+        lastTimeFormatter = formatter;
+        return time;
+      } catch (DateTimeException e) {
+        // try the next format
+      }
+    }
+    throw new IllegalArgumentException(String.format("the format of time %s is not supported",
+        str));
+  }
+
+  private long parseTime(String str, DateTimeFormatter formatter) {
+    TemporalAccessor time = formatter.parse(str);
+    if (time.isSupported(ChronoField.OFFSET_SECONDS)) {
+      return OffsetDateTime.from(time).toInstant().toEpochMilli();
+    }
+    return LocalDateTime.from(time).atZone(zoneId).toInstant().toEpochMilli();
+  }
+}
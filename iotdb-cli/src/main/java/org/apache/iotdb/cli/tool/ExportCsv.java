@@ -21,9 +21,12 @@ package org.apache.iotdb.cli.tool;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -32,6 +35,16 @@ import java.sql.Statement;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 import jline.console.ConsoleReader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -42,11 +55,18 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.iotdb.cli.exception.ArgsErrorException;
 import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.jdbc.Constant;
 import org.apache.iotdb.jdbc.IoTDBConnection;
+import org.apache.iotdb.jdbc.IoTDBMetadataResultSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.thrift.TException;
 
 /**
- * Export CSV file.
+ * Export CSV file. Besides the result of queries, the timeseries under some paths can be exported
+ * in sharded mode: the timeseries are split by device and the time range into shards, which are
+ * queried on several connections at the same time and each written into a compressed csv file, a
+ * compressed columnar binary file or a tsfile.
  *
  * @author aru cheng
  * @version 1.0.0 20170719
@@ -70,7 +90,47 @@ public class ExportCsv extends AbstractCsvTool {
   private static String targetDirectory;
 
   private static final int EXPORT_PER_LINE_COUNT = 10000;
-  
+
+  private static final String SERIES_ARGS = "sp";
+  private static final String SERIES_NAME = "seriesPaths";
+
+  private static final String START_TIME_ARGS = "st";
+  private static final String START_TIME_NAME = "startTime";
+
+  private static final String END_TIME_ARGS = "et";
+  private static final String END_TIME_NAME = "endTime";
+
+  private static final String THREAD_NUM_ARGS = "tn";
+  private static final String THREAD_NUM_NAME = "threadNumber";
+  private static final int DEFAULT_THREAD_NUM = 4;
+
+  private static final String TIME_SHARD_NUM_ARGS = "sn";
+  private static final String TIME_SHARD_NUM_NAME = "timeShardNumber";
+
+  private static final String OUTPUT_FORMAT_ARGS = "of";
+  private static final String OUTPUT_FORMAT_NAME = "outputFormat";
+  private static final String FORMAT_CSV = "csv";
+  private static final String FORMAT_BINARY = "binary";
+  private static final String FORMAT_TSFILE = "tsfile";
+
+  private static final int COMPRESS_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * the paths of the timeseries exported in sharded mode, null if the result of queries is
+   * exported.
+   */
+  private static String seriesPaths;
+  private static String startTimeStr;
+  private static String endTimeStr;
+  private static int threadNum = DEFAULT_THREAD_NUM;
+  private static int timeShardNum = DEFAULT_THREAD_NUM;
+  private static String outputFormat = FORMAT_CSV;
+
+  /**
+   * the formatter of the exported times, null if they are exported as numbers.
+   */
+  private static DateTimeFormatter timeFormatter;
+
   /**
    * main function of export csv tool.
    */
@@ -108,6 +168,7 @@ public class ExportCsv extends AbstractCsvTool {
       if (!checkTimeFormat()) {
         return;
       }
+      timeFormatter = createTimeFormatter();
       Class.forName(Config.JDBC_DRIVER_NAME);
 
       String sqlFile = commandLine.getOptionValue(SQL_FILE_ARGS);
@@ -117,7 +178,9 @@ public class ExportCsv extends AbstractCsvTool {
           .getConnection(Config.IOTDB_URL_PREFIX + host + ":" + port + "/", username, password);
       setTimeZone();
 
-      if (sqlFile == null) {
+      if (seriesPaths != null) {
+        exportShards();
+      } else if (sqlFile == null) {
         sql = reader.readLine(TSFILEDB_CLI_PREFIX + "> please input query: ");
         String[] values = sql.trim().split(";");
         for (int i = 0; i < values.length; i++) {
@@ -137,6 +200,9 @@ public class ExportCsv extends AbstractCsvTool {
       System.out.println("Failed to operate on file, because " + e.getMessage());
     } catch (ArgsErrorException e) {
       System.out.println("Invalid args: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.out.println("Export is interrupted");
     } finally {
       reader.close();
       if (connection != null) {
@@ -160,6 +226,43 @@ public class ExportCsv extends AbstractCsvTool {
     if (!targetDirectory.endsWith(File.separator)) {
       targetDirectory += File.separator;
     }
+    seriesPaths = commandLine.getOptionValue(SERIES_ARGS);
+    startTimeStr = commandLine.getOptionValue(START_TIME_ARGS);
+    endTimeStr = commandLine.getOptionValue(END_TIME_ARGS);
+    if ((startTimeStr == null) != (endTimeStr == null)) {
+      throw new ArgsErrorException(String.format("%s and %s should be given together",
+          START_TIME_NAME, END_TIME_NAME));
+    }
+    threadNum = parsePositiveInt(commandLine, THREAD_NUM_ARGS, THREAD_NUM_NAME,
+        DEFAULT_THREAD_NUM);
+    timeShardNum = parsePositiveInt(commandLine, TIME_SHARD_NUM_ARGS, TIME_SHARD_NUM_NAME,
+        threadNum);
+    outputFormat = commandLine.getOptionValue(OUTPUT_FORMAT_ARGS, FORMAT_CSV);
+    if (!FORMAT_CSV.equals(outputFormat) && !FORMAT_BINARY.equals(outputFormat)
+        && !FORMAT_TSFILE.equals(outputFormat)) {
+      throw new ArgsErrorException(String.format("%s should be %s, %s or %s, but is %s",
+          OUTPUT_FORMAT_NAME, FORMAT_CSV, FORMAT_BINARY, FORMAT_TSFILE, outputFormat));
+    }
+  }
+
+  private static DateTimeFormatter createTimeFormatter() {
+    switch (timeFormat) {
+      case "default":
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+      case "timestamp":
+      case "long":
+      case "number":
+        return null;
+      default:
+        return DateTimeFormatter.ofPattern(timeFormat);
+    }
+  }
+
+  private static String formatTime(long time) {
+    if (timeFormatter == null) {
+      return Long.toString(time);
+    }
+    return ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), zoneId).format(timeFormatter);
   }
 
   /**
@@ -213,6 +316,38 @@ public class ExportCsv extends AbstractCsvTool {
         .desc("Time Zone eg. +08:00 or -01:00 (optional)").build();
     options.addOption(opTimeZone);
 
+    Option opSeries = Option.builder(SERIES_ARGS).argName(SERIES_NAME).hasArg()
+        .desc("Export the timeseries under these comma separated paths in sharded mode instead "
+            + "of the result of queries, into files named like <targetFile>-<shard> (optional)")
+        .build();
+    options.addOption(opSeries);
+
+    Option opStartTime = Option.builder(START_TIME_ARGS).argName(START_TIME_NAME).hasArg()
+        .desc("The first time exported in sharded mode, a number or a formatted time "
+            + "(optional)").build();
+    options.addOption(opStartTime);
+
+    Option opEndTime = Option.builder(END_TIME_ARGS).argName(END_TIME_NAME).hasArg()
+        .desc("The last time exported in sharded mode, a number or a formatted time "
+            + "(optional)").build();
+    options.addOption(opEndTime);
+
+    Option opThreadNum = Option.builder(THREAD_NUM_ARGS).argName(THREAD_NUM_NAME).hasArg()
+        .desc("Number of threads exporting shards, each one with its own connection, default "
+            + DEFAULT_THREAD_NUM + " (optional)").build();
+    options.addOption(opThreadNum);
+
+    Option opTimeShardNum = Option.builder(TIME_SHARD_NUM_ARGS).argName(TIME_SHARD_NUM_NAME)
+        .hasArg().desc("Number of shards the time range of a device is split into, default the "
+            + "number of threads (optional)").build();
+    options.addOption(opTimeShardNum);
+
+    Option opOutputFormat = Option.builder(OUTPUT_FORMAT_ARGS).argName(OUTPUT_FORMAT_NAME)
+        .hasArg().desc("Format of the files in sharded mode: " + FORMAT_CSV + " or "
+            + FORMAT_BINARY + " compressed by gzip, or " + FORMAT_TSFILE + ", default "
+            + FORMAT_CSV + " (optional)").build();
+    options.addOption(opOutputFormat);
+
     Option opHelp = Option.builder(HELP_ARGS).longOpt(HELP_ARGS).hasArg(false)
         .desc("Display help information")
         .build();
@@ -276,6 +411,172 @@ public class ExportCsv extends AbstractCsvTool {
     }
   }
 
+  /**
+   * export the timeseries under seriesPaths in shards, each of which is queried on a connection
+   * of its own by one of threadNum threads. A shard which fails does not stop the others.
+   */
+  private static void exportShards()
+      throws SQLException, ArgsErrorException, InterruptedException {
+    List<String> timeseries = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<TSEncoding> encodings = new ArrayList<>();
+    Set<String> seriesSet = new HashSet<>();
+    DatabaseMetaData databaseMetaData = connection.getMetaData();
+    for (String path : seriesPaths.split(",")) {
+      ResultSet resultSet = databaseMetaData.getColumns(Constant.CATALOG_TIMESERIES, path.trim(),
+          null, null);
+      while (resultSet.next()) {
+        String series = resultSet.getString(IoTDBMetadataResultSet.GET_STRING_TIMESERIES_NAME);
+        if (seriesSet.add(series)) {
+          timeseries.add(series);
+          dataTypes.add(TSDataType.valueOf(
+              resultSet.getString(IoTDBMetadataResultSet.GET_STRING_TIMESERIES_DATATYPE)));
+          encodings.add(TSEncoding.valueOf(
+              resultSet.getString(IoTDBMetadataResultSet.GET_STRING_TIMESERIES_ENCODING)));
+        }
+      }
+    }
+    if (timeseries.isEmpty()) {
+      System.out.println("Cannot find any timeseries under " + seriesPaths);
+      return;
+    }
+    Long startTime = null;
+    Long endTime = null;
+    if (startTimeStr != null) {
+      startTime = parseTime(startTimeStr, START_TIME_NAME);
+      endTime = parseTime(endTimeStr, END_TIME_NAME);
+      if (startTime > endTime) {
+        throw new ArgsErrorException(String.format("%s %s is after %s %s", START_TIME_NAME,
+            startTimeStr, END_TIME_NAME, endTimeStr));
+      }
+    }
+    List<ExportShard> shards = ExportShard.split(timeseries, dataTypes, encodings, startTime,
+        endTime, timeShardNum);
+    System.out.println(String.format("Start to export %d timeseries in %d shards with %d threads",
+        timeseries.size(), shards.size(), threadNum));
+
+    long exportStartTime = System.currentTimeMillis();
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (ExportShard shard : shards) {
+        futures.add(pool.submit(() -> exportShard(shard)));
+      }
+      long lines = 0;
+      int failedShards = 0;
+      for (int i = 0; i < shards.size(); i++) {
+        try {
+          lines += futures.get(i).get();
+        } catch (ExecutionException e) {
+          failedShards++;
+          System.out.println(String.format("Cannot export shard %d %s because: %s", i,
+              shards.get(i), e.getCause().getMessage()));
+        }
+      }
+      System.out.println(String.format("Export of %d shards finished, %d of them failed. It costs "
+              + "%dms to export %d lines.", shards.size(), failedShards,
+          System.currentTimeMillis() - exportStartTime, lines));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static long parseTime(String str, String name) throws ArgsErrorException {
+    try {
+      return new CsvRecordParser(Collections.emptyList(), Collections.emptyList(), zoneId)
+          .parseTime(str.trim());
+    } catch (IllegalArgumentException e) {
+      throw new ArgsErrorException(String.format("Cannot parse %s %s: %s", name, str,
+          e.getMessage()));
+    }
+  }
+
+  /**
+   * query the data of a shard on a new connection and write it into the file of the shard.
+   *
+   * @return the number of exported lines
+   */
+  private static int exportShard(ExportShard shard) throws SQLException, IOException {
+    long startTime = System.currentTimeMillis();
+    File file = new File(getShardFilePath(shard));
+    int line = 0;
+    try (IoTDBConnection shardConnection = (IoTDBConnection) DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + host + ":" + port + "/", username, password);
+        Statement statement = shardConnection.createStatement();
+        ResultSet rs = statement.executeQuery(shard.getSql())) {
+      ResultSetMetaData metadata = rs.getMetaData();
+      int count = metadata.getColumnCount();
+      List<String> columns = new ArrayList<>();
+      for (int i = 1; i <= count; i++) {
+        columns.add(metadata.getColumnLabel(i));
+      }
+      ExportWriter writer = createShardWriter(file, shard, columns);
+      try {
+        while (rs.next()) {
+          // a new array for each row, as the binary writer keeps the rows of a block
+          String[] values = new String[count - 1];
+          for (int j = 2; j <= count; j++) {
+            String value = rs.getString(j);
+            values[j - 2] = value == null || "null".equals(value) ? null : value;
+          }
+          writer.write(rs.getLong(1), values);
+          line++;
+        }
+      } finally {
+        writer.close();
+      }
+    }
+    System.out.println(String.format("Shard %d %s has dumped to file %s successfully! It costs "
+        + "%dms to export %d lines.", shard.getIndex(), shard, file.getPath(),
+        System.currentTimeMillis() - startTime, line));
+    return line;
+  }
+
+  private static String getShardFilePath(ExportShard shard) {
+    String path = targetDirectory + targetFile + "-" + shard.getIndex();
+    switch (outputFormat) {
+      case FORMAT_BINARY:
+        return path + ".bin.gz";
+      case FORMAT_TSFILE:
+        return path + ".tsfile";
+      default:
+        return path + ".csv.gz";
+    }
+  }
+
+  /**
+   * @param columns the labels of the columns of the result of the shard, the time column
+   * included
+   */
+  private static ExportWriter createShardWriter(File file, ExportShard shard,
+      List<String> columns) throws IOException {
+    List<String> valueColumns = columns.subList(1, columns.size());
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<TSEncoding> encodings = new ArrayList<>();
+    List<String> measurements = new ArrayList<>();
+    for (String column : valueColumns) {
+      if (shard.getDataType(column) == null) {
+        throw new IOException("Unknown timeseries " + column + " in the result");
+      }
+      dataTypes.add(shard.getDataType(column));
+      encodings.add(shard.getEncoding(column));
+      measurements.add(column.substring(column.lastIndexOf('.') + 1));
+    }
+    if (FORMAT_TSFILE.equals(outputFormat)) {
+      return new TsFileExportWriter(file, shard.getDevice(), measurements, dataTypes, encodings);
+    }
+    OutputStream out = new GZIPOutputStream(new FileOutputStream(file), COMPRESS_BUFFER_SIZE);
+    try {
+      if (FORMAT_BINARY.equals(outputFormat)) {
+        return new BinaryExportWriter(out, valueColumns, dataTypes);
+      }
+      return new CsvExportWriter(out, columns, ExportCsv::formatTime);
+    } catch (IOException e) {
+      out.close();
+      throw e;
+    }
+  }
+
   private static void writeMetadata(BufferedWriter bw, int count, ResultSetMetaData metadata)
       throws SQLException, IOException {
     for (int i = 1; i <= count; i++) {
@@ -310,24 +611,7 @@ public class ExportCsv extends AbstractCsvTool {
   }
 
   private static void writeTime(ResultSet rs, BufferedWriter bw) throws SQLException, IOException {
-    ZonedDateTime dateTime;
-    switch (timeFormat) {
-      case "default":
-        dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(rs.getLong(1)),
-            zoneId);
-        bw.write(dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) + ",");
-        break;
-      case "timestamp":
-      case "long":
-      case "nubmer":
-        bw.write(rs.getLong(1) + ",");
-        break;
-      default:
-        dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(rs.getLong(1)),
-            zoneId);
-        bw.write(dateTime.format(DateTimeFormatter.ofPattern(timeFormat)) + ",");
-        break;
-    }
+    bw.write(formatTime(rs.getLong(1)) + ",");
   }
 
   private static void writeValue(ResultSet rs, int count, BufferedWriter bw)
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+/**
+ * ExportShard is a part of the data exported by ExportCsv in sharded mode: the timeseries of one
+ * device in one time range. Each shard is queried on a connection of its own and written into a
+ * file of its own.
+ */
+public class ExportShard {
+
+  private int index;
+  private String device;
+  private List<String> measurements;
+  private Map<String, TSDataType> dataTypes;
+  private Map<String, TSEncoding> encodings;
+
+  /**
+   * the bounds of the time range, both inclusive, or null if the time is not restricted.
+   */
+  private Long startTime;
+  private Long endTime;
+
+  private ExportShard(int index, String device, List<String> measurements,
+      Map<String, TSDataType> dataTypes, Map<String, TSEncoding> encodings, Long startTime,
+      Long endTime) {
+    this.index = index;
+    this.device = device;
+    this.measurements = measurements;
+    this.dataTypes = dataTypes;
+    this.encodings = encodings;
+    this.startTime = startTime;
+    this.endTime = endTime;
+  }
+
+  /**
+   * split the timeseries into one group for each device, and the time range into timeShardNum
+   * ranges of the same length, and make a shard for each group and range.
+   *
+   * @param timeseries the full paths of the timeseries to export
+   * @param dataTypes the data types of the timeseries
+   * @param encodings the encodings of the timeseries
+   * @param startTime the first time to export, or null if the time is not restricted
+   * @param endTime the last time to export, or null if the time is not restricted
+   * @param timeShardNum the number of ranges the time range is split into, a range with less
+   * than one millisecond is not split any more
+   */
+  public static List<ExportShard> split(List<String> timeseries, List<TSDataType> dataTypes,
+      List<TSEncoding> encodings, Long startTime, Long endTime, int timeShardNum) {
+    Map<String, List<Integer>> deviceToSeries = new LinkedHashMap<>();
+    for (int i = 0; i < timeseries.size(); i++) {
+      String path = timeseries.get(i);
+      deviceToSeries.computeIfAbsent(path.substring(0, path.lastIndexOf('.')),
+          k -> new ArrayList<>()).add(i);
+    }
+    List<long[]> timeRanges = splitTimeRange(startTime, endTime, timeShardNum);
+
+    List<ExportShard> shards = new ArrayList<>();
+    for (Map.Entry<String, List<Integer>> entry : deviceToSeries.entrySet()) {
+      List<String> measurements = new ArrayList<>();
+      Map<String, TSDataType> seriesTypes = new LinkedHashMap<>();
+      Map<String, TSEncoding> seriesEncodings = new LinkedHashMap<>();
+      for (int i : entry.getValue()) {
+        String path = timeseries.get(i);
+        measurements.add(path.substring(path.lastIndexOf('.') + 1));
+        seriesTypes.put(path, dataTypes.get(i));
+        seriesEncodings.put(path, encodings.get(i));
+      }
+      for (long[] timeRange : timeRanges) {
+        shards.add(new ExportShard(shards.size(), entry.getKey(), measurements, seriesTypes,
+            seriesEncodings, timeRange == null ? null : timeRange[0],
+            timeRange == null ? null : timeRange[1]));
+      }
+    }
+    return shards;
+  }
+
+  private static List<long[]> splitTimeRange(Long startTime, Long endTime, int timeShardNum) {
+    if (startTime == null || endTime == null) {
+      return Collections.singletonList(null);
+    }
+    List<long[]> timeRanges = new ArrayList<>();
+    if (startTime > endTime) {
+      return timeRanges;
+    }
+    // the span may not fit in a signed long (e.g. from Long.MIN_VALUE to Long.MAX_VALUE), so it
+    // is computed as unsigned. The length of a range is rounded up, so the last range may be
+    // shorter than the others
+    long width = Long.divideUnsigned(endTime - startTime, timeShardNum);
+    long start = startTime;
+    while (true) {
+      long end = Long.compareUnsigned(endTime - start, width) <= 0 ? endTime : start + width;
+      timeRanges.add(new long[]{start, end});
+      if (end == endTime) {
+        return timeRanges;
+      }
+      start = end + 1;
+    }
+  }
+
+  /**
+   * @return the query of the data of the shard
+   */
+  public String getSql() {
+    StringBuilder builder = new StringBuilder("select ");
+    builder.append(String.join(",", measurements)).append(" from ").append(device);
+    if (startTime != null) {
+      builder.append(" where time >= ").append(startTime).append(" and time <= ").append(endTime);
+    }
+    return builder.toString();
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getDevice() {
+    return device;
+  }
+
+  /**
+   * @return the data type of a timeseries of the shard by its full path
+   */
+  public TSDataType getDataType(String path) {
+    return dataTypes.get(path);
+  }
+
+  /**
+   * @return the encoding of a timeseries of the shard by its full path
+   */
+  public TSEncoding getEncoding(String path) {
+    return encodings.get(path);
+  }
+
+  public Long getStartTime() {
+    return startTime;
+  }
+
+  public Long getEndTime() {
+    return endTime;
+  }
+
+  @Override
+  public String toString() {
+    return startTime == null ? device : String.format("%s [%d, %d]", device, startTime, endTime);
+  }
+}
@@ -30,12 +30,15 @@ import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import jline.console.ConsoleReader;
 import me.tongfei.progressbar.ProgressBar;
 import org.apache.commons.cli.CommandLine;
@@ -50,12 +53,20 @@ import org.apache.iotdb.cli.exception.ArgsErrorException;
 import org.apache.iotdb.jdbc.Config;
 import org.apache.iotdb.jdbc.Constant;
 import org.apache.iotdb.jdbc.IoTDBConnection;
+import org.apache.iotdb.jdbc.IoTDBMetadataResultSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * read a CSV formatted data File and insert all the data into IoTDB.
+ * read a CSV formatted data File and insert all the data into IoTDB. The lines are parsed and
+ * inserted by several threads, each one with its own connection, or written into tsfiles in
+ * offline mode.
  *
  * @author zhanggr
  */
@@ -67,14 +78,38 @@ public class ImportCsv extends AbstractCsvTool {
   private static final String TSFILEDB_CLI_PREFIX = "ImportCsv";
   private static final String ERROR_INFO_STR = "csvInsertError.error";
 
-  private static final String STRING_DATA_TYPE = "TEXT";
-  private static final int BATCH_EXECUTE_COUNT = 100;
+  private static final String THREAD_NUM_ARGS = "tn";
+  private static final String THREAD_NUM_NAME = "threadNumber";
+  private static final int DEFAULT_THREAD_NUM = 4;
+
+  private static final String BATCH_SIZE_ARGS = "bs";
+  private static final String BATCH_SIZE_NAME = "batchSize";
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+
+  private static final String TSFILE_DIR_ARGS = "td";
+  private static final String TSFILE_DIR_NAME = "tsfileDirectory";
+  private static final String TSFILE_SUFFIX = ".tsfile";
+
+  /**
+   * the mark put into the queue of line batches after the last batch, one for each thread.
+   */
+  private static final List<String> END_OF_BATCHES = new ArrayList<>();
 
   private static String errorInsertInfo = "";
-  private static boolean errorFlag;
+  private static volatile boolean errorFlag;
 
-  private static int count;
-  private static Statement statement;
+  /**
+   * set when an importing thread cannot write any more, so that reading the file stops.
+   */
+  private static volatile boolean aborted;
+
+  private static int threadNum = DEFAULT_THREAD_NUM;
+  private static int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * the directory of the tsfiles written in offline mode, null in online mode.
+   */
+  private static String tsFileDirectory;
 
   /**
    * create the commandline options.
@@ -116,6 +151,21 @@ public class ImportCsv extends AbstractCsvTool {
         .desc("Time Zone eg. +08:00 or -01:00 (optional)").build();
     options.addOption(opTimeZone);
 
+    Option opThreadNum = Option.builder(THREAD_NUM_ARGS).argName(THREAD_NUM_NAME).hasArg()
+        .desc("Number of threads importing data, each one with its own connection, default "
+            + DEFAULT_THREAD_NUM + " (optional)").build();
+    options.addOption(opThreadNum);
+
+    Option opBatchSize = Option.builder(BATCH_SIZE_ARGS).argName(BATCH_SIZE_NAME).hasArg()
+        .desc("Number of lines inserted in a batch, default " + DEFAULT_BATCH_SIZE
+            + " (optional)").build();
+    options.addOption(opBatchSize);
+
+    Option opTsFileDir = Option.builder(TSFILE_DIR_ARGS).argName(TSFILE_DIR_NAME).hasArg()
+        .desc("Write the data into tsfiles under this directory instead of inserting it, "
+            + "the schema is still read from the server (optional)").build();
+    options.addOption(opTsFileDir);
+
     return options;
   }
 
@@ -123,7 +173,6 @@ public class ImportCsv extends AbstractCsvTool {
    * Data from csv To tsfile.
    */
   private static void loadDataFromCSV(File file, int index) {
-    statement = null;
     int fileLine;
     try {
       fileLine = getFileLineCount(file);
@@ -142,7 +191,9 @@ public class ImportCsv extends AbstractCsvTool {
     }
     System.out.println("Start to import data from: " + file.getName());
     errorFlag = true;
-    try(BufferedReader br = new BufferedReader(new FileReader(file));
+    aborted = false;
+    List<RecordSink> sinks = new ArrayList<>();
+    try (BufferedReader br = new BufferedReader(new FileReader(file));
         BufferedWriter bw = new BufferedWriter(new FileWriter(errorFile));
         ProgressBar pb = new ProgressBar("Import from: " + file.getName(), fileLine)) {
       pb.setExtraMessage("Importing...");
@@ -155,13 +206,6 @@ public class ImportCsv extends AbstractCsvTool {
       bw.newLine();
       bw.newLine();
 
-      // storage csv table head info
-      Map<String, ArrayList<Integer>> deviceToColumn = new HashMap<>();
-      // storage csv table head info
-      List<String> colInfo = new ArrayList<>();
-      // storage csv device sensor info, corresponding csv table head
-      List<String> headInfo = new ArrayList<>();
-
       String[] strHeadInfo = header.split(",");
       if (strHeadInfo.length <= 1) {
         System.out.println("The CSV file "+ file.getName() +" illegal, please check first line");
@@ -169,37 +213,55 @@ public class ImportCsv extends AbstractCsvTool {
       }
 
       long startTime = System.currentTimeMillis();
-      Map<String, String> timeseriesDataType = new HashMap<>();
+      // the timeseries of the columns of the csv file and their data types and encodings
+      List<String> timeseries = new ArrayList<>();
+      List<TSDataType> dataTypes = new ArrayList<>();
+      List<TSEncoding> encodings = new ArrayList<>();
 
-      boolean success = queryDatabaseMeta(strHeadInfo, file, bw, timeseriesDataType, headInfo,
-          deviceToColumn, colInfo);
+      boolean success = queryDatabaseMeta(strHeadInfo, file, bw, timeseries, dataTypes,
+          encodings);
       if (!success) {
         errorFlag = false;
         return;
       }
 
-      statement = connection.createStatement();
-
-
-      List<String> tmp = new ArrayList<>();
-      success = readAndGenSqls(br, timeseriesDataType, deviceToColumn, colInfo, headInfo,
-          bw, tmp, pb);
-      if (!success) {
-        return;
+      FileSchema schema = null;
+      if (tsFileDirectory != null) {
+        schema = createFileSchema(timeseries, dataTypes, encodings, file, bw);
+        if (schema == null) {
+          errorFlag = false;
+          return;
+        }
+      }
+      for (int i = 0; i < threadNum; i++) {
+        if (schema == null) {
+          sinks.add(new JdbcRecordSink(host, port, username, password));
+        } else {
+          String tsFileName = file.getName().substring(0, file.getName().length()
+              - FILE_SUFFIX.length() - 1) + "-" + i + TSFILE_SUFFIX;
+          sinks.add(new TsFileRecordSink(new File(tsFileDirectory, tsFileName), schema));
+        }
       }
 
-      executeSqls(bw, tmp, startTime, file);
-      pb.stepTo(fileLine);
+      importLines(br, bw, pb, timeseries, dataTypes, sinks);
+      if (!aborted) {
+        pb.stepTo(fileLine);
+        System.out.println(String.format("Import from %s finished, it costs %dms",
+            file.getName(), System.currentTimeMillis() - startTime));
+      }
     } catch (FileNotFoundException e) {
       System.out.println("Cannot find " + file.getName() + " because: "+e.getMessage());
     } catch (IOException e) {
       System.out.println("CSV file read exception because: " + e.getMessage());
     } catch (SQLException e) {
       System.out.println("Database connection exception because: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.out.println("Import from " + file.getName() + " is interrupted");
     } finally {
       try {
-        if (statement != null) {
-          statement.close();
+        for (RecordSink sink : sinks) {
+          sink.close();
         }
         if (errorFlag) {
           FileUtils.forceDelete(errorFile);
@@ -215,101 +277,127 @@ public class ImportCsv extends AbstractCsvTool {
     }
   }
 
-  private static void executeSqls(BufferedWriter bw, List<String> tmp, long startTime, File file)
-      throws IOException {
+  /**
+   * read the lines of a csv file in batches of batchSize lines and let threadNum threads parse
+   * and write them, each thread into its own sink. The queue between the reading and the
+   * importing threads is bounded, so reading waits when the importing threads fall behind.
+   */
+  private static void importLines(BufferedReader br, BufferedWriter bw, ProgressBar pb,
+      List<String> timeseries, List<TSDataType> dataTypes, List<RecordSink> sinks)
+      throws IOException, InterruptedException {
+    BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(threadNum * 2);
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    List<Future<Void>> futures = new ArrayList<>(threadNum);
     try {
-      int[] result = statement.executeBatch();
-      for (int i = 0; i < result.length; i++) {
-        if (result[i] != Statement.SUCCESS_NO_INFO && i < tmp.size()) {
-          bw.write(tmp.get(i));
-          bw.newLine();
-          errorFlag = false;
+      for (RecordSink sink : sinks) {
+        CsvRecordParser parser = new CsvRecordParser(timeseries, dataTypes, zoneId);
+        futures.add(pool.submit(() -> {
+          importBatches(queue, parser, sink, bw);
+          return null;
+        }));
+      }
+      List<String> lines = new ArrayList<>(batchSize);
+      String line;
+      while (!aborted && (line = br.readLine()) != null) {
+        lines.add(line);
+        if (lines.size() == batchSize) {
+          putBatch(queue, lines);
+          pb.stepBy(lines.size());
+          lines = new ArrayList<>(batchSize);
         }
       }
-      statement.clearBatch();
-      tmp.clear();
-    } catch (SQLException e) {
-      bw.write(e.getMessage());
-      bw.newLine();
-      errorFlag = false;
-      System.out.println("Cannot execute sql because: " + e.getMessage());
+      if (!lines.isEmpty()) {
+        putBatch(queue, lines);
+      }
+      for (int i = 0; i < threadNum; i++) {
+        putBatch(queue, END_OF_BATCHES);
+      }
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          writeError(bw, String.valueOf(cause));
+          System.out.println("Cannot import data because: " + cause);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
     }
   }
 
-  private static boolean readAndGenSqls(BufferedReader br, Map<String, String> timeseriesDataType,
-      Map<String, ArrayList<Integer>> deviceToColumn, List<String> colInfo,
-      List<String> headInfo, BufferedWriter bw, List<String> tmp, ProgressBar pb) throws IOException {
-    String line;
-    count = 0;
-    while ((line = br.readLine()) != null) {
-      List<String> sqls;
-      try {
-        sqls = createInsertSQL(line, timeseriesDataType, deviceToColumn, colInfo, headInfo);
-      } catch (Exception e) {
-        bw.write(String.format("error input line, maybe it is not complete: %s", line));
-        bw.newLine();
-        System.out.println("Cannot create sql for " + line + " because: " + e.getMessage());
-        errorFlag = false;
-        return false;
-      }
-      boolean success = addSqlsToBatch(sqls, tmp, bw);
-      pb.step();
-      if (!success) {
-        return false;
+  private static void putBatch(BlockingQueue<List<String>> queue, List<String> lines)
+      throws InterruptedException {
+    while (!queue.offer(lines, 1, TimeUnit.SECONDS)) {
+      if (aborted) {
+        // the importing threads have stopped, make room for the end marks
+        queue.clear();
       }
     }
-    return true;
   }
 
-  private static boolean addSqlsToBatch(List<String> sqls, List<String> tmp, BufferedWriter bw)
-      throws IOException {
-    for (String str : sqls) {
-      try {
-        count++;
-        statement.addBatch(str);
-        tmp.add(str);
-        checkBatchSize(bw, tmp);
-
-      } catch (SQLException e) {
-        bw.write(e.getMessage());
-        bw.newLine();
-        errorFlag = false;
-        System.out.println("Cannot execute sql because: " + e.getMessage());
-        return false;
+  /**
+   * parse and write the batches in the queue until the end mark. If a batch cannot be written, the
+   * other threads and the reading thread are stopped, and the failure is thrown to the future of
+   * the thread.
+   */
+  private static void importBatches(BlockingQueue<List<String>> queue, CsvRecordParser parser,
+      RecordSink sink, BufferedWriter bw) throws IOException, SQLException {
+    boolean finished = false;
+    try {
+      List<String> lines;
+      while ((lines = queue.take()) != END_OF_BATCHES) {
+        if (aborted) {
+          continue;
+        }
+        List<TSRecord> records = new ArrayList<>();
+        for (String line : lines) {
+          try {
+            records.addAll(parser.parse(line));
+          } catch (IllegalArgumentException e) {
+            writeError(bw, String.format("error input line, %s: %s", e.getMessage(), line));
+          }
+        }
+        for (TSRecord record : sink.write(records)) {
+          writeError(bw, String.format("cannot insert %s", record));
+        }
+      }
+      finished = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (!finished) {
+        aborted = true;
       }
     }
-    return true;
   }
 
-
-  private static void checkBatchSize(BufferedWriter bw, List<String> tmp)
-      throws SQLException, IOException {
-    if (count == BATCH_EXECUTE_COUNT) {
-      int[] result = statement.executeBatch();
-      for (int i = 0; i < result.length; i++) {
-        if (result[i] != Statement.SUCCESS_NO_INFO && i < tmp.size()) {
-          bw.write(tmp.get(i));
-          bw.newLine();
-          errorFlag = false;
-        }
+  private static void writeError(BufferedWriter bw, String errorInfo) {
+    errorFlag = false;
+    synchronized (bw) {
+      try {
+        bw.write(errorInfo);
+        bw.newLine();
+      } catch (IOException e) {
+        System.out.println("Cannot write error info because: " + e.getMessage());
       }
-      statement.clearBatch();
-      count = 0;
-      tmp.clear();
     }
   }
 
   private static boolean queryDatabaseMeta(String[] strHeadInfo, File file, BufferedWriter bw,
-      Map<String, String> timeseriesDataType, List<String> headInfo,
-      Map<String, ArrayList<Integer>> deviceToColumn,
-      List<String> colInfo)
+      List<String> timeseries, List<TSDataType> dataTypes, List<TSEncoding> encodings)
       throws SQLException, IOException {
     DatabaseMetaData databaseMetaData = connection.getMetaData();
 
     for (int i = 1; i < strHeadInfo.length; i++) {
       ResultSet resultSet = databaseMetaData.getColumns(Constant.CATALOG_TIMESERIES, strHeadInfo[i], null, null);
       if (resultSet.next()) {
-        timeseriesDataType.put(strHeadInfo[i], resultSet.getString(2));
+        dataTypes.add(TSDataType.valueOf(
+            resultSet.getString(IoTDBMetadataResultSet.GET_STRING_TIMESERIES_DATATYPE)));
+        encodings.add(TSEncoding.valueOf(
+            resultSet.getString(IoTDBMetadataResultSet.GET_STRING_TIMESERIES_ENCODING)));
       } else {
         String errorInfo = String.format("Database cannot find %s in %s, stop import!",
             strHeadInfo[i], file.getAbsolutePath());
@@ -318,71 +406,36 @@ public class ImportCsv extends AbstractCsvTool {
         bw.write(errorInfo);
         return false;
       }
-      headInfo.add(strHeadInfo[i]);
-      String deviceInfo = strHeadInfo[i].substring(0, strHeadInfo[i].lastIndexOf('.'));
-
-      if (!deviceToColumn.containsKey(deviceInfo)) {
-        deviceToColumn.put(deviceInfo, new ArrayList<>());
-      }
-      // storage every device's sensor index info
-      deviceToColumn.get(deviceInfo).add(i - 1);
-      colInfo.add(strHeadInfo[i].substring(strHeadInfo[i].lastIndexOf('.') + 1));
+      timeseries.add(strHeadInfo[i]);
     }
     return true;
   }
 
-  private static List<String> createInsertSQL(String line, Map<String, String> timeseriesToType,
-      Map<String, ArrayList<Integer>> deviceToColumn,
-      List<String> colInfo, List<String> headInfo) {
-    String[] data = line.split(",", headInfo.size() + 1);
-    List<String> sqls = new ArrayList<>();
-    Iterator<Map.Entry<String, ArrayList<Integer>>> it = deviceToColumn.entrySet().iterator();
-    while (it.hasNext()) {
-      Map.Entry<String, ArrayList<Integer>> entry = it.next();
-      String sql = createOneSql(entry, data, colInfo, timeseriesToType, headInfo);
-      if (sql != null) {
-        sqls.add(sql);
-      }
-    }
-    return sqls;
-  }
-
-  private static String createOneSql(Map.Entry<String, ArrayList<Integer>> entry, String[] data,
-      List<String> colInfo, Map<String, String> timeseriesToType, List<String> headInfo) {
-    StringBuilder sbd = new StringBuilder();
-    ArrayList<Integer> colIndex = entry.getValue();
-    sbd.append("insert into ").append(entry.getKey()).append("(timestamp");
-    int skipCount = 0;
-    for (int j = 0; j < colIndex.size(); ++j) {
-      if ("".equals(data[entry.getValue().get(j) + 1])) {
-        skipCount++;
-        continue;
-      }
-      sbd.append(", ").append(colInfo.get(colIndex.get(j)));
-    }
-    // define every device null value' number, if the number equal the
-    // sensor number, the insert operation stop
-    if (skipCount == entry.getValue().size()) {
-      return null;
-    }
-
-    // TODO when timestampsStr is empty
-    String timestampsStr = data[0];
-    sbd.append(") values(").append(timestampsStr.trim().isEmpty()
-        ? "NO TIMESTAMP" : timestampsStr);
-
-    for (int j = 0; j < colIndex.size(); ++j) {
-      if ("".equals(data[entry.getValue().get(j) + 1])) {
-        continue;
-      }
-      if (timeseriesToType.get(headInfo.get(colIndex.get(j))).equals(STRING_DATA_TYPE)) {
-        sbd.append(", \'").append(data[colIndex.get(j) + 1]).append("\'");
-      } else {
-        sbd.append(",").append(data[colIndex.get(j) + 1]);
+  /**
+   * create the schema of the tsfiles written offline. A tsfile has one schema for each
+   * measurement, so a measurement must have the same data type and encoding in all devices.
+   *
+   * @return the schema, or null if a measurement has different data types or encodings
+   */
+  private static FileSchema createFileSchema(List<String> timeseries, List<TSDataType> dataTypes,
+      List<TSEncoding> encodings, File file, BufferedWriter bw) throws IOException {
+    FileSchema schema = new FileSchema();
+    for (int i = 0; i < timeseries.size(); i++) {
+      String measurement = timeseries.get(i).substring(timeseries.get(i).lastIndexOf('.') + 1);
+      MeasurementSchema measurementSchema = schema.getMeasurementSchema(measurement);
+      if (measurementSchema == null) {
+        schema.registerMeasurement(
+            new MeasurementSchema(measurement, dataTypes.get(i), encodings.get(i)));
+      } else if (measurementSchema.getType() != dataTypes.get(i)
+          || measurementSchema.getEncodingType() != encodings.get(i)) {
+        String errorInfo = String.format("Measurement %s has different data types or encodings "
+            + "in %s, cannot write it into tsfiles!", measurement, file.getAbsolutePath());
+        System.out.println(errorInfo);
+        bw.write(errorInfo);
+        return null;
       }
     }
-    sbd.append(")");
-    return sbd.toString();
+    return schema;
   }
 
   public static void main(String[] args) throws IOException, SQLException {
@@ -430,8 +483,17 @@ public class ImportCsv extends AbstractCsvTool {
     }
   }
 
-  private static void parseSpecialParams(CommandLine commandLine) {
+  private static void parseSpecialParams(CommandLine commandLine) throws ArgsErrorException {
     timeZoneID = commandLine.getOptionValue(TIME_ZONE_ARGS);
+    threadNum = parsePositiveInt(commandLine, THREAD_NUM_ARGS, THREAD_NUM_NAME,
+        DEFAULT_THREAD_NUM);
+    batchSize = parsePositiveInt(commandLine, BATCH_SIZE_ARGS, BATCH_SIZE_NAME,
+        DEFAULT_BATCH_SIZE);
+    tsFileDirectory = commandLine.getOptionValue(TSFILE_DIR_ARGS);
+    if (tsFileDirectory != null && !new File(tsFileDirectory).isDirectory()
+        && !new File(tsFileDirectory).mkdirs()) {
+      throw new ArgsErrorException("Cannot create tsfile directory " + tsFileDirectory);
+    }
   }
 
   public static void importCsvFromFile(String ip, String port, String username,
@@ -443,6 +505,10 @@ public class ImportCsv extends AbstractCsvTool {
     } else {
       errorInsertInfo = property + File.separatorChar + ERROR_INFO_STR;
     }
+    host = ip;
+    AbstractCsvTool.port = port;
+    AbstractCsvTool.username = username;
+    AbstractCsvTool.password = password;
     try {
       Class.forName(Config.JDBC_DRIVER_NAME);
       connection = (IoTDBConnection) DriverManager.getConnection(Config.IOTDB_URL_PREFIX
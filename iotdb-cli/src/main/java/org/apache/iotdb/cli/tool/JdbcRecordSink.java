@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.jdbc.IoTDBStatement;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+
+/**
+ * JdbcRecordSink inserts records into IoTDB through a connection of its own. The records of a
+ * batch are sent as rows grouped by device by one insertBatch RPC, so no SQL is built for them.
+ */
+public class JdbcRecordSink implements RecordSink {
+
+  private Connection connection;
+  private IoTDBStatement statement;
+
+  public JdbcRecordSink(String host, String port, String username, String password)
+      throws SQLException {
+    connection = DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + host + ":" + port + "/", username, password);
+    statement = (IoTDBStatement) connection.createStatement();
+  }
+
+  @Override
+  public List<TSRecord> write(List<TSRecord> records) throws SQLException {
+    for (TSRecord record : records) {
+      List<String> measurements = new ArrayList<>(record.dataPointList.size());
+      List<TSDataType> dataTypes = new ArrayList<>(record.dataPointList.size());
+      List<Object> values = new ArrayList<>(record.dataPointList.size());
+      for (DataPoint dataPoint : record.dataPointList) {
+        measurements.add(dataPoint.getMeasurementId());
+        dataTypes.add(dataPoint.getType());
+        values.add(dataPoint.getValue());
+      }
+      statement.addInsertBatch(record.deviceId, record.time, measurements, dataTypes, values);
+    }
+    int[] result;
+    try {
+      result = statement.executeBatch();
+    } catch (BatchUpdateException e) {
+      result = e.getUpdateCounts();
+    } finally {
+      statement.clearBatch();
+    }
+    List<TSRecord> failedRecords = new ArrayList<>();
+    for (int i = 0; i < records.size(); i++) {
+      if (i >= result.length || result[i] != Statement.SUCCESS_NO_INFO) {
+        failedRecords.add(records.get(i));
+      }
+    }
+    return failedRecords;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try {
+      statement.close();
+    } finally {
+      connection.close();
+    }
+  }
+}
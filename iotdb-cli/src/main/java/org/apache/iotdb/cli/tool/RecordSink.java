@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+
+/**
+ * RecordSink is where an import thread writes the records parsed from a csv file.
+ */
+public interface RecordSink {
+
+  /**
+   * write a batch of records.
+   *
+   * @return the records which fail to be written
+   */
+  List<TSRecord> write(List<TSRecord> records) throws IOException, SQLException;
+
+  void close() throws IOException, SQLException;
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * TsFileExportWriter writes the rows of a device into a tsfile with the data types and encodings
+ * of the timeseries in IoTDB, so that the file can be loaded into another instance or read by the
+ * tsfile tools directly.
+ */
+public class TsFileExportWriter implements ExportWriter {
+
+  private String device;
+  private String[] measurements;
+  private TSDataType[] dataTypes;
+  private TsFileWriter writer;
+
+  /**
+   * @param measurements the measurements of the columns after the time column
+   * @param dataTypes the data types of the columns
+   * @param encodings the encodings of the columns
+   */
+  public TsFileExportWriter(File file, String device, List<String> measurements,
+      List<TSDataType> dataTypes, List<TSEncoding> encodings) throws IOException {
+    this.device = device;
+    this.measurements = measurements.toArray(new String[0]);
+    this.dataTypes = dataTypes.toArray(new TSDataType[0]);
+    FileSchema schema = new FileSchema();
+    for (int i = 0; i < this.measurements.length; i++) {
+      schema.registerMeasurement(
+          new MeasurementSchema(this.measurements[i], this.dataTypes[i], encodings.get(i)));
+    }
+    this.writer = new TsFileWriter(file, schema);
+  }
+
+  @Override
+  public void write(long time, String[] values) throws IOException {
+    TSRecord record = new TSRecord(time, device);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        try {
+          record.addTuple(DataPoint.getDataPoint(dataTypes[i], measurements[i], values[i]));
+        } catch (UnSupportedDataTypeException e) {
+          throw new IOException(e.getMessage(), e);
+        }
+      }
+    }
+    if (record.dataPointList.isEmpty()) {
+      return;
+    }
+    try {
+      writer.write(record);
+    } catch (WriteProcessException e) {
+      throw new IOException("Cannot write " + record + " into tsfile", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+
+/**
+ * TsFileRecordSink writes records into a tsfile of its own instead of sending them to IoTDB, for
+ * bulk loading. The file is created when the first record is written. As each import thread
+ * takes the lines of a csv file in order, the data of a device in the file keeps the order of
+ * the csv file.
+ */
+public class TsFileRecordSink implements RecordSink {
+
+  private File file;
+  private FileSchema schema;
+  private TsFileWriter writer;
+
+  public TsFileRecordSink(File file, FileSchema schema) {
+    this.file = file;
+    // the writer registers the measurements into the schema, so each file has its own copy
+    this.schema = new FileSchema(schema.getAllMeasurementSchema());
+  }
+
+  @Override
+  public List<TSRecord> write(List<TSRecord> records) throws IOException {
+    if (writer == null) {
+      writer = new TsFileWriter(file, schema);
+    }
+    List<TSRecord> failedRecords = new ArrayList<>();
+    for (TSRecord record : records) {
+      try {
+        writer.write(record);
+      } catch (WriteProcessException e) {
+        failedRecords.add(record);
+      }
+    }
+    return failedRecords;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+    }
+  }
+}
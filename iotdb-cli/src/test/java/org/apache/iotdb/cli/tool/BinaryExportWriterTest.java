@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.junit.Test;
+
+public class BinaryExportWriterTest {
+
+  @Test
+  public void testWrite() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryExportWriter writer = new BinaryExportWriter(out,
+        Arrays.asList("root.sg.d1.s1", "root.sg.d1.s2"),
+        Arrays.asList(TSDataType.INT32, TSDataType.TEXT));
+    int rowNum = BinaryExportWriter.BLOCK_SIZE + 10;
+    for (int i = 0; i < rowNum; i++) {
+      writer.write(i, new String[]{i % 3 == 0 ? null : String.valueOf(i), "v" + i});
+    }
+    writer.close();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    byte[] magic = new byte[BinaryExportWriter.MAGIC.length()];
+    in.readFully(magic);
+    assertEquals(BinaryExportWriter.MAGIC, new String(magic, StandardCharsets.US_ASCII));
+    assertEquals(2, in.readInt());
+    assertEquals("root.sg.d1.s1", in.readUTF());
+    assertEquals(TSDataType.INT32, TSDataType.deserialize(in.readShort()));
+    assertEquals("root.sg.d1.s2", in.readUTF());
+    assertEquals(TSDataType.TEXT, TSDataType.deserialize(in.readShort()));
+
+    int row = 0;
+    int rowCount;
+    while ((rowCount = in.readInt()) > 0) {
+      for (int i = 0; i < rowCount; i++) {
+        assertEquals(row + i, in.readLong());
+      }
+      byte[] bitmap = new byte[(rowCount + 7) / 8];
+      in.readFully(bitmap);
+      for (int i = 0; i < rowCount; i++) {
+        boolean hasValue = (bitmap[i / 8] & (1 << (i % 8))) != 0;
+        assertEquals((row + i) % 3 != 0, hasValue);
+        if (hasValue) {
+          assertEquals(row + i, in.readInt());
+        }
+      }
+      in.readFully(bitmap);
+      for (int i = 0; i < rowCount; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        assertEquals("v" + (row + i), new String(bytes, StandardCharsets.UTF_8));
+      }
+      row += rowCount;
+    }
+    assertEquals(rowNum, row);
+    assertEquals(-1, in.read());
+  }
+}
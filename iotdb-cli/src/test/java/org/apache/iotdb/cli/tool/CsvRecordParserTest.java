@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.junit.Test;
+
+public class CsvRecordParserTest {
+
+  private CsvRecordParser parser = new CsvRecordParser(
+      Arrays.asList("root.sg.d1.s1", "root.sg.d2.s1", "root.sg.d1.s2", "root.sg.d2.s2"),
+      Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE, TSDataType.BOOLEAN, TSDataType.TEXT),
+      ZoneId.of("+08:00"));
+
+  @Test
+  public void testParse() {
+    List<TSRecord> records = parser.parse("100,1,2.5,true,a,b");
+    assertEquals(2, records.size());
+    TSRecord record = records.get(0);
+    assertEquals("root.sg.d1", record.deviceId);
+    assertEquals(100, record.time);
+    assertEquals(2, record.dataPointList.size());
+    assertEquals(1L, record.dataPointList.get(0).getValue());
+    assertEquals("s2", record.dataPointList.get(1).getMeasurementId());
+    assertEquals(true, record.dataPointList.get(1).getValue());
+    record = records.get(1);
+    assertEquals("root.sg.d2", record.deviceId);
+    assertEquals(2.5, record.dataPointList.get(0).getValue());
+    // the last field keeps the rest of the line
+    assertEquals("a,b", ((Binary) record.dataPointList.get(1).getValue()).getStringValue());
+  }
+
+  @Test
+  public void testParseEmptyValues() {
+    List<TSRecord> records = parser.parse("100,,3.5,,");
+    assertEquals(1, records.size());
+    assertEquals("root.sg.d2", records.get(0).deviceId);
+    assertEquals(1, records.get(0).dataPointList.size());
+  }
+
+  @Test
+  public void testParseTime() {
+    assertEquals(1000, parser.parseTime("1000"));
+    assertEquals(0, parser.parseTime("1970-01-01T08:00:00+08:00"));
+    assertEquals(0, parser.parseTime("1970-01-01T08:00:00"));
+    assertEquals(1, parser.parseTime("1970-01-01T08:00:00.001+08:00"));
+    assertEquals(1000, parser.parseTime("1970-01-01 08:00:01"));
+    assertEquals(1000, parser.parseTime("1970/01/01 08:00:01"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseIncompleteLine() {
+    parser.parse("100,1,2.5");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseIllegalValue() {
+    parser.parse("100,x,2.5,true,a");
+  }
+
+  @Test
+  public void testParseBoolean() {
+    List<TSRecord> records = parser.parse("100,,,1,");
+    assertEquals(true, records.get(0).dataPointList.get(0).getValue());
+    records = parser.parse("100,,,0,");
+    assertEquals(false, records.get(0).dataPointList.get(0).getValue());
+    records = parser.parse("100,,,FALSE,");
+    assertEquals(false, records.get(0).dataPointList.get(0).getValue());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseIllegalBoolean() {
+    parser.parse("100,1,2.5,yes,a");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseIllegalTime() {
+    parser.parse("now,1,2.5,true,a");
+  }
+}
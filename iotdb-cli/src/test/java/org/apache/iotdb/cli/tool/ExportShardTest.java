@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cli.tool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Test;
+
+public class ExportShardTest {
+
+  private List<String> timeseries = Arrays.asList("root.sg.d1.s1", "root.sg.d2.s1",
+      "root.sg.d1.s2");
+  private List<TSDataType> dataTypes = Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE,
+      TSDataType.TEXT);
+  private List<TSEncoding> encodings = Arrays.asList(TSEncoding.RLE, TSEncoding.GORILLA,
+      TSEncoding.PLAIN);
+
+  @Test
+  public void testSplitByDevice() {
+    List<ExportShard> shards = ExportShard.split(timeseries, dataTypes, encodings, null, null, 4);
+    assertEquals(2, shards.size());
+    assertEquals("select s1,s2 from root.sg.d1", shards.get(0).getSql());
+    assertEquals("select s1 from root.sg.d2", shards.get(1).getSql());
+    assertEquals(1, shards.get(1).getIndex());
+    assertEquals(TSDataType.TEXT, shards.get(0).getDataType("root.sg.d1.s2"));
+    assertEquals(TSEncoding.GORILLA, shards.get(1).getEncoding("root.sg.d2.s1"));
+    assertNull(shards.get(1).getDataType("root.sg.d1.s1"));
+  }
+
+  @Test
+  public void testSplitTimeRange() {
+    List<ExportShard> shards = ExportShard.split(timeseries, dataTypes, encodings, 0L, 99L, 3);
+    assertEquals(6, shards.size());
+    assertEquals("select s1,s2 from root.sg.d1 where time >= 0 and time <= 33",
+        shards.get(0).getSql());
+    assertEquals(34, (long) shards.get(1).getStartTime());
+    assertEquals(67, (long) shards.get(1).getEndTime());
+    assertEquals(68, (long) shards.get(2).getStartTime());
+    assertEquals(99, (long) shards.get(2).getEndTime());
+    assertEquals("root.sg.d2", shards.get(3).getDevice());
+    assertEquals(0, (long) shards.get(3).getStartTime());
+  }
+
+  @Test
+  public void testSplitShortTimeRange() {
+    // a range is not split into ranges shorter than one millisecond
+    List<ExportShard> shards = ExportShard.split(timeseries.subList(0, 1),
+        dataTypes.subList(0, 1), encodings.subList(0, 1), 10L, 11L, 4);
+    assertEquals(2, shards.size());
+    assertEquals(10, (long) shards.get(0).getEndTime());
+    assertEquals(11, (long) shards.get(1).getStartTime());
+
+    shards = ExportShard.split(timeseries.subList(0, 1), dataTypes.subList(0, 1),
+        encodings.subList(0, 1), Long.MAX_VALUE - 1, Long.MAX_VALUE, 1);
+    assertEquals(1, shards.size());
+    assertEquals(Long.MAX_VALUE, (long) shards.get(0).getEndTime());
+  }
+
+  @Test
+  public void testSplitWholeTimeRange() {
+    // the span of the range overflows a signed long
+    List<ExportShard> shards = ExportShard.split(timeseries.subList(0, 1),
+        dataTypes.subList(0, 1), encodings.subList(0, 1), Long.MIN_VALUE, Long.MAX_VALUE, 1);
+    assertEquals(1, shards.size());
+    assertEquals(Long.MIN_VALUE, (long) shards.get(0).getStartTime());
+    assertEquals(Long.MAX_VALUE, (long) shards.get(0).getEndTime());
+
+    shards = ExportShard.split(timeseries.subList(0, 1), dataTypes.subList(0, 1),
+        encodings.subList(0, 1), Long.MIN_VALUE, Long.MAX_VALUE, 2);
+    assertEquals(2, shards.size());
+    assertEquals(-1, (long) shards.get(0).getEndTime());
+    assertEquals(0, (long) shards.get(1).getStartTime());
+    assertEquals(Long.MAX_VALUE, (long) shards.get(1).getEndTime());
+
+    shards = ExportShard.split(timeseries.subList(0, 1), dataTypes.subList(0, 1),
+        encodings.subList(0, 1), -10L, Long.MAX_VALUE, 4);
+    assertEquals(4, shards.size());
+    assertEquals(-10, (long) shards.get(0).getStartTime());
+    assertEquals(Long.MAX_VALUE, (long) shards.get(3).getEndTime());
+    for (int i = 1; i < shards.size(); i++) {
+      assertEquals(shards.get(i - 1).getEndTime() + 1, (long) shards.get(i).getStartTime());
+    }
+  }
+}
@@ -131,6 +131,7 @@ public class AuthorityChecker {
       case DELETE:
         return PrivilegeType.DELETE_TIMESERIES.ordinal();
       case INSERT:
+      case BATCH_INSERT:
       case LOADDATA:
       case INDEX:
         return PrivilegeType.INSERT_TIMESERIES.ordinal();
@@ -66,6 +66,29 @@ public class IoTDBConfig {
    */
   private long forceWalPeriodInMs = 10;
 
+  /**
+   * If true, each write ahead log is forced to disk before the write returns. Concurrent writes of
+   * a log node are committed in groups so that they share one write and one force.
+   */
+  private boolean enableWalGroupCommit = false;
+
+  /**
+   * The size in bytes of each of the two buffers that a group-committing log node appends to.
+   */
+  private int walGroupCommitBufferSize = 512 * 1024;
+
+  /**
+   * The size in bytes of the preallocated segment files that write ahead logs are written to
+   * through memory mapping. If it is 0, each log node appends to a single log file instead.
+   */
+  private int walSegmentSize = 0;
+
+  /**
+   * If true, the device and measurement names in insert logs are replaced by ids, which are kept
+   * in a dictionary file of each log node.
+   */
+  private boolean enableWalSchemaDictionary = false;
+
   /**
    * Data directory.
    */
@@ -170,6 +193,18 @@ public class IoTDBConfig {
    */
   private int concurrentFlushThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads evaluate the independent parts of queries, such as the aggregations of
+   * different series, in parallel. When <= 0, use CPU core number.
+   */
+  private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * At most how many parts of one query are evaluated at the same time, so that a query over many
+   * series does not occupy all query threads. When <= 0, use concurrentQueryThread.
+   */
+  private int maxQueryParallelism = Runtime.getRuntime().availableProcessors();
+
   private ZoneId zoneID = ZoneId.systemDefault();
   /**
    * BufferWriteProcessor and OverflowProcessor will immediately flush if this threshold is
@@ -199,6 +234,12 @@ public class IoTDBConfig {
    * When a bufferwrite's file size (in byte) exceed this, the bufferwrite is forced closed.
    */
   private long bufferwriteFileSizeThreshold = 2 * 1024 * 1024 * 1024L;
+  /**
+   * The length (in the unit of timestamps) of a time partition. When a record of a later partition
+   * than that of the working bufferwrite file arrives, the file is closed, so that every sealed
+   * file of a storage group holds the data of one partition. It is disabled if not positive.
+   */
+  private long partitionInterval = 0;
   /**
    * When a overflow's metadata size (in byte) exceed this, the overflow is forced closed.
    */
@@ -247,6 +288,12 @@ public class IoTDBConfig {
    * Cache size of {@code checkAndGetDataTypeCache} in {@link MManager}.
    */
   private int mManagerCacheSize = 400000;
+  /**
+   * The number of metadata operations logged between two snapshots of the metadata tree. A restart
+   * loads the latest snapshot and replays only the operations logged after it. No snapshot is taken
+   * while running if it is not positive.
+   */
+  private int mtreeSnapshotInterval = 100000;
   /**
    * The maximum size of a single log in byte. If a log exceeds this size, it cannot be written to
    * the WAL file and an exception is thrown.
@@ -264,17 +311,29 @@ public class IoTDBConfig {
    * Set the language version when loading file including error information, default value is "EN"
    */
   private String languageVersion = "EN";
-  /**
-   * Choose a postBack strategy of merging historical data: 1. It's more likely to update historical
-   * data, choose "true". 2. It's more likely not to update historical data or you don't know
-   * exactly, choose "false".
-   */
-  private boolean update_historical_data_possibility = false;
   private String ipWhiteList = "0.0.0.0/0";
   /**
    * Examining period of cache file reader : 100 seconds.
    */
   private long cacheFileReaderClearPeriod = 100000;
+  /**
+   * The maximum number of primitive arrays of each data type that are kept for reuse after the
+   * memtables holding them are flushed.
+   */
+  private int primitiveArrayPoolCapacity = 8192;
+  /**
+   * The memory budget of the cache of TsFileMetaData and TsDeviceMetadata of sealed tsfiles.
+   */
+  private long metadataCacheSizeInByte = 64 * 1024 * 1024L;
+  /**
+   * The memory budget of the cache of the chunks of sealed tsfiles read by queries. 0 disables it.
+   */
+  private long chunkCacheSizeInByte = 256 * 1024 * 1024L;
+
+  /**
+   * Whether to read sealed tsfiles through memory mapping instead of into heap buffers.
+   */
+  private boolean enableMmapFileReader = false;
 
   public IoTDBConfig() {
     // empty constructor
@@ -464,6 +523,38 @@ public class IoTDBConfig {
     this.forceWalPeriodInMs = forceWalPeriodInMs;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
+  public int getWalGroupCommitBufferSize() {
+    return walGroupCommitBufferSize;
+  }
+
+  public void setWalGroupCommitBufferSize(int walGroupCommitBufferSize) {
+    this.walGroupCommitBufferSize = walGroupCommitBufferSize;
+  }
+
+  public int getWalSegmentSize() {
+    return walSegmentSize;
+  }
+
+  public void setWalSegmentSize(int walSegmentSize) {
+    this.walSegmentSize = walSegmentSize;
+  }
+
+  public boolean isEnableWalSchemaDictionary() {
+    return enableWalSchemaDictionary;
+  }
+
+  public void setEnableWalSchemaDictionary(boolean enableWalSchemaDictionary) {
+    this.enableWalSchemaDictionary = enableWalSchemaDictionary;
+  }
+
   public String getDataDir() {
     return dataDir;
   }
@@ -620,6 +711,22 @@ public class IoTDBConfig {
     this.concurrentFlushThread = concurrentFlushThread;
   }
 
+  public int getConcurrentQueryThread() {
+    return concurrentQueryThread;
+  }
+
+  public void setConcurrentQueryThread(int concurrentQueryThread) {
+    this.concurrentQueryThread = concurrentQueryThread;
+  }
+
+  public int getMaxQueryParallelism() {
+    return maxQueryParallelism;
+  }
+
+  public void setMaxQueryParallelism(int maxQueryParallelism) {
+    this.maxQueryParallelism = maxQueryParallelism;
+  }
+
   public void setZoneID(ZoneId zoneID) {
     this.zoneID = zoneID;
   }
@@ -672,6 +779,14 @@ public class IoTDBConfig {
     this.bufferwriteFileSizeThreshold = bufferwriteFileSizeThreshold;
   }
 
+  public long getPartitionInterval() {
+    return partitionInterval;
+  }
+
+  public void setPartitionInterval(long partitionInterval) {
+    this.partitionInterval = partitionInterval;
+  }
+
   public long getOverflowMetaSizeThreshold() {
     return overflowMetaSizeThreshold;
   }
@@ -760,6 +875,14 @@ public class IoTDBConfig {
     this.mManagerCacheSize = mManagerCacheSize;
   }
 
+  public int getMtreeSnapshotInterval() {
+    return mtreeSnapshotInterval;
+  }
+
+  public void setMtreeSnapshotInterval(int mtreeSnapshotInterval) {
+    this.mtreeSnapshotInterval = mtreeSnapshotInterval;
+  }
+
   public int getMaxLogEntrySize() {
     return maxLogEntrySize;
   }
@@ -792,14 +915,6 @@ public class IoTDBConfig {
     this.languageVersion = languageVersion;
   }
 
-  public boolean isUpdate_historical_data_possibility() {
-    return update_historical_data_possibility;
-  }
-
-  public void setUpdate_historical_data_possibility(boolean update_historical_data_possibility) {
-    this.update_historical_data_possibility = update_historical_data_possibility;
-  }
-
   public String getIpWhiteList() {
     return ipWhiteList;
   }
@@ -815,4 +930,36 @@ public class IoTDBConfig {
   public void setCacheFileReaderClearPeriod(long cacheFileReaderClearPeriod) {
     this.cacheFileReaderClearPeriod = cacheFileReaderClearPeriod;
   }
+
+  public int getPrimitiveArrayPoolCapacity() {
+    return primitiveArrayPoolCapacity;
+  }
+
+  public void setPrimitiveArrayPoolCapacity(int primitiveArrayPoolCapacity) {
+    this.primitiveArrayPoolCapacity = primitiveArrayPoolCapacity;
+  }
+
+  public long getMetadataCacheSizeInByte() {
+    return metadataCacheSizeInByte;
+  }
+
+  public void setMetadataCacheSizeInByte(long metadataCacheSizeInByte) {
+    this.metadataCacheSizeInByte = metadataCacheSizeInByte;
+  }
+
+  public long getChunkCacheSizeInByte() {
+    return chunkCacheSizeInByte;
+  }
+
+  public void setChunkCacheSizeInByte(long chunkCacheSizeInByte) {
+    this.chunkCacheSizeInByte = chunkCacheSizeInByte;
+  }
+
+  public boolean isEnableMmapFileReader() {
+    return enableMmapFileReader;
+  }
+
+  public void setEnableMmapFileReader(boolean enableMmapFileReader) {
+    this.enableMmapFileReader = enableMmapFileReader;
+  }
 }
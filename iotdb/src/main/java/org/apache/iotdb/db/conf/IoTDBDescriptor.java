@@ -126,6 +126,16 @@ public class IoTDBDescriptor {
       conf.setForceWalPeriodInMs(Long
           .parseLong(properties.getProperty("force_wal_period_in_ms",
                   Long.toString(conf.getForceWalPeriodInMs()))));
+      conf.setEnableWalGroupCommit(Boolean.parseBoolean(properties.getProperty(
+          "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+      conf.setWalGroupCommitBufferSize(Integer
+          .parseInt(properties.getProperty("wal_group_commit_buffer_size",
+                  Integer.toString(conf.getWalGroupCommitBufferSize()))));
+      conf.setWalSegmentSize(Integer
+          .parseInt(properties.getProperty("wal_segment_size",
+                  Integer.toString(conf.getWalSegmentSize()))));
+      conf.setEnableWalSchemaDictionary(Boolean.parseBoolean(properties.getProperty(
+          "enable_wal_schema_dictionary", Boolean.toString(conf.isEnableWalSchemaDictionary()))));
 
       conf.setDataDir(properties.getProperty("data_dir", conf.getDataDir()));
       conf.setBufferWriteDirs(properties.getProperty("tsfile_dir", conf.DEFAULT_TSFILE_DIR)
@@ -182,6 +192,9 @@ public class IoTDBDescriptor {
       conf.setBufferwriteFileSizeThreshold(Long.parseLong(properties
           .getProperty("bufferwrite_file_size_threshold",
                   Long.toString(conf.getBufferwriteFileSizeThreshold())).trim()));
+      conf.setPartitionInterval(Long.parseLong(properties
+          .getProperty("partition_interval",
+                  Long.toString(conf.getPartitionInterval())).trim()));
 
       conf.setOverflowMetaSizeThreshold(Long.parseLong(
           properties.getProperty("overflow_meta_size_threshold",
@@ -196,9 +209,6 @@ public class IoTDBDescriptor {
       conf.setSyncServerPort(Integer
           .parseInt(properties.getProperty("sync_server_port",
                   Integer.toString(conf.getSyncServerPort())).trim()));
-      conf.setUpdate_historical_data_possibility(Boolean.parseBoolean(
-          properties.getProperty("update_historical_data_possibility",
-                  Boolean.toString(conf.isSyncEnable()))));
       conf.setIpWhiteList(properties.getProperty("IP_white_list", conf.getIpWhiteList()));
 
       if (conf.getMemThresholdWarning() <= 0) {
@@ -216,6 +226,19 @@ public class IoTDBDescriptor {
         conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setConcurrentQueryThread(Integer
+          .parseInt(properties.getProperty("concurrent_query_thread",
+                  Integer.toString(conf.getConcurrentQueryThread()))));
+      if (conf.getConcurrentQueryThread() <= 0) {
+        conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
+      }
+      conf.setMaxQueryParallelism(Integer
+          .parseInt(properties.getProperty("max_query_parallelism",
+                  Integer.toString(conf.getMaxQueryParallelism()))));
+      if (conf.getMaxQueryParallelism() <= 0) {
+        conf.setMaxQueryParallelism(conf.getConcurrentQueryThread());
+      }
+
       conf.setEnableMemMonitor(Boolean
           .parseBoolean(properties.getProperty("enable_mem_monitor",
                   Boolean.toString(conf.isEnableMemMonitor())).trim()));
@@ -231,6 +254,25 @@ public class IoTDBDescriptor {
       conf.setmManagerCacheSize(Integer
           .parseInt(properties.getProperty("schema_manager_cache_size",
                   Integer.toString(conf.getmManagerCacheSize())).trim()));
+      conf.setMtreeSnapshotInterval(Integer
+          .parseInt(properties.getProperty("mtree_snapshot_interval",
+                  Integer.toString(conf.getMtreeSnapshotInterval())).trim()));
+
+      conf.setPrimitiveArrayPoolCapacity(Integer
+          .parseInt(properties.getProperty("primitive_array_pool_capacity",
+                  Integer.toString(conf.getPrimitiveArrayPoolCapacity())).trim()));
+
+      conf.setMetadataCacheSizeInByte(Long
+          .parseLong(properties.getProperty("metadata_cache_size_in_byte",
+                  Long.toString(conf.getMetadataCacheSizeInByte())).trim()));
+
+      conf.setChunkCacheSizeInByte(Long
+          .parseLong(properties.getProperty("chunk_cache_size_in_byte",
+                  Long.toString(conf.getChunkCacheSizeInByte())).trim()));
+
+      conf.setEnableMmapFileReader(Boolean
+          .parseBoolean(properties.getProperty("enable_mmap_file_reader",
+                  Boolean.toString(conf.isEnableMmapFileReader()))));
 
       int maxLogEntrySize = Integer
           .parseInt(properties.getProperty("max_log_entry_size",
@@ -75,7 +75,7 @@ public class BufferWriteProcessor extends Processor {
 
   //lastFlushTime time unit: nanosecond
   private long lastFlushTime = -1;
-  private long valueCount = 0;
+  private AtomicLong valueCount = new AtomicLong();
 
   private String baseDir;
   private String insertFilePath;
@@ -86,6 +86,7 @@ public class BufferWriteProcessor extends Processor {
 
   private boolean isClosed = true;
   private boolean isFlush = false;
+  private volatile boolean flushRequested = false;
 
   /**
    * constructor of BufferWriteProcessor.
@@ -181,6 +182,24 @@ public class BufferWriteProcessor extends Processor {
    * @throws BufferWriteProcessorException if a flushing operation occurs and failed.
    */
   public boolean write(TSRecord tsRecord) throws BufferWriteProcessorException {
+    return write(tsRecord, true);
+  }
+
+  /**
+   * write a ts record into the memtable without flushing it. This is used by the writers which
+   * only hold the read lock of the filenode processor, so several devices can be written at the
+   * same time. If the memtable should be flushed, {@link #isFlushRequested()} becomes true and the
+   * caller has to call {@link #flush()} after taking the write lock of the filenode processor.
+   *
+   * @param tsRecord data to be written
+   * @return false if the record is rejected because the memory usage is dangerous.
+   */
+  public boolean writeWithoutFlush(TSRecord tsRecord) throws BufferWriteProcessorException {
+    return write(tsRecord, false);
+  }
+
+  private boolean write(TSRecord tsRecord, boolean flushInline)
+      throws BufferWriteProcessorException {
     checkOpen();
     long memUsage = MemUtils.getRecordSize(tsRecord);
     BasicMemController.UsageLevel level = BasicMemController.getInstance()
@@ -192,10 +211,10 @@ public class BufferWriteProcessor extends Processor {
         for (DataPoint dataPoint : tsRecord.dataPointList) {
           workMemTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
               tsRecord.time,
-              dataPoint.getValue().toString());
+              dataPoint.getValue());
         }
-        valueCount++;
-        checkMemThreshold4Flush(memUsage);
+        valueCount.incrementAndGet();
+        checkMemThreshold4Flush(memUsage, flushInline);
         return true;
       case WARNING:
         memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
@@ -203,14 +222,10 @@ public class BufferWriteProcessor extends Processor {
         for (DataPoint dataPoint : tsRecord.dataPointList) {
           workMemTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
               tsRecord.time,
-              dataPoint.getValue().toString());
-        }
-        valueCount++;
-        try {
-          flush();
-        } catch (IOException e) {
-          throw new BufferWriteProcessorException(e);
+              dataPoint.getValue());
         }
+        valueCount.incrementAndGet();
+        requestFlush(flushInline);
         return true;
       case DANGEROUS:
       default:
@@ -220,7 +235,8 @@ public class BufferWriteProcessor extends Processor {
     }
   }
 
-  private void checkMemThreshold4Flush(long addedMemory) throws BufferWriteProcessorException {
+  private void checkMemThreshold4Flush(long addedMemory, boolean flushInline)
+      throws BufferWriteProcessorException {
     long newMem = memSize.addAndGet(addedMemory);
     if (newMem > memThreshold) {
       String usageMem = MemUtils.bytesCntToStr(newMem);
@@ -228,15 +244,31 @@ public class BufferWriteProcessor extends Processor {
       String processorName = getProcessorName();
       LOGGER.info("The usage of memory {} in bufferwrite processor {} reaches the threshold {}",
           usageMem, processorName, threshold);
-      try {
-        flush();
-      } catch (IOException e) {
-        LOGGER.error("Flush bufferwrite error.", e);
-        throw new BufferWriteProcessorException(e);
-      }
+      requestFlush(flushInline);
     }
   }
 
+  private void requestFlush(boolean flushInline) throws BufferWriteProcessorException {
+    if (!flushInline) {
+      flushRequested = true;
+      return;
+    }
+    try {
+      flush();
+    } catch (IOException e) {
+      LOGGER.error("Flush bufferwrite error.", e);
+      throw new BufferWriteProcessorException(e);
+    }
+  }
+
+  /**
+   * whether a record written by {@link #writeWithoutFlush(TSRecord)} asked for a flush which has
+   * not been done yet.
+   */
+  public boolean isFlushRequested() {
+    return flushRequested;
+  }
+
   /**
    * get the one (or two) chunk(s) in the memtable ( and the other one in flushing status and then
    * compact them into one TimeValuePairSorter). Then get its (or their) ChunkMetadata(s).
@@ -368,7 +400,8 @@ public class BufferWriteProcessor extends Processor {
     } catch (InterruptedException | ExecutionException e) {
       throw new IOException(e);
     }
-    if (valueCount > 0) {
+    flushRequested = false;
+    if (valueCount.get() > 0) {
       // update the lastUpdatetime, prepare for flush
       try {
         bufferwriteFlushAction.act();
@@ -379,7 +412,7 @@ public class BufferWriteProcessor extends Processor {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         logNode.notifyStartFlush();
       }
-      valueCount = 0;
+      valueCount.set(0);
       switchWorkToFlush();
       long version = versionController.nextVersion();
       BasicMemController.getInstance().releaseUsage(this, memSize.get());
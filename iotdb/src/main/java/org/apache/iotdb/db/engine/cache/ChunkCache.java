@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.common.cache.SegmentedLRUCache;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+/**
+ * This class is used to cache the chunks of sealed tsfiles read by queries, in their compressed
+ * and encoded form. The memory budget is set by chunk_cache_size_in_byte.
+ * <br/>
+ * The cached chunks do not carry deletions, which are applied from the chunk metadata of each
+ * query, so only removing a tsfile invalidates its chunks.
+ */
+public class ChunkCache {
+
+  /**
+   * estimated size of a cache entry without the chunk data.
+   */
+  private static final int ENTRY_SIZE = 256;
+
+  private SegmentedLRUCache<ChunkKey, Chunk> cache;
+  /**
+   * the reader and the metadata of the chunk a thread is getting. A missed chunk is loaded by the
+   * thread which gets it, so the loader finds them here instead of in the key, which would keep
+   * them reachable as long as the chunk is cached.
+   */
+  private final ThreadLocal<LoadingContext> loadingContext = new ThreadLocal<>();
+
+  private ChunkCache() {
+    cache = new SegmentedLRUCache<ChunkKey, Chunk>(
+        IoTDBDescriptor.getInstance().getConfig().getChunkCacheSizeInByte()) {
+      @Override
+      public Chunk loadObjectByKey(ChunkKey key) throws IOException {
+        LoadingContext context = loadingContext.get();
+        return context.reader.readMemChunk(context.metaData);
+      }
+
+      @Override
+      public long getWeight(ChunkKey key, Chunk value) {
+        return ENTRY_SIZE + 2L * key.filePath.length() + value.getData().capacity();
+      }
+    };
+  }
+
+  public static ChunkCache getInstance() {
+    return ChunkCacheHolder.INSTANCE;
+  }
+
+  /**
+   * get a chunk of the file read by the given reader. The returned chunk shares its data with the
+   * cache, so the caller should only read a duplicate of its buffer.
+   */
+  public Chunk get(TsFileSequenceReader reader, ChunkMetaData metaData) throws IOException {
+    loadingContext.set(new LoadingContext(reader, metaData));
+    try {
+      return cache.get(new ChunkKey(reader.getFileName(), metaData.getOffsetOfChunkHeader()));
+    } finally {
+      loadingContext.remove();
+    }
+  }
+
+  /**
+   * remove all the chunks of the given file.
+   */
+  public void remove(String path) {
+    cache.removeIf(key -> key.filePath.equals(path));
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  /**
+   * key of the cache: the file path and the offset of the chunk.
+   */
+  private static class ChunkKey {
+
+    private final String filePath;
+    private final long offset;
+
+    private ChunkKey(String filePath, long offset) {
+      this.filePath = filePath;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ChunkKey that = (ChunkKey) o;
+      return offset == that.offset && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * filePath.hashCode() + Long.hashCode(offset);
+    }
+  }
+
+  private static class LoadingContext {
+
+    private final TsFileSequenceReader reader;
+    private final ChunkMetaData metaData;
+
+    private LoadingContext(TsFileSequenceReader reader, ChunkMetaData metaData) {
+      this.reader = reader;
+      this.metaData = metaData;
+    }
+  }
+
+  private static class ChunkCacheHolder {
+
+    private ChunkCacheHolder() {}
+
+    private static final ChunkCache INSTANCE = new ChunkCache();
+  }
+}
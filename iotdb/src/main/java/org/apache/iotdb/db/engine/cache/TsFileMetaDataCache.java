@@ -19,27 +19,67 @@
 package org.apache.iotdb.db.engine.cache;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.tsfile.common.cache.SegmentedLRUCache;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class is used to cache <code>TsFileMetaData</code> of tsfile in IoTDB.
+ * This class is used to cache <code>TsFileMetaData</code> and <code>TsDeviceMetadata</code> of
+ * sealed tsfiles in IoTDB. Both share one memory budget, set by metadata_cache_size_in_byte.
  */
-public class TsFileMetaDataCache {
+public class TsFileMetaDataCache implements TsFileMetaDataCacheMBean, IService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TsFileMetaDataCache.class);
+
+  /**
+   * the deserialized chunk metadata takes several times the space of its serialized form.
+   */
+  private static final int HEAP_SIZE_RATIO = 3;
   /**
-   * key: The file seriesPath of tsfile.
+   * estimated size of a map entry together with the objects it holds.
    */
-  private ConcurrentHashMap<String, TsFileMetaData> cache;
-  private AtomicLong cacheHintNum = new AtomicLong();
-  private AtomicLong cacheRequestNum = new AtomicLong();
+  private static final int MAP_ENTRY_SIZE = 128;
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+
+  private SegmentedLRUCache<MetaDataKey, Object> cache;
 
   private TsFileMetaDataCache() {
-    cache = new ConcurrentHashMap<>();
+    cache = new SegmentedLRUCache<MetaDataKey, Object>(
+        IoTDBDescriptor.getInstance().getConfig().getMetadataCacheSizeInByte()) {
+      @Override
+      public Object loadObjectByKey(MetaDataKey key) throws IOException {
+        if (key.deviceId == null) {
+          return TsFileMetadataUtils.getTsFileMetaData(key.filePath);
+        }
+        return TsFileMetadataUtils.getTsRowGroupBlockMetaData(key.filePath, key.deviceId,
+            TsFileMetaDataCache.this.get(key.filePath));
+      }
+
+      @Override
+      public long getWeight(MetaDataKey key, Object value) {
+        return estimateSize(key, value);
+      }
+    };
   }
 
   public static TsFileMetaDataCache getInstance() {
@@ -52,40 +92,182 @@ public class TsFileMetaDataCache {
    * @param path -given path
    */
   public TsFileMetaData get(String path) throws IOException {
+    return (TsFileMetaData) cache.get(new MetaDataKey(path, null));
+  }
 
-    Object internPath = path.intern();
-    synchronized (internPath) {
-      cacheRequestNum.incrementAndGet();
-      if (!cache.containsKey(path)) {
-        // read value from tsfile
-        TsFileMetaData fileMetaData = TsFileMetadataUtils.getTsFileMetaData(path);
-        cache.put(path, fileMetaData);
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Cache didn't hint: the number of requests for cache is {}",
-              cacheRequestNum.get());
-        }
-        return cache.get(path);
-      } else {
-        cacheHintNum.incrementAndGet();
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug(
-              "Cache hint: the number of requests for cache is {}, the number of hints for cache "
-                  + "is {}",
-              cacheRequestNum.get(), cacheHintNum.get());
+  /**
+   * get the TsDeviceMetadata of a device in the given file.
+   *
+   * @return null if the file has no data of the device
+   */
+  public TsDeviceMetadata get(String path, String deviceId) throws IOException {
+    return (TsDeviceMetadata) cache.get(new MetaDataKey(path, deviceId));
+  }
+
+  /**
+   * get the ChunkMetaData of a series in the given file. The returned list and its elements are
+   * copies that the caller may modify.
+   */
+  public List<ChunkMetaData> getChunkMetaDataList(String path, Path seriesPath)
+      throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
+    TsDeviceMetadata deviceMetadata = get(path, seriesPath.getDevice());
+    if (deviceMetadata == null) {
+      return chunkMetaDataList;
+    }
+    for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+      for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+        if (seriesPath.getMeasurement().equals(chunkMetaData.getMeasurementUid())) {
+          ChunkMetaData copy = copyOf(chunkMetaData);
+          copy.setVersion(chunkGroupMetaData.getVersion());
+          chunkMetaDataList.add(copy);
         }
-        return cache.get(path);
       }
     }
+    return chunkMetaDataList;
+  }
+
+  private static ChunkMetaData copyOf(ChunkMetaData chunkMetaData) {
+    ChunkMetaData copy = new ChunkMetaData(chunkMetaData.getMeasurementUid(),
+        chunkMetaData.getTsDataType(), chunkMetaData.getOffsetOfChunkHeader(),
+        chunkMetaData.getStartTime(), chunkMetaData.getEndTime());
+    copy.setNumOfPoints(chunkMetaData.getNumOfPoints());
+    copy.setDigest(chunkMetaData.getDigest());
+    copy.setDeletedAt(chunkMetaData.getDeletedAt());
+    return copy;
   }
 
+  /**
+   * remove all the metadata of the given file.
+   */
   public void remove(String path) {
-    cache.remove(path);
+    cache.removeIf(key -> key.filePath.equals(path));
   }
 
   public void clear() {
     cache.clear();
   }
 
+  private static long estimateSize(MetaDataKey key, Object value) {
+    long size = MAP_ENTRY_SIZE + 2L * key.filePath.length();
+    if (value instanceof TsDeviceMetadata) {
+      return size + 2L * key.deviceId.length()
+          + HEAP_SIZE_RATIO * ((TsDeviceMetadata) value).getSerializedSize();
+    }
+    TsFileMetaData fileMetaData = (TsFileMetaData) value;
+    for (Map.Entry<String, TsDeviceMetadataIndex> entry : fileMetaData.getDeviceMap()
+        .entrySet()) {
+      size += MAP_ENTRY_SIZE + 2L * entry.getKey().length();
+    }
+    for (Map.Entry<String, MeasurementSchema> entry : fileMetaData.getMeasurementSchema()
+        .entrySet()) {
+      size += 2 * MAP_ENTRY_SIZE + 2L * entry.getKey().length();
+    }
+    return size;
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    long requestCount = cache.getHitCount() + cache.getMissCount();
+    return requestCount == 0 ? 0 : (double) cache.getHitCount() / requestCount;
+  }
+
+  @Override
+  public long getLoadCount() {
+    return cache.getLoadCount();
+  }
+
+  @Override
+  public double getAverageLoadTimeInMs() {
+    long loadCount = cache.getLoadCount();
+    return loadCount == 0 ? 0 : cache.getTotalLoadTime() / 1000000.0 / loadCount;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public int getEntryNum() {
+    return cache.size();
+  }
+
+  @Override
+  public long getUsedMemoryInByte() {
+    return cache.getWeight();
+  }
+
+  @Override
+  public long getMemoryBudgetInByte() {
+    return cache.getCapacity();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(getInstance(), mbeanName);
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      LOGGER.error(errorMessage);
+      throw new StartupException(errorMessage);
+    }
+  }
+
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(mbeanName);
+    clear();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.TSFILE_METADATA_CACHE_SERVICE;
+  }
+
+  /**
+   * key of the cache: the file path, plus the device id for a TsDeviceMetadata.
+   */
+  private static class MetaDataKey {
+
+    private final String filePath;
+    private final String deviceId;
+
+    private MetaDataKey(String filePath, String deviceId) {
+      this.filePath = filePath;
+      this.deviceId = deviceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      MetaDataKey that = (MetaDataKey) o;
+      return filePath.equals(that.filePath) && Objects.equals(deviceId, that.deviceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, deviceId);
+    }
+  }
+
   /*
    * Singleton pattern
    */
@@ -22,10 +22,13 @@ package org.apache.iotdb.db.engine.filenode;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -42,6 +45,7 @@ import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
 import org.apache.iotdb.db.engine.overflow.io.OverflowProcessor;
 import org.apache.iotdb.db.engine.pool.FlushManager;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.BatchInsertException;
 import org.apache.iotdb.db.exception.BufferWriteProcessorException;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.FileNodeProcessorException;
@@ -51,8 +55,9 @@ import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.monitor.IStatistic;
 import org.apache.iotdb.db.monitor.MonitorConstants;
 import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
-import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.TypedInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -62,13 +67,14 @@ import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
-import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -273,6 +279,11 @@ public class FileNodeManager implements IStatistic, IService {
   /**
    * insert TsRecord into storage group.
    *
+   * <p>In-order records of devices which are already in the working bufferwrite file are inserted
+   * under the read lock of the filenode processor and a lock of the device, so that different
+   * devices of one storage group are written in parallel. Everything else, as well as the flush
+   * and close the insertion may trigger, needs the write lock of the filenode processor.
+   *
    * @param tsRecord input Data
    * @param isMonitor if true, the insertion is done by StatMonitor and the statistic Info will not
    * be recorded. if false, the statParamsHashMap will be updated.
@@ -285,56 +296,225 @@ public class FileNodeManager implements IStatistic, IService {
     checkTimestamp(tsRecord);
     updateStat(isMonitor, tsRecord);
 
-    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
+    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, false);
+    BufferWriteProcessor bufferWriteProcessor;
+    fileNodeProcessor.lockDevice(deviceId);
+    try {
+      bufferWriteProcessor = insertBufferWriteConcurrently(fileNodeProcessor, timestamp, isMonitor,
+          tsRecord, deviceId);
+    } finally {
+      fileNodeProcessor.unlockDevice(deviceId);
+      fileNodeProcessor.readUnlock();
+    }
+
     int insertType;
+    if (bufferWriteProcessor != null) {
+      insertType = 2;
+      if (bufferWriteProcessor.isFlushRequested()
+          || isFileSizeOverThreshold(bufferWriteProcessor)) {
+        flushOrCloseBufferWrite(deviceId, bufferWriteProcessor);
+      }
+    } else {
+      fileNodeProcessor = getProcessor(deviceId, true);
+      try {
+        long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+        if (timestamp < lastUpdateTime) {
+          insertOverflow(fileNodeProcessor, timestamp, tsRecord, isMonitor, deviceId);
+          insertType = 1;
+        } else {
+          insertBufferWrite(fileNodeProcessor, timestamp, isMonitor, tsRecord, deviceId);
+          insertType = 2;
+        }
+      } catch (FileNodeProcessorException e) {
+        LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
+            fileNodeProcessor.getProcessorName()), e);
+        throw new FileNodeManagerException(e);
+      } finally {
+        fileNodeProcessor.writeUnlock();
+      }
+    }
+    // Modify the insert
+    if (!isMonitor) {
+      updateStatHashMapWhenSuccess(fileNodeProcessor, tsRecord);
+    }
+    return insertType;
+  }
 
+  /**
+   * insert the records of one device without releasing the write lock of the filenode processor
+   * between them. The in-order records are logged by one WAL append, and the bufferwrite processor
+   * is flushed or closed at most once, after all the records are written.
+   *
+   * @param deviceId the device of all the records
+   * @param tsRecords input Data
+   * @param isMonitor if true, the insertion is done by StatMonitor and the statistic Info will not
+   * be recorded. if false, the statParamsHashMap will be updated.
+   * @throws BatchInsertException if some of the records are not inserted, e.g. because their time
+   * is negative or the memory usage is dangerous. The records before an error are still inserted.
+   */
+  public void insertBatch(String deviceId, List<TSRecord> tsRecords, boolean isMonitor)
+      throws FileNodeManagerException {
+    if (tsRecords.isEmpty()) {
+      return;
+    }
+    String errorMessage = null;
+    List<TSRecord> validRecords = new ArrayList<>(tsRecords.size());
+    for (TSRecord tsRecord : tsRecords) {
+      if (!deviceId.equals(tsRecord.deviceId)) {
+        throw new FileNodeManagerException(String.format(
+            "The tsrecord %s does not belong to the device %s of the batch", tsRecord, deviceId));
+      }
+      try {
+        checkTimestamp(tsRecord);
+      } catch (FileNodeManagerException e) {
+        errorMessage = errorMessage == null ? e.getMessage() : errorMessage;
+        continue;
+      }
+      updateStat(isMonitor, tsRecord);
+      validRecords.add(tsRecord);
+    }
+
+    Set<TSRecord> insertedRecords = Collections.newSetFromMap(new IdentityHashMap<>());
+    if (!validRecords.isEmpty()) {
+      FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
+      try {
+        long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+        List<TSRecord> bufferWriteRecords = new ArrayList<>(validRecords.size());
+        for (TSRecord tsRecord : validRecords) {
+          if (tsRecord.time < lastUpdateTime) {
+            insertOverflow(fileNodeProcessor, tsRecord.time, tsRecord, isMonitor, deviceId);
+            insertedRecords.add(tsRecord);
+          } else {
+            bufferWriteRecords.add(tsRecord);
+          }
+        }
+        if (!bufferWriteRecords.isEmpty()) {
+          insertBufferWriteInPartitions(fileNodeProcessor, isMonitor, bufferWriteRecords,
+              deviceId, insertedRecords);
+        }
+      } catch (FileNodeProcessorException e) {
+        LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
+            fileNodeProcessor.getProcessorName()), e);
+        errorMessage = e.getMessage();
+      } catch (FileNodeManagerException e) {
+        errorMessage = e.getMessage();
+      } finally {
+        fileNodeProcessor.writeUnlock();
+      }
+      if (!isMonitor) {
+        for (TSRecord tsRecord : insertedRecords) {
+          updateStatHashMapWhenSuccess(fileNodeProcessor, tsRecord);
+        }
+      }
+    }
+    if (insertedRecords.size() < tsRecords.size()) {
+      boolean[] inserted = new boolean[tsRecords.size()];
+      for (int i = 0; i < inserted.length; i++) {
+        inserted[i] = insertedRecords.contains(tsRecords.get(i));
+      }
+      throw new BatchInsertException(errorMessage == null
+          ? "The memory usage is too high to insert some of the records" : errorMessage, inserted);
+    }
+  }
+
+  private void updateStatHashMapWhenSuccess(FileNodeProcessor fileNodeProcessor,
+      TSRecord tsRecord) {
+    fileNodeProcessor.getStatParamsHashMap()
+        .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
+        .addAndGet(tsRecord.dataPointList.size());
+    fileNodeProcessor.getStatParamsHashMap()
+        .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_REQ_SUCCESS.name())
+        .incrementAndGet();
+    statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_SUCCESS.name())
+        .incrementAndGet();
+    statParamsHashMap
+        .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
+        .addAndGet(tsRecord.dataPointList.size());
+  }
+
+  /**
+   * the caller must hold the read lock of the filenode processor and the lock of the device.
+   *
+   * @return the bufferwrite processor the record is written into, or null if the record has not
+   * been written because it needs the write lock of the filenode processor.
+   */
+  private BufferWriteProcessor insertBufferWriteConcurrently(FileNodeProcessor fileNodeProcessor,
+      long timestamp, boolean isMonitor, TSRecord tsRecord, String deviceId)
+      throws FileNodeManagerException {
+    BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor
+        .getWorkingBufferWriteProcessor(deviceId);
+    if (bufferWriteProcessor == null
+        || timestamp < fileNodeProcessor.getFlushLastUpdateTime(deviceId)
+        || !fileNodeProcessor.isInWorkingPartition(timestamp)) {
+      return null;
+    }
+    // write wal
+    writeLog(tsRecord, isMonitor, bufferWriteProcessor.getLogNode());
+    // Write data
+    long prevUpdateTime = fileNodeProcessor.getLastUpdateTime(deviceId);
+    fileNodeProcessor.setLastUpdateTime(deviceId, timestamp);
     try {
-      long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
-      if (timestamp < lastUpdateTime) {
-        insertOverflow(fileNodeProcessor, timestamp, tsRecord, isMonitor, deviceId);
-        insertType = 1;
-      } else {
-        insertBufferWrite(fileNodeProcessor, timestamp, isMonitor, tsRecord, deviceId);
-        insertType = 2;
+      if (!bufferWriteProcessor.writeWithoutFlush(tsRecord)) {
+        // undo time update
+        fileNodeProcessor.setLastUpdateTime(deviceId, prevUpdateTime);
       }
-    } catch (FileNodeProcessorException e) {
-      LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
-          fileNodeProcessor.getProcessorName()), e);
+    } catch (BufferWriteProcessorException e) {
+      if (!isMonitor) {
+        updateStatHashMapWhenFail(tsRecord);
+      }
+      throw new FileNodeManagerException(e);
+    }
+    return bufferWriteProcessor;
+  }
+
+  /**
+   * flush or close the bufferwrite processor asked for by a concurrent insertion. The conditions
+   * are checked again under the write lock, because another writer may have done it already.
+   */
+  private void flushOrCloseBufferWrite(String deviceId, BufferWriteProcessor bufferWriteProcessor)
+      throws FileNodeManagerException {
+    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
+    try {
+      if (bufferWriteProcessor.isClosed()) {
+        return;
+      }
+      if (isFileSizeOverThreshold(bufferWriteProcessor)) {
+        logCloseBufferWrite(fileNodeProcessor.getProcessorName(), bufferWriteProcessor);
+        fileNodeProcessor.closeBufferWrite();
+      } else if (bufferWriteProcessor.isFlushRequested()) {
+        bufferWriteProcessor.flush();
+      }
+    } catch (FileNodeProcessorException | IOException e) {
+      LOGGER.error("Encounter an error when flushing the buffer write processor {}.",
+          fileNodeProcessor.getProcessorName(), e);
       throw new FileNodeManagerException(e);
     } finally {
       fileNodeProcessor.writeUnlock();
     }
-    // Modify the insert
-    if (!isMonitor) {
-      fileNodeProcessor.getStatParamsHashMap()
-          .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
-          .addAndGet(tsRecord.dataPointList.size());
-      fileNodeProcessor.getStatParamsHashMap()
-          .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_REQ_SUCCESS.name())
-          .incrementAndGet();
-      statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_SUCCESS.name())
-          .incrementAndGet();
-      statParamsHashMap
-          .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
-          .addAndGet(tsRecord.dataPointList.size());
+  }
+
+  private boolean isFileSizeOverThreshold(BufferWriteProcessor bufferWriteProcessor) {
+    return bufferWriteProcessor.getFileSize() > IoTDBDescriptor.getInstance().getConfig()
+        .getBufferwriteFileSizeThreshold();
+  }
+
+  private void logCloseBufferWrite(String filenodeName,
+      BufferWriteProcessor bufferWriteProcessor) {
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info(
+          "The filenode processor {} will close the bufferwrite processor, "
+              + "because the size[{}] of tsfile {} reaches the threshold {}",
+          filenodeName, MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
+          bufferWriteProcessor.getInsertFilePath(), MemUtils.bytesCntToStr(
+              IoTDBDescriptor.getInstance().getConfig().getBufferwriteFileSizeThreshold()));
     }
-    return insertType;
   }
 
   private void writeLog(TSRecord tsRecord, boolean isMonitor, WriteLogNode logNode)
       throws FileNodeManagerException {
     try {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
-        String[] measurementList = new String[tsRecord.dataPointList.size()];
-        String[] insertValues = new String[tsRecord.dataPointList.size()];
-        int i=0;
-        for (DataPoint dp : tsRecord.dataPointList) {
-          measurementList[i] = dp.getMeasurementId();
-          insertValues[i] = dp.getValue().toString();
-          i++;
-        }
-        logNode.write(new InsertPlan(2, tsRecord.deviceId, tsRecord.time, measurementList,
-            insertValues));
+        logNode.write(new TypedInsertPlan(2, tsRecord));
       }
     } catch (IOException e) {
       if (!isMonitor) {
@@ -344,6 +524,24 @@ public class FileNodeManager implements IStatistic, IService {
     }
   }
 
+  private void writeLog(List<TSRecord> tsRecords, boolean isMonitor, WriteLogNode logNode)
+      throws FileNodeManagerException {
+    try {
+      if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+        List<PhysicalPlan> plans = new ArrayList<>(tsRecords.size());
+        for (TSRecord tsRecord : tsRecords) {
+          plans.add(new TypedInsertPlan(2, tsRecord));
+        }
+        logNode.write(plans);
+      }
+    } catch (IOException e) {
+      if (!isMonitor) {
+        tsRecords.forEach(this::updateStatHashMapWhenFail);
+      }
+      throw new FileNodeManagerException(e);
+    }
+  }
+
   private void checkTimestamp(TSRecord tsRecord) throws FileNodeManagerException {
     if (tsRecord.time < 0) {
       LOGGER.error("The insert time lt 0, {}.", tsRecord);
@@ -393,33 +591,9 @@ public class FileNodeManager implements IStatistic, IService {
   private void insertBufferWrite(FileNodeProcessor fileNodeProcessor, long timestamp,
       boolean isMonitor, TSRecord tsRecord, String deviceId)
       throws FileNodeManagerException, FileNodeProcessorException {
-    // get bufferwrite processor
-    BufferWriteProcessor bufferWriteProcessor;
-    String filenodeName = fileNodeProcessor.getProcessorName();
-    try {
-      bufferWriteProcessor = fileNodeProcessor.getBufferWriteProcessor(filenodeName, timestamp);
-    } catch (FileNodeProcessorException e) {
-      LOGGER.error("Get the bufferwrite processor failed, the filenode is {}, insert time is {}",
-          filenodeName, timestamp);
-      if (!isMonitor) {
-        updateStatHashMapWhenFail(tsRecord);
-      }
-      throw new FileNodeManagerException(e);
-    }
-    // Add a new interval file to newfilelist
-    if (bufferWriteProcessor.isNewProcessor()) {
-      bufferWriteProcessor.setNewProcessor(false);
-      String bufferwriteBaseDir = bufferWriteProcessor.getBaseDir();
-      String bufferwriteRelativePath = bufferWriteProcessor.getFileRelativePath();
-      try {
-        fileNodeProcessor.addIntervalFileNode(new File(new File(bufferwriteBaseDir), bufferwriteRelativePath));
-      } catch (Exception e) {
-        if (!isMonitor) {
-          updateStatHashMapWhenFail(tsRecord);
-        }
-        throw new FileNodeManagerException(e);
-      }
-    }
+    fileNodeProcessor.closeBufferWriteOfEarlierPartition(timestamp);
+    BufferWriteProcessor bufferWriteProcessor = getBufferWriteProcessor(fileNodeProcessor,
+        timestamp, isMonitor, Collections.singletonList(tsRecord));
     // write wal
     writeLog(tsRecord, isMonitor, bufferWriteProcessor.getLogNode());
     // Write data
@@ -441,20 +615,125 @@ public class FileNodeManager implements IStatistic, IService {
       throw new FileNodeManagerException(e);
     }
 
-    if (bufferWriteProcessor
-        .getFileSize() > IoTDBDescriptor.getInstance()
-        .getConfig().getBufferwriteFileSizeThreshold()) {
-      if (LOGGER.isInfoEnabled()) {
-        LOGGER.info(
-            "The filenode processor {} will close the bufferwrite processor, "
-                + "because the size[{}] of tsfile {} reaches the threshold {}",
-            filenodeName, MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
-            bufferWriteProcessor.getInsertFilePath(), MemUtils.bytesCntToStr(
-                IoTDBDescriptor.getInstance().getConfig().getBufferwriteFileSizeThreshold()));
+    if (isFileSizeOverThreshold(bufferWriteProcessor)) {
+      logCloseBufferWrite(fileNodeProcessor.getProcessorName(), bufferWriteProcessor);
+      fileNodeProcessor.closeBufferWrite();
+    }
+  }
+
+  /**
+   * split the in-order records of a batch before each record that starts a later time partition
+   * than the records before it, so that every part goes into the bufferwrite file of its partition.
+   */
+  private void insertBufferWriteInPartitions(FileNodeProcessor fileNodeProcessor,
+      boolean isMonitor, List<TSRecord> tsRecords, String deviceId,
+      Set<TSRecord> insertedRecords)
+      throws FileNodeManagerException, FileNodeProcessorException {
+    long partitionInterval = IoTDBDescriptor.getInstance().getConfig().getPartitionInterval();
+    if (partitionInterval <= 0) {
+      insertBufferWriteBatch(fileNodeProcessor, isMonitor, tsRecords, deviceId, insertedRecords);
+      return;
+    }
+    int start = 0;
+    long maxPartition = Math.floorDiv(tsRecords.get(0).time, partitionInterval);
+    for (int i = 1; i < tsRecords.size(); i++) {
+      long partition = Math.floorDiv(tsRecords.get(i).time, partitionInterval);
+      if (partition > maxPartition) {
+        insertBufferWriteBatch(fileNodeProcessor, isMonitor, tsRecords.subList(start, i),
+            deviceId, insertedRecords);
+        start = i;
+        maxPartition = partition;
+      }
+    }
+    insertBufferWriteBatch(fileNodeProcessor, isMonitor,
+        tsRecords.subList(start, tsRecords.size()), deviceId, insertedRecords);
+  }
+
+  /**
+   * the records are written without flushing, because a flush in the middle of the batch would
+   * leave the rest of the records in the log which is discarded by the flush. The first record
+   * must belong to the latest time partition of the records. The records which are written into
+   * the memtable are added to insertedRecords.
+   */
+  private void insertBufferWriteBatch(FileNodeProcessor fileNodeProcessor, boolean isMonitor,
+      List<TSRecord> tsRecords, String deviceId, Set<TSRecord> insertedRecords)
+      throws FileNodeManagerException, FileNodeProcessorException {
+    fileNodeProcessor.closeBufferWriteOfEarlierPartition(tsRecords.get(0).time);
+    BufferWriteProcessor bufferWriteProcessor = getBufferWriteProcessor(fileNodeProcessor,
+        tsRecords.get(0).time, isMonitor, tsRecords);
+    // write wal
+    writeLog(tsRecords, isMonitor, bufferWriteProcessor.getLogNode());
+    // Write data
+    try {
+      for (TSRecord tsRecord : tsRecords) {
+        long prevStartTime = fileNodeProcessor.getIntervalFileNodeStartTime(deviceId);
+        long prevUpdateTime = fileNodeProcessor.getLastUpdateTime(deviceId);
+
+        fileNodeProcessor.setIntervalFileNodeStartTime(deviceId);
+        fileNodeProcessor.setLastUpdateTime(deviceId, tsRecord.time);
+        if (!bufferWriteProcessor.writeWithoutFlush(tsRecord)) {
+          // undo time update
+          fileNodeProcessor.setIntervalFileNodeStartTime(deviceId, prevStartTime);
+          fileNodeProcessor.setLastUpdateTime(deviceId, prevUpdateTime);
+        } else {
+          insertedRecords.add(tsRecord);
+        }
       }
+    } catch (BufferWriteProcessorException e) {
+      if (!isMonitor) {
+        tsRecords.stream().filter(tsRecord -> !insertedRecords.contains(tsRecord))
+            .forEach(this::updateStatHashMapWhenFail);
+      }
+      throw new FileNodeManagerException(e);
+    }
 
+    if (isFileSizeOverThreshold(bufferWriteProcessor)) {
+      logCloseBufferWrite(fileNodeProcessor.getProcessorName(), bufferWriteProcessor);
       fileNodeProcessor.closeBufferWrite();
+    } else if (bufferWriteProcessor.isFlushRequested()) {
+      try {
+        bufferWriteProcessor.flush();
+      } catch (IOException e) {
+        throw new FileNodeManagerException(e);
+      }
+    }
+  }
+
+  /**
+   * get (or create) the bufferwrite processor and register its file as a new interval file if
+   * it is new.
+   */
+  private BufferWriteProcessor getBufferWriteProcessor(FileNodeProcessor fileNodeProcessor,
+      long timestamp, boolean isMonitor, List<TSRecord> tsRecords)
+      throws FileNodeManagerException {
+    // get bufferwrite processor
+    BufferWriteProcessor bufferWriteProcessor;
+    String filenodeName = fileNodeProcessor.getProcessorName();
+    try {
+      bufferWriteProcessor = fileNodeProcessor.getBufferWriteProcessor(filenodeName, timestamp);
+    } catch (FileNodeProcessorException e) {
+      LOGGER.error("Get the bufferwrite processor failed, the filenode is {}, insert time is {}",
+          filenodeName, timestamp);
+      if (!isMonitor) {
+        tsRecords.forEach(this::updateStatHashMapWhenFail);
+      }
+      throw new FileNodeManagerException(e);
+    }
+    // Add a new interval file to newfilelist
+    if (bufferWriteProcessor.isNewProcessor()) {
+      bufferWriteProcessor.setNewProcessor(false);
+      String bufferwriteBaseDir = bufferWriteProcessor.getBaseDir();
+      String bufferwriteRelativePath = bufferWriteProcessor.getFileRelativePath();
+      try {
+        fileNodeProcessor.addIntervalFileNode(new File(new File(bufferwriteBaseDir), bufferwriteRelativePath));
+      } catch (Exception e) {
+        if (!isMonitor) {
+          tsRecords.forEach(this::updateStatHashMapWhenFail);
+        }
+        throw new FileNodeManagerException(e);
+      }
     }
+    return bufferWriteProcessor;
   }
 
   /**
@@ -654,7 +933,8 @@ public class FileNodeManager implements IStatistic, IService {
   }
 
   /**
-   * query data.
+   * query data. The filter of the expression, if there is one, must be on time. The sealed files
+   * out of its range are left out of the data source.
    */
   public QueryDataSource query(SingleSeriesExpression seriesExpression, QueryContext context)
       throws FileNodeManagerException {
@@ -676,7 +956,8 @@ public class FileNodeManager implements IStatistic, IService {
         }
       }
       try {
-        queryDataSource = fileNodeProcessor.query(deviceId, measurementId, context);
+        queryDataSource = fileNodeProcessor.query(deviceId, measurementId,
+            seriesExpression.getFilter(), context);
       } catch (FileNodeProcessorException e) {
         LOGGER.error("Query error: the deviceId {}, the measurementId {}", deviceId, measurementId,
             e);
@@ -735,23 +1016,65 @@ public class FileNodeManager implements IStatistic, IService {
   }
 
   /**
-   * get all overlap tsfiles which are conflict with the appendFile.
+   * get the last update time of a device in a storage group, or -1 if the device has no data.
    *
    * @param fileNodeName the seriesPath of storage group
-   * @param appendFile the appended tsfile information
+   * @param deviceId the device
+   */
+  public long getLastUpdateTime(String fileNodeName, String deviceId)
+      throws FileNodeManagerException {
+    FileNodeProcessor fileNodeProcessor = getProcessor(fileNodeName, false);
+    try {
+      return fileNodeProcessor.getLastUpdateTime(deviceId);
+    } finally {
+      fileNodeProcessor.readUnlock();
+    }
+  }
+
+  /**
+   * append whole chunks of a device read from another tsfile to the unsequence data of the storage
+   * group. Only the chunks that end before the flushed last update time of the device are
+   * appended, since the others may overlap the data in the working bufferwrite processor.
+   *
+   * @param fileNodeName the seriesPath of storage group
+   * @param deviceId the device of the chunks
+   * @param reader the reader of the tsfile the chunks are read from
+   * @param chunkMetaDataList the chunks of the device in the tsfile
+   * @return the chunks that have not been appended
    */
-  public List<String> getOverlapFilesFromFileNode(String fileNodeName, TsFileResource appendFile,
-      String uuid) throws FileNodeManagerException {
+  public List<ChunkMetaData> appendChunksToOverflow(String fileNodeName, String deviceId,
+      TsFileSequenceReader reader, List<ChunkMetaData> chunkMetaDataList)
+      throws FileNodeManagerException {
     FileNodeProcessor fileNodeProcessor = getProcessor(fileNodeName, true);
-    List<String> overlapFiles;
     try {
-      overlapFiles = fileNodeProcessor.getOverlapFiles(appendFile, uuid);
-    } catch (FileNodeProcessorException e) {
+      long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+      List<ChunkMetaData> appendedChunks = new ArrayList<>();
+      List<ChunkMetaData> remainingChunks = new ArrayList<>();
+      for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+        if (chunkMetaData.getEndTime() < lastUpdateTime) {
+          appendedChunks.add(chunkMetaData);
+        } else {
+          remainingChunks.add(chunkMetaData);
+        }
+      }
+      if (!appendedChunks.isEmpty()) {
+        OverflowProcessor overflowProcessor = fileNodeProcessor
+            .getOverflowProcessor(fileNodeProcessor.getProcessorName());
+        overflowProcessor.appendChunks(deviceId, reader, appendedChunks);
+        for (ChunkMetaData chunkMetaData : appendedChunks) {
+          fileNodeProcessor.changeTypeToChanged(deviceId, chunkMetaData.getStartTime(),
+              chunkMetaData.getEndTime());
+        }
+        fileNodeProcessor.setOverflowed(true);
+      }
+      return remainingChunks;
+    } catch (IOException e) {
+      LOGGER.error("Cannot append the chunks of {} to the overflow data of {}", deviceId,
+          fileNodeName, e);
       throw new FileNodeManagerException(e);
     } finally {
       fileNodeProcessor.writeUnlock();
     }
-    return overlapFiles;
   }
 
   /**
@@ -24,8 +24,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -38,12 +36,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.iotdb.db.concurrent.HashLock;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -53,6 +53,7 @@ import org.apache.iotdb.db.engine.bufferwrite.Action;
 import org.apache.iotdb.db.engine.bufferwrite.ActionException;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
 import org.apache.iotdb.db.engine.bufferwrite.FileNodeConstants;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -79,26 +80,22 @@ import org.apache.iotdb.db.monitor.StatMonitor;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
-import org.apache.iotdb.db.query.reader.IReader;
-import org.apache.iotdb.db.sync.conf.Constans;
+import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.QueryUtils;
-import org.apache.iotdb.db.utils.TimeValuePair;
-import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
 import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.utils.Pair;
-import org.apache.iotdb.tsfile.write.chunk.ChunkBuffer;
-import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
 import org.apache.iotdb.tsfile.write.schema.FileSchema;
@@ -123,10 +120,22 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    */
   private volatile boolean isOverflowed;
   private Map<String, Long> lastUpdateTimeMap;
+  /**
+   * Writers of different devices only share the read lock of this processor, the writers of the
+   * same device are serialized by this lock.
+   */
+  private final HashLock deviceLock = new HashLock();
   private Map<String, Long> flushLastUpdateTimeMap;
   private Map<String, List<TsFileResource>> invertedIndexOfFiles;
   private TsFileResource emptyTsFileResource;
   private TsFileResource currentTsFileResource;
+  /**
+   * The latest time partition written into the bufferwrite files. It is valid only if
+   * hasWorkingPartition, i.e., something has been written since the processor was created, or the
+   * processor was restored with an unsealed bufferwrite file.
+   */
+  private long workingPartition;
+  private boolean hasWorkingPartition;
   private List<TsFileResource> newFileNodes;
   private FileNodeProcessorStatus isMerging;
   // this is used when work->merge operation
@@ -259,15 +268,15 @@ public class FileNodeProcessor extends Processor implements IStatistic {
               "information.", processorName);
       throw new FileNodeProcessorException(e);
     }
-    // TODO deep clone the lastupdate time
-    lastUpdateTimeMap = fileNodeProcessorStore.getLastUpdateTimeMap();
+    // deep clone, the last update times of different devices are updated concurrently
+    lastUpdateTimeMap = new ConcurrentHashMap<>(fileNodeProcessorStore.getLastUpdateTimeMap());
     emptyTsFileResource = fileNodeProcessorStore.getEmptyTsFileResource();
     newFileNodes = fileNodeProcessorStore.getNewFileNodes();
     isMerging = fileNodeProcessorStore.getFileNodeProcessorStatus();
     numOfMergeFile = fileNodeProcessorStore.getNumOfMergeFile();
     invertedIndexOfFiles = new HashMap<>();
     // deep clone
-    flushLastUpdateTimeMap = new HashMap<>();
+    flushLastUpdateTimeMap = new ConcurrentHashMap<>();
     for (Entry<String, Long> entry : lastUpdateTimeMap.entrySet()) {
       flushLastUpdateTimeMap.put(entry.getKey(), entry.getValue() + 1);
     }
@@ -277,6 +286,9 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     } catch (WriteProcessException e) {
       throw new FileNodeProcessorException(e);
     }
+    if (!newFileNodes.isEmpty() && !newFileNodes.get(newFileNodes.size() - 1).isClosed()) {
+      restoreWorkingPartition(newFileNodes.get(newFileNodes.size() - 1));
+    }
     // status is not NONE, or the last intervalFile is not closed
     if (isMerging != FileNodeProcessorStatus.NONE
         || (!newFileNodes.isEmpty() && !newFileNodes.get(newFileNodes.size() - 1).isClosed())) {
@@ -559,6 +571,86 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     return overflowProcessor;
   }
 
+  /**
+   * get the bufferwrite processor which can be written while only holding the read lock of this
+   * processor and the lock of the device.
+   *
+   * @return null if the bufferwrite processor has to be created, reopened or registered as a new
+   * interval file, or the device has not been written into the current interval file. These
+   * transitions need the write lock.
+   */
+  BufferWriteProcessor getWorkingBufferWriteProcessor(String deviceId) {
+    if (bufferWriteProcessor == null || bufferWriteProcessor.isClosed()
+        || bufferWriteProcessor.isNewProcessor() || currentTsFileResource == null
+        || currentTsFileResource.getStartTime(deviceId) == -1) {
+      return null;
+    }
+    return bufferWriteProcessor;
+  }
+
+  /**
+   * whether a record of the given time can go into the working bufferwrite file, i.e., it does not
+   * belong to a later time partition than the file.
+   */
+  boolean isInWorkingPartition(long time) {
+    long partitionInterval = TsFileDBConf.getPartitionInterval();
+    return partitionInterval <= 0
+        || hasWorkingPartition && Math.floorDiv(time, partitionInterval) <= workingPartition;
+  }
+
+  /**
+   * close the working bufferwrite file if a record of the given time belongs to a later time
+   * partition than the data in it. Records of earlier partitions, from devices lagging behind the
+   * others, are still written into the working file. The caller should hold the write lock.
+   */
+  void closeBufferWriteOfEarlierPartition(long time) throws FileNodeProcessorException {
+    long partitionInterval = TsFileDBConf.getPartitionInterval();
+    if (partitionInterval <= 0) {
+      return;
+    }
+    long partition = Math.floorDiv(time, partitionInterval);
+    if (hasWorkingPartition && partition <= workingPartition) {
+      return;
+    }
+    if (hasWorkingPartition && bufferWriteProcessor != null
+        && !bufferWriteProcessor.isClosed()) {
+      LOGGER.info("The filenode processor {} will close the bufferwrite processor, because the "
+              + "time {} starts the partition {} after the partition {}", getProcessorName(), time,
+          partition, workingPartition);
+      closeBufferWrite();
+    }
+    workingPartition = partition;
+    hasWorkingPartition = true;
+  }
+
+  /**
+   * the unsealed bufferwrite file is reopened after a restart, so the records of its latest time
+   * partition still go into it.
+   */
+  private void restoreWorkingPartition(TsFileResource workingFile) {
+    long partitionInterval = TsFileDBConf.getPartitionInterval();
+    if (partitionInterval <= 0 || workingFile.getStartTimeMap().isEmpty()) {
+      return;
+    }
+    long maxTime = Long.MIN_VALUE;
+    for (long startTime : workingFile.getStartTimeMap().values()) {
+      maxTime = Math.max(maxTime, startTime);
+    }
+    for (long endTime : workingFile.getEndTimeMap().values()) {
+      maxTime = Math.max(maxTime, endTime);
+    }
+    workingPartition = Math.floorDiv(maxTime, partitionInterval);
+    hasWorkingPartition = true;
+  }
+
+  void lockDevice(String deviceId) {
+    deviceLock.writeLock(deviceId);
+  }
+
+  void unlockDevice(String deviceId) {
+    deviceLock.writeUnlock(deviceId);
+  }
+
   public boolean hasOverflowProcessor() {
     return overflowProcessor != null && !overflowProcessor.isClosed();
   }
@@ -601,10 +693,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    * get flush last update time.
    */
   public long getFlushLastUpdateTime(String deviceId) {
-    if (!flushLastUpdateTimeMap.containsKey(deviceId)) {
-      flushLastUpdateTimeMap.put(deviceId, 0L);
-    }
-    return flushLastUpdateTimeMap.get(deviceId);
+    return flushLastUpdateTimeMap.computeIfAbsent(deviceId, k -> 0L);
   }
 
   public Map<String, Long> getLastUpdateTimeMap() {
@@ -746,6 +835,17 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    */
   public <T extends Comparable<T>> QueryDataSource query(String deviceId, String measurementId,
          QueryContext context) throws FileNodeProcessorException {
+    return query(deviceId, measurementId, null, context);
+  }
+
+  /**
+   * query data, the sealed files without the device or whose time range of the device does not
+   * satisfy the time filter are left out.
+   *
+   * @param timeFilter the filter on time of the query, null if there is none
+   */
+  public <T extends Comparable<T>> QueryDataSource query(String deviceId, String measurementId,
+      Filter timeFilter, QueryContext context) throws FileNodeProcessorException {
     // query overflow data
     MeasurementSchema mSchema;
     TSDataType dataType;
@@ -765,7 +865,8 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     List<TsFileResource> bufferwriteDataInFiles = new ArrayList<>();
     for (TsFileResource tsFileResource : newFileNodes) {
       // add the same tsFileResource, but not the same reference
-      if (tsFileResource.isClosed()) {
+      if (tsFileResource.isClosed() && (timeFilter == null
+          || isTimeRangeSatisfied(tsFileResource, deviceId, timeFilter))) {
         bufferwriteDataInFiles.add(tsFileResource.backUp());
       }
     }
@@ -811,6 +912,13 @@ public class FileNodeProcessor extends Processor implements IStatistic {
 
   }
 
+  private boolean isTimeRangeSatisfied(TsFileResource tsFileResource, String deviceId,
+      Filter timeFilter) {
+    return tsFileResource.getStartTimeMap().containsKey(deviceId) && timeFilter
+        .satisfyStartEndTime(tsFileResource.getStartTime(deviceId),
+            tsFileResource.getEndTime(deviceId));
+  }
+
   /**
    * append one specified tsfile to this filenode processor.
    *
@@ -857,52 +965,6 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     }
   }
 
-  /**
-   * get overlap tsfiles which are conflict with the appendFile.
-   *
-   * @param appendFile the appended tsfile information
-   */
-  public List<String> getOverlapFiles(TsFileResource appendFile, String uuid)
-      throws FileNodeProcessorException {
-    List<String> overlapFiles = new ArrayList<>();
-    try {
-      for (TsFileResource tsFileResource : newFileNodes) {
-        getOverlapFiles(appendFile, tsFileResource, uuid, overlapFiles);
-      }
-    } catch (IOException e) {
-      LOGGER.error("Failed to get overlap tsfiles which conflict with the appendFile.");
-      throw new FileNodeProcessorException(e);
-    }
-    return overlapFiles;
-  }
-
-  private void getOverlapFiles(TsFileResource appendFile, TsFileResource tsFileResource,
-      String uuid, List<String> overlapFiles) throws IOException {
-    for (Entry<String, Long> entry : appendFile.getStartTimeMap().entrySet()) {
-      if (tsFileResource.getStartTimeMap().containsKey(entry.getKey()) &&
-          tsFileResource.getEndTime(entry.getKey()) >= entry.getValue()
-          && tsFileResource.getStartTime(entry.getKey()) <= appendFile
-          .getEndTime(entry.getKey())) {
-        String relativeFilePath =
-            Constans.SYNC_SERVER + File.separatorChar + uuid + File.separatorChar
-                + Constans.BACK_UP_DIRECTORY_NAME
-                + File.separatorChar + tsFileResource.getRelativePath();
-        File newFile = new File(
-            Directories.getInstance().getTsFileFolder(tsFileResource.getBaseDirIndex()),
-            relativeFilePath);
-        if (!newFile.getParentFile().exists()) {
-          newFile.getParentFile().mkdirs();
-        }
-        java.nio.file.Path link = FileSystems.getDefault().getPath(newFile.getPath());
-        java.nio.file.Path target = FileSystems.getDefault()
-            .getPath(tsFileResource.getFile().getAbsolutePath());
-        Files.createLink(link, target);
-        overlapFiles.add(newFile.getPath());
-        break;
-      }
-    }
-  }
-
   /**
    * add time series.
    */
@@ -1476,18 +1538,21 @@ public class FileNodeProcessor extends Processor implements IStatistic {
           Filter timeFilter = FilterFactory
               .and(TimeFilter.gtEq(backupIntervalFile.getStartTime(deviceId)),
                   TimeFilter.ltEq(backupIntervalFile.getEndTime(deviceId)));
-          SingleSeriesExpression seriesFilter = new SingleSeriesExpression(path, timeFilter);
 
           for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource.getOverflowInsertFileList()) {
             FileReaderManager.getInstance().increaseFileReaderReference(overflowInsertFile.getFilePath(),
                 false);
           }
-
-          IReader seriesReader = SeriesReaderFactory.getInstance()
-              .createSeriesReaderForMerge(backupIntervalFile,
-                  overflowSeriesDataSource, seriesFilter, context);
-          numOfChunk += queryAndWriteSeries(seriesReader, path, seriesFilter, dataType,
-              startTimeMap, endTimeMap, overflowSeriesDataSource);
+          try {
+            numOfChunk += mergeSeries(backupIntervalFile, path, timeFilter,
+                overflowSeriesDataSource, startTimeMap, endTimeMap, context);
+          } finally {
+            for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource
+                .getOverflowInsertFileList()) {
+              FileReaderManager.getInstance()
+                  .decreaseFileReaderReference(overflowInsertFile.getFilePath(), false);
+            }
+          }
         }
         if (mergeIsChunkGroupHasData) {
           // end the new rowGroupMetadata
@@ -1517,116 +1582,88 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     return mergeFileName;
   }
 
-  private int queryAndWriteSeries(IReader seriesReader, Path path,
-      SingleSeriesExpression seriesFilter, TSDataType dataType,
-      Map<String, Long> startTimeMap, Map<String, Long> endTimeMap,
-      OverflowSeriesDataSource overflowSeriesDataSource)
-      throws IOException {
-    int numOfChunk = 0;
-    try {
-      if (!seriesReader.hasNext()) {
-        LOGGER.debug(
-            "The time-series {} has no data with the filter {} in the filenode processor {}",
-            path, seriesFilter, getProcessorName());
-      } else {
-        numOfChunk++;
-        TimeValuePair timeValuePair = seriesReader.next();
-        if (mergeFileWriter == null) {
-          mergeBaseDir = directories.getNextFolderForTsfile();
-          mergeFileName = timeValuePair.getTimestamp()
-              + FileNodeConstants.BUFFERWRITE_FILE_SEPARATOR + System.currentTimeMillis();
-          mergeOutputPath = constructOutputFilePath(mergeBaseDir, getProcessorName(),
-              mergeFileName);
-          mergeFileName = getProcessorName() + File.separatorChar + mergeFileName;
-          mergeFileWriter = new TsFileIOWriter(new File(mergeOutputPath));
-          mergingModification = new ModificationFile(mergeOutputPath
-              + ModificationFile.FILE_SUFFIX);
-          mergeDeleteLock.unlock();
-        }
-        if (!mergeIsChunkGroupHasData) {
-          // start a new rowGroupMetadata
-          mergeIsChunkGroupHasData = true;
-          // the datasize and numOfChunk is fake
-          // the accurate datasize and numOfChunk will get after write all this device data.
-          mergeFileWriter.startFlushChunkGroup(path.getDevice());// TODO please check me.
-          mergeStartPos = mergeFileWriter.getPos();
-        }
-        // init the serieswWriteImpl
-        MeasurementSchema measurementSchema = fileSchema
-            .getMeasurementSchema(path.getMeasurement());
-        ChunkBuffer pageWriter = new ChunkBuffer(measurementSchema);
-        int pageSizeThreshold = TSFileConfig.pageSizeInByte;
-        ChunkWriterImpl seriesWriterImpl = new ChunkWriterImpl(measurementSchema, pageWriter,
-            pageSizeThreshold);
-        // write the series data
-        writeOneSeries(path.getDevice(), seriesWriterImpl, dataType,
-            seriesReader,
-            startTimeMap, endTimeMap, timeValuePair);
-        // flush the series data
-        seriesWriterImpl.writeToFileWriter(mergeFileWriter);
-      }
-    } finally {
-      for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource.getOverflowInsertFileList()) {
-        FileReaderManager.getInstance().decreaseFileReaderReference(overflowInsertFile.getFilePath(),
-                false);
-      }
-    }
-    return numOfChunk;
-  }
-
-
-  private void writeOneSeries(String deviceId, ChunkWriterImpl seriesWriterImpl,
-      TSDataType dataType, IReader seriesReader, Map<String, Long> startTimeMap,
-      Map<String, Long> endTimeMap, TimeValuePair firstTVPair) throws IOException {
-    long startTime;
-    long endTime;
-    TimeValuePair localTV = firstTVPair;
-    writeTVPair(seriesWriterImpl, dataType, localTV);
-    startTime = endTime = localTV.getTimestamp();
+  /**
+   * merge one series of the sequence file with its unsequence data into the new file. Chunks and
+   * pages that do not overlap the unsequence data are copied without being decoded.
+   *
+   * @return the number of chunks written
+   */
+  private int mergeSeries(TsFileResource backupIntervalFile, Path path, Filter timeFilter,
+      OverflowSeriesDataSource overflowSeriesDataSource, Map<String, Long> startTimeMap,
+      Map<String, Long> endTimeMap, QueryContext context) throws IOException {
+    TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
+        .get(backupIntervalFile.getFilePath(), true);
+    // the chunks read by a merge are read only once, so they bypass the chunk cache
+    ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(tsFileSequenceReader);
+    List<ChunkMetaData> chunkMetaDataList = TsFileMetaDataCache.getInstance()
+        .getChunkMetaDataList(backupIntervalFile.getFilePath(), path);
+    List<Modification> modifications = context
+        .getPathModifications(backupIntervalFile.getModFile(), path.getFullPath());
+    QueryUtils.modifyChunkMetaData(chunkMetaDataList, modifications);
+    IPointReader unseqReader = SeriesReaderFactory.getInstance()
+        .createUnSeqMergeReader(overflowSeriesDataSource, timeFilter);
+
+    long firstTime = Long.MAX_VALUE;
+    if (!chunkMetaDataList.isEmpty()) {
+      ChunkMetaData firstChunk = chunkMetaDataList.get(0);
+      firstTime = Math.max(firstChunk.getStartTime(), firstChunk.getDeletedAt() + 1);
+    }
+    if (unseqReader.hasNext()) {
+      firstTime = Math.min(firstTime, unseqReader.current().getTimestamp());
+    }
+    if (firstTime == Long.MAX_VALUE) {
+      LOGGER.debug(
+          "The time-series {} has no data with the filter {} in the filenode processor {}",
+          path, timeFilter, getProcessorName());
+      return 0;
+    }
+    startMergeChunkGroup(path.getDevice(), firstTime);
+
+    SeriesMergeWriter seriesMergeWriter = new SeriesMergeWriter(mergeFileWriter,
+        fileSchema.getMeasurementSchema(path.getMeasurement()), unseqReader);
+    int numOfChunk = seriesMergeWriter.write(chunkMetaDataList, chunkLoader);
+
+    String deviceId = path.getDevice();
+    long startTime = seriesMergeWriter.getStartTime();
+    long endTime = seriesMergeWriter.getEndTime();
     if (!startTimeMap.containsKey(deviceId) || startTimeMap.get(deviceId) > startTime) {
       startTimeMap.put(deviceId, startTime);
     }
     if (!endTimeMap.containsKey(deviceId) || endTimeMap.get(deviceId) < endTime) {
       endTimeMap.put(deviceId, endTime);
     }
-    while (seriesReader.hasNext()) {
-      localTV = seriesReader.next();
-      endTime = localTV.getTimestamp();
-      writeTVPair(seriesWriterImpl, dataType, localTV);
-    }
-    if (!endTimeMap.containsKey(deviceId) || endTimeMap.get(deviceId) < endTime) {
-      endTimeMap.put(deviceId, endTime);
-    }
+    return numOfChunk;
   }
 
-  private void writeTVPair(ChunkWriterImpl seriesWriterImpl, TSDataType dataType,
-      TimeValuePair timeValuePair) throws IOException {
-    switch (dataType) {
-      case BOOLEAN:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
-        break;
-      case INT32:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getInt());
-        break;
-      case INT64:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getLong());
-        break;
-      case FLOAT:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getFloat());
-        break;
-      case DOUBLE:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getDouble());
-        break;
-      case TEXT:
-        seriesWriterImpl.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
-        break;
-      default:
-        LOGGER.error("Not support data type: {}", dataType);
-        break;
+  /**
+   * create the new file of the merge when the first data is written, and start the chunk group of
+   * the device if it has not been started.
+   *
+   * @param firstTime the first timestamp of the data to be written, used to name the new file
+   */
+  private void startMergeChunkGroup(String deviceId, long firstTime) throws IOException {
+    if (mergeFileWriter == null) {
+      mergeBaseDir = directories.getNextFolderForTsfile();
+      mergeFileName = firstTime
+          + FileNodeConstants.BUFFERWRITE_FILE_SEPARATOR + System.currentTimeMillis();
+      mergeOutputPath = constructOutputFilePath(mergeBaseDir, getProcessorName(),
+          mergeFileName);
+      mergeFileName = getProcessorName() + File.separatorChar + mergeFileName;
+      mergeFileWriter = new TsFileIOWriter(new File(mergeOutputPath));
+      mergingModification = new ModificationFile(mergeOutputPath
+          + ModificationFile.FILE_SUFFIX);
+      mergeDeleteLock.unlock();
+    }
+    if (!mergeIsChunkGroupHasData) {
+      // start a new rowGroupMetadata
+      mergeIsChunkGroupHasData = true;
+      // the datasize and numOfChunk is fake
+      // the accurate datasize and numOfChunk will get after write all this device data.
+      mergeFileWriter.startFlushChunkGroup(deviceId);// TODO please check me.
+      mergeStartPos = mergeFileWriter.getPos();
     }
   }
 
-
   private String constructOutputFilePath(String baseDir, String processorName, String fileName) {
 
     String localBaseDir = baseDir;
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+import org.apache.iotdb.tsfile.write.chunk.ChunkBuffer;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+/**
+ * This class writes one series of a sequence tsfile, merged with the unsequence data of the
+ * series, into the new file of a merge. The chunks and pages that neither overlap the unsequence
+ * data nor are affected by a deletion are copied as they are stored. Only the others are decoded
+ * and rewritten point by point.
+ */
+class SeriesMergeWriter {
+
+  private final TsFileIOWriter fileWriter;
+  private final MeasurementSchema measurementSchema;
+  /**
+   * the unsequence data of the series, whose points overwrite the sequence points of the same
+   * timestamps.
+   */
+  private final IPointReader unseqReader;
+
+  /**
+   * collects the rewritten points and copied pages until a chunk is copied as a whole, or all
+   * data of the series has been written.
+   */
+  private ChunkWriterImpl chunkWriter;
+  private boolean chunkWriterHasData = false;
+
+  private int chunkNum = 0;
+  private long startTime = Long.MAX_VALUE;
+  private long endTime = Long.MIN_VALUE;
+
+  SeriesMergeWriter(TsFileIOWriter fileWriter, MeasurementSchema measurementSchema,
+      IPointReader unseqReader) {
+    this.fileWriter = fileWriter;
+    this.measurementSchema = measurementSchema;
+    this.unseqReader = unseqReader;
+  }
+
+  /**
+   * merge the chunks of the series in the sequence tsfile with the unsequence data and write the
+   * result into the file writer.
+   *
+   * @param chunkMetaDataList the chunks of the series, in time order, with the deletions applied
+   * @param chunkLoader the loader to read the chunks
+   * @return the number of chunks written
+   */
+  int write(List<ChunkMetaData> chunkMetaDataList, ChunkLoader chunkLoader) throws IOException {
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      writeUnseqDataBefore(chunkMetaData.getStartTime());
+      Chunk chunk = chunkLoader.getChunk(chunkMetaData);
+      if (chunkMetaData.getDeletedAt() < chunkMetaData.getStartTime()
+          && !overlapsUnseqData(chunkMetaData.getEndTime())) {
+        flushChunkWriter();
+        fileWriter.writeChunk(chunk, chunkMetaData);
+        chunkNum++;
+        updateTime(chunkMetaData.getStartTime(), chunkMetaData.getEndTime());
+      } else {
+        writeChunkByPage(chunk);
+      }
+    }
+    while (unseqReader.hasNext()) {
+      writeTimeValuePair(unseqReader.next());
+    }
+    flushChunkWriter();
+    return chunkNum;
+  }
+
+  private void writeChunkByPage(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    // a page can only be copied into a chunk with the same encoding and compression
+    boolean pageCopyable = chunkHeader.getCompressionType() == measurementSchema.getCompressor()
+        && chunkHeader.getEncodingType() == measurementSchema.getEncodingType();
+    // pages whose data are all deleted are skipped by the reader
+    ChunkReader chunkReader = new ChunkReaderWithoutFilter(chunk);
+    while (chunkReader.hasNextBatch()) {
+      PageHeader pageHeader = chunkReader.nextPageHeader();
+      writeUnseqDataBefore(pageHeader.getMinTimestamp());
+      if (pageCopyable && chunk.getDeletedAt() < pageHeader.getMinTimestamp()
+          && !overlapsUnseqData(pageHeader.getMaxTimestamp())) {
+        try {
+          getChunkWriter().writePageHeaderAndDataIntoBuff(chunkReader.nextPageData(), pageHeader);
+        } catch (PageException e) {
+          throw new IOException(e);
+        }
+        chunkWriterHasData = true;
+        updateTime(pageHeader.getMinTimestamp(), pageHeader.getMaxTimestamp());
+      } else {
+        writeBatch(chunkReader.nextBatch());
+      }
+    }
+  }
+
+  private void writeBatch(BatchData batchData) throws IOException {
+    while (batchData.hasNext()) {
+      long time = batchData.currentTime();
+      writeUnseqDataBefore(time);
+      if (unseqReader.hasNext() && unseqReader.current().getTimestamp() == time) {
+        writeTimeValuePair(unseqReader.next());
+      } else {
+        writeBatchPoint(batchData);
+      }
+      batchData.next();
+    }
+  }
+
+  private void writeUnseqDataBefore(long time) throws IOException {
+    while (unseqReader.hasNext() && unseqReader.current().getTimestamp() < time) {
+      writeTimeValuePair(unseqReader.next());
+    }
+  }
+
+  private boolean overlapsUnseqData(long time) throws IOException {
+    return unseqReader.hasNext() && unseqReader.current().getTimestamp() <= time;
+  }
+
+  private void writeBatchPoint(BatchData batchData) throws IOException {
+    ChunkWriterImpl writer = getChunkWriter();
+    long time = batchData.currentTime();
+    switch (batchData.getDataType()) {
+      case BOOLEAN:
+        writer.write(time, batchData.getBoolean());
+        break;
+      case INT32:
+        writer.write(time, batchData.getInt());
+        break;
+      case INT64:
+        writer.write(time, batchData.getLong());
+        break;
+      case FLOAT:
+        writer.write(time, batchData.getFloat());
+        break;
+      case DOUBLE:
+        writer.write(time, batchData.getDouble());
+        break;
+      case TEXT:
+        writer.write(time, batchData.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(batchData.getDataType()));
+    }
+    chunkWriterHasData = true;
+    updateTime(time, time);
+  }
+
+  private void writeTimeValuePair(TimeValuePair timeValuePair) throws IOException {
+    ChunkWriterImpl writer = getChunkWriter();
+    long time = timeValuePair.getTimestamp();
+    switch (measurementSchema.getType()) {
+      case BOOLEAN:
+        writer.write(time, timeValuePair.getValue().getBoolean());
+        break;
+      case INT32:
+        writer.write(time, timeValuePair.getValue().getInt());
+        break;
+      case INT64:
+        writer.write(time, timeValuePair.getValue().getLong());
+        break;
+      case FLOAT:
+        writer.write(time, timeValuePair.getValue().getFloat());
+        break;
+      case DOUBLE:
+        writer.write(time, timeValuePair.getValue().getDouble());
+        break;
+      case TEXT:
+        writer.write(time, timeValuePair.getValue().getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(measurementSchema.getType()));
+    }
+    chunkWriterHasData = true;
+    updateTime(time, time);
+  }
+
+  private ChunkWriterImpl getChunkWriter() {
+    if (chunkWriter == null) {
+      chunkWriter = new ChunkWriterImpl(measurementSchema, new ChunkBuffer(measurementSchema),
+          TSFileConfig.pageSizeInByte);
+    }
+    return chunkWriter;
+  }
+
+  /**
+   * write the collected data as a chunk, so that the chunks of the series stay in time order.
+   */
+  private void flushChunkWriter() throws IOException {
+    if (chunkWriterHasData) {
+      chunkWriter.writeToFileWriter(fileWriter);
+      chunkNum++;
+      chunkWriter = null;
+      chunkWriterHasData = false;
+    }
+  }
+
+  private void updateTime(long minTime, long maxTime) {
+    startTime = Math.min(startTime, minTime);
+    endTime = Math.max(endTime, maxTime);
+  }
+
+  long getStartTime() {
+    return startTime;
+  }
+
+  long getEndTime() {
+    return endTime;
+  }
+}
@@ -18,11 +18,10 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 
@@ -31,7 +30,7 @@ public abstract class AbstractMemTable implements IMemTable {
   private final Map<String, Map<String, IWritableMemChunk>> memTableMap;
 
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    this.memTableMap = new ConcurrentHashMap<>();
   }
 
   public AbstractMemTable(Map<String, Map<String, IWritableMemChunk>> memTableMap) {
@@ -52,16 +51,14 @@ public abstract class AbstractMemTable implements IMemTable {
     return memTableMap.containsKey(deviceId) && memTableMap.get(deviceId).containsKey(measurement);
   }
 
+  /**
+   * several devices may be written at the same time, so the chunks are created atomically.
+   */
   private IWritableMemChunk createIfNotExistAndGet(String deviceId, String measurement,
       TSDataType dataType) {
-    if (!memTableMap.containsKey(deviceId)) {
-      memTableMap.put(deviceId, new HashMap<>());
-    }
-    Map<String, IWritableMemChunk> memSeries = memTableMap.get(deviceId);
-    if (!memSeries.containsKey(measurement)) {
-      memSeries.put(measurement, genMemSeries(dataType));
-    }
-    return memSeries.get(measurement);
+    Map<String, IWritableMemChunk> memSeries = memTableMap
+        .computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
+    return memSeries.computeIfAbsent(measurement, k -> genMemSeries(dataType));
   }
 
   protected abstract IWritableMemChunk genMemSeries(TSDataType dataType);
@@ -93,6 +90,11 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public void clear() {
+    for (Map<String, IWritableMemChunk> seriesMap : memTableMap.values()) {
+      for (IWritableMemChunk writableMemChunk : seriesMap.values()) {
+        writableMemChunk.reset();
+      }
+    }
     memTableMap.clear();
   }
 
@@ -104,14 +106,26 @@ public abstract class AbstractMemTable implements IMemTable {
   @Override
   public ReadOnlyMemChunk query(String deviceId, String measurement, TSDataType dataType,
       Map<String, String> props) {
-    return new ReadOnlyMemChunk(dataType, getSeriesData(deviceId, measurement, dataType), props);
-  }
-
-  private TimeValuePairSorter getSeriesData(String deviceId, String measurement, TSDataType dataType) {
+    // copy the data while holding the lock, because the arrays of the chunk are reused by other
+    // memtables once this memtable is cleared
+    TVList sortedList;
     if (!checkPath(deviceId, measurement)) {
-      return new WritableMemChunk(dataType);
+      sortedList = TVList.newList(dataType);
+    } else {
+      Map<String, IWritableMemChunk> deviceMap = memTableMap.get(deviceId);
+      while (true) {
+        IWritableMemChunk memChunk = deviceMap.get(measurement);
+        // the chunk may be written at the same time
+        synchronized (memChunk) {
+          // a deletion may have replaced the chunk and released its arrays meanwhile
+          if (deviceMap.get(measurement) == memChunk) {
+            sortedList = memChunk.getSortedTVList().clone();
+            break;
+          }
+        }
+      }
     }
-    return memTableMap.get(deviceId).get(measurement);
+    return new ReadOnlyMemChunk(dataType, sortedList, props);
   }
 
   @Override
@@ -121,10 +135,15 @@ public abstract class AbstractMemTable implements IMemTable {
       IWritableMemChunk chunk = deviceMap.get(measurementId);
       //TODO: if the memtable is thread safe, then we do not need to copy data again,
       // otherwise current implementation is error.
-      IWritableMemChunk newChunk = filterChunk(chunk, timestamp);
-      if (newChunk != null) {
-        deviceMap.put(measurementId, newChunk);
-        return newChunk.count() != chunk.count();
+      synchronized (chunk) {
+        IWritableMemChunk newChunk = filterChunk(chunk, timestamp);
+        if (newChunk != null) {
+          deviceMap.put(measurementId, newChunk);
+          boolean deleted = newChunk.count() != chunk.count();
+          // give the arrays of the replaced chunk back to the pool
+          chunk.reset();
+          return deleted;
+        }
       }
     }
     return false;
@@ -140,30 +159,31 @@ public abstract class AbstractMemTable implements IMemTable {
    * null.
    */
   private IWritableMemChunk filterChunk(IWritableMemChunk chunk, long timestamp) {
-    List<TimeValuePair> timeValuePairs = chunk.getSortedTimeValuePairList();
-    if (!timeValuePairs.isEmpty() && timeValuePairs.get(0).getTimestamp() <= timestamp) {
+    TVList sortedList = chunk.getSortedTVList();
+    if (sortedList.size() > 0 && sortedList.getTime(0) <= timestamp) {
       TSDataType dataType = chunk.getType();
       IWritableMemChunk newChunk = genMemSeries(dataType);
-      for (TimeValuePair pair : timeValuePairs) {
-        if (pair.getTimestamp() > timestamp) {
+      for (int i = 0; i < sortedList.size(); i++) {
+        long time = sortedList.getTime(i);
+        if (time > timestamp) {
           switch (dataType) {
             case BOOLEAN:
-              newChunk.putBoolean(pair.getTimestamp(), pair.getValue().getBoolean());
+              newChunk.putBoolean(time, sortedList.getBoolean(i));
               break;
             case DOUBLE:
-              newChunk.putDouble(pair.getTimestamp(), pair.getValue().getDouble());
+              newChunk.putDouble(time, sortedList.getDouble(i));
               break;
             case INT64:
-              newChunk.putLong(pair.getTimestamp(), pair.getValue().getLong());
+              newChunk.putLong(time, sortedList.getLong(i));
               break;
             case INT32:
-              newChunk.putInt(pair.getTimestamp(), pair.getValue().getInt());
+              newChunk.putInt(time, sortedList.getInt(i));
               break;
             case FLOAT:
-              newChunk.putFloat(pair.getTimestamp(), pair.getValue().getFloat());
+              newChunk.putFloat(time, sortedList.getFloat(i));
               break;
             case TEXT:
-              newChunk.putBinary(pair.getTimestamp(), pair.getValue().getBinary());
+              newChunk.putBinary(time, sortedList.getBinary(i));
               break;
             default:
                 throw new UnsupportedOperationException("Unknown datatype: " + dataType);
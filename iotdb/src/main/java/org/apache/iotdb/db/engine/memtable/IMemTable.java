@@ -46,7 +46,8 @@ public interface IMemTable {
       Map<String, String> props);
 
   /**
-   * release all the memory resources.
+   * release all the memory resources. The arrays of the chunks are given back to the array pool, so
+   * the chunks must not be referenced by anyone else.
    */
   void clear();
 
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 
@@ -39,6 +40,16 @@ public interface IWritableMemChunk extends TimeValuePairSorter {
 
   void write(long insertTime, Object insertValue);
 
+  /**
+   * sort the data in place and remove duplicated timestamps (the last written value is kept).
+   *
+   * @return the sorted list, which is owned by this chunk and must not be modified.
+   */
+  TVList getSortedTVList();
+
+  /**
+   * remove all data and give back the arrays holding them to the array pool.
+   */
   void reset();
 
   int count();
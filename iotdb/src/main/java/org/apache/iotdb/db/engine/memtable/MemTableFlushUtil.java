@@ -19,11 +19,7 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-
-import java.util.Map;
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -46,40 +42,43 @@ public class MemTableFlushUtil {
 
   }
 
-  private static void writeOneSeries(List<TimeValuePair> tvPairs, IChunkWriter seriesWriterImpl,
+  private static void writeOneSeries(TVList tvList, IChunkWriter seriesWriterImpl,
       TSDataType dataType)
       throws IOException {
-    for (TimeValuePair timeValuePair : tvPairs) {
-      switch (dataType) {
-        case BOOLEAN:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
-          break;
-        case INT32:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getInt());
-          break;
-        case INT64:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getLong());
-          break;
-        case FLOAT:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getFloat());
-          break;
-        case DOUBLE:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(),
-                            timeValuePair.getValue().getDouble());
-          break;
-        case TEXT:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
-          break;
-        default:
-          LOGGER.error("don't support data type: {}", dataType);
-          break;
-      }
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getBoolean(i));
+        }
+        break;
+      case INT32:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getInt(i));
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getLong(i));
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getFloat(i));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getDouble(i));
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < tvList.size(); i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getBinary(i));
+        }
+        break;
+      default:
+        LOGGER.error("don't support data type: {}", dataType);
+        break;
     }
   }
 
@@ -98,8 +97,7 @@ public class MemTableFlushUtil {
         MeasurementSchema desc = fileSchema.getMeasurementSchema(measurementId);
         ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
         IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
-        List<TimeValuePair> sortedTimeValuePairs = series.getSortedTimeValuePairList();
-        writeOneSeries(sortedTimeValuePairs, seriesWriter, desc.getType());
+        writeOneSeries(series.getSortedTVList(), seriesWriter, desc.getType());
         seriesWriter.writeToFileWriter(tsFileIoWriter);
       }
       long memSize = tsFileIoWriter.getPos() - startPos;
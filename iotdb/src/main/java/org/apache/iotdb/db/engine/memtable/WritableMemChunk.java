@@ -19,14 +19,9 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import org.apache.iotdb.db.utils.PrimitiveArrayList;
-import org.apache.iotdb.db.utils.PrimitiveArrayListFactory;
 import org.apache.iotdb.db.utils.TimeValuePair;
-import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -34,30 +29,30 @@ import org.apache.iotdb.tsfile.utils.Binary;
 public class WritableMemChunk implements IWritableMemChunk {
 
   private TSDataType dataType;
-  private PrimitiveArrayList list;
+  private TVList list;
 
   public WritableMemChunk(TSDataType dataType) {
     this.dataType = dataType;
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+    this.list = TVList.newList(dataType);
   }
 
   @Override
   public void write(long insertTime, String insertValue) {
     switch (dataType) {
       case BOOLEAN:
-        putBoolean(insertTime, Boolean.valueOf(insertValue));
+        putBoolean(insertTime, Boolean.parseBoolean(insertValue));
         break;
       case INT32:
-        putInt(insertTime, Integer.valueOf(insertValue));
+        putInt(insertTime, Integer.parseInt(insertValue));
         break;
       case INT64:
-        putLong(insertTime, Long.valueOf(insertValue));
+        putLong(insertTime, Long.parseLong(insertValue));
         break;
       case FLOAT:
-        putFloat(insertTime, Float.valueOf(insertValue));
+        putFloat(insertTime, Float.parseFloat(insertValue));
         break;
       case DOUBLE:
-        putDouble(insertTime, Double.valueOf(insertValue));
+        putDouble(insertTime, Double.parseDouble(insertValue));
         break;
       case TEXT:
         putBinary(insertTime, Binary.valueOf(insertValue));
@@ -94,57 +89,58 @@ public class WritableMemChunk implements IWritableMemChunk {
 
 
   @Override
-  public void putLong(long t, long v) {
-    list.putTimestamp(t, v);
+  public synchronized void putLong(long t, long v) {
+    list.putLong(t, v);
   }
 
   @Override
-  public void putInt(long t, int v) {
-    list.putTimestamp(t, v);
+  public synchronized void putInt(long t, int v) {
+    list.putInt(t, v);
   }
 
   @Override
-  public void putFloat(long t, float v) {
-    list.putTimestamp(t, v);
+  public synchronized void putFloat(long t, float v) {
+    list.putFloat(t, v);
   }
 
   @Override
-  public void putDouble(long t, double v) {
-    list.putTimestamp(t, v);
+  public synchronized void putDouble(long t, double v) {
+    list.putDouble(t, v);
   }
 
   @Override
-  public void putBinary(long t, Binary v) {
-    list.putTimestamp(t, v);
+  public synchronized void putBinary(long t, Binary v) {
+    list.putBinary(t, v);
   }
 
   @Override
-  public void putBoolean(long t, boolean v) {
-    list.putTimestamp(t, v);
+  public synchronized void putBoolean(long t, boolean v) {
+    list.putBoolean(t, v);
+  }
+
+  @Override
+  public synchronized TVList getSortedTVList() {
+    list.sort();
+    return list;
   }
 
   @Override
-  // TODO: Consider using arrays to sort and remove duplicates
   public List<TimeValuePair> getSortedTimeValuePairList() {
-    int length = list.size();
-    Map<Long, TsPrimitiveType> map = new HashMap<>(length, 1.0f);
-    for (int i = 0; i < length; i++) {
-      map.put(list.getTimestamp(i), TsPrimitiveType.getByType(dataType, list.getValue(i)));
+    TVList sortedList = getSortedTVList();
+    List<TimeValuePair> ret = new ArrayList<>(sortedList.size());
+    for (int i = 0; i < sortedList.size(); i++) {
+      ret.add(sortedList.getTimeValuePair(i));
     }
-    List<TimeValuePair> ret = new ArrayList<>(map.size());
-    map.forEach((k, v) -> ret.add(new TimeValuePairInMemTable(k, v)));
-    ret.sort(TimeValuePair::compareTo);
     return ret;
-
   }
 
   @Override
-  public void reset() {
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+  public synchronized void reset() {
+    list.clear();
   }
 
   @Override
-  public int count() {
+  public synchronized int count() {
     return list.size();
   }
 
@@ -54,7 +54,7 @@ public class OverflowMemtable {
     for (DataPoint dataPoint : tsRecord.dataPointList) {
       memTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
               tsRecord.time,
-              dataPoint.getValue().toString());
+              dataPoint.getValue());
     }
   }
 
@@ -60,6 +60,7 @@ import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -238,6 +239,34 @@ public class OverflowProcessor extends Processor {
 
   }
 
+  /**
+   * append chunks of a device read from another tsfile to the overflow insert file without
+   * decoding them. The data in memory is flushed first, so that the appended chunks have a newer
+   * version than all data inserted before.
+   *
+   * @param deviceId the device of the chunks
+   * @param reader the reader of the tsfile the chunks are read from
+   * @param chunkMetaDataList the chunks to append, in the tsfile of the reader
+   */
+  public void appendChunks(String deviceId, TsFileSequenceReader reader,
+      List<ChunkMetaData> chunkMetaDataList) throws IOException {
+    try {
+      checkOpen();
+      flush().get();
+    } catch (OverflowProcessorException | ExecutionException e) {
+      throw new IOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    queryFlushLock.lock();
+    try {
+      workResource.appendChunks(deviceId, reader, chunkMetaDataList);
+    } finally {
+      queryFlushLock.unlock();
+    }
+  }
+
   /**
    * @deprecated update one time-series data which time range is from startTime from endTime.
    */
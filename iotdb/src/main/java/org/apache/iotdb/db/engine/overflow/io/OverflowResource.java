@@ -41,10 +41,12 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.FileSchema;
@@ -234,19 +236,63 @@ public class OverflowResource {
       List<ChunkGroupMetaData> rowGroupMetaDatas = insertIO.getChunkGroupMetaDatas();
       appendInsertMetadatas.addAll(rowGroupMetaDatas);
       if (!rowGroupMetaDatas.isEmpty()) {
-        insertIO.getWriter().write(BytesUtils.longToBytes(lastPosition));
-        TsDeviceMetadata tsDeviceMetadata = new TsDeviceMetadata();
-        tsDeviceMetadata.setChunkGroupMetadataList(rowGroupMetaDatas);
-        long start = insertIO.getPos();
-        tsDeviceMetadata.serializeTo(insertIO.getOutputStream());
-        long end = insertIO.getPos();
-        insertIO.getWriter().write(BytesUtils.intToBytes((int) (end - start)));
-        // clear the meta-data of insert IO
-        insertIO.clearRowGroupMetadatas();
+        writeChunkGroupMetadatas(rowGroupMetaDatas, lastPosition);
       }
     }
   }
 
+  /**
+   * append chunks of a device read from another tsfile to the insert file as they are stored,
+   * without decoding them. The chunks form one chunk group, whose meta-data is visible to queries
+   * as soon as this method returns.
+   *
+   * @param deviceId the device of the chunks
+   * @param reader the reader of the tsfile the chunks are read from
+   * @param chunkMetaDataList the chunks to append, in the tsfile of the reader
+   */
+  public void appendChunks(String deviceId, TsFileSequenceReader reader,
+      List<ChunkMetaData> chunkMetaDataList) throws IOException {
+    if (chunkMetaDataList.isEmpty()) {
+      return;
+    }
+    insertIO.toTail();
+    long lastPosition = insertIO.getPos();
+    insertIO.startFlushChunkGroup(deviceId);
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      insertIO.writeChunk(reader.readMemChunk(chunkMetaData), chunkMetaData);
+    }
+    long dataSize = insertIO.getPos() - lastPosition;
+    long version = versionController.nextVersion();
+    insertIO.endChunkGroup(new ChunkGroupFooter(deviceId, dataSize, chunkMetaDataList.size()),
+        version);
+    List<ChunkGroupMetaData> rowGroupMetaDatas = new ArrayList<>(insertIO.getChunkGroupMetaDatas());
+    writeChunkGroupMetadatas(rowGroupMetaDatas, lastPosition);
+    writePositionInfo(insertIO.getPos(), 0);
+    for (ChunkGroupMetaData rowGroupMetaData : rowGroupMetaDatas) {
+      for (ChunkMetaData chunkMetaData : rowGroupMetaData.getChunkMetaDataList()) {
+        chunkMetaData.setVersion(version);
+        addInsertMetadata(deviceId, chunkMetaData.getMeasurementUid(), chunkMetaData);
+      }
+    }
+  }
+
+  /**
+   * write the meta-data of the chunk groups written since lastPosition, followed by lastPosition,
+   * so that readMetadata can find them from the tail of the insert file.
+   */
+  private void writeChunkGroupMetadatas(List<ChunkGroupMetaData> rowGroupMetaDatas,
+      long lastPosition) throws IOException {
+    insertIO.getWriter().write(BytesUtils.longToBytes(lastPosition));
+    TsDeviceMetadata tsDeviceMetadata = new TsDeviceMetadata();
+    tsDeviceMetadata.setChunkGroupMetadataList(rowGroupMetaDatas);
+    long start = insertIO.getPos();
+    tsDeviceMetadata.serializeTo(insertIO.getOutputStream());
+    long end = insertIO.getPos();
+    insertIO.getWriter().write(BytesUtils.intToBytes((int) (end - start)));
+    // clear the meta-data of insert IO
+    insertIO.clearRowGroupMetadatas();
+  }
+
   public void appendMetadatas() {
     if (!appendInsertMetadatas.isEmpty()) {
       for (ChunkGroupMetaData rowGroupMetaData : appendInsertMetadatas) {
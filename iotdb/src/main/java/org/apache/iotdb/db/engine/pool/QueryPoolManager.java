@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * QueryPoolManager evaluates the independent parts of queries, e.g., the aggregations of different
+ * series, in a bounded pool of query threads.
+ */
+public class QueryPoolManager implements IService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryPoolManager.class);
+  private static final int EXIT_WAIT_TIME = 60 * 1000;
+
+  private volatile ExecutorService pool;
+  private int threadCnt;
+
+  private QueryPoolManager() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.threadCnt = config.getConcurrentQueryThread();
+    pool = IoTDBThreadPoolFactory.newFixedThreadPool(threadCnt, ThreadName.QUERY_SERVICE.getName());
+  }
+
+  public static QueryPoolManager getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * create the pool again if it has been stopped.
+   */
+  @Override
+  public synchronized void start() {
+    if (pool.isShutdown()) {
+      IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+      threadCnt = config.getConcurrentQueryThread();
+      pool = IoTDBThreadPoolFactory
+          .newFixedThreadPool(threadCnt, ThreadName.QUERY_SERVICE.getName());
+    }
+  }
+
+  /**
+   * refuse new tasks and wait for the running ones, which are interrupted if they do not end
+   * within {@value #EXIT_WAIT_TIME} ms.
+   */
+  @Override
+  public synchronized void stop() {
+    pool.shutdown();
+    try {
+      if (!pool.awaitTermination(EXIT_WAIT_TIME, TimeUnit.MILLISECONDS)) {
+        LOGGER.warn("Query thread pool doesn't exit after {} ms, interrupt the tasks",
+            EXIT_WAIT_TIME);
+        pool.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      LOGGER.error("Interrupted while waiting query thread pool to exit.", e);
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.QUERY_POOL_SERVICE;
+  }
+
+  /**
+   * evaluate the tasks of one query and wait for all of them. At most max_query_parallelism tasks
+   * run at the same time. A single task, or a parallelism of 1, runs in the calling thread.
+   *
+   * @param tasks the independent tasks of one query
+   * @return the results in the order of the tasks
+   * @throws IOException if a task throws an IOException
+   * @throws ProcessorException if a task throws another exception, or the wait is interrupted
+   */
+  public <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException, ProcessorException {
+    int parallelism = Math.min(tasks.size(),
+        IoTDBDescriptor.getInstance().getConfig().getMaxQueryParallelism());
+    if (parallelism <= 1) {
+      List<T> results = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        } catch (IOException | ProcessorException | RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new ProcessorException(e);
+        }
+      }
+      return results;
+    }
+
+    Object[] results = new Object[tasks.size()];
+    CompletionService<Integer> completionService = new ExecutorCompletionService<>(pool);
+    // tasks are submitted only when a running one finishes, so no task is waiting in the pool
+    List<Future<Integer>> futures = new ArrayList<>(parallelism);
+    boolean finished = false;
+    try {
+      int submitted = 0;
+      for (; submitted < parallelism; submitted++) {
+        futures.add(submit(completionService, tasks, results, submitted));
+      }
+      for (int done = 0; done < tasks.size(); done++) {
+        completionService.take().get();
+        if (submitted < tasks.size()) {
+          futures.add(submit(completionService, tasks, results, submitted));
+          submitted++;
+        }
+      }
+      finished = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessorException("Interrupted while waiting for the query tasks", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof ProcessorException) {
+        throw (ProcessorException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ProcessorException(cause);
+    } finally {
+      if (!finished) {
+        waitForRunningTasks(futures);
+      }
+    }
+    @SuppressWarnings("unchecked")
+    List<T> resultList = (List<T>) Arrays.asList(results);
+    return resultList;
+  }
+
+  private static <T> Future<Integer> submit(CompletionService<Integer> completionService,
+      List<Callable<T>> tasks, Object[] results, int index) {
+    return completionService.submit(() -> {
+      results[index] = tasks.get(index).call();
+      return index;
+    });
+  }
+
+  /**
+   * wait for the tasks still running after the query failed, as they may use the resources of the
+   * query, which are released once the query ends. They are not interrupted, because an interrupt
+   * closes the file channels they read.
+   */
+  private static void waitForRunningTasks(List<Future<Integer>> futures) {
+    boolean interrupted = false;
+    for (Future<Integer> future : futures) {
+      while (!future.isDone()) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          // the failure of the query has been reported
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public int getThreadCnt() {
+    return threadCnt;
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      //allowed to do nothing
+    }
+
+    private static QueryPoolManager instance = new QueryPoolManager();
+  }
+}
@@ -18,10 +18,12 @@
  */
 package org.apache.iotdb.db.engine.querycontext;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
 import org.apache.iotdb.db.utils.MathUtils;
@@ -29,6 +31,7 @@ import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
 import org.apache.iotdb.db.utils.TsPrimitiveType.TsDouble;
 import org.apache.iotdb.db.utils.TsPrimitiveType.TsFloat;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -42,6 +45,12 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
   private TimeValuePairSorter memSeries;
   private List<TimeValuePair> sortedTimeValuePairList;
 
+  /**
+   * a sorted copy of the chunk data, read directly when this is not built from a
+   * TimeValuePairSorter.
+   */
+  private TVList chunkData;
+
   Map<String, String> props;
   private int floatPrecision = TSFileConfig.floatPrecision;
 
@@ -58,6 +67,14 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
     }
   }
 
+  /**
+   * init by TSDataType and a sorted list owned by this chunk.
+   */
+  public ReadOnlyMemChunk(TSDataType dataType, TVList chunkData, Map<String, String> props) {
+    this(dataType, (TimeValuePairSorter) null, props);
+    this.chunkData = chunkData;
+  }
+
   private void checkInitialized() {
     if (!initialized) {
       init();
@@ -65,6 +82,14 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
   }
 
   private void init() {
+    if (chunkData != null) {
+      sortedTimeValuePairList = new ArrayList<>(chunkData.size());
+      for (int i = 0; i < chunkData.size(); i++) {
+        sortedTimeValuePairList.add(getTimeValuePair(i));
+      }
+      initialized = true;
+      return;
+    }
     sortedTimeValuePairList = memSeries.getSortedTimeValuePairList();
     if (!(memSeries instanceof MemSeriesLazyMerger)) {
       switch (dataType) {
@@ -87,6 +112,22 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
     initialized = true;
   }
 
+  /**
+   * get the point at index of chunkData, with float values rounded to the given precision.
+   */
+  private TimeValuePair getTimeValuePair(int index) {
+    switch (dataType) {
+      case FLOAT:
+        return new TimeValuePair(chunkData.getTime(index), new TsFloat(
+            MathUtils.roundWithGivenPrecision(chunkData.getFloat(index), floatPrecision)));
+      case DOUBLE:
+        return new TimeValuePair(chunkData.getTime(index), new TsDouble(
+            MathUtils.roundWithGivenPrecision(chunkData.getDouble(index), floatPrecision)));
+      default:
+        return chunkData.getTimeValuePair(index);
+    }
+  }
+
   /**
    * only for test now.
    */
@@ -150,12 +191,34 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
 
   @Override
   public Iterator<TimeValuePair> getIterator() {
+    if (chunkData != null && !initialized) {
+      // build the points one by one as the reader consumes them
+      return new Iterator<TimeValuePair>() {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < chunkData.size();
+        }
+
+        @Override
+        public TimeValuePair next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return getTimeValuePair(index++);
+        }
+      };
+    }
     checkInitialized();
     return sortedTimeValuePairList.iterator();
   }
 
   @Override
   public boolean isEmpty() {
+    if (chunkData != null) {
+      return chunkData.size() == 0;
+    }
     checkInitialized();
     return sortedTimeValuePairList.isEmpty();
   }
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.exception;
+
+/**
+ * Throw this exception when some records of a batch are not inserted. The other records of the
+ * batch are inserted, so the exception tells which ones they are.
+ */
+public class BatchInsertException extends FileNodeManagerException {
+
+  private static final long serialVersionUID = -5378414578434524719L;
+
+  private final boolean[] insertedRecords;
+
+  public BatchInsertException(String message, boolean[] insertedRecords) {
+    super(message);
+    this.insertedRecords = insertedRecords;
+  }
+
+  /**
+   * @return whether each record of the batch is inserted, in the order of the batch
+   */
+  public boolean[] getInsertedRecords() {
+    return insertedRecords;
+  }
+}
@@ -49,6 +49,22 @@ public class MGraph implements Serializable {
     ptreeMap = new HashMap<>();
   }
 
+  /**
+   * build a {@code MGraph} without {@code PTree} on an existing {@code MTree}.
+   */
+  public MGraph(MTree mtree) {
+    this.mtree = mtree;
+    ptreeMap = new HashMap<>();
+  }
+
+  MTree getMTree() {
+    return mtree;
+  }
+
+  boolean hasPTree() {
+    return !ptreeMap.isEmpty();
+  }
+
   /**
    * Add a {@code PTree} to current {@code MGraph}.
    */
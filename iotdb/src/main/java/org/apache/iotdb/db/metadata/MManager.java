@@ -22,18 +22,18 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.MetadataArgsErrorException;
@@ -64,17 +64,28 @@ public class MManager {
 
   // the lock for read/write
   private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-  // The file storing the serialize info for metadata
+  // The file storing the serialize info for metadata, only read when upgrading
   private String datafilePath;
+  // The file storing the binary snapshot of the MTree
+  private String snapshotFilePath;
   // the log file seriesPath
   private String logFilePath;
   private MGraph mgraph;
   private BufferedWriter logWriter;
   private boolean writeToLog;
   private String metadataDirPath;
+  // the number of lines in the log file and the number of them covered by the snapshot
+  private long logLineCount;
+  private long snapshotLineCount;
+  private AtomicBoolean snapshotting = new AtomicBoolean(false);
 
   private RandomDeleteCache<String, PathCheckRet> checkAndGetDataTypeCache;
   private RandomDeleteCache<String, MNode> mNodeCache;
+  // Lookups on the hot paths of insertion and query planning are answered from these maps without
+  // taking the lock or splitting the path. Only successful lookups are kept, and the maps are
+  // cleared under the write lock whenever a node is deleted or a storage group is set.
+  private Map<String, MeasurementSchema> seriesSchemaIndex = new ConcurrentHashMap<>();
+  private Map<String, String> fileNameIndex = new ConcurrentHashMap<>();
 
   private MManager() {
     metadataDirPath = IoTDBDescriptor.getInstance().getConfig().getMetadataDir();
@@ -87,6 +98,7 @@ public class MManager {
       metadataDir.mkdirs();
     }
     datafilePath = metadataDirPath + MetadataConstant.METADATA_OBJ;
+    snapshotFilePath = metadataDirPath + MetadataConstant.MTREE_SNAPSHOT;
     logFilePath = metadataDirPath + MetadataConstant.METADATA_LOG;
     writeToLog = false;
 
@@ -132,12 +144,17 @@ public class MManager {
 
     lock.writeLock().lock();
     File dataFile = new File(datafilePath);
+    File snapshotFile = new File(snapshotFilePath);
     File logFile = new File(logFilePath);
     try {
-      if (dataFile.exists()) {
+      if (snapshotFile.exists()) {
+        initFromSnapshot(snapshotFile, logFile);
+      } else if (dataFile.exists()) {
         initFromDataFile(dataFile);
+        logLineCount = countLogLines(logFile);
+        writeSnapshot();
       } else {
-        initFromLog(logFile);
+        initFromLog(logFile, 0);
       }
       logWriter = new BufferedWriter(new FileWriter(logFile, true));
       writeToLog = true;
@@ -159,19 +176,103 @@ public class MManager {
     }
   }
 
-  private void initFromLog(File logFile)
+  private void initFromSnapshot(File snapshotFile, File logFile)
+      throws IOException, PathErrorException, MetadataArgsErrorException {
+    MTreeSnapshot snapshot;
+    try {
+      snapshot = MTreeSnapshot.deserializeFrom(snapshotFile);
+    } catch (IOException e) {
+      LOGGER.warn("Cannot read the snapshot {}, redoing the whole metadata log", snapshotFile, e);
+      initFromLog(logFile, 0);
+      return;
+    }
+    mgraph = new MGraph(snapshot.getMTree());
+    snapshotLineCount = snapshot.getLogLineCount();
+    replayLog(logFile, snapshotLineCount);
+    if (logLineCount < snapshotLineCount) {
+      LOGGER.warn("The metadata log {} has {} lines but the snapshot covers {} lines, "
+          + "taking a new snapshot", logFile, logLineCount, snapshotLineCount);
+      writeSnapshot();
+    }
+  }
+
+  private void initFromLog(File logFile, long skippedLines)
       throws IOException, PathErrorException, MetadataArgsErrorException {
     // init the metadata from the operation log
     mgraph = new MGraph(ROOT_NAME);
+    replayLog(logFile, skippedLines);
+  }
+
+  /**
+   * redo the operations in the log after the first skippedLines lines and count all its lines.
+   */
+  private void replayLog(File logFile, long skippedLines)
+      throws IOException, PathErrorException, MetadataArgsErrorException {
+    logLineCount = 0;
     if (logFile.exists()) {
       try( FileReader fr = new FileReader(logFile);
           BufferedReader br = new BufferedReader(fr)) {
         String cmd;
         while ((cmd = br.readLine()) != null) {
-          operation(cmd);
+          if (++logLineCount > skippedLines) {
+            operation(cmd);
+          }
+        }
+      }
+    }
+  }
+
+  private long countLogLines(File logFile) throws IOException {
+    long count = 0;
+    if (logFile.exists()) {
+      try (BufferedReader br = new BufferedReader(new FileReader(logFile))) {
+        while (br.readLine() != null) {
+          count++;
         }
       }
     }
+    return count;
+  }
+
+  /**
+   * take a snapshot of the MTree if enough operations have been logged since the last one. It is
+   * called after the write lock is released so that the snapshot is written under the read lock.
+   */
+  private void checkpointIfNeeded() {
+    long interval = IoTDBDescriptor.getInstance().getConfig().getMtreeSnapshotInterval();
+    if (!writeToLog || interval <= 0 || logLineCount - snapshotLineCount < interval) {
+      return;
+    }
+    if (!snapshotting.compareAndSet(false, true)) {
+      return;
+    }
+    lock.readLock().lock();
+    try {
+      if (logLineCount - snapshotLineCount >= interval) {
+        writeSnapshot();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Cannot take a snapshot of MTree into {}", snapshotFilePath, e);
+    } finally {
+      lock.readLock().unlock();
+      snapshotting.set(false);
+    }
+  }
+
+  /**
+   * write the MTree into the snapshot file, the caller should hold the read or write lock. The
+   * snapshot is skipped if there are PTrees as they are not included in it.
+   */
+  private void writeSnapshot() throws IOException {
+    if (mgraph.hasPTree()) {
+      return;
+    }
+    File metadataDir = new File(metadataDirPath);
+    if (!metadataDir.exists()) {
+      metadataDir.mkdirs();
+    }
+    new MTreeSnapshot(mgraph.getMTree(), logLineCount).serializeTo(new File(snapshotFilePath));
+    snapshotLineCount = logLineCount;
   }
 
   /**
@@ -181,11 +282,22 @@ public class MManager {
     lock.writeLock().lock();
     try {
       this.mgraph = new MGraph(ROOT_NAME);
+      clearCaches();
     } finally {
       lock.writeLock().unlock();
     }
   }
 
+  /**
+   * clear all the cached lookups, the caller should hold the write lock.
+   */
+  private void clearCaches() {
+    checkAndGetDataTypeCache.clear();
+    mNodeCache.clear();
+    seriesSchemaIndex.clear();
+    fileNameIndex.clear();
+  }
+
   private void operation(String cmd)
       throws PathErrorException, IOException, MetadataArgsErrorException {
     //see addPathToMTree() to get the detailed format of the cmd
@@ -244,6 +356,10 @@ public class MManager {
       if (!metadataDir.exists()) {
         metadataDir.mkdirs();
       }
+      if (!logFile.exists()) {
+        logLineCount = 0;
+        snapshotLineCount = 0;
+      }
       FileWriter fileWriter;
       fileWriter = new FileWriter(logFile, true);
       logWriter = new BufferedWriter(fileWriter);
@@ -277,10 +393,12 @@ public class MManager {
         }
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
     }
+    checkpointIfNeeded();
   }
 
   /**
@@ -305,21 +423,23 @@ public class MManager {
    * function for deleting a given path from mTree.
    */
   public String deletePathFromMTree(String path) throws PathErrorException, IOException {
+    String dataFileName;
     lock.writeLock().lock();
     try {
-      checkAndGetDataTypeCache.clear();
-      mNodeCache.clear();
-      String dataFileName = mgraph.deletePath(path);
+      clearCaches();
+      dataFileName = mgraph.deletePath(path);
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.DELETE_PATH_FROM_MTREE + "," + path);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
-      return dataFileName;
     } finally {
       lock.writeLock().unlock();
     }
+    checkpointIfNeeded();
+    return dataFileName;
   }
 
   /**
@@ -329,18 +449,19 @@ public class MManager {
 
     lock.writeLock().lock();
     try {
-      checkAndGetDataTypeCache.clear();
-      mNodeCache.clear();
+      clearCaches();
       mgraph.setStorageLevel(path);
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.SET_STORAGE_LEVEL_TO_MTREE + "," + path);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
     }
+    checkpointIfNeeded();
   }
 
   /**
@@ -382,6 +503,7 @@ public class MManager {
         logWriter.write(MetadataOperationType.ADD_A_PTREE + "," + ptreeRootName);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
@@ -402,6 +524,7 @@ public class MManager {
         logWriter.write(MetadataOperationType.ADD_A_PATH_TO_PTREE + "," + path);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
@@ -415,12 +538,14 @@ public class MManager {
 
     lock.writeLock().lock();
     try {
+      clearCaches();
       mgraph.deletePath(path);
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.DELETE_PATH_FROM_PTREE + "," + path);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
@@ -440,6 +565,7 @@ public class MManager {
         logWriter.write(MetadataOperationType.LINK_MNODE_TO_PTREE + "," + path + "," + mpath);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
@@ -460,6 +586,7 @@ public class MManager {
         logWriter.write(MetadataOperationType.UNLINK_MNODE_FROM_PTREE + "," + path + "," + mpath);
         logWriter.newLine();
         logWriter.flush();
+        logLineCount++;
       }
     } finally {
       lock.writeLock().unlock();
@@ -472,13 +599,7 @@ public class MManager {
    * @return TSDataType
    */
   public TSDataType getSeriesType(String fullPath) throws PathErrorException {
-
-    lock.readLock().lock();
-    try {
-      return getSchemaForOnePath(fullPath).getType();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return getSchemaForOnePath(fullPath).getType();
   }
 
   /**
@@ -645,10 +766,16 @@ public class MManager {
    * @return A String represented the file name
    */
   public String getFileNameByPath(String path) throws PathErrorException {
+    String fileName = fileNameIndex.get(path);
+    if (fileName != null) {
+      return fileName;
+    }
 
     lock.readLock().lock();
     try {
-      return mgraph.getFileNameByPath(path);
+      fileName = mgraph.getFileNameByPath(path);
+      fileNameIndex.put(path, fileName);
+      return fileName;
     } catch (PathErrorException e) {
       throw new PathErrorException(e);
     } finally {
@@ -775,6 +902,9 @@ public class MManager {
    * Check whether the seriesPath given exists.
    */
   public boolean pathExist(String path) {
+    if (seriesSchemaIndex.containsKey(path)) {
+      return true;
+    }
 
     lock.readLock().lock();
     try {
@@ -813,6 +943,12 @@ public class MManager {
    * function for getting node by deviceId from cache.
    */
   public MNode getNodeByDeviceIdFromCache(String deviceId) throws PathErrorException {
+    MNode node = mNodeCache.getIfPresent(deviceId);
+    if (node != null) {
+      return node;
+    }
+
+    // the node is loaded and cached under the lock so that it is not put after a deletion
     lock.readLock().lock();
     try {
       return mNodeCache.get(deviceId);
@@ -840,10 +976,16 @@ public class MManager {
    * node.
    */
   public MeasurementSchema getSchemaForOnePath(String path) throws PathErrorException {
+    MeasurementSchema schema = seriesSchemaIndex.get(path);
+    if (schema != null) {
+      return schema;
+    }
 
     lock.readLock().lock();
     try {
-      return mgraph.getSchemaForOnePath(path);
+      schema = mgraph.getSchemaForOnePath(path);
+      seriesSchemaIndex.put(path, schema);
+      return schema;
     } finally {
       lock.readLock().unlock();
     }
@@ -960,22 +1102,14 @@ public class MManager {
     if (dataFile.exists()) {
       dataFile.delete();
     }
-    File metadataDir = new File(metadataDirPath);
-    if (!metadataDir.exists()) {
-      metadataDir.mkdirs();
-    }
-    File tempFile = new File(datafilePath + MetadataConstant.METADATA_TEMP);
-    try(FileOutputStream fos = new FileOutputStream(tempFile);
-        ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-      oos.writeObject(mgraph);
+    try {
+      writeSnapshot();
+    } finally {
       // close the logFile stream
       if (logWriter != null) {
         logWriter.close();
         logWriter = null;
       }
-      // rename temp file to data file
-      tempFile.renameTo(dataFile);
-    } finally {
       lock.writeLock().unlock();
     }
   }
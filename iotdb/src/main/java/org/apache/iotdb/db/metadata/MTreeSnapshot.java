@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * A compact binary snapshot of the {@link MTree}, together with the number of lines of the metadata
+ * log that it covers. The nodes are written in pre-order. A node only stores its data file name if
+ * it differs from that of its parent, so the nodes under a storage group share one string after
+ * loading.
+ */
+public class MTreeSnapshot {
+
+  private static final int MAGIC_NUMBER = 0x4D545331;
+
+  private static final int LEAF = 1;
+  private static final int STORAGE_LEVEL = 1 << 1;
+  private static final int DATA_FILE_NAME_OF_PARENT = 1 << 2;
+  private static final int NO_DATA_FILE_NAME = 1 << 3;
+
+  private MTree mtree;
+  private long logLineCount;
+
+  public MTreeSnapshot(MTree mtree, long logLineCount) {
+    this.mtree = mtree;
+    this.logLineCount = logLineCount;
+  }
+
+  public MTree getMTree() {
+    return mtree;
+  }
+
+  /**
+   * the number of lines at the beginning of the metadata log whose operations are included.
+   */
+  public long getLogLineCount() {
+    return logLineCount;
+  }
+
+  /**
+   * write the snapshot into a temporary file and rename it to the given file.
+   */
+  public void serializeTo(File file) throws IOException {
+    File tempFile = new File(file.getPath() + MetadataConstant.METADATA_TEMP);
+    try (DataOutputStream outputStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      outputStream.writeInt(MAGIC_NUMBER);
+      outputStream.writeLong(logLineCount);
+      serializeNode(mtree.getRoot(), outputStream);
+    }
+    if (file.exists() && !file.delete()) {
+      throw new IOException(String.format("Cannot delete the old snapshot %s", file));
+    }
+    if (!tempFile.renameTo(file)) {
+      throw new IOException(String.format("Cannot rename %s to %s", tempFile, file));
+    }
+  }
+
+  /**
+   * read a snapshot written by {@link #serializeTo(File)}.
+   */
+  public static MTreeSnapshot deserializeFrom(File file) throws IOException {
+    try (DataInputStream inputStream = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file)))) {
+      if (inputStream.readInt() != MAGIC_NUMBER) {
+        throw new IOException(String.format("%s is not a snapshot of MTree", file));
+      }
+      long logLineCount = inputStream.readLong();
+      MNode root = deserializeNode(null, inputStream);
+      return new MTreeSnapshot(new MTree(root), logLineCount);
+    }
+  }
+
+  private static void serializeNode(MNode node, DataOutputStream outputStream)
+      throws IOException {
+    outputStream.writeUTF(node.getName());
+
+    int flags = 0;
+    if (node.isLeaf()) {
+      flags |= LEAF;
+    }
+    if (node.isStorageLevel()) {
+      flags |= STORAGE_LEVEL;
+    }
+    String dataFileName = node.getDataFileName();
+    if (dataFileName == null) {
+      flags |= NO_DATA_FILE_NAME;
+    } else if (node.getParent() != null
+        && Objects.equals(dataFileName, node.getParent().getDataFileName())) {
+      flags |= DATA_FILE_NAME_OF_PARENT;
+    }
+    outputStream.writeByte(flags);
+    if ((flags & (NO_DATA_FILE_NAME | DATA_FILE_NAME_OF_PARENT)) == 0) {
+      outputStream.writeUTF(dataFileName);
+    }
+
+    if (node.isLeaf()) {
+      MeasurementSchema schema = node.getSchema();
+      outputStream.writeShort(schema.getType().serialize());
+      outputStream.writeShort(schema.getEncodingType().serialize());
+      outputStream.writeShort(schema.getCompressor().serialize());
+      Map<String, String> props = schema.getProps();
+      outputStream.writeInt(props == null ? 0 : props.size());
+      if (props != null) {
+        for (Map.Entry<String, String> entry : props.entrySet()) {
+          outputStream.writeUTF(entry.getKey());
+          outputStream.writeUTF(entry.getValue());
+        }
+      }
+    } else {
+      outputStream.writeInt(node.getChildren().size());
+      for (MNode child : node.getChildren().values()) {
+        serializeNode(child, outputStream);
+      }
+    }
+  }
+
+  private static MNode deserializeNode(MNode parent, DataInputStream inputStream)
+      throws IOException {
+    String name = inputStream.readUTF();
+    int flags = inputStream.readByte();
+
+    String dataFileName;
+    if ((flags & NO_DATA_FILE_NAME) != 0) {
+      dataFileName = null;
+    } else if ((flags & DATA_FILE_NAME_OF_PARENT) != 0) {
+      dataFileName = parent.getDataFileName();
+    } else {
+      dataFileName = inputStream.readUTF();
+    }
+
+    MNode node;
+    if ((flags & LEAF) != 0) {
+      TSDataType dataType = TSDataType.deserialize(inputStream.readShort());
+      TSEncoding encoding = TSEncoding.deserialize(inputStream.readShort());
+      CompressionType compressor = CompressionType.deserialize(inputStream.readShort());
+      node = new MNode(name, parent, dataType, encoding, compressor);
+      int propsSize = inputStream.readInt();
+      if (propsSize > 0) {
+        Map<String, String> props = new HashMap<>(propsSize);
+        for (int i = 0; i < propsSize; i++) {
+          props.put(inputStream.readUTF(), inputStream.readUTF());
+        }
+        node.getSchema().setProps(props);
+      }
+    } else {
+      node = new MNode(name, parent, false);
+      if ((flags & STORAGE_LEVEL) != 0) {
+        node.setStorageLevel(true);
+      }
+    }
+    node.setDataFileName(dataFileName);
+
+    if (!node.isLeaf()) {
+      int childrenSize = inputStream.readInt();
+      for (int i = 0; i < childrenSize; i++) {
+        MNode child = deserializeNode(node, inputStream);
+        node.addChild(child.getName(), child);
+      }
+    }
+    return node;
+  }
+}
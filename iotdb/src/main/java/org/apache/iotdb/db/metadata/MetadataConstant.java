@@ -26,5 +26,6 @@ public class MetadataConstant {
   public static final String METADATA_OBJ = "mdata.obj";
   public static final String METADATA_LOG = "mlog.txt";
   public static final String METADATA_TEMP = ".temp";
+  public static final String MTREE_SNAPSHOT = "mtree.snapshot";
 
 }
@@ -33,6 +33,7 @@ import org.apache.iotdb.db.auth.entity.Role;
 import org.apache.iotdb.db.auth.entity.User;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.exception.ArgsErrorException;
+import org.apache.iotdb.db.exception.BatchInsertException;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
@@ -44,6 +45,7 @@ import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -62,9 +64,16 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -120,6 +129,8 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
         int result = multiInsert(insert.getDeviceId(), insert.getTime(), insert.getMeasurements(),
             insert.getValues());
         return result > 0;
+      case BATCH_INSERT:
+        return insertBatch((BatchInsertPlan) plan);
       case CREATE_ROLE:
       case DELETE_ROLE:
       case CREATE_USER:
@@ -273,19 +284,7 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
       MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
 
       for (int i = 0; i < measurementList.length; i++) {
-        if (!node.hasChild(measurementList[i])) {
-          throw new ProcessorException(
-              String.format("Current deviceId[%s] does not contains measurement:%s",
-                  deviceId, measurementList[i]));
-        }
-        MNode measurementNode = node.getChild(measurementList[i]);
-        if (!measurementNode.isLeaf()) {
-          throw new ProcessorException(
-              String.format("Current Path is not leaf node. %s.%s", deviceId,
-                  measurementList[i]));
-        }
-
-        TSDataType dataType = measurementNode.getSchema().getType();
+        TSDataType dataType = getMeasurementType(node, deviceId, measurementList[i]);
         String value = insertValues[i];
         value = checkValue(dataType, value);
         DataPoint dataPoint = DataPoint.getDataPoint(dataType, measurementList[i], value);
@@ -298,6 +297,146 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
     }
   }
 
+  /**
+   * insert the rows of a device by one call of the FileNodeManager, so that the locks are taken
+   * and the WAL is appended once for all of them.
+   */
+  private boolean insertBatch(BatchInsertPlan plan) throws ProcessorException {
+    String deviceId = plan.getDeviceId();
+    String[] measurementList = plan.getMeasurements();
+    long[] times = plan.getTimes();
+    TSDataType[] valueTypes = plan.getDataTypes();
+    Object[] columns = plan.getColumns();
+    boolean[] insertedRows = new boolean[times.length];
+    plan.setInsertedRows(insertedRows);
+    if (columns.length != measurementList.length || valueTypes.length != measurementList.length) {
+      throw new ProcessorException(String.format(
+          "The batch of deviceId[%s] has %d measurements but %d columns of values", deviceId,
+          measurementList.length, columns.length));
+    }
+    try {
+      MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
+      TSDataType[] dataTypes = new TSDataType[measurementList.length];
+      for (int i = 0; i < measurementList.length; i++) {
+        dataTypes[i] = getMeasurementType(node, deviceId, measurementList[i]);
+      }
+
+      String errorMessage = null;
+      List<Integer> rows = new ArrayList<>(times.length);
+      List<TSRecord> tsRecords = new ArrayList<>(times.length);
+      for (int row = 0; row < times.length; row++) {
+        TSRecord tsRecord = new TSRecord(times[row], deviceId);
+        try {
+          for (int i = 0; i < measurementList.length; i++) {
+            tsRecord.addTuple(getDataPoint(dataTypes[i], measurementList[i], valueTypes[i],
+                columns[i], row));
+          }
+        } catch (ProcessorException e) {
+          errorMessage = errorMessage == null ? e.getMessage() : errorMessage;
+          continue;
+        }
+        rows.add(row);
+        tsRecords.add(tsRecord);
+      }
+      boolean[] insertedRecords = null;
+      try {
+        fileNodeManager.insertBatch(deviceId, tsRecords, false);
+      } catch (BatchInsertException e) {
+        insertedRecords = e.getInsertedRecords();
+        errorMessage = errorMessage == null ? e.getMessage() : errorMessage;
+      }
+      for (int i = 0; i < rows.size(); i++) {
+        insertedRows[rows.get(i)] = insertedRecords == null || insertedRecords[i];
+      }
+      if (errorMessage != null) {
+        throw new ProcessorException(errorMessage);
+      }
+      return true;
+    } catch (PathErrorException | FileNodeManagerException e) {
+      throw new ProcessorException(e.getMessage());
+    }
+  }
+
+  /**
+   * convert a value of a batch to the data type of its timeseries as a literal in an insert
+   * statement would be: an integer fits the numeric data types and BOOLEAN if it is 0 or 1, a
+   * decimal fits FLOAT and DOUBLE, a boolean or a text only fits its own data type.
+   */
+  private DataPoint getDataPoint(TSDataType dataType, String measurement, TSDataType valueType,
+      Object column, int row) throws ProcessorException {
+    switch (valueType) {
+      case INT32:
+      case INT64:
+        long longValue = valueType == TSDataType.INT32 ? ((int[]) column)[row]
+            : ((long[]) column)[row];
+        switch (dataType) {
+          case BOOLEAN:
+            if (longValue == 0 || longValue == 1) {
+              return new BooleanDataPoint(measurement, longValue == 1);
+            }
+            throw new ProcessorException(
+                "The BOOLEAN data type should be true/TRUE or false/FALSE");
+          case INT32:
+            if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+              throw new ProcessorException(String.format(
+                  "The value %d of measurement %s is out of the range of INT32", longValue,
+                  measurement));
+            }
+            return new IntDataPoint(measurement, (int) longValue);
+          case INT64:
+            return new LongDataPoint(measurement, longValue);
+          case FLOAT:
+            return new FloatDataPoint(measurement, longValue);
+          case DOUBLE:
+            return new DoubleDataPoint(measurement, longValue);
+          default:
+            break;
+        }
+        break;
+      case FLOAT:
+      case DOUBLE:
+        double doubleValue = valueType == TSDataType.FLOAT ? ((float[]) column)[row]
+            : ((double[]) column)[row];
+        if (dataType == TSDataType.FLOAT) {
+          return new FloatDataPoint(measurement, (float) doubleValue);
+        } else if (dataType == TSDataType.DOUBLE) {
+          return new DoubleDataPoint(measurement, doubleValue);
+        }
+        break;
+      case BOOLEAN:
+        if (dataType == TSDataType.BOOLEAN) {
+          return new BooleanDataPoint(measurement, ((boolean[]) column)[row]);
+        }
+        break;
+      case TEXT:
+        if (dataType == TSDataType.TEXT) {
+          return new StringDataPoint(measurement, ((Binary[]) column)[row]);
+        }
+        break;
+      default:
+        break;
+    }
+    throw new ProcessorException(String.format(
+        "The %s value of measurement %s can not be inserted into a %s timeseries", valueType,
+        measurement, dataType));
+  }
+
+  private TSDataType getMeasurementType(MNode node, String deviceId, String measurement)
+      throws ProcessorException {
+    if (!node.hasChild(measurement)) {
+      throw new ProcessorException(
+          String.format("Current deviceId[%s] does not contains measurement:%s",
+              deviceId, measurement));
+    }
+    MNode measurementNode = node.getChild(measurement);
+    if (!measurementNode.isLeaf()) {
+      throw new ProcessorException(
+          String.format("Current Path is not leaf node. %s.%s", deviceId,
+              measurement));
+    }
+    return measurementNode.getSchema().getType();
+  }
+
   @Override
   public List<String> getAllPaths(String originPath) throws PathErrorException {
     return MManager.getInstance().getPaths(originPath);
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.physical.crud;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+/**
+ * Several rows of one device which have the same measurements. It is built from the insertBatch
+ * RPC directly, so no SQL is parsed for it.
+ */
+public class BatchInsertPlan extends PhysicalPlan {
+
+  private String deviceId;
+  private String[] measurements;
+  private long[] times;
+  /**
+   * the data types of the values as they are sent, which may differ from the data types of the
+   * timeseries.
+   */
+  private TSDataType[] dataTypes;
+  /**
+   * columns[i] is a boolean[], int[], long[], float[], double[] or Binary[] as dataTypes[i], whose
+   * j-th element is the value of measurements[i] at times[j].
+   */
+  private Object[] columns;
+  /**
+   * whether each row is inserted, set by the executor.
+   */
+  private boolean[] insertedRows;
+
+  public BatchInsertPlan(String deviceId, String[] measurements, long[] times,
+      TSDataType[] dataTypes, Object[] columns) {
+    super(false, Operator.OperatorType.BATCH_INSERT);
+    this.deviceId = deviceId;
+    this.measurements = measurements;
+    this.times = times;
+    this.dataTypes = dataTypes;
+    this.columns = columns;
+  }
+
+  @Override
+  public List<Path> getPaths() {
+    List<Path> ret = new ArrayList<>();
+
+    for (String m : measurements) {
+      ret.add(new Path(deviceId + "." + m));
+    }
+    return ret;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String[] getMeasurements() {
+    return measurements;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public TSDataType[] getDataTypes() {
+    return dataTypes;
+  }
+
+  public Object[] getColumns() {
+    return columns;
+  }
+
+  public boolean[] getInsertedRows() {
+    return insertedRows;
+  }
+
+  public void setInsertedRows(boolean[] insertedRows) {
+    this.insertedRows = insertedRows;
+  }
+
+  public int getRowCount() {
+    return times.length;
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.physical.crud;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+
+/**
+ * An insertion whose values keep their data types, so that it can be logged and replayed without
+ * converting the values to and from strings.
+ */
+public class TypedInsertPlan extends PhysicalPlan {
+
+  private TSRecord record;
+
+  // insertType
+  // 1 : BufferWrite Insert 2 : Overflow Insert
+  private int insertType;
+
+  public TypedInsertPlan(int insertType, TSRecord record) {
+    super(false, Operator.OperatorType.INSERT);
+    this.insertType = insertType;
+    this.record = record;
+  }
+
+  public TSRecord getRecord() {
+    return record;
+  }
+
+  public int getInsertType() {
+    return insertType;
+  }
+
+  public String getDeviceId() {
+    return record.deviceId;
+  }
+
+  public long getTime() {
+    return record.time;
+  }
+
+  @Override
+  public List<Path> getPaths() {
+    List<Path> ret = new ArrayList<>();
+    for (DataPoint dataPoint : record.dataPointList) {
+      ret.add(new Path(record.deviceId + "." + dataPoint.getMeasurementId()));
+    }
+    return ret;
+  }
+
+  @Override
+  public String toString() {
+    return "TypedInsertPlan " + record;
+  }
+}
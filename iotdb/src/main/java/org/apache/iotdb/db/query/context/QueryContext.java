@@ -55,9 +55,10 @@ public class QueryContext {
 
   /**
    * Find the modifications of timeseries 'path' in 'modFile'. If they are not in the cache, read
-   * them from 'modFile' and put then into the cache.
+   * them from 'modFile' and put then into the cache. The parts of a query may call this from
+   * several query threads.
    */
-  public List<Modification> getPathModifications(ModificationFile modFile, String path)
+  public synchronized List<Modification> getPathModifications(ModificationFile modFile, String path)
       throws IOException {
 
     Map<String, List<Modification>> fileModifications =
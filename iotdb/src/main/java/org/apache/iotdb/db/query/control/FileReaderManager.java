@@ -18,7 +18,9 @@
  */
 package org.apache.iotdb.db.query.control;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,10 +28,13 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -136,8 +141,15 @@ public class FileReaderManager implements IService {
         LOGGER.warn("Query has opened {} files !", readerMap.size());
       }
 
-      TsFileSequenceReader tsFileReader = !isClosed ? new UnClosedTsFileReader(filePath)
-          : new TsFileSequenceReader(filePath);
+      TsFileSequenceReader tsFileReader;
+      if (!isClosed) {
+        tsFileReader = new UnClosedTsFileReader(filePath);
+      } else if (useMmap(filePath)) {
+        tsFileReader = new TsFileSequenceReader(filePath,
+            new MmapTsFileInput(Paths.get(filePath)));
+      } else {
+        tsFileReader = new TsFileSequenceReader(filePath);
+      }
 
       readerMap.put(filePath, tsFileReader);
       return tsFileReader;
@@ -146,6 +158,15 @@ public class FileReaderManager implements IService {
     return readerMap.get(filePath);
   }
 
+  /**
+   * Sealed files are mapped into memory if it is enabled, unless they are too large to be mapped
+   * as a whole. A mapped file is released when its reader is closed and its slices are collected.
+   */
+  private boolean useMmap(String filePath) {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableMmapFileReader()
+        && new File(filePath).length() <= Integer.MAX_VALUE;
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -175,6 +196,8 @@ public class FileReaderManager implements IService {
    */
   public synchronized void closeFileAndRemoveReader(String filePath)
       throws IOException {
+    TsFileMetaDataCache.getInstance().remove(filePath);
+    ChunkCache.getInstance().remove(filePath);
     if (unclosedFileReaderMap.containsKey(filePath)) {
       unclosedReferenceMap.remove(filePath);
       unclosedFileReaderMap.get(filePath).close();
@@ -38,6 +38,7 @@ import org.apache.iotdb.tsfile.read.expression.ExpressionType;
 import org.apache.iotdb.tsfile.read.expression.IBinaryExpression;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 /**
  * <p>
@@ -145,8 +146,21 @@ public class QueryResourceManager {
   public QueryDataSource getQueryDataSource(Path selectedPath,
       QueryContext context)
       throws FileNodeManagerException {
+    return getQueryDataSource(selectedPath, null, context);
+  }
+
+  /**
+   * get the data source of the path, without the sealed files whose time range does not satisfy
+   * the time filter.
+   *
+   * @param timeFilter the filter on time of the query, null if there is none
+   */
+  public QueryDataSource getQueryDataSource(Path selectedPath, Filter timeFilter,
+      QueryContext context)
+      throws FileNodeManagerException {
 
-    SingleSeriesExpression singleSeriesExpression = new SingleSeriesExpression(selectedPath, null);
+    SingleSeriesExpression singleSeriesExpression = new SingleSeriesExpression(selectedPath,
+        timeFilter);
     QueryDataSource queryDataSource = FileNodeManager.getInstance()
         .query(singleSeriesExpression, context);
 
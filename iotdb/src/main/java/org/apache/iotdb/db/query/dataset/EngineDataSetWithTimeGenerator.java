@@ -20,15 +20,16 @@ package org.apache.iotdb.db.query.dataset;
 
 import java.io.IOException;
 import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
 import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
-import org.apache.iotdb.tsfile.utils.Binary;
 
 public class EngineDataSetWithTimeGenerator extends QueryDataSet {
 
@@ -37,6 +38,14 @@ public class EngineDataSetWithTimeGenerator extends QueryDataSet {
   private boolean hasCachedRowRecord;
   private RowRecord cachedRowRecord;
 
+  /**
+   * the values of the selected series are fetched for a block of timestamps at a time.
+   */
+  private long[] timestamps;
+  private int blockLength;
+  private int rowIndex;
+  private BatchData[] columns;
+
   /**
    * constructor of EngineDataSetWithTimeGenerator.
    *
@@ -50,6 +59,8 @@ public class EngineDataSetWithTimeGenerator extends QueryDataSet {
     super(paths, dataTypes);
     this.timeGenerator = timeGenerator;
     this.readers = readers;
+    this.timestamps = new long[IoTDBDescriptor.getInstance().getConfig().getFetchSize()];
+    this.columns = new BatchData[readers.size()];
   }
 
   @Override
@@ -75,18 +86,17 @@ public class EngineDataSetWithTimeGenerator extends QueryDataSet {
    * @return if there has next row record.
    */
   private boolean cacheRowRecord() throws IOException {
-    while (timeGenerator.hasNext()) {
+    while (rowIndex < blockLength || fetchBlock()) {
       boolean hasField = false;
-      long timestamp = timeGenerator.next();
+      long timestamp = timestamps[rowIndex++];
       RowRecord rowRecord = new RowRecord(timestamp);
-      for (int i = 0; i < readers.size(); i++) {
-        EngineReaderByTimeStamp reader = readers.get(i);
-        Object value = reader.getValueInTimestamp(timestamp);
-        if (value == null) {
-          rowRecord.addField(new Field(null));
-        } else {
+      for (BatchData column : columns) {
+        if (column.hasNext() && column.currentTime() == timestamp) {
           hasField = true;
-          rowRecord.addField(getField(value, dataTypes.get(i)));
+          rowRecord.addField(getCurrentField(column));
+          column.next();
+        } else {
+          rowRecord.addField(new Field(null));
         }
       }
       if (hasField) {
@@ -98,32 +108,45 @@ public class EngineDataSetWithTimeGenerator extends QueryDataSet {
     return hasCachedRowRecord;
   }
 
-  private Field getField(Object value, TSDataType dataType) {
-    Field field = new Field(dataType);
-
-    if (value == null) {
-      field.setNull();
-      return field;
+  /**
+   * generate the next block of timestamps and get the values of all series in them.
+   *
+   * @return false if there is no more timestamp
+   */
+  private boolean fetchBlock() throws IOException {
+    rowIndex = 0;
+    blockLength = timeGenerator.next(timestamps);
+    if (blockLength == 0) {
+      return false;
     }
+    for (int i = 0; i < readers.size(); i++) {
+      columns[i] = new BatchData(dataTypes.get(i), true);
+      readers.get(i).getValuesInTimestamps(timestamps, blockLength, columns[i]);
+    }
+    return true;
+  }
 
+  private Field getCurrentField(BatchData column) {
+    TSDataType dataType = column.getDataType();
+    Field field = new Field(dataType);
     switch (dataType) {
       case DOUBLE:
-        field.setDoubleV((double) value);
+        field.setDoubleV(column.getDouble());
         break;
       case FLOAT:
-        field.setFloatV((float) value);
+        field.setFloatV(column.getFloat());
         break;
       case INT64:
-        field.setLongV((long) value);
+        field.setLongV(column.getLong());
         break;
       case INT32:
-        field.setIntV((int) value);
+        field.setIntV(column.getInt());
         break;
       case BOOLEAN:
-        field.setBoolV((boolean) value);
+        field.setBoolV(column.getBoolean());
         break;
       case TEXT:
-        field.setBinaryV((Binary) value);
+        field.setBinaryV(column.getBinary());
         break;
       default:
         throw new UnSupportedDataTypeException("UnSupported: " + dataType);
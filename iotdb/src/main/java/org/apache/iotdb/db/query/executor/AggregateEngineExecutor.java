@@ -22,7 +22,9 @@ package org.apache.iotdb.db.query.executor;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.QueryPoolManager;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
@@ -100,7 +102,7 @@ public class AggregateEngineExecutor {
       aggregateFunctions.add(function);
 
       QueryDataSource queryDataSource = QueryResourceManager.getInstance()
-          .getQueryDataSource(selectedSeries.get(i), context);
+          .getQueryDataSource(selectedSeries.get(i), timeFilter, context);
 
       // sequence reader for sealed tsfile, unsealed tsfile, memory
       SequenceDataReader sequenceReader;
@@ -118,13 +120,15 @@ public class AggregateEngineExecutor {
       readersOfSequenceData.add(sequenceReader);
       readersOfUnSequenceData.add(unSeqMergeReader);
     }
-    List<AggreResultData> aggreResultDataList = new ArrayList<>();
-    //TODO use multi-thread
+    // series are independent of each other, so they are aggregated in parallel
+    List<Callable<AggreResultData>> tasks = new ArrayList<>();
+    Filter filter = timeFilter;
     for (int i = 0; i < selectedSeries.size(); i++) {
-      AggreResultData aggreResultData = aggregateWithOutTimeGenerator(aggregateFunctions.get(i),
-          readersOfSequenceData.get(i), readersOfUnSequenceData.get(i), timeFilter);
-      aggreResultDataList.add(aggreResultData);
+      int index = i;
+      tasks.add(() -> aggregateWithOutTimeGenerator(aggregateFunctions.get(index),
+          readersOfSequenceData.get(index), readersOfUnSequenceData.get(index), filter));
     }
+    List<AggreResultData> aggreResultDataList = QueryPoolManager.getInstance().invokeAll(tasks);
     return constructDataSet(aggreResultDataList);
   }
 
@@ -284,25 +288,25 @@ public class AggregateEngineExecutor {
       List<AggregateFunction> aggregateFunctions,
       EngineTimeGenerator timestampGenerator,
       List<EngineReaderByTimeStamp> readersOfSelectedSeries)
-      throws IOException {
+      throws IOException, ProcessorException {
 
     while (timestampGenerator.hasNext()) {
 
       // generate timestamps for aggregate
       long[] timeArray = new long[aggregateFetchSize];
-      int timeArrayLength = 0;
-      for (int cnt = 0; cnt < aggregateFetchSize; cnt++) {
-        if (!timestampGenerator.hasNext()) {
-          break;
-        }
-        timeArray[timeArrayLength++] = timestampGenerator.next();
-      }
+      int timeArrayLength = timestampGenerator.next(timeArray);
 
-      // cal part of aggregate result
+      // cal part of aggregate result, one task for each series
+      List<Callable<Void>> tasks = new ArrayList<>();
       for (int i = 0; i < readersOfSelectedSeries.size(); i++) {
-        aggregateFunctions.get(i).calcAggregationUsingTimestamps(timeArray, timeArrayLength,
-            readersOfSelectedSeries.get(i));
+        int index = i;
+        tasks.add(() -> {
+          aggregateFunctions.get(index).calcAggregationUsingTimestamps(timeArray, timeArrayLength,
+              readersOfSelectedSeries.get(index));
+          return null;
+        });
       }
+      QueryPoolManager.getInstance().invokeAll(tasks);
     }
 
     List<AggreResultData> aggreResultDataArrayList = new ArrayList<>();
@@ -69,7 +69,7 @@ public class EngineExecutorWithoutTimeGenerator {
     for (Path path : queryExpression.getSelectedSeries()) {
 
       QueryDataSource queryDataSource = QueryResourceManager.getInstance().getQueryDataSource(path,
-          context);
+          timeFilter, context);
 
       // add data type
       try {
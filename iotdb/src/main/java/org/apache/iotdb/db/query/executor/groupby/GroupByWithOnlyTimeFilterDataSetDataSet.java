@@ -22,6 +22,9 @@ package org.apache.iotdb.db.query.executor.groupby;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.QueryPoolManager;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
@@ -53,6 +56,14 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
   private List<Boolean> hasCachedSequenceDataList;
   private Filter timeFilter;
 
+  /**
+   * the intervals calculated ahead by one task per series, and the results of each series in them.
+   */
+  private int intervalsPerTask;
+  private List<Pair<Long, Long>> batchIntervals;
+  private List<AggreResultData[]> batchResults;
+  private int batchIndex;
+
   /**
    * constructor.
    */
@@ -68,6 +79,8 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
       hasCachedSequenceDataList.add(false);
       batchDataList.add(null);
     }
+    this.intervalsPerTask = Math.max(1, IoTDBDescriptor.getInstance().getConfig().getFetchSize());
+    this.batchIntervals = new ArrayList<>();
   }
 
   /**
@@ -83,7 +96,7 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
     }
     for (int i = 0; i < selectedSeries.size(); i++) {
       QueryDataSource queryDataSource = QueryResourceManager.getInstance()
-          .getQueryDataSource(selectedSeries.get(i), context);
+          .getQueryDataSource(selectedSeries.get(i), timeFilter, context);
 
       // sequence reader for sealed tsfile, unsealed tsfile, memory
       SequenceDataReader sequenceReader = new SequenceDataReader(queryDataSource.getSeqDataSource(),
@@ -99,6 +112,14 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
 
   }
 
+  @Override
+  public boolean hasNext() {
+    if (!hasCachedTimeInterval && batchIndex < batchIntervals.size()) {
+      hasCachedTimeInterval = true;
+    }
+    return super.hasNext();
+  }
+
   @Override
   public RowRecord next() throws IOException {
     if (!hasCachedTimeInterval) {
@@ -106,39 +127,73 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
           + "in GroupByWithOnlyTimeFilterDataSetDataSet.");
     }
     hasCachedTimeInterval = false;
-    RowRecord record = new RowRecord(startTime);
-    for (int i = 0; i < functions.size(); i++) {
-      AggreResultData res = null;
-      try {
-        res = nextSeries(i);
-      } catch (ProcessorException e) {
-        throw new IOException(e);
-      }
+    if (batchIndex >= batchIntervals.size()) {
+      nextBatch();
+    }
+    RowRecord record = new RowRecord(batchIntervals.get(batchIndex).left);
+    for (AggreResultData[] seriesResults : batchResults) {
+      AggreResultData res = seriesResults[batchIndex];
       if (res == null) {
         record.addField(new Field(null));
       } else {
         record.addField(getField(res));
       }
     }
+    batchIndex++;
     return record;
   }
 
   /**
-   * calculate the group by result of the series indexed by idx.
+   * take the current interval and the following ones, up to fetch_size intervals, and calculate
+   * them with one task per series, so that a task is not submitted for every small interval.
+   */
+  private void nextBatch() throws IOException {
+    batchIntervals.clear();
+    batchIndex = 0;
+    do {
+      batchIntervals.add(new Pair<>(startTime, endTime));
+      // the interval after a full batch is taken by hasNext() once the batch is used up
+      hasCachedTimeInterval = false;
+    } while (batchIntervals.size() < intervalsPerTask && super.hasNext());
+
+    // each task only touches the readers and cached batch of its own series
+    List<Callable<AggreResultData[]>> tasks = new ArrayList<>();
+    for (int i = 0; i < functions.size(); i++) {
+      int index = i;
+      tasks.add(() -> {
+        AggreResultData[] results = new AggreResultData[batchIntervals.size()];
+        for (int j = 0; j < results.length; j++) {
+          Pair<Long, Long> interval = batchIntervals.get(j);
+          results[j] = nextSeries(index, interval.left, interval.right);
+        }
+        return results;
+      });
+    }
+    try {
+      batchResults = QueryPoolManager.getInstance().invokeAll(tasks);
+    } catch (ProcessorException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * calculate the group by result of the series indexed by idx in [startTime, endTime).
    *
    * @param idx series id
    */
-  private AggreResultData nextSeries(int idx) throws IOException, ProcessorException {
+  private AggreResultData nextSeries(int idx, long startTime, long endTime)
+      throws IOException, ProcessorException {
     IPointReader unsequenceReader = unSequenceReaderList.get(idx);
     IAggregateReader sequenceReader = sequenceReaderList.get(idx);
     AggregateFunction function = functions.get(idx);
     function.init();
 
     // skip the points with timestamp less than startTime
-    skipBeforeStartTimeData(idx, sequenceReader, unsequenceReader);
+    skipBeforeStartTimeData(idx, startTime, sequenceReader, unsequenceReader);
 
     // cal group by in batch data
-    boolean finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+    boolean finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader,
+        endTime);
     if (finishCheckSequenceData) {
       // check unsequence data
       function.calculateValueFromUnsequenceReader(unsequenceReader, endTime);
@@ -153,7 +208,7 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
       if (pageHeader == null) {
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+        finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader, endTime);
       } else {
         // page data
         long minTime = pageHeader.getMinTimestamp();
@@ -169,7 +224,7 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
           // cal using page data
           batchDataList.set(idx, sequenceReader.nextBatch());
           hasCachedSequenceDataList.set(idx, true);
-          finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+          finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader, endTime);
         }
 
         if (finishCheckSequenceData) {
@@ -188,10 +243,11 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
    * @param idx series index
    * @param function aggregate function of the series
    * @param unsequenceReader unsequence reader of the series
+   * @param endTime end time of the interval, exclusive
    * @return if all sequential data been computed
    */
   private boolean calGroupByInBatchData(int idx, AggregateFunction function,
-      IPointReader unsequenceReader)
+      IPointReader unsequenceReader, long endTime)
       throws IOException, ProcessorException {
     BatchData batchData = batchDataList.get(idx);
     boolean hasCachedSequenceData = hasCachedSequenceDataList.get(idx);
@@ -215,19 +271,20 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
    * skip the points with timestamp less than startTime.
    *
    * @param idx the index of series
+   * @param startTime start time of the interval
    * @param sequenceReader sequence Reader
    * @param unsequenceReader unsequence Reader
    * @throws IOException exception when reading file
    */
-  private void skipBeforeStartTimeData(int idx, IAggregateReader sequenceReader,
+  private void skipBeforeStartTimeData(int idx, long startTime, IAggregateReader sequenceReader,
       IPointReader unsequenceReader)
       throws IOException {
 
     // skip the unsequenceReader points with timestamp less than startTime
-    skipPointInUnsequenceData(unsequenceReader);
+    skipPointInUnsequenceData(unsequenceReader, startTime);
 
     // skip the cached batch data points with timestamp less than startTime
-    if (skipPointInBatchData(idx)) {
+    if (skipPointInBatchData(idx, startTime)) {
       return;
     }
 
@@ -238,7 +295,7 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
       if (pageHeader == null) {
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        if (skipPointInBatchData(idx)) {
+        if (skipPointInBatchData(idx, startTime)) {
           return;
         }
       } else {
@@ -255,7 +312,7 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
         // the page has overlap with startTime
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        if (skipPointInBatchData(idx)) {
+        if (skipPointInBatchData(idx, startTime)) {
           return;
         }
       }
@@ -266,8 +323,10 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
    * skip points in unsequence reader whose timestamp is less than startTime.
    *
    * @param unsequenceReader unsequence reader
+   * @param startTime start time of the interval
    */
-  private void skipPointInUnsequenceData(IPointReader unsequenceReader) throws IOException {
+  private void skipPointInUnsequenceData(IPointReader unsequenceReader, long startTime)
+      throws IOException {
     while (unsequenceReader.hasNext() && unsequenceReader.current().getTimestamp() < startTime) {
       unsequenceReader.next();
     }
@@ -277,9 +336,10 @@ public class GroupByWithOnlyTimeFilterDataSetDataSet extends GroupByEngineDataSe
    * skip points in batch data whose timestamp is less than startTime.
    *
    * @param idx series index
+   * @param startTime start time of the interval
    * @return whether has next in batch data
    */
-  private boolean skipPointInBatchData(int idx) {
+  private boolean skipPointInBatchData(int idx, long startTime) {
     BatchData batchData = batchDataList.get(idx);
     boolean hasCachedSequenceData = hasCachedSequenceDataList.get(idx);
     if (!hasCachedSequenceData) {
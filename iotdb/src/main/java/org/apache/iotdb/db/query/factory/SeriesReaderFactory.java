@@ -22,8 +22,6 @@ package org.apache.iotdb.db.query.factory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.iotdb.db.engine.filenode.TsFileResource;
-import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.OverflowInsertFile;
 import org.apache.iotdb.db.engine.querycontext.OverflowSeriesDataSource;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
@@ -31,37 +29,27 @@ import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
-import org.apache.iotdb.db.query.reader.AllDataReader;
-import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
-import org.apache.iotdb.db.query.reader.IReader;
 import org.apache.iotdb.db.query.reader.mem.MemChunkReader;
 import org.apache.iotdb.db.query.reader.mem.MemChunkReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
 import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
 import org.apache.iotdb.db.query.reader.merge.PriorityMergeReaderByTimestamp;
-import org.apache.iotdb.db.query.reader.sequence.SealedTsFilesReader;
 import org.apache.iotdb.db.query.reader.sequence.SequenceDataReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.unsequence.EngineChunkReader;
 import org.apache.iotdb.db.query.reader.unsequence.EngineChunkReaderByTimestamp;
-import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerier;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
-import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.read.filter.DigestForFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithFilter;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
-import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
-import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,59 +122,6 @@ public class SeriesReaderFactory {
 
   // TODO createUnSeqMergeReaderByTime a method with filter
 
-  /**
-   * This method is used to construct reader for merge process in IoTDB. To merge only one TsFile
-   * data and one UnSeqFile data.
-   */
-  public IReader createSeriesReaderForMerge(TsFileResource tsFileResource,
-      OverflowSeriesDataSource overflowSeriesDataSource,
-      SingleSeriesExpression singleSeriesExpression,
-      QueryContext context)
-      throws IOException {
-
-    logger.debug("Create seriesReaders for merge. SeriesFilter = {}. TsFilePath = {}",
-        singleSeriesExpression,
-        tsFileResource.getFilePath());
-
-    // sequence reader
-    IBatchReader seriesInTsFileReader = createSealedTsFileReaderForMerge(tsFileResource,
-        singleSeriesExpression, context);
-
-    // unSequence merge reader
-    IPointReader unSeqMergeReader = createUnSeqMergeReader(overflowSeriesDataSource,
-        singleSeriesExpression.getFilter());
-    if (!seriesInTsFileReader.hasNext()) {
-      // only have unsequence data.
-      return unSeqMergeReader;
-    } else {
-      // merge sequence data with unsequence data.
-      return new AllDataReader(seriesInTsFileReader, unSeqMergeReader);
-    }
-
-  }
-
-  private IBatchReader createSealedTsFileReaderForMerge(TsFileResource fileNode,
-      SingleSeriesExpression singleSeriesExpression,
-      QueryContext context)
-      throws IOException {
-
-    TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
-        .get(fileNode.getFilePath(), true);
-    ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(tsFileSequenceReader);
-    MetadataQuerier metadataQuerier = new MetadataQuerierByFileImpl(tsFileSequenceReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier
-        .getChunkMetaDataList(singleSeriesExpression.getSeriesPath());
-
-    List<Modification> modifications = context.getPathModifications(fileNode.getModFile(),
-        singleSeriesExpression.getSeriesPath().getFullPath());
-    QueryUtils.modifyChunkMetaData(metaDataList, modifications);
-
-    FileSeriesReader seriesInTsFileReader = new FileSeriesReaderWithFilter(chunkLoader,
-        metaDataList,
-        singleSeriesExpression.getFilter());
-    return new SealedTsFilesReader(seriesInTsFileReader, context);
-  }
-
   /**
    * construct ByTimestampReader, include sequential data and unsequential data.
    *
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.query.reader.merge;
 
 import java.io.IOException;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public interface EngineReaderByTimeStamp {
 
@@ -28,5 +29,26 @@ public interface EngineReaderByTimeStamp {
    */
   Object getValueInTimestamp(long timestamp) throws IOException;
 
+  /**
+   * Given a block of ascending timestamps, the reader puts the time and value of each timestamp
+   * that has a value into the result, which is a BatchData with time. Timestamps without a value
+   * are skipped.
+   *
+   * @param timestamps timestamps in ascending order, which are larger than the timestamps given
+   * before
+   * @param length the number of timestamps to use in the array
+   * @param result the BatchData to put the values into
+   */
+  default void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    for (int i = 0; i < length; i++) {
+      Object value = getValueInTimestamp(timestamps[i]);
+      if (value != null) {
+        result.putTime(timestamps[i]);
+        result.putAnObject(value);
+      }
+    }
+  }
+
   boolean hasNext() throws IOException;
 }
@@ -21,8 +21,8 @@ package org.apache.iotdb.db.query.reader.merge;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
 
@@ -30,6 +30,11 @@ import org.apache.iotdb.db.utils.TimeValuePair;
  * <p>
  * Usage: (1) merge multiple chunk group readers in the unsequence file.
  * </p>
+ * The readers are merged by a loser tree, in which each node keeps the loser of the match between
+ * its two subtrees and the root keeps the overall winner, i.e., the reader with the smallest
+ * current timestamp and, for equal timestamps, the highest priority. Advancing one reader only
+ * replays the matches on the path from its leaf to the root, and no object is allocated for the
+ * merge itself.
  */
 public class PriorityMergeReader implements IPointReader {
 
@@ -37,96 +42,134 @@ public class PriorityMergeReader implements IPointReader {
   public static final int HIGH_PRIORITY = 2;
 
   private List<IPointReader> readerList = new ArrayList<>();
-  private List<Integer> priorityList = new ArrayList<>();
-  private PriorityQueue<Element> heap = new PriorityQueue<>();
+
+  /**
+   * the current point of each reader, null if the reader is exhausted.
+   */
+  private TimeValuePair[] currentPairs = new TimeValuePair[0];
+  private long[] currentTimes = new long[0];
+  private int[] priorities = new int[0];
+  /**
+   * tree[0] is the index of the winner reader, tree[1..n-1] are the indexes of the losers. The leaf
+   * of reader i is the node i + n.
+   */
+  private int[] tree = new int[1];
+  private boolean treeBuilt = false;
 
   /**
    * The bigger the priority value is, the higher the priority of this reader is.
    */
   public void addReaderWithPriority(IPointReader reader, int priority) throws IOException {
+    int index = readerList.size();
+    readerList.add(reader);
+    currentPairs = Arrays.copyOf(currentPairs, index + 1);
+    currentTimes = Arrays.copyOf(currentTimes, index + 1);
+    priorities = Arrays.copyOf(priorities, index + 1);
     if (reader.hasNext()) {
-      heap.add(new Element(readerList.size(), reader.next(), priority));
+      currentPairs[index] = reader.next();
+      currentTimes[index] = currentPairs[index].getTimestamp();
     }
-    readerList.add(reader);
-    priorityList.add(priority);
+    priorities[index] = priority;
+    tree = new int[index + 1];
+    treeBuilt = false;
   }
 
   @Override
   public boolean hasNext() {
-    return !heap.isEmpty();
+    buildTreeIfNeeded();
+    return !readerList.isEmpty() && currentPairs[tree[0]] != null;
   }
 
   @Override
   public TimeValuePair next() throws IOException {
-    Element top = heap.peek();
-    updateHeap(top);
-    return top.timeValuePair;
+    buildTreeIfNeeded();
+    int winner = tree[0];
+    TimeValuePair timeValuePair = currentPairs[winner];
+    long time = currentTimes[winner];
+    // the points of lower priority with the same timestamp are overwritten
+    do {
+      advance(tree[0]);
+    } while (currentPairs[tree[0]] != null && currentTimes[tree[0]] == time);
+    return timeValuePair;
   }
 
   @Override
   public TimeValuePair current() {
-    return heap.peek().timeValuePair;
+    buildTreeIfNeeded();
+    return currentPairs[tree[0]];
   }
 
-  private void updateHeap(Element top) throws IOException {
-    while (!heap.isEmpty() && heap.peek().timeValuePair.getTimestamp() == top.timeValuePair
-        .getTimestamp()) {
-      Element e = heap.poll();
-      IPointReader reader = readerList.get(e.index);
-      if (reader.hasNext()) {
-        heap.add(new Element(e.index, reader.next(), priorityList.get(e.index)));
-      }
+  private void buildTreeIfNeeded() {
+    if (!treeBuilt && !readerList.isEmpty()) {
+      tree[0] = build(1);
     }
+    treeBuilt = true;
   }
 
-  @Override
-  public void close() throws IOException {
-    for (IPointReader reader : readerList) {
-      reader.close();
+  /**
+   * build the subtree rooted at the node and return its winner.
+   */
+  private int build(int node) {
+    int size = readerList.size();
+    if (node >= size) {
+      return node - size;
     }
+    int left = build(2 * node);
+    int right = build(2 * node + 1);
+    if (beats(left, right)) {
+      tree[node] = right;
+      return left;
+    }
+    tree[node] = left;
+    return right;
   }
 
-  protected class Element implements Comparable<Element> {
-
-    int index;
-    TimeValuePair timeValuePair;
-    Integer priority;
-
-    public Element(int index, TimeValuePair timeValuePair, int priority) {
-      this.index = index;
-      this.timeValuePair = timeValuePair;
-      this.priority = priority;
+  /**
+   * move the reader to its next point and replay the matches from its leaf to the root.
+   */
+  private void advance(int index) throws IOException {
+    IPointReader reader = readerList.get(index);
+    if (reader.hasNext()) {
+      currentPairs[index] = reader.next();
+      currentTimes[index] = currentPairs[index].getTimestamp();
+    } else {
+      currentPairs[index] = null;
     }
 
-    @Override
-    public int compareTo(Element o) {
-
-      if (this.timeValuePair.getTimestamp() > o.timeValuePair.getTimestamp()) {
-        return 1;
-      }
-
-      if (this.timeValuePair.getTimestamp() < o.timeValuePair.getTimestamp()) {
-        return -1;
+    int winner = index;
+    for (int node = (index + readerList.size()) / 2; node > 0; node /= 2) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
       }
-
-      return o.priority.compareTo(this.priority);
     }
+    tree[0] = winner;
+  }
 
-    @Override
-    public boolean equals(Object o) {
-      if (o instanceof Element) {
-        Element element = (Element) o;
-        if (this.timeValuePair.getTimestamp() == element.timeValuePair.getTimestamp()
-            && this.priority.equals(element.priority)) {
-          return true;
-        }
-      }
+  /**
+   * whether the current point of reader a comes before that of reader b.
+   */
+  private boolean beats(int a, int b) {
+    if (currentPairs[a] == null) {
       return false;
     }
+    if (currentPairs[b] == null) {
+      return true;
+    }
+    if (currentTimes[a] != currentTimes[b]) {
+      return currentTimes[a] < currentTimes[b];
+    }
+    if (priorities[a] != priorities[b]) {
+      return priorities[a] > priorities[b];
+    }
+    return a > b;
+  }
 
-    @Override
-    public int hashCode() {
-      return (int) (timeValuePair.getTimestamp() * 31 + priority.hashCode());
+  @Override
+  public void close() throws IOException {
+    for (IPointReader reader : readerList) {
+      reader.close();
     }
   }
 }
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.query.reader.merge;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 
 /**
  * <p>
@@ -56,6 +57,35 @@ public class PriorityMergeReaderByTimestamp implements EngineReaderByTimeStamp {
     return value;
   }
 
+  @Override
+  public void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    if (readerList.size() == 1) {
+      readerList.get(0).getValuesInTimestamps(timestamps, length, result);
+      return;
+    }
+
+    BatchData[] columns = new BatchData[readerList.size()];
+    for (int i = 0; i < readerList.size(); i++) {
+      columns[i] = new BatchData(result.getDataType(), true);
+      readerList.get(i).getValuesInTimestamps(timestamps, length, columns[i]);
+    }
+    // for each timestamp, take the value of the reader with the highest priority
+    for (int i = 0; i < length; i++) {
+      boolean found = false;
+      for (int j = columns.length - 1; j >= 0; j--) {
+        BatchData column = columns[j];
+        if (column.hasNext() && column.currentTime() == timestamps[i]) {
+          if (!found) {
+            result.putCurrentPoint(column);
+            found = true;
+          }
+          column.next();
+        }
+      }
+    }
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     for (int i = readerList.size() - 1; i >= 0; i--) {
@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoaderImpl;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -36,8 +38,6 @@ import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithFilter;
@@ -137,8 +137,8 @@ public class SealedTsFilesReader implements IBatchReader, IAggregateReader {
     TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
         .get(tsfile.getFilePath(), true);
 
-    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier.getChunkMetaDataList(seriesPath);
+    List<ChunkMetaData> metaDataList = TsFileMetaDataCache.getInstance()
+        .getChunkMetaDataList(tsfile.getFilePath(), seriesPath);
 
     List<Modification> pathModifications = context.getPathModifications(tsfile.getModFile(),
         seriesPath.getFullPath());
@@ -146,7 +146,7 @@ public class SealedTsFilesReader implements IBatchReader, IAggregateReader {
       QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
     }
 
-    ChunkLoader chunkLoader = new ChunkLoaderImpl(tsFileReader);
+    ChunkLoader chunkLoader = new CachedChunkLoaderImpl(tsFileReader);
 
     if (isReverse) {
       Collections.reverse(metaDataList);
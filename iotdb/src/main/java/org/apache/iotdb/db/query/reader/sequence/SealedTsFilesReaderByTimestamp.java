@@ -20,7 +20,10 @@
 package org.apache.iotdb.db.query.reader.sequence;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoaderImpl;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -29,10 +32,9 @@ import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
 import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.reader.series.SeriesReaderByTimestamp;
 
 public class SealedTsFilesReaderByTimestamp implements EngineReaderByTimeStamp {
@@ -75,6 +77,48 @@ public class SealedTsFilesReaderByTimestamp implements EngineReaderByTimeStamp {
     return value;
   }
 
+  @Override
+  public void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    int start = 0;
+    while (start < length) {
+      if (seriesReader == null || !seriesReader.hasNext()) {
+        // the sealed files do not overlap, so the rest timestamps are looked up in the next file
+        seriesReader = null;
+        constructReader(timestamps[start]);
+        if (seriesReader == null) {
+          return;
+        }
+      }
+      start = lookUpValues(seriesReader, timestamps, start, length, result);
+      if (seriesReader.hasNext()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * look up the timestamps from start in the reader.
+   *
+   * @return the index of the first timestamp after the last value found in the reader, or start if
+   * no value is found
+   */
+  private int lookUpValues(SeriesReaderByTimestamp reader, long[] timestamps, int start,
+      int length, BatchData result) throws IOException {
+    int sizeBefore = result.length();
+    if (start == 0) {
+      reader.getValuesInTimestamps(timestamps, length, result);
+    } else {
+      reader.getValuesInTimestamps(Arrays.copyOfRange(timestamps, start, length), length - start,
+          result);
+    }
+    if (result.length() == sizeBefore) {
+      return start;
+    }
+    long lastTime = result.getTimeByIndex(result.length() - 1);
+    return Arrays.binarySearch(timestamps, start, length, lastTime) + 1;
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     if (seriesReader != null && seriesReader.hasNext()) {
@@ -119,15 +163,15 @@ public class SealedTsFilesReaderByTimestamp implements EngineReaderByTimeStamp {
     TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
         .get(fileNode.getFilePath(), true);
 
-    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier.getChunkMetaDataList(seriesPath);
+    List<ChunkMetaData> metaDataList = TsFileMetaDataCache.getInstance()
+        .getChunkMetaDataList(fileNode.getFilePath(), seriesPath);
 
     List<Modification> pathModifications = context.getPathModifications(fileNode.getModFile(),
         seriesPath.getFullPath());
     if (!pathModifications.isEmpty()) {
       QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
     }
-    ChunkLoader chunkLoader = new ChunkLoaderImpl(tsFileReader);
+    ChunkLoader chunkLoader = new CachedChunkLoaderImpl(tsFileReader);
 
     seriesReader = new SeriesReaderByTimestamp(chunkLoader, metaDataList);
 
@@ -21,11 +21,13 @@ package org.apache.iotdb.db.query.reader.sequence;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.mem.MemChunkReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public class SequenceDataReaderByTimestamp implements EngineReaderByTimeStamp {
 
@@ -92,6 +94,48 @@ public class SequenceDataReaderByTimestamp implements EngineReaderByTimeStamp {
     return value;
   }
 
+  @Override
+  public void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    int start = 0;
+    while (start < length) {
+      if (currentSeriesReader == null || !currentSeriesReader.hasNext()) {
+        if (nextSeriesReaderIndex >= seriesReaders.size()) {
+          return;
+        }
+        currentSeriesReader = seriesReaders.get(nextSeriesReaderIndex++);
+        continue;
+      }
+      // the readers do not overlap, so the rest timestamps are looked up in the next reader
+      start = lookUpValues(currentSeriesReader, timestamps, start, length, result);
+      if (currentSeriesReader.hasNext()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * look up the timestamps from start in the reader.
+   *
+   * @return the index of the first timestamp after the last value found in the reader, or start if
+   * no value is found
+   */
+  private int lookUpValues(EngineReaderByTimeStamp reader, long[] timestamps, int start,
+      int length, BatchData result) throws IOException {
+    int sizeBefore = result.length();
+    if (start == 0) {
+      reader.getValuesInTimestamps(timestamps, length, result);
+    } else {
+      reader.getValuesInTimestamps(Arrays.copyOfRange(timestamps, start, length), length - start,
+          result);
+    }
+    if (result.length() == sizeBefore) {
+      return start;
+    }
+    long lastTime = result.getTimeByIndex(result.length() - 1);
+    return Arrays.binarySearch(timestamps, start, length, lastTime) + 1;
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     if (currentSeriesReader != null && currentSeriesReader.hasNext()) {
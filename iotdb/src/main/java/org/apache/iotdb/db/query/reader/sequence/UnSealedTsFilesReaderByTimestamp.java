@@ -24,6 +24,7 @@ import org.apache.iotdb.db.engine.querycontext.UnsealedTsFile;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
@@ -56,6 +57,12 @@ public class UnSealedTsFilesReaderByTimestamp implements EngineReaderByTimeStamp
     return unSealedReader.getValueInTimestamp(timestamp);
   }
 
+  @Override
+  public void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    unSealedReader.getValuesInTimestamps(timestamps, length, result);
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     return unSealedReader.hasNext();
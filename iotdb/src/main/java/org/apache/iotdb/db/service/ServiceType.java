@@ -30,7 +30,9 @@ public enum ServiceType {
   JVM_MEM_CONTROL_SERVICE("Memory Controller", ""),
   AUTHORIZATION_SERVICE("Authorization ServerService", ""),
   FILE_READER_MANAGER_SERVICE("File reader manager ServerService", ""),
-  SYNC_SERVICE("SYNC ServerService", "");
+  TSFILE_METADATA_CACHE_SERVICE("TsFile metadata cache ServerService", "TsFileMetaDataCache"),
+  SYNC_SERVICE("SYNC ServerService", ""),
+  QUERY_POOL_SERVICE("Query pool ServerService", "");
 
   private String name;
   private String jmxName;
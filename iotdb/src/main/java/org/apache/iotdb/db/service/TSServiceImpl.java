@@ -48,6 +48,7 @@ import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -59,6 +60,7 @@ import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
@@ -70,6 +72,7 @@ import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
 import org.apache.iotdb.service.rpc.thrift.TSGetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TSHandleIdentifier;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSInsertBatchReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
@@ -447,6 +450,52 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     }
   }
 
+  @Override
+  public TSExecuteBatchStatementResp insertBatch(TSInsertBatchReq req) throws TException {
+    try {
+      if (!checkLogin()) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      List<Integer> result = new ArrayList<>();
+      boolean isAllSuccessful = true;
+      String batchErrorMessage = "";
+
+      for (TSDeviceBatch deviceBatch : req.getDeviceBatches()) {
+        boolean[] insertedRows = null;
+        try {
+          BatchInsertPlan plan = Utils.convertToBatchInsertPlan(deviceBatch);
+          plan.setProposer(username.get());
+          TSExecuteStatementResp resp = executeUpdateStatement(plan);
+          insertedRows = plan.getInsertedRows();
+          if (!resp.getStatus().getStatusCode().equals(TS_StatusCode.SUCCESS_STATUS)) {
+            isAllSuccessful = false;
+            batchErrorMessage = resp.getStatus().getErrorMessage();
+          }
+        } catch (Exception e) {
+          String errMessage = String.format("Fail to insert the batch of device %s beacuse %s",
+              deviceBatch.getDeviceId(), e.getMessage());
+          isAllSuccessful = false;
+          batchErrorMessage = errMessage;
+        }
+        // the rows are failed if the plan is not executed, e.g. without permission
+        for (int i = 0; i < deviceBatch.getRowCount(); i++) {
+          boolean inserted = insertedRows != null && i < insertedRows.length && insertedRows[i];
+          result.add(inserted ? Statement.SUCCESS_NO_INFO : Statement.EXECUTE_FAILED);
+        }
+      }
+      if (isAllSuccessful) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS,
+            "Insert batch successfully", result);
+      } else {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, batchErrorMessage, result);
+      }
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when inserting batch", IoTDBConstant.GLOBAL_DB_NAME, e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    }
+  }
+
   @Override
   public TSExecuteStatementResp executeStatement(TSExecuteStatementReq req) throws TException {
     try {
@@ -611,8 +660,15 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       } else {
         queryDataSet = queryRet.get().get(statement);
       }
-      TSQueryDataSet result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
-      boolean hasResultSet = !result.getRecords().isEmpty();
+      TSQueryDataSet result;
+      boolean hasResultSet;
+      if (req.isColumnar()) {
+        result = Utils.convertQueryDataSetToColumnar(queryDataSet, fetchSize);
+        hasResultSet = result.getRowCount() > 0;
+      } else {
+        result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
+        hasResultSet = !result.getRecords().isEmpty();
+      }
       if (!hasResultSet && queryRet.get() != null) {
         queryRet.get().remove(statement);
       }
@@ -14,17 +14,24 @@
  */
 package org.apache.iotdb.db.service;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.service.rpc.thrift.TSDataValue;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
 /**
  * TimeValuePairUtils to convert between thrift format and TsFile format.
@@ -56,6 +63,52 @@ public class Utils {
     return tsQueryDataSet;
   }
 
+  /**
+   * convert query data set by fetch size into the columnar form of TSQueryDataSet, which keeps
+   * the timestamps and the values of each column in packed buffers instead of one thrift struct
+   * per value.
+   *
+   * @param queryDataSet -query dataset
+   * @param fetchsize -fetch size
+   * @return -convert query dataset
+   */
+  public static TSQueryDataSet convertQueryDataSetToColumnar(QueryDataSet queryDataSet,
+      int fetchsize) throws IOException {
+    PublicBAOS timeBAOS = new PublicBAOS();
+    DataOutputStream timeOutputStream = new DataOutputStream(timeBAOS);
+    List<ColumnBuilder> columnBuilders = new ArrayList<>();
+    int rowCount = 0;
+    while (rowCount < fetchsize && queryDataSet.hasNext()) {
+      RowRecord rowRecord = queryDataSet.next();
+      timeOutputStream.writeLong(rowRecord.getTimestamp());
+      List<Field> fields = rowRecord.getFields();
+      for (int i = columnBuilders.size(); i < fields.size(); i++) {
+        columnBuilders.add(new ColumnBuilder());
+      }
+      for (int i = 0; i < fields.size(); i++) {
+        columnBuilders.get(i).add(rowCount, fields.get(i));
+      }
+      rowCount++;
+    }
+
+    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
+    tsQueryDataSet.setRowCount(rowCount);
+    tsQueryDataSet.setTime(ByteBuffer.wrap(timeBAOS.getBuf(), 0, timeBAOS.size()));
+    List<String> typeList = new ArrayList<>(columnBuilders.size());
+    List<ByteBuffer> valueList = new ArrayList<>(columnBuilders.size());
+    List<ByteBuffer> bitmapList = new ArrayList<>(columnBuilders.size());
+    for (ColumnBuilder columnBuilder : columnBuilders) {
+      typeList.add(columnBuilder.dataType == null ? "" : columnBuilder.dataType.toString());
+      valueList.add(ByteBuffer.wrap(columnBuilder.values.getBuf(), 0,
+          columnBuilder.values.size()));
+      bitmapList.add(ByteBuffer.wrap(columnBuilder.bitmap, 0, (rowCount + 7) / 8));
+    }
+    tsQueryDataSet.setTypeList(typeList);
+    tsQueryDataSet.setValueList(valueList);
+    tsQueryDataSet.setBitmapList(bitmapList);
+    return tsQueryDataSet;
+  }
+
   /**
    * convert to tsRecord.
    *
@@ -101,4 +154,126 @@ public class Utils {
     }
     return tsRowRecord;
   }
+
+  /**
+   * convert the rows of a device sent by the insertBatch RPC to a BatchInsertPlan.
+   *
+   * @param deviceBatch -rows of one device in the layout of TSQueryDataSet
+   * @return -the plan whose columns are the decoded values
+   */
+  public static BatchInsertPlan convertToBatchInsertPlan(TSDeviceBatch deviceBatch) {
+    int rowCount = deviceBatch.getRowCount();
+    String[] measurements = deviceBatch.getMeasurements().toArray(new String[0]);
+    if (deviceBatch.getTypeList().size() != measurements.length
+        || deviceBatch.getValueList().size() != measurements.length) {
+      throw new IllegalArgumentException(String.format(
+          "The batch of %s has %d measurements but %d data types and %d columns of values",
+          deviceBatch.getDeviceId(), measurements.length, deviceBatch.getTypeList().size(),
+          deviceBatch.getValueList().size()));
+    }
+    ByteBuffer timeBuffer = deviceBatch.bufferForTimestamps().slice();
+    long[] times = new long[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = timeBuffer.getLong();
+    }
+    TSDataType[] dataTypes = new TSDataType[measurements.length];
+    Object[] columns = new Object[measurements.length];
+    for (int i = 0; i < measurements.length; i++) {
+      dataTypes[i] = TSDataType.valueOf(deviceBatch.getTypeList().get(i));
+      columns[i] = readColumn(dataTypes[i], deviceBatch.getValueList().get(i).slice(), rowCount);
+    }
+    return new BatchInsertPlan(deviceBatch.getDeviceId(), measurements, times, dataTypes,
+        columns);
+  }
+
+  private static Object readColumn(TSDataType dataType, ByteBuffer buffer, int rowCount) {
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = new boolean[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          booleans[i] = buffer.get() != 0;
+        }
+        return booleans;
+      case INT32:
+        int[] ints = new int[rowCount];
+        buffer.asIntBuffer().get(ints);
+        return ints;
+      case INT64:
+        long[] longs = new long[rowCount];
+        buffer.asLongBuffer().get(longs);
+        return longs;
+      case FLOAT:
+        float[] floats = new float[rowCount];
+        buffer.asFloatBuffer().get(floats);
+        return floats;
+      case DOUBLE:
+        double[] doubles = new double[rowCount];
+        buffer.asDoubleBuffer().get(doubles);
+        return doubles;
+      case TEXT:
+        Binary[] binaries = new Binary[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          byte[] bytes = new byte[buffer.getInt()];
+          buffer.get(bytes);
+          binaries[i] = new Binary(bytes);
+        }
+        return binaries;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when insert batch at server", dataType));
+    }
+  }
+
+  /**
+   * packs the values of one column in the layout described by TSQueryDataSet.
+   */
+  private static class ColumnBuilder {
+
+    private TSDataType dataType;
+    private PublicBAOS values = new PublicBAOS();
+    private DataOutputStream valueOutputStream = new DataOutputStream(values);
+    private byte[] bitmap = new byte[16];
+
+    private void add(int row, Field field) throws IOException {
+      if (row / 8 >= bitmap.length) {
+        bitmap = Arrays.copyOf(bitmap, bitmap.length * 2);
+      }
+      if (field.getDataType() == null || field.isNull()) {
+        return;
+      }
+      if (dataType == null) {
+        dataType = field.getDataType();
+      } else if (dataType != field.getDataType()) {
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s and %s are mixed in one column when convert data at server", dataType,
+            field.getDataType()));
+      }
+      bitmap[row / 8] |= 1 << (row % 8);
+      switch (dataType) {
+        case BOOLEAN:
+          valueOutputStream.writeBoolean(field.getBoolV());
+          break;
+        case INT32:
+          valueOutputStream.writeInt(field.getIntV());
+          break;
+        case INT64:
+          valueOutputStream.writeLong(field.getLongV());
+          break;
+        case FLOAT:
+          valueOutputStream.writeFloat(field.getFloatV());
+          break;
+        case DOUBLE:
+          valueOutputStream.writeDouble(field.getDoubleV());
+          break;
+        case TEXT:
+          byte[] bytes = field.getBinaryV().getValues();
+          valueOutputStream.writeInt(bytes.length);
+          valueOutputStream.write(bytes);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.format(
+              "data type %s is not supported when convert data at server", dataType));
+      }
+    }
+  }
 }
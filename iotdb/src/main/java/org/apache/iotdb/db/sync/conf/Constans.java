@@ -30,6 +30,7 @@ public class Constans {
   public static final String LOCK_FILE_NAME = "sync-lock";
   public static final String UUID_FILE_NAME = "uuid.txt";
   public static final String LAST_LOCAL_FILE_NAME = "last_local_files.txt";
+  public static final String LAST_CHUNK_DIGEST_NAME = "last_chunk_digests.txt";
   public static final String DATA_SNAPSHOT_NAME = "data-snapshot";
 
   public static final String BACK_UP_DIRECTORY_NAME = "backup";
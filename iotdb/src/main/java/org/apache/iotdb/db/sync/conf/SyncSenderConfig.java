@@ -33,11 +33,16 @@ public class SyncSenderConfig {
   private String lockFilePath;
   private String uuidPath;
   private String lastFileInfo;
+  private String lastChunkDigestInfo;
   private String[] snapshotPaths;
   private String schemaPath;
   private String serverIp = "127.0.0.1";
   private int serverPort = 5555;
   private int uploadCycleInSeconds = 10;
+  private boolean pipelinedTransfer = true;
+  private int dataChunkSizeInKB = 4 * 1024;
+  private int maxChunksInFlight = 8;
+  private boolean incrementalSync = true;
 
   public void init() {
     String metadataDirPath = IoTDBDescriptor.getInstance().getConfig().getMetadataDir();
@@ -52,6 +57,8 @@ public class SyncSenderConfig {
     uuidPath = dataDirectory + Constans.SYNC_CLIENT + File.separatorChar + Constans.UUID_FILE_NAME;
     lastFileInfo =
         dataDirectory + Constans.SYNC_CLIENT + File.separatorChar + Constans.LAST_LOCAL_FILE_NAME;
+    lastChunkDigestInfo = dataDirectory + Constans.SYNC_CLIENT + File.separatorChar
+        + Constans.LAST_CHUNK_DIGEST_NAME;
     snapshotPaths = new String[bufferwriteDirectory.length];
     for (int i = 0; i < bufferwriteDirectory.length; i++) {
       bufferwriteDirectory[i] = new File(bufferwriteDirectory[i]).getAbsolutePath();
@@ -95,6 +102,14 @@ public class SyncSenderConfig {
     this.lastFileInfo = lastFileInfo;
   }
 
+  public String getLastChunkDigestInfo() {
+    return lastChunkDigestInfo;
+  }
+
+  public void setLastChunkDigestInfo(String lastChunkDigestInfo) {
+    this.lastChunkDigestInfo = lastChunkDigestInfo;
+  }
+
   public String[] getSnapshotPaths() {
     return snapshotPaths;
   }
@@ -142,4 +157,36 @@ public class SyncSenderConfig {
   public void setLockFilePath(String lockFilePath) {
     this.lockFilePath = lockFilePath;
   }
+
+  public boolean isPipelinedTransfer() {
+    return pipelinedTransfer;
+  }
+
+  public void setPipelinedTransfer(boolean pipelinedTransfer) {
+    this.pipelinedTransfer = pipelinedTransfer;
+  }
+
+  public int getDataChunkSizeInKB() {
+    return dataChunkSizeInKB;
+  }
+
+  public void setDataChunkSizeInKB(int dataChunkSizeInKB) {
+    this.dataChunkSizeInKB = dataChunkSizeInKB;
+  }
+
+  public int getMaxChunksInFlight() {
+    return maxChunksInFlight;
+  }
+
+  public void setMaxChunksInFlight(int maxChunksInFlight) {
+    this.maxChunksInFlight = maxChunksInFlight;
+  }
+
+  public boolean isIncrementalSync() {
+    return incrementalSync;
+  }
+
+  public void setIncrementalSync(boolean incrementalSync) {
+    this.incrementalSync = incrementalSync;
+  }
 }
@@ -91,6 +91,14 @@ public class SyncSenderDescriptor {
       conf.setUploadCycleInSeconds(Integer.parseInt(properties
           .getProperty("upload_cycle_in_seconds",
               Integer.toString(conf.getUploadCycleInSeconds()))));
+      conf.setPipelinedTransfer(Boolean.parseBoolean(properties
+          .getProperty("pipelined_transfer", Boolean.toString(conf.isPipelinedTransfer()))));
+      conf.setDataChunkSizeInKB(Integer.parseInt(properties
+          .getProperty("data_chunk_size_in_kb", Integer.toString(conf.getDataChunkSizeInKB()))));
+      conf.setMaxChunksInFlight(Integer.parseInt(properties
+          .getProperty("max_chunks_in_flight", Integer.toString(conf.getMaxChunksInFlight()))));
+      conf.setIncrementalSync(Boolean.parseBoolean(properties
+          .getProperty("incremental_sync", Boolean.toString(conf.isIncrementalSync()))));
       conf.setSchemaPath(properties.getProperty("iotdb_schema_directory", conf.getSchemaPath()));
       conf.setDataDirectory(
           properties.getProperty("iotdb_bufferWrite_directory", conf.getDataDirectory()));
@@ -104,6 +112,9 @@ public class SyncSenderDescriptor {
       conf.setLastFileInfo(
           dataDirectory + Constans.SYNC_CLIENT + File.separatorChar
               + Constans.LAST_LOCAL_FILE_NAME);
+      conf.setLastChunkDigestInfo(
+          dataDirectory + Constans.SYNC_CLIENT + File.separatorChar
+              + Constans.LAST_CHUNK_DIGEST_NAME);
       String[] iotdbBufferwriteDirectory = conf.getBufferwriteDirectory();
       String[] snapshots = new String[conf.getBufferwriteDirectory().length];
       for (int i = 0; i < conf.getBufferwriteDirectory().length; i++) {
@@ -27,16 +27,17 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.zip.CRC32;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.iotdb.db.concurrent.ThreadName;
@@ -49,31 +50,39 @@ import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.MetadataArgsErrorException;
 import org.apache.iotdb.db.exception.PathErrorException;
-import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.metadata.MetadataConstant;
 import org.apache.iotdb.db.metadata.MetadataOperationType;
-import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
-import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.sync.conf.Constans;
 import org.apache.iotdb.db.utils.FilePathUtils;
 import org.apache.iotdb.db.utils.SyncUtils;
 import org.apache.iotdb.service.sync.thrift.SyncDataStatus;
 import org.apache.iotdb.service.sync.thrift.SyncService;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
-import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
-import org.apache.iotdb.tsfile.read.common.Field;
-import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.read.common.RowRecord;
-import org.apache.iotdb.tsfile.read.expression.QueryExpression;
-import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.writer.DefaultTsFileOutput;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+import org.apache.iotdb.tsfile.write.writer.TsFileOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -89,6 +98,13 @@ public class SyncServiceImpl implements SyncService.Iface {
 
   private static final String SYNC_SERVER = Constans.SYNC_SERVER;
 
+  private static final String NEW_CHUNKS_FILE_SUFFIX = ".new";
+
+  /**
+   * a tsfile received in pipelined transfer is written with this suffix until it is complete
+   */
+  private static final String PARTIAL_FILE_SUFFIX = ".part";
+
   private ThreadLocal<String> uuid = new ThreadLocal<>();
   /**
    * String means storage group,List means the set of new files(path) in local IoTDB and String
@@ -171,6 +187,30 @@ public class SyncServiceImpl implements SyncService.Iface {
     return true;
   }
 
+  /**
+   * Init threadLocal variable but keep the data files received before the connection to the
+   * sender was lost, so that the sender can continue the transfer where it stopped. Only the
+   * completely received files are counted.
+   */
+  @Override
+  public boolean resume(String storageGroup) {
+    logger.info("Sync process resumes to receive data of storage group {}", storageGroup);
+    File dataDirectory = new File(syncDataPath);
+    int receivedFileNum = 0;
+    if (dataDirectory.exists()) {
+      for (File file : FileUtils.listFiles(dataDirectory, null, true)) {
+        if (!file.getName().endsWith(PARTIAL_FILE_SUFFIX)) {
+          receivedFileNum++;
+        }
+      }
+    }
+    fileNum.set(receivedFileNum);
+    fileNodeMap.set(new HashMap<>());
+    fileNodeStartTime.set(new HashMap<>());
+    fileNodeEndTime.set(new HashMap<>());
+    return true;
+  }
+
   /**
    * Verify IP address of sender
    */
@@ -327,10 +367,7 @@ public class SyncServiceImpl implements SyncService.Iface {
       ByteBuffer dataToReceive, SyncDataStatus status) {
     String md5OfReceiver = Boolean.toString(Boolean.TRUE);
     FileChannel channel;
-    /** Recombination File Path **/
-    String filePath = StringUtils.join(filePathSplit, File.separatorChar);
-    syncDataPath = FilePathUtils.regularizePath(syncDataPath);
-    filePath = syncDataPath + filePath;
+    String filePath = getReceivedFilePath(filePathSplit);
     if (status == SyncDataStatus.PROCESSING_STATUS) { // there are still data stream to add
       File file = new File(filePath);
       if (!file.getParentFile().exists()) {
@@ -373,6 +410,95 @@ public class SyncServiceImpl implements SyncService.Iface {
     return md5OfReceiver;
   }
 
+  /**
+   * Receive one chunk of a tsfile in pipelined transfer. The chunk is appended only if it starts
+   * exactly at the end of the received part of the file and its checksum matches, otherwise it is
+   * dropped and the sender resends it from the length returned by getReceivedLength.
+   */
+  @Override
+  public void syncDataChunk(List<String> filePathSplit, long offset, ByteBuffer dataToReceive,
+      long checksum) {
+    File file = new File(getReceivedFilePath(filePathSplit) + PARTIAL_FILE_SUFFIX);
+    CRC32 crc32 = new CRC32();
+    crc32.update(dataToReceive.duplicate());
+    if (crc32.getValue() != checksum) {
+      logger.warn("Drop a chunk of file {} at offset {} because its checksum mismatches",
+          file.getPath(), offset);
+      return;
+    }
+    if (file.length() != offset) {
+      logger.warn("Drop a chunk of file {} at offset {}, {} bytes have been received",
+          file.getPath(), offset, file.length());
+      return;
+    }
+    if (!file.getParentFile().exists()) {
+      file.getParentFile().mkdirs();
+    }
+    try (FileOutputStream fos = new FileOutputStream(file, true);
+        FileChannel channel = fos.getChannel()) {
+      while (dataToReceive.hasRemaining()) {
+        channel.write(dataToReceive);
+      }
+    } catch (IOException e) {
+      logger.error("cannot write data to file {}", file.getPath(), e);
+    }
+  }
+
+  /**
+   * Get the number of bytes of a tsfile that have been received in pipelined transfer. A file
+   * which has been finished has all of its bytes received.
+   */
+  @Override
+  public long getReceivedLength(List<String> filePathSplit) {
+    String filePath = getReceivedFilePath(filePathSplit);
+    File partialFile = new File(filePath + PARTIAL_FILE_SUFFIX);
+    return partialFile.exists() ? partialFile.length() : new File(filePath).length();
+  }
+
+  /**
+   * Finish receiving one tsfile in pipelined transfer. The file is deleted if its length differs
+   * from the length of the file on sender, so that it can be sent again from the beginning.
+   * Finishing a file again, after the reply to the sender has been lost, succeeds.
+   */
+  @Override
+  public boolean finishSyncData(List<String> filePathSplit, long length) {
+    File file = new File(getReceivedFilePath(filePathSplit));
+    File partialFile = new File(file.getPath() + PARTIAL_FILE_SUFFIX);
+    if (!partialFile.exists() && file.exists() && file.length() == length) {
+      return true;
+    }
+    if (partialFile.length() == length) {
+      try {
+        boolean isNewFile = !file.exists();
+        Files.move(partialFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (isNewFile) {
+          fileNum.set(fileNum.get() + 1);
+        }
+        logger.info(String.format("Receiver has received %d files from sender", fileNum.get()));
+        return true;
+      } catch (IOException e) {
+        logger.error("cannot move {} to {}", partialFile.getPath(), file.getPath(), e);
+      }
+    } else {
+      logger.error("The length of received file {} is {}, but {} is expected", file.getPath(),
+          partialFile.length(), length);
+    }
+    try {
+      Files.deleteIfExists(partialFile.toPath());
+    } catch (IOException e) {
+      logger.error("cannot delete file {}", partialFile.getPath(), e);
+    }
+    return false;
+  }
+
+  /**
+   * Recombine the path of a received tsfile
+   */
+  private String getReceivedFilePath(List<String> filePathSplit) {
+    syncDataPath = FilePathUtils.regularizePath(syncDataPath);
+    return syncDataPath + StringUtils.join(filePathSplit, File.separatorChar);
+  }
+
 
   @Override
   public boolean load() {
@@ -397,6 +523,10 @@ public class SyncServiceImpl implements SyncService.Iface {
       List<String> filesPath = new ArrayList<>();
       File[] filesSG = storageGroupPB.listFiles();
       for (File fileTF : filesSG) { // fileTF means TsFiles
+        if (fileTF.getName().endsWith(PARTIAL_FILE_SUFFIX)) {
+          logger.warn("Skip the incompletely received file {}", fileTF.getPath());
+          continue;
+        }
         Map<String, Long> startTimeMap = new HashMap<>();
         Map<String, Long> endTimeMap = new HashMap<>();
         TsFileSequenceReader reader = null;
@@ -477,20 +607,9 @@ public class SyncServiceImpl implements SyncService.Iface {
         try {
           if (!fileNodeManager.appendFileToFileNode(storageGroup, fileNode, path)) {
             // it is a file with overflow data
-            if (config.isUpdate_historical_data_possibility()) {
-              loadOldData(path);
-            } else {
-              List<String> overlapFiles = fileNodeManager.getOverlapFilesFromFileNode(
-                  storageGroup,
-                  fileNode, uuid.get());
-              if (overlapFiles.isEmpty()) {
-                loadOldData(path);
-              } else {
-                loadOldData(path, overlapFiles);
-              }
-            }
+            loadOldData(storageGroup, path, fileNode.getFile());
           }
-        } catch (FileNodeManagerException | IOException | ProcessorException e) {
+        } catch (FileNodeManagerException | IOException e) {
           logger.error("Can not load external file {}", path);
           throw new FileNodeManagerException(e);
         }
@@ -502,211 +621,154 @@ public class SyncServiceImpl implements SyncService.Iface {
   }
 
   /**
-   * Insert all data in the tsfile into IoTDB.
+   * Load a tsfile which overlaps the data of the storage group chunk by chunk. The chunks that
+   * begin after the last update time of their device are appended to the storage group as a new
+   * tsfile. The chunks that end before the data of their device in memory are appended to the
+   * overflow data as they are stored. Only the remaining chunks are decoded and inserted.
+   *
+   * @param storageGroup the storage group of the tsfile
+   * @param filePath the path of the tsfile
+   * @param targetFile the file the chunks of new data are moved to
    */
-  public void loadOldData(String filePath) throws IOException, ProcessorException {
-    Set<String> timeseriesSet = new HashSet<>();
-    TsFileSequenceReader reader = null;
-    OverflowQPExecutor insertExecutor = new OverflowQPExecutor();
-    try {
-      /** use tsfile reader to get data **/
-      reader = new TsFileSequenceReader(filePath);
-      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader.readFileMetadata().getDeviceMap();
-      Iterator<Entry<String, TsDeviceMetadataIndex>> entryIterator = deviceIdMap.entrySet()
-          .iterator();
-      while (entryIterator.hasNext()) {
-        Entry<String, TsDeviceMetadataIndex> deviceMIEntry = entryIterator.next();
-        String deviceId = deviceMIEntry.getKey();
-        TsDeviceMetadataIndex deviceMI = deviceMIEntry.getValue();
-        TsDeviceMetadata deviceMetadata = reader.readTsDeviceMetaData(deviceMI);
-        List<ChunkGroupMetaData> rowGroupMetadataList = deviceMetadata.getChunkGroupMetaDataList();
-        timeseriesSet.clear();
-        /** firstly, get all timeseries in the same device **/
-        for (ChunkGroupMetaData chunkGroupMetaData : rowGroupMetadataList) {
-          List<ChunkMetaData> chunkMetaDataList = chunkGroupMetaData
-              .getChunkMetaDataList();
-          for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
-            String measurementUID = chunkMetaData.getMeasurementUid();
-            measurementUID = deviceId + "." + measurementUID;
-            timeseriesSet.add(measurementUID);
-          }
-        }
-        /** Secondly, use tsFile Reader to form InsertPlan **/
-        ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
-        List<Path> paths = new ArrayList<>();
-        paths.clear();
-        for (String timeseries : timeseriesSet) {
-          paths.add(new Path(timeseries));
-        }
-        QueryExpression queryExpression = QueryExpression.create(paths, null);
-        QueryDataSet queryDataSet = readTsFile.query(queryExpression);
-        while (queryDataSet.hasNext()) {
-          RowRecord record = queryDataSet.next();
-          List<Field> fields = record.getFields();
-          List<String> measurementList = new ArrayList<>();
-          List<String> insertValues = new ArrayList<>();
-          for (int i = 0; i < fields.size(); i++) {
-            Field field = fields.get(i);
-            if (!field.isNull()) {
-              measurementList.add(paths.get(i).getMeasurement());
-              if (fields.get(i).getDataType() == TSDataType.TEXT) {
-                insertValues.add(String.format("'%s'", field.toString()));
-              } else {
-                insertValues.add(String.format("%s", field.toString()));
-              }
-            }
-          }
-          if (insertExecutor
-              .multiInsert(deviceId, record.getTimestamp(), measurementList.toArray(new String[]{}),
-                  insertValues.toArray(new String[]{})) <= 0) {
-            throw new IOException("Inserting series data to IoTDB engine has failed.");
-          }
-        }
+  public void loadOldData(String storageGroup, String filePath, File targetFile)
+      throws IOException, FileNodeManagerException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      TsFileMetaData fileMetaData = reader.readFileMetadata();
+      Map<String, List<ChunkGroupMetaData>> chunkGroupsOfDevices = new HashMap<>();
+      for (Entry<String, TsDeviceMetadataIndex> entry : fileMetaData.getDeviceMap().entrySet()) {
+        chunkGroupsOfDevices.put(entry.getKey(),
+            reader.readTsDeviceMetaData(entry.getValue()).getChunkGroupMetaDataList());
       }
-    } catch (IOException e) {
-      logger.error("Can not parse tsfile into SQL", e);
-      throw new IOException(e);
-    } catch (ProcessorException e) {
-      logger.error("Meet error while processing non-query.");
-      throw new ProcessorException(e);
-    } finally {
-      try {
-        if (reader != null) {
-          reader.close();
+      Map<String, List<ChunkMetaData>> oldChunksOfDevices = appendNewChunks(storageGroup, reader,
+          fileMetaData, chunkGroupsOfDevices, filePath, targetFile);
+      for (Entry<String, List<ChunkMetaData>> entry : oldChunksOfDevices.entrySet()) {
+        String deviceId = entry.getKey();
+        List<ChunkMetaData> remainingChunks = fileNodeManager
+            .appendChunksToOverflow(storageGroup, deviceId, reader, entry.getValue());
+        for (ChunkMetaData chunkMetaData : remainingChunks) {
+          insertChunk(deviceId, reader, chunkMetaData);
         }
-      } catch (IOException e) {
-        logger.error("Cannot close file stream {}", filePath, e);
       }
     }
   }
 
   /**
-   * Insert those valid data in the tsfile into IoTDB
+   * Write the chunks which begin after the last update time of their device into a new tsfile,
+   * keeping their chunk groups, and append it to the storage group.
    *
-   * @param overlapFiles:files which are conflict with the sync file
+   * @return the chunks of each device which have not been appended
    */
-  public void loadOldData(String filePath, List<String> overlapFiles)
-      throws IOException, ProcessorException {
-    Set<String> timeseriesList = new HashSet<>();
-    OverflowQPExecutor insertExecutor = new OverflowQPExecutor();
-    Map<String, ReadOnlyTsFile> tsfilesReaders = openReaders(filePath, overlapFiles);
+  private Map<String, List<ChunkMetaData>> appendNewChunks(String storageGroup,
+      TsFileSequenceReader reader, TsFileMetaData fileMetaData,
+      Map<String, List<ChunkGroupMetaData>> chunkGroupsOfDevices, String filePath,
+      File targetFile) throws IOException, FileNodeManagerException {
+    Map<String, List<ChunkMetaData>> oldChunksOfDevices = new HashMap<>();
+    Map<String, List<ChunkMetaData>> newChunksOfDevices = new HashMap<>();
+    Map<String, Long> startTimeMap = new HashMap<>();
+    Map<String, Long> endTimeMap = new HashMap<>();
+    File newChunksFile = new File(filePath + NEW_CHUNKS_FILE_SUFFIX);
+    TsFileOutput output = new DefaultTsFileOutput(newChunksFile);
+    boolean appended = false;
     try {
-      TsFileSequenceReader reader = new TsFileSequenceReader(filePath);
-      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader.readFileMetadata().getDeviceMap();
-      Iterator<String> it = deviceIdMap.keySet().iterator();
-      while (it.hasNext()) {
-        String deviceID = it.next();
-        TsDeviceMetadataIndex deviceMI = deviceIdMap.get(deviceID);
-        TsDeviceMetadata deviceMetadata = reader.readTsDeviceMetaData(deviceMI);
-        List<ChunkGroupMetaData> chunkGroupMetaDataList = deviceMetadata
-            .getChunkGroupMetaDataList();
-        timeseriesList.clear();
-        /** firstly, get all timeseries in the same device **/
-        for (ChunkGroupMetaData chunkGroupMetaData : chunkGroupMetaDataList) {
-          List<ChunkMetaData> chunkMetaDataList = chunkGroupMetaData.getChunkMetaDataList();
-          for (ChunkMetaData timeSeriesChunkMetaData : chunkMetaDataList) {
-            String measurementUID = timeSeriesChunkMetaData.getMeasurementUid();
-            measurementUID = deviceID + "." + measurementUID;
-            timeseriesList.add(measurementUID);
-          }
-        }
-        reader.close();
-
-        /** secondly, use tsFile Reader to form SQL **/
-        ReadOnlyTsFile readOnlyTsFile = tsfilesReaders.get(filePath);
-        List<Path> paths = new ArrayList<>();
-        /** compare data with one timeseries in a round to get valid data **/
-        for (String timeseries : timeseriesList) {
-          paths.clear();
-          paths.add(new Path(timeseries));
-          Set<InsertPlan> originDataPoints = new HashSet<>();
-          QueryExpression queryExpression = QueryExpression.create(paths, null);
-          QueryDataSet queryDataSet = readOnlyTsFile.query(queryExpression);
-          Set<InsertPlan> newDataPoints = convertToInserPlans(queryDataSet, paths, deviceID);
-
-          /** get all data with the timeseries in all overlap files. **/
-          for (String overlapFile : overlapFiles) {
-            ReadOnlyTsFile readTsFileOverlap = tsfilesReaders.get(overlapFile);
-            QueryDataSet queryDataSetOverlap = readTsFileOverlap.query(queryExpression);
-            originDataPoints.addAll(convertToInserPlans(queryDataSetOverlap, paths, deviceID));
-          }
-
-          /** If there has no overlap data with the timeseries, inserting all data in the sync file **/
-          if (originDataPoints.isEmpty()) {
-            for (InsertPlan insertPlan : newDataPoints) {
-              if (insertExecutor.multiInsert(insertPlan.getDeviceId(), insertPlan.getTime(),
-                  insertPlan.getMeasurements(), insertPlan.getValues()) <= 0) {
-                throw new IOException("Inserting series data to IoTDB engine has failed.");
-              }
+      TsFileIOWriter writer = new TsFileIOWriter(output, new ArrayList<>());
+      for (Entry<String, List<ChunkGroupMetaData>> entry : chunkGroupsOfDevices.entrySet()) {
+        String deviceId = entry.getKey();
+        long lastUpdateTime = fileNodeManager.getLastUpdateTime(storageGroup, deviceId);
+        List<ChunkMetaData> oldChunks = new ArrayList<>();
+        List<ChunkMetaData> newChunks = new ArrayList<>();
+        for (ChunkGroupMetaData chunkGroupMetaData : entry.getValue()) {
+          List<ChunkMetaData> newChunksOfGroup = new ArrayList<>();
+          for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+            if (chunkMetaData.getStartTime() > lastUpdateTime) {
+              newChunksOfGroup.add(chunkMetaData);
+            } else {
+              oldChunks.add(chunkMetaData);
             }
-          } else {
-            /** Compare every data to get valid data **/
-            for (InsertPlan insertPlan : newDataPoints) {
-              if (!originDataPoints.contains(insertPlan)) {
-                if (insertExecutor.multiInsert(insertPlan.getDeviceId(), insertPlan.getTime(),
-                    insertPlan.getMeasurements(), insertPlan.getValues()) <= 0) {
-                  throw new IOException("Inserting series data to IoTDB engine has failed.");
-                }
-              }
+          }
+          if (!newChunksOfGroup.isEmpty()) {
+            writeChunkGroup(writer, deviceId, reader, newChunksOfGroup,
+                chunkGroupMetaData.getVersion());
+            for (ChunkMetaData chunkMetaData : newChunksOfGroup) {
+              startTimeMap.merge(deviceId, chunkMetaData.getStartTime(), Math::min);
+              endTimeMap.merge(deviceId, chunkMetaData.getEndTime(), Math::max);
             }
+            newChunks.addAll(newChunksOfGroup);
           }
         }
+        oldChunksOfDevices.put(deviceId, oldChunks);
+        newChunksOfDevices.put(deviceId, newChunks);
       }
-    } catch (IOException e) {
-      logger.error("Can not parse tsfile into SQL", e);
-      throw new IOException(e);
-    } catch (ProcessorException e) {
-      logger.error("Meet error while processing non-query.", e);
-      throw new ProcessorException(e);
+      writer.endFile(new FileSchema(fileMetaData.getMeasurementSchema()));
+
+      TsFileResource fileNode = new TsFileResource(startTimeMap, endTimeMap,
+          OverflowChangeType.NO_CHANGE, targetFile);
+      appended = !startTimeMap.isEmpty() && fileNodeManager
+          .appendFileToFileNode(storageGroup, fileNode, newChunksFile.getPath());
     } finally {
-      try {
-        closeReaders(tsfilesReaders);
-      } catch (IOException e) {
-        logger.error("Cannot close file stream {}", filePath, e);
+      // endFile closes the output, closing it again does nothing
+      output.close();
+      if (!appended) {
+        Files.deleteIfExists(newChunksFile.toPath());
       }
     }
-  }
-
-  private Set<InsertPlan> convertToInserPlans(QueryDataSet queryDataSet, List<Path> paths, String deviceID) throws IOException {
-    Set<InsertPlan> plans = new HashSet<>();
-    while (queryDataSet.hasNext()) {
-      RowRecord record = queryDataSet.next();
-      List<Field> fields = record.getFields();
-      /** get all data with the timeseries in the sync file **/
-      for (int i = 0; i < fields.size(); i++) {
-        Field field = fields.get(i);
-        String[] measurementList = new String[1];
-        if (!field.isNull()) {
-          measurementList[0] = paths.get(i).getMeasurement();
-          InsertPlan insertPlan = new InsertPlan(deviceID, record.getTimestamp(),
-              measurementList, new String[]{field.getDataType() == TSDataType.TEXT ? String.format("'%s'", field.toString())
-              : field.toString()});
-          plans.add(insertPlan);
-        }
+    if (!appended) {
+      // new data may have been inserted meanwhile, so the chunks are loaded as old ones
+      for (Entry<String, List<ChunkMetaData>> entry : newChunksOfDevices.entrySet()) {
+        oldChunksOfDevices.get(entry.getKey()).addAll(entry.getValue());
       }
     }
-    return plans;
+    return oldChunksOfDevices;
   }
 
-  /**
-   * Open all tsfile reader and cache
-   */
-  private Map<String, ReadOnlyTsFile> openReaders(String filePath, List<String> overlapFiles)
+  private void writeChunkGroup(TsFileIOWriter writer, String deviceId,
+      TsFileSequenceReader reader, List<ChunkMetaData> chunkMetaDataList, long version)
       throws IOException {
-    Map<String, ReadOnlyTsFile> tsfileReaders = new HashMap<>();
-    tsfileReaders.put(filePath, new ReadOnlyTsFile(new TsFileSequenceReader(filePath)));
-    for (String overlapFile : overlapFiles) {
-      tsfileReaders.put(overlapFile, new ReadOnlyTsFile(new TsFileSequenceReader(overlapFile)));
+    long startPos = writer.getPos();
+    writer.startFlushChunkGroup(deviceId);
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      writer.writeChunk(reader.readMemChunk(chunkMetaData), chunkMetaData);
     }
-    return tsfileReaders;
+    long dataSize = writer.getPos() - startPos;
+    writer.endChunkGroup(new ChunkGroupFooter(deviceId, dataSize, chunkMetaDataList.size()),
+        version);
   }
 
   /**
-   * Close all tsfile reader
+   * Insert the points of a chunk which overlaps the data of its device in memory.
    */
-  private void closeReaders(Map<String, ReadOnlyTsFile> readers) throws IOException {
-    for (ReadOnlyTsFile tsfileReader : readers.values()) {
-      tsfileReader.close();
+  private void insertChunk(String deviceId, TsFileSequenceReader reader,
+      ChunkMetaData chunkMetaData) throws IOException, FileNodeManagerException {
+    String measurementId = chunkMetaData.getMeasurementUid();
+    ChunkReader chunkReader = new ChunkReaderWithoutFilter(reader.readMemChunk(chunkMetaData));
+    while (chunkReader.hasNextBatch()) {
+      BatchData batchData = chunkReader.nextBatch();
+      List<TSRecord> records = new ArrayList<>(batchData.length());
+      while (batchData.hasNext()) {
+        TSRecord record = new TSRecord(batchData.currentTime(), deviceId);
+        record.addTuple(createDataPoint(measurementId, batchData));
+        records.add(record);
+        batchData.next();
+      }
+      fileNodeManager.insertBatch(deviceId, records, false);
+    }
+  }
+
+  private DataPoint createDataPoint(String measurementId, BatchData batchData) {
+    switch (batchData.getDataType()) {
+      case BOOLEAN:
+        return new BooleanDataPoint(measurementId, batchData.getBoolean());
+      case INT32:
+        return new IntDataPoint(measurementId, batchData.getInt());
+      case INT64:
+        return new LongDataPoint(measurementId, batchData.getLong());
+      case FLOAT:
+        return new FloatDataPoint(measurementId, batchData.getFloat());
+      case DOUBLE:
+        return new DoubleDataPoint(measurementId, batchData.getDouble());
+      case TEXT:
+        return new StringDataPoint(measurementId, batchData.getBinary());
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(batchData.getDataType()));
     }
   }
 
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.sync.sender;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+/**
+ * IncrementalSnapshotWriter makes the snapshot of a tsfile for incremental sync. Every chunk is
+ * identified by a digest of its device and its stored bytes. A merge copies the chunks which are
+ * not affected by unsequence data as they are, so the chunks of a merged file whose digests the
+ * receiver has already got hold data the receiver already has, and only the other chunks are kept
+ * in the snapshot, grouped by their original chunk groups.
+ */
+public class IncrementalSnapshotWriter {
+
+  private IncrementalSnapshotWriter() {
+  }
+
+  /**
+   * Make the snapshot of a tsfile. The snapshot is a link to the tsfile if none of its chunks is
+   * known, and it is not made if all of them are known. A file which is not a complete tsfile is
+   * always linked.
+   *
+   * @param tsFile the tsfile to sync
+   * @param snapshotFile the snapshot to make
+   * @param knownDigests the digests of the chunks the receiver has got
+   * @return the digests of all chunks of the tsfile
+   */
+  public static Set<String> write(File tsFile, File snapshotFile, Set<String> knownDigests)
+      throws IOException {
+    if (!isCompleteTsFile(tsFile)) {
+      Files.createLink(snapshotFile.toPath(), tsFile.toPath());
+      return new HashSet<>();
+    }
+    Set<String> digests = new HashSet<>();
+    List<ChunkGroupMetaData> newChunkGroups = new ArrayList<>();
+    boolean hasKnownChunk = false;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+      TsFileMetaData fileMetaData = reader.readFileMetadata();
+      for (Entry<String, TsDeviceMetadataIndex> entry : fileMetaData.getDeviceMap().entrySet()) {
+        String deviceId = entry.getKey();
+        for (ChunkGroupMetaData chunkGroupMetaData : reader.readTsDeviceMetaData(entry.getValue())
+            .getChunkGroupMetaDataList()) {
+          List<ChunkMetaData> newChunks = new ArrayList<>();
+          for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+            String digest = getDigest(deviceId, reader.readMemChunk(chunkMetaData));
+            digests.add(digest);
+            if (knownDigests.contains(digest)) {
+              hasKnownChunk = true;
+            } else {
+              newChunks.add(chunkMetaData);
+            }
+          }
+          if (!newChunks.isEmpty()) {
+            ChunkGroupMetaData newChunkGroup = new ChunkGroupMetaData(deviceId, newChunks,
+                chunkGroupMetaData.getStartOffsetOfChunkGroup());
+            newChunkGroup.setVersion(chunkGroupMetaData.getVersion());
+            newChunkGroups.add(newChunkGroup);
+          }
+        }
+      }
+      if (!hasKnownChunk) {
+        Files.createLink(snapshotFile.toPath(), tsFile.toPath());
+      } else if (!newChunkGroups.isEmpty()) {
+        writeChunkGroups(reader, newChunkGroups,
+            new FileSchema(fileMetaData.getMeasurementSchema()), snapshotFile);
+      }
+    }
+    return digests;
+  }
+
+  private static boolean isCompleteTsFile(File file) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath(), false)) {
+      return reader.isComplete() && reader.readHeadMagic().equals(TSFileConfig.MAGIC_STRING);
+    }
+  }
+
+  private static void writeChunkGroups(TsFileSequenceReader reader,
+      List<ChunkGroupMetaData> chunkGroups, FileSchema schema, File snapshotFile)
+      throws IOException {
+    TsFileIOWriter writer = new TsFileIOWriter(snapshotFile);
+    for (ChunkGroupMetaData chunkGroup : chunkGroups) {
+      long startPos = writer.getPos();
+      writer.startFlushChunkGroup(chunkGroup.getDeviceID());
+      for (ChunkMetaData chunkMetaData : chunkGroup.getChunkMetaDataList()) {
+        writer.writeChunk(reader.readMemChunk(chunkMetaData), chunkMetaData);
+      }
+      long dataSize = writer.getPos() - startPos;
+      writer.endChunkGroup(new ChunkGroupFooter(chunkGroup.getDeviceID(), dataSize,
+          chunkGroup.getChunkMetaDataList().size()), chunkGroup.getVersion());
+    }
+    writer.endFile(schema);
+  }
+
+  /**
+   * The digest covers the fields of the chunk header which are kept when a chunk is copied into
+   * another tsfile, and the data of the chunk.
+   */
+  static String getDigest(String deviceId, Chunk chunk) {
+    MessageDigest md;
+    try {
+      md = MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    ChunkHeader header = chunk.getHeader();
+    md.update(deviceId.getBytes(StandardCharsets.UTF_8));
+    md.update(header.getMeasurementID().getBytes(StandardCharsets.UTF_8));
+    ByteBuffer fields = ByteBuffer.allocate(3 * Short.BYTES + Integer.BYTES);
+    fields.putShort(header.getDataType().serialize());
+    fields.putShort(header.getCompressionType().serialize());
+    fields.putShort(header.getEncodingType().serialize());
+    fields.putInt(header.getNumOfPages());
+    fields.flip();
+    md.update(fields);
+    md.update(chunk.getData().duplicate());
+    return new BigInteger(1, md.digest()).toString(16);
+  }
+}
@@ -24,6 +24,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -59,12 +60,21 @@ public class SyncFileManager {
    **/
   private Map<String, Set<String>> currentLocalFiles = new HashMap<>();
 
+  /**
+   * Digests of the chunks of each tsfile in last synchronization process, grouped by storage group
+   **/
+  private Map<String, Map<String, Set<String>>> lastChunkDigests = new HashMap<>();
+
   private SyncSenderConfig syncConfig = SyncSenderDescriptor.getInstance().getConfig();
 
   private IoTDBConfig systemConfig = IoTDBDescriptor.getInstance().getConfig();
 
   private static final String RESTORE_SUFFIX = ".restore";
 
+  private static final String DIGEST_FIELD_SEPARATOR = "\t";
+
+  private static final String DIGEST_SEPARATOR = ",";
+
   private SyncFileManager() {
   }
 
@@ -80,6 +90,7 @@ public class SyncFileManager {
     lastLocalFiles.clear();
     currentLocalFiles.clear();
     getLastLocalFileList(syncConfig.getLastFileInfo());
+    getLastChunkDigestList(syncConfig.getLastChunkDigestInfo());
     getCurrentLocalFileList(systemConfig.getBufferWriteDirs());
     getValidFileList();
   }
@@ -133,6 +144,34 @@ public class SyncFileManager {
     lastLocalFiles = fileList;
   }
 
+  /**
+   * get the digests of the chunks of the tsfiles in last synchronization process. Each line of the
+   * file holds the storage group, the path of a tsfile and the digests of its chunks.
+   *
+   * @param path path
+   */
+  public void getLastChunkDigestList(String path) throws IOException {
+    Map<String, Map<String, Set<String>>> digestList = new HashMap<>();
+    File file = new File(path);
+    if (file.exists()) {
+      try (BufferedReader bf = new BufferedReader(new FileReader(file))) {
+        String line;
+        while ((line = bf.readLine()) != null) {
+          String[] fields = line.split(DIGEST_FIELD_SEPARATOR);
+          Set<String> digests = new HashSet<>();
+          if (fields.length > 2) {
+            Collections.addAll(digests, fields[2].split(DIGEST_SEPARATOR));
+          }
+          digestList.computeIfAbsent(fields[0], k -> new HashMap<>()).put(fields[1], digests);
+        }
+      } catch (IOException e) {
+        LOGGER.error("Cannot get last chunk digest list when reading file {}.", path);
+        throw new IOException(e);
+      }
+    }
+    lastChunkDigests = digestList;
+  }
+
   /**
    * get current local file list.
    *
@@ -181,6 +220,47 @@ public class SyncFileManager {
     }
   }
 
+  /**
+   * Replace the chunk digests of a storage group after it is synchronized. Only the digests of the
+   * tsfiles which are still local are kept, the digests of the newly synchronized tsfiles are taken
+   * from the given map and the others from last synchronization process.
+   *
+   * @param storageGroup the synchronized storage group
+   * @param newDigests the digests of the newly synchronized tsfiles
+   */
+  public void updateChunkDigests(String storageGroup, Map<String, Set<String>> newDigests) {
+    Map<String, Set<String>> lastDigests = lastChunkDigests
+        .getOrDefault(storageGroup, new HashMap<>());
+    Map<String, Set<String>> digests = new HashMap<>();
+    for (String file : currentLocalFiles.getOrDefault(storageGroup, new HashSet<>())) {
+      if (newDigests.containsKey(file)) {
+        digests.put(file, newDigests.get(file));
+      } else if (lastDigests.containsKey(file)) {
+        digests.put(file, lastDigests.get(file));
+      }
+    }
+    lastChunkDigests.put(storageGroup, digests);
+  }
+
+  /**
+   * backup the chunk digests of the synchronized tsfiles.
+   *
+   * @param backupFile backup file path
+   */
+  public void backupChunkDigestInfo(String backupFile) {
+    try (BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(backupFile))) {
+      for (Entry<String, Map<String, Set<String>>> entry : lastChunkDigests.entrySet()) {
+        for (Entry<String, Set<String>> fileDigests : entry.getValue().entrySet()) {
+          bufferedWriter.write(entry.getKey() + DIGEST_FIELD_SEPARATOR + fileDigests.getKey()
+              + DIGEST_FIELD_SEPARATOR + String.join(DIGEST_SEPARATOR, fileDigests.getValue())
+              + "\n");
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.error("Cannot back up chunk digest info", e);
+    }
+  }
+
   public Map<String, Set<String>> getValidAllFiles() {
     return validAllFiles;
   }
@@ -197,6 +277,10 @@ public class SyncFileManager {
     currentLocalFiles = newNowLocalFiles;
   }
 
+  public Map<String, Map<String, Set<String>>> getLastChunkDigests() {
+    return lastChunkDigests;
+  }
+
   private static class FileManagerHolder {
 
     private static final SyncFileManager INSTANCE = new SyncFileManager();
@@ -38,9 +38,9 @@ public interface SyncSender {
   boolean confirmIdentity(String uuidPath) throws SyncConnectionException, IOException;
 
   /**
-   * Make file snapshots before sending files.
+   * Make file snapshots of a storage group before sending files.
    */
-  Set<String> makeFileSnapshot(Set<String> validFiles) throws IOException;
+  Set<String> makeFileSnapshot(String storageGroup, Set<String> validFiles) throws IOException;
 
   /**
    * Send schema file to receiver.
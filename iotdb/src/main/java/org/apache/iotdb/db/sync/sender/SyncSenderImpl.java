@@ -28,10 +28,12 @@ import java.io.RandomAccessFile;
 import java.math.BigInteger;
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Date;
@@ -42,6 +44,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.CRC32;
 import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.exception.SyncConnectionException;
@@ -51,6 +54,7 @@ import org.apache.iotdb.db.sync.conf.SyncSenderDescriptor;
 import org.apache.iotdb.db.utils.SyncUtils;
 import org.apache.iotdb.service.sync.thrift.SyncDataStatus;
 import org.apache.iotdb.service.sync.thrift.SyncService;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
@@ -95,6 +99,11 @@ public class SyncSenderImpl implements SyncSender {
    **/
   private Map<String, Set<String>> validFileSnapshot = new HashMap<>();
 
+  /**
+   * Key means storage group, Value means the chunk digests of each valid file.
+   */
+  private Map<String, Map<String, Set<String>>> validFileDigests = new HashMap<>();
+
   private SyncFileManager syncFileManager = SyncFileManager.getInstance();
   private SyncSenderConfig config = SyncSenderDescriptor.getInstance().getConfig();
 
@@ -200,8 +209,9 @@ public class SyncSenderImpl implements SyncSender {
     }
 
     // 4. Create snapshot
+    validFileDigests.clear();
     for (Entry<String, Set<String>> entry : validAllFiles.entrySet()) {
-      validFileSnapshot.put(entry.getKey(), makeFileSnapshot(entry.getValue()));
+      validFileSnapshot.put(entry.getKey(), makeFileSnapshot(entry.getKey(), entry.getValue()));
     }
 
     syncStatus = true;
@@ -241,6 +251,10 @@ public class SyncSenderImpl implements SyncSender {
       Set<String> validFiles = entry.getValue();
       Set<String> validSnapshot = validFileSnapshot.get(entry.getKey());
       if (validSnapshot.isEmpty()) {
+        if (!validFiles.isEmpty()) {
+          // the receiver has got all chunks of the valid files
+          finishStorageGroup(entry.getKey(), validFiles);
+        }
         continue;
       }
       LOGGER.info("Sync process starts to transfer data of storage group {}", entry.getKey());
@@ -251,18 +265,28 @@ public class SyncSenderImpl implements SyncSender {
       } catch (TException e) {
         throw new SyncConnectionException("Unable to connect to receiver", e);
       }
-      syncData(validSnapshot);
+      syncData(entry.getKey(), validSnapshot);
       if (afterSynchronization()) {
-        currentLocalFiles.get(entry.getKey()).addAll(validFiles);
-        syncFileManager.setCurrentLocalFiles(currentLocalFiles);
-        syncFileManager.backupNowLocalFileInfo(config.getLastFileInfo());
-        LOGGER.info("Sync process has finished storage group {}.", entry.getKey());
+        finishStorageGroup(entry.getKey(), validFiles);
       } else {
         LOGGER.error("Receiver cannot sync data, abandon this synchronization of storage group {}", entry.getKey());
       }
     }
   }
 
+  /**
+   * Record the valid files and their chunk digests of a storage group as synchronized.
+   */
+  private void finishStorageGroup(String storageGroup, Set<String> validFiles) {
+    currentLocalFiles.get(storageGroup).addAll(validFiles);
+    syncFileManager.setCurrentLocalFiles(currentLocalFiles);
+    syncFileManager.backupNowLocalFileInfo(config.getLastFileInfo());
+    syncFileManager.updateChunkDigests(storageGroup,
+        validFileDigests.getOrDefault(storageGroup, new HashMap<>()));
+    syncFileManager.backupChunkDigestInfo(config.getLastChunkDigestInfo());
+    LOGGER.info("Sync process has finished storage group {}.", storageGroup);
+  }
+
   /**
    * Establish a connection between the sender and the receiver.
    *
@@ -327,99 +351,232 @@ public class SyncSenderImpl implements SyncSender {
   }
 
   /**
-   * Create snapshots for valid files.
+   * Create snapshots for valid files. In incremental sync, the snapshot of a file only keeps the
+   * chunks the receiver has not got, and no snapshot is made if the receiver has got all of them.
    */
   @Override
-  public Set<String> makeFileSnapshot(Set<String> validFiles) throws IOException {
+  public Set<String> makeFileSnapshot(String storageGroup, Set<String> validFiles)
+      throws IOException {
     Set<String> validFilesSnapshot = new HashSet<>();
+    Map<String, Set<String>> fileDigests = new HashMap<>();
+    Set<String> knownDigests = new HashSet<>();
+    if (config.isIncrementalSync()) {
+      for (Set<String> digests : syncFileManager.getLastChunkDigests()
+          .getOrDefault(storageGroup, new HashMap<>()).values()) {
+        knownDigests.addAll(digests);
+      }
+    }
     try {
       for (String filePath : validFiles) {
         String snapshotFilePath = SyncUtils.getSnapshotFilePath(filePath);
-        validFilesSnapshot.add(snapshotFilePath);
         File newFile = new File(snapshotFilePath);
         if (!newFile.getParentFile().exists()) {
           newFile.getParentFile().mkdirs();
         }
-        Path link = FileSystems.getDefault().getPath(snapshotFilePath);
-        Path target = FileSystems.getDefault().getPath(filePath);
-        Files.createLink(link, target);
+        if (config.isIncrementalSync()) {
+          Set<String> digests = IncrementalSnapshotWriter
+              .write(new File(filePath), newFile, knownDigests);
+          fileDigests.put(filePath, digests);
+          knownDigests.addAll(digests);
+          if (!newFile.exists()) {
+            LOGGER.info("Receiver has got all chunks of {}, skip it.", filePath);
+            continue;
+          }
+        } else {
+          Path link = FileSystems.getDefault().getPath(snapshotFilePath);
+          Path target = FileSystems.getDefault().getPath(filePath);
+          Files.createLink(link, target);
+        }
+        validFilesSnapshot.add(snapshotFilePath);
       }
     } catch (IOException e) {
       LOGGER.error("Can not make fileSnapshot");
       throw new IOException(e);
     }
+    validFileDigests.put(storageGroup, fileDigests);
     return validFilesSnapshot;
   }
 
   /**
    * Transfer data of a storage group to receiver.
    *
+   * @param storageGroup the storage group the files belong to
    * @param fileSnapshotList list of sending snapshot files in a storage group.
    */
-  public void syncData(Set<String> fileSnapshotList) throws SyncConnectionException {
+  public void syncData(String storageGroup, Set<String> fileSnapshotList)
+      throws SyncConnectionException {
+    int successNum = 0;
+    boolean pipelinedTransfer = config.isPipelinedTransfer();
+    for (String snapshotFilePath : fileSnapshotList) {
+      successNum++;
+      File file = new File(snapshotFilePath);
+      List<String> filePathSplit = new ArrayList<>();
+      String os = System.getProperty("os.name");
+      if (os.toLowerCase().startsWith("windows")) {
+        String[] name = snapshotFilePath.split(File.separator + File.separator);
+        filePathSplit.add(name[name.length - 2]);
+        filePathSplit.add(name[name.length - 1]);
+      } else {
+        String[] name = snapshotFilePath.split(File.separator);
+        filePathSplit.add(name[name.length - 2]);
+        filePathSplit.add(name[name.length - 1]);
+      }
+      if (pipelinedTransfer && !syncFileInPipeline(storageGroup, file, filePathSplit)) {
+        LOGGER.warn("Receiver does not support pipelined transfer, send files one piece at a time");
+        pipelinedTransfer = false;
+      }
+      if (!pipelinedTransfer) {
+        syncFile(file, filePathSplit);
+      }
+      LOGGER.info(String.format("Task of synchronization has completed %d/%d.", successNum,
+          fileSnapshotList.size()));
+    }
+  }
+
+  /**
+   * Transfer a file to receiver chunk by chunk, waiting for the receiver after each chunk and
+   * verifying the md5 of the whole file at the end.
+   */
+  private void syncFile(File file, List<String> filePathSplit) throws SyncConnectionException {
     try {
-      int successNum = 0;
-      for (String snapshotFilePath : fileSnapshotList) {
-        successNum++;
-        File file = new File(snapshotFilePath);
-        List<String> filePathSplit = new ArrayList<>();
-        String os = System.getProperty("os.name");
-        if (os.toLowerCase().startsWith("windows")) {
-          String[] name = snapshotFilePath.split(File.separator + File.separator);
-          filePathSplit.add(name[name.length - 2]);
-          filePathSplit.add(name[name.length - 1]);
-        } else {
-          String[] name = snapshotFilePath.split(File.separator);
-          filePathSplit.add(name[name.length - 2]);
-          filePathSplit.add(name[name.length - 1]);
+      int retryCount = 0;
+      // Get md5 of the file.
+      MessageDigest md = MessageDigest.getInstance("MD5");
+      outer:
+      while (true) {
+        retryCount++;
+        // Sync all data to receiver
+        if (retryCount > Constans.MAX_SYNC_FILE_TRY) {
+          throw new SyncConnectionException(String
+              .format("can not sync file %s after %s tries.", file.getPath(),
+                  Constans.MAX_SYNC_FILE_TRY));
         }
-        int retryCount = 0;
-        // Get md5 of the file.
-        MessageDigest md = MessageDigest.getInstance("MD5");
-        outer:
-        while (true) {
-          retryCount++;
-          // Sync all data to receiver
-          if(retryCount > Constans.MAX_SYNC_FILE_TRY){
-            throw new SyncConnectionException(String
-                .format("can not sync file %s after %s tries.", snapshotFilePath,
-                    Constans.MAX_SYNC_FILE_TRY));
+        md.reset();
+        byte[] buffer = new byte[Constans.DATA_CHUNK_SIZE];
+        int dataLength;
+        try (FileInputStream fis = new FileInputStream(file);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(Constans.DATA_CHUNK_SIZE)) {
+          while ((dataLength = fis.read(buffer)) != -1) { // cut the file into pieces to send
+            bos.write(buffer, 0, dataLength);
+            md.update(buffer, 0, dataLength);
+            ByteBuffer buffToSend = ByteBuffer.wrap(bos.toByteArray());
+            bos.reset();
+            if (!Boolean.parseBoolean(serviceClient
+                .syncData(null, filePathSplit, buffToSend, SyncDataStatus.PROCESSING_STATUS))) {
+              LOGGER.info("Receiver failed to receive data from {}, retry.", file.getPath());
+              continue outer;
+            }
           }
-          md.reset();
-          byte[] buffer = new byte[Constans.DATA_CHUNK_SIZE];
-          int dataLength;
-          try (FileInputStream fis = new FileInputStream(file);
-              ByteArrayOutputStream bos = new ByteArrayOutputStream(Constans.DATA_CHUNK_SIZE)) {
-            while ((dataLength = fis.read(buffer)) != -1) { // cut the file into pieces to send
-              bos.write(buffer, 0, dataLength);
-              md.update(buffer, 0, dataLength);
-              ByteBuffer buffToSend = ByteBuffer.wrap(bos.toByteArray());
-              bos.reset();
-              if(!Boolean.parseBoolean(serviceClient
-                  .syncData(null, filePathSplit, buffToSend, SyncDataStatus.PROCESSING_STATUS))){
-                LOGGER.info("Receiver failed to receive data from {}, retry.", snapshotFilePath);
-                continue outer;
+        }
+
+        // the file is sent successfully
+        String md5OfSender = (new BigInteger(1, md.digest())).toString(16);
+        String md5OfReceiver = serviceClient.syncData(md5OfSender, filePathSplit,
+            null, SyncDataStatus.FINISH_STATUS);
+        if (md5OfSender.equals(md5OfReceiver)) {
+          LOGGER.info("Receiver has received {} successfully.", file.getPath());
+          break;
+        }
+      }
+    } catch (SyncConnectionException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SyncConnectionException("Cannot sync data with receiver.", e);
+    }
+  }
+
+  /**
+   * Transfer a file to receiver in pipelined mode. Up to maxChunksInFlight chunks are sent without
+   * waiting for the receiver, then the received length of the file is checked and the transfer
+   * goes on from it, so the chunks dropped by receiver are sent again. If the connection is lost,
+   * the sender reconnects and continues from the part of the file the receiver already has.
+   *
+   * @return false if the receiver is of an older version without pipelined transfer, and nothing
+   * has been sent
+   */
+  private boolean syncFileInPipeline(String storageGroup, File file, List<String> filePathSplit)
+      throws SyncConnectionException {
+    long fileLength = file.length();
+    ByteBuffer buffer = ByteBuffer.allocate(config.getDataChunkSizeInKB() * 1024);
+    CRC32 crc32 = new CRC32();
+    int retryCount = 0;
+    boolean needReconnect = false;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      while (true) {
+        retryCount++;
+        if (retryCount > Constans.MAX_SYNC_FILE_TRY) {
+          throw new SyncConnectionException(String
+              .format("can not sync file %s after %s tries.", file.getPath(),
+                  Constans.MAX_SYNC_FILE_TRY));
+        }
+        try {
+          if (needReconnect) {
+            reconnect(storageGroup);
+            needReconnect = false;
+          }
+          long offset = serviceClient.getReceivedLength(filePathSplit);
+          if (offset > fileLength) {
+            // the received file is not the one to send, the receiver deletes it
+            serviceClient.finishSyncData(filePathSplit, fileLength);
+            offset = 0;
+          }
+          while (offset < fileLength) {
+            long position = offset;
+            for (int i = 0; i < config.getMaxChunksInFlight() && position < fileLength; i++) {
+              buffer.clear();
+              while (buffer.hasRemaining()
+                  && channel.read(buffer, position + buffer.position()) != -1) {
+                // read until the buffer is full or the end of file is reached
+              }
+              buffer.flip();
+              crc32.reset();
+              crc32.update(buffer.array(), 0, buffer.limit());
+              serviceClient.syncDataChunk(filePathSplit, position, buffer, crc32.getValue());
+              position += buffer.limit();
+            }
+            long receivedLength = serviceClient.getReceivedLength(filePathSplit);
+            if (receivedLength != position) {
+              LOGGER.info("Receiver has received {} bytes of {}, resend the rest.",
+                  receivedLength, file.getPath());
+              if (++retryCount > Constans.MAX_SYNC_FILE_TRY) {
+                break;
               }
             }
+            offset = receivedLength;
           }
-
-          // the file is sent successfully
-          String md5OfSender = (new BigInteger(1, md.digest())).toString(16);
-          String md5OfReceiver = serviceClient.syncData(md5OfSender, filePathSplit,
-              null, SyncDataStatus.FINISH_STATUS);
-          if (md5OfSender.equals(md5OfReceiver)) {
-            LOGGER.info("Receiver has received {} successfully.", snapshotFilePath);
-            break;
+          if (offset == fileLength && serviceClient.finishSyncData(filePathSplit, fileLength)) {
+            LOGGER.info("Receiver has received {} successfully.", file.getPath());
+            return true;
+          }
+        } catch (TApplicationException e) {
+          if (e.getType() == TApplicationException.UNKNOWN_METHOD) {
+            // getReceivedLength is the first call of a file, so no chunk has been sent
+            return false;
           }
+          LOGGER.warn("Receiver failed when syncing file {}, retry.", file.getPath(), e);
+        } catch (TException | SyncConnectionException e) {
+          LOGGER.warn("Lose connection when syncing file {}, reconnect to receiver.",
+              file.getPath(), e);
+          needReconnect = true;
         }
-        LOGGER.info(String.format("Task of synchronization has completed %d/%d.", successNum,
-            fileSnapshotList.size()));
       }
-    } catch (Exception e) {
+    } catch (IOException e) {
       throw new SyncConnectionException("Cannot sync data with receiver.", e);
     }
   }
 
+  /**
+   * Reconnect to receiver and ask it to keep the files received before the connection was lost.
+   */
+  private void reconnect(String storageGroup)
+      throws SyncConnectionException, IOException, TException {
+    transport.close();
+    establishConnection(config.getServerIp(), config.getServerPort());
+    if (!confirmIdentity(config.getUuidPath()) || !serviceClient.resume(storageGroup)) {
+      throw new SyncConnectionException("Unable to resume the sync process with receiver");
+    }
+  }
+
   /**
    * Sync schema with receiver.
    */
@@ -27,7 +27,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.apache.iotdb.db.exception.SysCheckException;
+import org.apache.iotdb.db.writelog.io.ILogReader;
 import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.io.SegmentLogReader;
+import org.apache.iotdb.db.writelog.io.SegmentedLogWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +72,7 @@ public class WalChecker {
     for (int dirIndex = 0; dirIndex < storageWalFolders.length; dirIndex++) {
       File storageWalFolder = storageWalFolders[dirIndex];
       LOGGER.info("Checking the No.{} directory {}", dirIndex, storageWalFolder.getName());
+      checkSegments(storageWalFolder, failedFiles);
       File walFile = new File(storageWalFolder, WAL_FILE_NAME);
       if (!walFile.exists()) {
         LOGGER.debug("No wal file in this dir, skipping");
@@ -101,6 +105,34 @@ public class WalChecker {
     return failedFiles;
   }
 
+  private void checkSegments(File storageWalFolder, List<File> failedFiles) {
+    List<File> segmentFiles;
+    try {
+      segmentFiles = SegmentedLogWriter.listLiveSegmentFiles(storageWalFolder);
+    } catch (IOException e) {
+      LOGGER.error("{} fails the check because its segments cannot be listed",
+          storageWalFolder.getAbsoluteFile(), e);
+      failedFiles.add(storageWalFolder);
+      return;
+    }
+    for (File segmentFile : segmentFiles) {
+      ILogReader logReader = null;
+      try {
+        logReader = new SegmentLogReader(segmentFile);
+        while (logReader.hasNext()) {
+          logReader.next();
+        }
+      } catch (IOException e) {
+        failedFiles.add(segmentFile);
+        LOGGER.error("{} fails the check because", segmentFile.getAbsoluteFile(), e);
+      } finally {
+        if (logReader != null) {
+          logReader.close();
+        }
+      }
+    }
+  }
+
   // a temporary method which should be in the integrated self-check module in the future
   public static void report(List<File> failedFiles) {
     if (failedFiles.isEmpty()) {
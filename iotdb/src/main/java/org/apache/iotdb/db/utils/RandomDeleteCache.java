@@ -44,6 +44,15 @@ public abstract class RandomDeleteCache<K, V> implements Cache<K, V> {
     return v;
   }
 
+  /**
+   * get the cached value without loading it.
+   *
+   * @return null if the key is not cached
+   */
+  public V getIfPresent(K key) {
+    return cache.get(key);
+  }
+
   private void randomRemoveObjectIfCacheIsFull() throws CacheException {
     if (cache.size() == this.cacheSize) {
       removeFirstObject();
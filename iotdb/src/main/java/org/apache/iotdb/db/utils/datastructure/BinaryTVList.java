@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsBinary;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+public class BinaryTVList extends TVList {
+
+  private List<Binary[]> values;
+
+  BinaryTVList() {
+    super();
+    values = new ArrayList<>();
+  }
+
+  @Override
+  public void putBinary(long timestamp, Binary value) {
+    checkExpansion();
+    int arrayIndex = size / ARRAY_SIZE;
+    int elementIndex = size % ARRAY_SIZE;
+    timestamps.get(arrayIndex)[elementIndex] = timestamp;
+    values.get(arrayIndex)[elementIndex] = value;
+    size++;
+    updateSortedState(timestamp);
+  }
+
+  @Override
+  public Binary getBinary(int index) {
+    checkIndex(index);
+    return values.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(getTime(index), new TsBinary(getBinary(index)));
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add(
+        (Binary[]) PrimitiveArrayPool.getInstance().getPrimitiveDataListByType(TSDataType.TEXT));
+  }
+
+  @Override
+  protected void releaseValues() {
+    for (Binary[] valueArray : values) {
+      PrimitiveArrayPool.getInstance().release(valueArray);
+    }
+    values.clear();
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    PrimitiveArrayPool.getInstance().release(values.remove(values.size() - 1));
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    super.set(src, dest);
+    values.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] =
+        values.get(src / ARRAY_SIZE)[src % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void reorderValues(int[] order) {
+    Binary[] oldValues = new Binary[size];
+    for (int i = 0; i < values.size(); i++) {
+      System.arraycopy(values.get(i), 0, oldValues, i * ARRAY_SIZE,
+          Math.min(ARRAY_SIZE, size - i * ARRAY_SIZE));
+    }
+    for (int i = 0; i < size; i++) {
+      values.get(i / ARRAY_SIZE)[i % ARRAY_SIZE] = oldValues[order[i]];
+    }
+  }
+
+  @Override
+  public BinaryTVList clone() {
+    BinaryTVList cloneList = new BinaryTVList();
+    cloneAs(cloneList);
+    for (Binary[] valueArray : values) {
+      cloneList.values.add(valueArray.clone());
+    }
+    return cloneList;
+  }
+}
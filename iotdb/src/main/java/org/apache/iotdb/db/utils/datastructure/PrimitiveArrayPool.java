@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Manage all primitive data arrays in memtables. Arrays of one data type have the same fixed size,
+ * so an array released by a flushed memtable can be handed to any other memtable directly.
+ */
+public class PrimitiveArrayPool {
+
+  /**
+   * the number of elements in each array.
+   */
+  public static final int ARRAY_SIZE = 128;
+
+  /**
+   * data type -> arrays waiting to be reused.
+   */
+  private final Map<TSDataType, ArrayDeque<Object>> primitiveArraysMap = new EnumMap<>(
+      TSDataType.class);
+
+  /**
+   * the maximum number of arrays kept for each data type, surplus arrays are left to GC.
+   */
+  private final int capacity;
+
+  private PrimitiveArrayPool() {
+    capacity = IoTDBDescriptor.getInstance().getConfig().getPrimitiveArrayPoolCapacity();
+    for (TSDataType dataType : TSDataType.values()) {
+      primitiveArraysMap.put(dataType, new ArrayDeque<>());
+    }
+  }
+
+  public static PrimitiveArrayPool getInstance() {
+    return PrimitiveArrayPoolHolder.INSTANCE;
+  }
+
+  /**
+   * get an array of the given data type, the content of a reused array is undefined.
+   */
+  public Object getPrimitiveDataListByType(TSDataType dataType) {
+    ArrayDeque<Object> dataListQueue = primitiveArraysMap.get(dataType);
+    Object dataArray;
+    synchronized (dataListQueue) {
+      dataArray = dataListQueue.poll();
+    }
+    return dataArray != null ? dataArray : createPrimitiveArray(dataType);
+  }
+
+  /**
+   * give back an array got from {@link #getPrimitiveDataListByType(TSDataType)}.
+   */
+  public void release(Object dataArray) {
+    TSDataType dataType;
+    if (dataArray instanceof long[]) {
+      dataType = TSDataType.INT64;
+    } else if (dataArray instanceof int[]) {
+      dataType = TSDataType.INT32;
+    } else if (dataArray instanceof float[]) {
+      dataType = TSDataType.FLOAT;
+    } else if (dataArray instanceof double[]) {
+      dataType = TSDataType.DOUBLE;
+    } else if (dataArray instanceof boolean[]) {
+      dataType = TSDataType.BOOLEAN;
+    } else if (dataArray instanceof Binary[]) {
+      // do not hold the binaries of a flushed memtable
+      Arrays.fill((Binary[]) dataArray, null);
+      dataType = TSDataType.TEXT;
+    } else {
+      throw new UnSupportedDataTypeException(dataArray.getClass().toString());
+    }
+    ArrayDeque<Object> dataListQueue = primitiveArraysMap.get(dataType);
+    synchronized (dataListQueue) {
+      if (dataListQueue.size() < capacity) {
+        dataListQueue.push(dataArray);
+      }
+    }
+  }
+
+  /**
+   * only for test now.
+   */
+  public int getPooledArrayNum(TSDataType dataType) {
+    ArrayDeque<Object> dataListQueue = primitiveArraysMap.get(dataType);
+    synchronized (dataListQueue) {
+      return dataListQueue.size();
+    }
+  }
+
+  private static Object createPrimitiveArray(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[ARRAY_SIZE];
+      case INT32:
+        return new int[ARRAY_SIZE];
+      case INT64:
+        return new long[ARRAY_SIZE];
+      case FLOAT:
+        return new float[ARRAY_SIZE];
+      case DOUBLE:
+        return new double[ARRAY_SIZE];
+      case TEXT:
+        return new Binary[ARRAY_SIZE];
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  private static class PrimitiveArrayPoolHolder {
+
+    private PrimitiveArrayPoolHolder() {}
+
+    private static final PrimitiveArrayPool INSTANCE = new PrimitiveArrayPool();
+  }
+}
@@ -0,0 +1,352 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * A list of (timestamp, value) pairs of one data type. Timestamps and values are stored in
+ * fixed-size primitive arrays borrowed from {@link PrimitiveArrayPool}, which are given back by
+ * {@link #clear()}.
+ */
+public abstract class TVList {
+
+  private static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
+
+  protected List<long[]> timestamps;
+  protected int size;
+
+  /**
+   * true if the timestamps are strictly increasing, i.e., the list is sorted and has no duplicated
+   * timestamps.
+   */
+  protected boolean sorted = true;
+  protected long maxTime = Long.MIN_VALUE;
+
+  public TVList() {
+    timestamps = new ArrayList<>();
+    size = 0;
+  }
+
+  public static TVList newList(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanTVList();
+      case INT32:
+        return new IntTVList();
+      case INT64:
+        return new LongTVList();
+      case FLOAT:
+        return new FloatTVList();
+      case DOUBLE:
+        return new DoubleTVList();
+      case TEXT:
+        return new BinaryTVList();
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getTime(int index) {
+    checkIndex(index);
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  public boolean isSorted() {
+    return sorted;
+  }
+
+  public void putLong(long time, long value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putInt(long time, int value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putFloat(long time, float value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putDouble(long time, double value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putBinary(long time, Binary value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putBoolean(long time, boolean value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public long getLong(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public int getInt(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public float getFloat(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public double getDouble(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public Binary getBinary(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public boolean getBoolean(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public abstract TimeValuePair getTimeValuePair(int index);
+
+  /**
+   * give back all arrays to {@link PrimitiveArrayPool}. The list is empty and still usable
+   * afterwards.
+   */
+  public void clear() {
+    for (long[] timeArray : timestamps) {
+      PrimitiveArrayPool.getInstance().release(timeArray);
+    }
+    timestamps.clear();
+    releaseValues();
+    size = 0;
+    sorted = true;
+    maxTime = Long.MIN_VALUE;
+  }
+
+  /**
+   * Sort the list by time in place and remove duplicated timestamps. Of the points sharing a
+   * timestamp, only the last written one is kept. A list written in time order is only scanned
+   * once for duplicates.
+   */
+  public void sort() {
+    if (sorted) {
+      return;
+    }
+    if (!isTimeNonDecreasing()) {
+      sortByTime();
+    }
+    removeDuplicates();
+    sorted = true;
+  }
+
+  private boolean isTimeNonDecreasing() {
+    for (int i = 1; i < size; i++) {
+      if (time(i) < time(i - 1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * stable sort, points with the same timestamp stay in the order they were written.
+   */
+  private void sortByTime() {
+    long[] sortedTimes = new long[size];
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      sortedTimes[i] = time(i);
+      order[i] = i;
+    }
+    mergeSort(sortedTimes, order);
+    for (int i = 0; i < size; i++) {
+      timestamps.get(i / ARRAY_SIZE)[i % ARRAY_SIZE] = sortedTimes[i];
+    }
+    reorderValues(order);
+  }
+
+  /**
+   * natural merge sort: the ascending runs of the input are merged pairwise until one is left, so
+   * nearly sorted input is cheap.
+   */
+  private static void mergeSort(long[] times, int[] order) {
+    int length = times.length;
+    int[] runStarts = new int[length + 1];
+    int runNum = 0;
+    runStarts[runNum++] = 0;
+    for (int i = 1; i < length; i++) {
+      if (times[i] < times[i - 1]) {
+        runStarts[runNum++] = i;
+      }
+    }
+    runStarts[runNum] = length;
+
+    long[] srcTimes = times;
+    int[] srcOrder = order;
+    long[] destTimes = new long[length];
+    int[] destOrder = new int[length];
+    while (runNum > 1) {
+      int newRunNum = 0;
+      for (int run = 0; run < runNum; run += 2) {
+        int low = runStarts[run];
+        if (run + 1 == runNum) {
+          // the last run has no partner in this round
+          System.arraycopy(srcTimes, low, destTimes, low, length - low);
+          System.arraycopy(srcOrder, low, destOrder, low, length - low);
+        } else {
+          merge(srcTimes, srcOrder, destTimes, destOrder, low, runStarts[run + 1],
+              runStarts[run + 2]);
+        }
+        runStarts[newRunNum++] = low;
+      }
+      runStarts[newRunNum] = length;
+      runNum = newRunNum;
+
+      long[] tmpTimes = srcTimes;
+      srcTimes = destTimes;
+      destTimes = tmpTimes;
+      int[] tmpOrder = srcOrder;
+      srcOrder = destOrder;
+      destOrder = tmpOrder;
+    }
+    if (srcTimes != times) {
+      System.arraycopy(srcTimes, 0, times, 0, length);
+      System.arraycopy(srcOrder, 0, order, 0, length);
+    }
+  }
+
+  private static void merge(long[] srcTimes, int[] srcOrder, long[] destTimes, int[] destOrder,
+      int low, int mid, int high) {
+    int left = low;
+    int right = mid;
+    for (int dest = low; dest < high; dest++) {
+      if (right >= high || (left < mid && srcTimes[left] <= srcTimes[right])) {
+        destTimes[dest] = srcTimes[left];
+        destOrder[dest] = srcOrder[left++];
+      } else {
+        destTimes[dest] = srcTimes[right];
+        destOrder[dest] = srcOrder[right++];
+      }
+    }
+  }
+
+  /**
+   * keep the last point of each timestamp in a sorted list and give back the arrays no longer
+   * used.
+   */
+  private void removeDuplicates() {
+    int newSize = 0;
+    for (int i = 0; i < size; i++) {
+      if (i + 1 < size && time(i + 1) == time(i)) {
+        continue;
+      }
+      if (newSize != i) {
+        set(i, newSize);
+      }
+      newSize++;
+    }
+    int arrayNum = (newSize + ARRAY_SIZE - 1) / ARRAY_SIZE;
+    while (timestamps.size() > arrayNum) {
+      PrimitiveArrayPool.getInstance().release(timestamps.remove(timestamps.size() - 1));
+      releaseLastValueArray();
+    }
+    size = newSize;
+  }
+
+  private long time(int index) {
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  /**
+   * copy the point at src to dest.
+   */
+  protected void set(int src, int dest) {
+    timestamps.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] = time(src);
+  }
+
+  /**
+   * copy the timestamps, size and sorting state of this list to a clone.
+   */
+  protected void cloneAs(TVList cloneList) {
+    for (long[] timeArray : timestamps) {
+      cloneList.timestamps.add(timeArray.clone());
+    }
+    cloneList.size = size;
+    cloneList.sorted = sorted;
+    cloneList.maxTime = maxTime;
+  }
+
+  /**
+   * called by the put methods of subclasses.
+   */
+  protected void updateSortedState(long timestamp) {
+    if (timestamp <= maxTime) {
+      sorted = false;
+    } else {
+      maxTime = timestamp;
+    }
+  }
+
+  /**
+   * borrow a new array of timestamps and a new array of values if the current ones are full.
+   */
+  protected void checkExpansion() {
+    if (size % ARRAY_SIZE == 0) {
+      timestamps.add(
+          (long[]) PrimitiveArrayPool.getInstance().getPrimitiveDataListByType(TSDataType.INT64));
+      expandValues();
+    }
+  }
+
+  protected void checkIndex(int index) {
+    if (index < 0) {
+      throw new NegativeArraySizeException("negative array index:" + index);
+    }
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException("index: " + index);
+    }
+  }
+
+  /**
+   * Make a copy of this list whose arrays are not taken from {@link PrimitiveArrayPool}, so it can
+   * be held by readers after this list is cleared.
+   */
+  @Override
+  public abstract TVList clone();
+
+  protected abstract void expandValues();
+
+  protected abstract void releaseValues();
+
+  protected abstract void releaseLastValueArray();
+
+  /**
+   * rearrange the values so that the value at i is the one previously at order[i].
+   */
+  protected abstract void reorderValues(int[] order);
+}
@@ -0,0 +1,244 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A log writer that commits logs in groups. Concurrent writers append their records into a shared
+ * direct buffer and wait until the group containing them has been written and forced to disk. A
+ * single flush task per writer swaps the buffer with a spare one and issues one write and one force
+ * for the whole group to the underlying writer, so the fsync latency is shared by all writers of
+ * the group.
+ */
+public class GroupCommitLogWriter implements ILogWriter {
+
+  /**
+   * record header: int length + long checksum.
+   */
+  private static final int HEADER_SIZE = 4 + 8;
+
+  private ILogWriter output;
+  private int bufferSize;
+  private Executor flusher;
+
+  private CRC32 checkSummer = new CRC32();
+
+  private final ReentrantLock bufferLock = new ReentrantLock();
+  private final Condition bufferSwitched = bufferLock.newCondition();
+  /**
+   * buffer that writers append to, guarded by bufferLock.
+   */
+  private ByteBuffer workingBuffer;
+  /**
+   * buffer being written by the flush task, only touched by it.
+   */
+  private ByteBuffer flushingBuffer;
+  /**
+   * completed when the records in workingBuffer are durable.
+   */
+  private CompletableFuture<Void> currentGroup = new CompletableFuture<>();
+  /**
+   * completed when the group being written by the flush task is durable.
+   */
+  private CompletableFuture<Void> flushingGroup;
+  private boolean flushScheduled = false;
+
+  /**
+   * @param output the writer that groups are written and forced to
+   * @param bufferSize the capacity of each of the two group buffers
+   * @param flusher the executor to run flush tasks, one task per writer is pending at most
+   */
+  public GroupCommitLogWriter(ILogWriter output, int bufferSize, Executor flusher) {
+    this.output = output;
+    this.bufferSize = bufferSize;
+    this.flusher = flusher;
+  }
+
+  /**
+   * Append the logs to the current group and block until they are forced to disk.
+   */
+  @Override
+  public void write(List<byte[]> logCache) throws IOException {
+    CompletableFuture<Void> group;
+    bufferLock.lock();
+    try {
+      for (byte[] bytes : logCache) {
+        reserve(HEADER_SIZE + bytes.length);
+        workingBuffer.putInt(bytes.length);
+        checkSummer.reset();
+        checkSummer.update(bytes);
+        workingBuffer.putLong(checkSummer.getValue());
+        workingBuffer.put(bytes);
+      }
+      // groups are flushed in order, so waiting for the last group covers all the logs
+      group = currentGroup;
+      scheduleFlush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for the wal buffer", e);
+    } finally {
+      bufferLock.unlock();
+    }
+    waitForGroup(group);
+  }
+
+  /**
+   * Append the framed logs to the current group and block until they are forced to disk.
+   */
+  @Override
+  public void write(ByteBuffer logBuffer) throws IOException {
+    CompletableFuture<Void> group;
+    bufferLock.lock();
+    try {
+      while (logBuffer.hasRemaining()) {
+        int recordSize = HEADER_SIZE + logBuffer.getInt(logBuffer.position());
+        reserve(recordSize);
+        ByteBuffer record = logBuffer.duplicate();
+        record.limit(record.position() + recordSize);
+        workingBuffer.put(record);
+        logBuffer.position(logBuffer.position() + recordSize);
+      }
+      group = currentGroup;
+      scheduleFlush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for the wal buffer", e);
+    } finally {
+      bufferLock.unlock();
+    }
+    waitForGroup(group);
+  }
+
+  /*
+   * Wait until the working buffer can hold a record of the given size.
+   * Warning : caller must hold bufferLock.
+   */
+  private void reserve(int recordSize) throws InterruptedException {
+    if (workingBuffer == null) {
+      workingBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+    while (workingBuffer.remaining() < recordSize) {
+      if (workingBuffer.position() == 0) {
+        // a single record larger than the buffer, enlarge the buffer for it
+        workingBuffer = ByteBuffer.allocateDirect(recordSize);
+        return;
+      }
+      scheduleFlush();
+      bufferSwitched.await();
+    }
+  }
+
+  private void waitForGroup(CompletableFuture<Void> group) throws IOException {
+    try {
+      group.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for the wal group commit", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Wal group commit failed", e.getCause());
+    }
+  }
+
+  /*
+   * Warning : caller must hold bufferLock.
+   */
+  private void scheduleFlush() {
+    if (!flushScheduled && workingBuffer.position() > 0) {
+      flushScheduled = true;
+      flusher.execute(this::flushGroup);
+    }
+  }
+
+  private void flushGroup() {
+    ByteBuffer toWrite;
+    CompletableFuture<Void> group;
+    bufferLock.lock();
+    try {
+      toWrite = workingBuffer;
+      workingBuffer = flushingBuffer != null ? flushingBuffer
+          : ByteBuffer.allocateDirect(bufferSize);
+      group = currentGroup;
+      flushingGroup = group;
+      currentGroup = new CompletableFuture<>();
+      bufferSwitched.signalAll();
+    } finally {
+      bufferLock.unlock();
+    }
+
+    try {
+      toWrite.flip();
+      output.write(toWrite);
+      output.force();
+      group.complete(null);
+    } catch (IOException | RuntimeException e) {
+      group.completeExceptionally(e);
+    } finally {
+      toWrite.clear();
+    }
+
+    bufferLock.lock();
+    try {
+      flushingBuffer = toWrite;
+      flushScheduled = false;
+      scheduleFlush();
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
+  /**
+   * Every group is forced before its writers return, so only wait for the pending groups.
+   */
+  @Override
+  public void force() throws IOException {
+    CompletableFuture<Void> group;
+    bufferLock.lock();
+    try {
+      if (workingBuffer != null && workingBuffer.position() > 0) {
+        group = currentGroup;
+        scheduleFlush();
+      } else if (flushScheduled) {
+        group = flushingGroup;
+      } else {
+        return;
+      }
+    } finally {
+      bufferLock.unlock();
+    }
+    waitForGroup(group);
+  }
+
+  /**
+   * Warning : caller must guarantee that no write is in progress.
+   */
+  @Override
+  public void close() throws IOException {
+    force();
+    output.close();
+  }
+}
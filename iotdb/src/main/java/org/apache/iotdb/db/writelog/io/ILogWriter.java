@@ -19,12 +19,19 @@
 package org.apache.iotdb.db.writelog.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public interface ILogWriter {
 
   void write(List<byte[]> logCache) throws IOException;
 
+  /**
+   * Write logs that are already framed as length, checksum and bytes, from the position to the
+   * limit of the buffer.
+   */
+  void write(ByteBuffer logBuffer) throws IOException;
+
   void force() throws IOException;
 
   void close() throws IOException;
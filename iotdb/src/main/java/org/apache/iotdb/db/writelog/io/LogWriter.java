@@ -34,6 +34,10 @@ public class LogWriter implements ILogWriter {
   private FileOutputStream fileOutputStream;
   private FileChannel outputStream;
   private CRC32 checkSummer = new CRC32();
+  /**
+   * reused among syncs, enlarged when a batch does not fit.
+   */
+  private ByteBuffer buffer;
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   public LogWriter(String logFilePath) {
@@ -42,15 +46,15 @@ public class LogWriter implements ILogWriter {
 
   @Override
   public void write(List<byte[]> logCache) throws IOException {
-    if (outputStream == null) {
-      fileOutputStream = new FileOutputStream(logFile, true);
-      outputStream = fileOutputStream.getChannel();
-    }
+    open();
     int totalSize = 0;
     for (byte[] bytes : logCache) {
       totalSize += 4 + 8 + bytes.length;
     }
-    ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+    if (buffer == null || buffer.capacity() < totalSize) {
+      buffer = ByteBuffer.allocateDirect(totalSize);
+    }
+    buffer.clear();
     for (byte[] bytes : logCache) {
       buffer.putInt(bytes.length);
       checkSummer.reset();
@@ -59,12 +63,29 @@ public class LogWriter implements ILogWriter {
       buffer.put(bytes);
     }
     buffer.flip();
-    outputStream.write(buffer);
+    while (buffer.hasRemaining()) {
+      outputStream.write(buffer);
+    }
     if (config.getForceWalPeriodInMs() == 0) {
       outputStream.force(true);
     }
   }
 
+  @Override
+  public void write(ByteBuffer logBuffer) throws IOException {
+    open();
+    while (logBuffer.hasRemaining()) {
+      outputStream.write(logBuffer);
+    }
+  }
+
+  private void open() throws IOException {
+    if (outputStream == null) {
+      fileOutputStream = new FileOutputStream(logFile, true);
+      outputStream = fileOutputStream.getChannel();
+    }
+  }
+
   @Override
   public void force() throws IOException {
     if (outputStream != null) {
@@ -25,6 +25,7 @@ import java.io.RandomAccessFile;
 import java.util.NoSuchElementException;
 import java.util.zip.CRC32;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.transfer.LogSchemaDictionary;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,8 @@ public class RAFLogReader implements ILogReader {
   public static final int LEAST_LOG_SIZE = 12; // size + checksum
   private RandomAccessFile logRaf;
   private String filepath;
+  private LogSchemaDictionary dictionary;
+  private boolean dictionaryLoaded;
   private int bufferSize = 4 * 1024 * 1024;
   private byte[] buffer = new byte[bufferSize];
   private CRC32 checkSummer = new CRC32();
@@ -70,7 +73,11 @@ public class RAFLogReader implements ILogReader {
     if (checkSummer.getValue() != checkSum) {
       throw new IOException("The check sum is incorrect!");
     }
-    planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer);
+    if (!dictionaryLoaded) {
+      dictionary = LogSchemaDictionary.load(new File(filepath).getAbsoluteFile().getParentFile());
+      dictionaryLoaded = true;
+    }
+    planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer, dictionary);
     return true;
   }
 
@@ -100,5 +107,6 @@ public class RAFLogReader implements ILogReader {
   public void open(File logFile) throws FileNotFoundException {
     logRaf = new RandomAccessFile(logFile, "r");
     this.filepath = logFile.getPath();
+    this.dictionaryLoaded = false;
   }
 }
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.writelog.transfer.LogSchemaDictionary;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SegmentLogReader reads the logs of a segment written by {@link SegmentedLogWriter} through a
+ * read-only mapping of the segment file.
+ */
+public class SegmentLogReader implements ILogReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(SegmentLogReader.class);
+  private String filepath;
+  private LogSchemaDictionary dictionary;
+  private boolean dictionaryLoaded;
+  private MappedByteBuffer segment;
+  private long segmentId;
+  private byte[] buffer = new byte[4 * 1024];
+  private CRC32 checkSummer = new CRC32();
+  private PhysicalPlan planBuffer = null;
+  private boolean ended;
+
+  public SegmentLogReader() {
+    // allowed to construct SegmentLogReader without input.
+  }
+
+  public SegmentLogReader(File segmentFile) throws FileNotFoundException {
+    open(segmentFile);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (planBuffer != null) {
+      return true;
+    }
+    if (ended || segment.remaining() < RAFLogReader.LEAST_LOG_SIZE) {
+      return false;
+    }
+
+    int logSize = segment.getInt();
+    if (logSize <= 0 || logSize > segment.remaining() - 8) {
+      // the end mark, or a record that is not completely written
+      ended = true;
+      return false;
+    }
+    final long checkSum = segment.getLong();
+    if (logSize > buffer.length) {
+      buffer = new byte[logSize];
+    }
+    segment.get(buffer, 0, logSize);
+    checkSummer.reset();
+    checkSummer.update(buffer, 0, logSize);
+    if ((checkSummer.getValue() ^ segmentId) != checkSum) {
+      // a torn record, or a stale one left by the previous segment in this file
+      logger.info("Logs of segment {} in {} end at a record failing the check", segmentId,
+          filepath);
+      ended = true;
+      return false;
+    }
+    if (!dictionaryLoaded) {
+      dictionary = LogSchemaDictionary.load(new File(filepath).getAbsoluteFile().getParentFile());
+      dictionaryLoaded = true;
+    }
+    planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer, dictionary);
+    return true;
+  }
+
+  @Override
+  public PhysicalPlan next() throws IOException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    PhysicalPlan ret = planBuffer;
+    planBuffer = null;
+    return ret;
+  }
+
+  @Override
+  public void close() {
+    if (segment != null) {
+      try {
+        CommonUtils.destroyBuffer(segment);
+      } catch (Exception e) {
+        logger.debug("Cannot unmap wal segment {}", filepath, e);
+      }
+      segment = null;
+    }
+  }
+
+  @Override
+  public void open(File segmentFile) throws FileNotFoundException {
+    close();
+    this.filepath = segmentFile.getPath();
+    this.dictionaryLoaded = false;
+    this.planBuffer = null;
+    try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "r")) {
+      segment = raf.getChannel().map(MapMode.READ_ONLY, 0, raf.length());
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      FileNotFoundException exception = new FileNotFoundException(
+          "Cannot map wal segment " + filepath);
+      exception.initCause(e);
+      throw exception;
+    }
+    if (segment.remaining() < SegmentedLogWriter.SEGMENT_HEADER_SIZE) {
+      ended = true;
+      return;
+    }
+    segmentId = segment.getLong();
+    ended = false;
+  }
+}
@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A log writer that appends logs to fixed-size preallocated segment files through
+ * MappedByteBuffer. Each segment file starts with the id of the segment it currently holds, ids
+ * increase with every new segment. A checkpoint file records the first segment id whose logs are
+ * still needed, segments with smaller ids are free and their files are reused for new segments
+ * instead of being deleted.
+ *
+ * <p>A segment holds records of [int length][long checksum][bytes] after its header, the checksum
+ * is the CRC32 of bytes xor the segment id, so that the stale records left by a previous use of the
+ * file are rejected. The records end at a zero length or at the first record failing the check.
+ */
+public class SegmentedLogWriter implements ILogWriter {
+
+  public static final String SEGMENT_PREFIX = "wal-segment-";
+  public static final String CHECKPOINT_FILE_NAME = "wal-checkpoint";
+  /**
+   * segment header: long segment id.
+   */
+  public static final int SEGMENT_HEADER_SIZE = 8;
+  private static final int RECORD_HEADER_SIZE = 4 + 8;
+  private static final Logger logger = LoggerFactory.getLogger(SegmentedLogWriter.class);
+
+  private File logDirectory;
+  private int segmentSize;
+  private CRC32 checkSummer = new CRC32();
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private MappedByteBuffer segment;
+  private long segmentId;
+  /**
+   * id of the segment to be opened by the next write, -1 if not yet read from the directory.
+   */
+  private long nextSegmentId = -1;
+
+  public SegmentedLogWriter(String logDirectory, int segmentSize) {
+    this.logDirectory = new File(logDirectory);
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public void write(List<byte[]> logCache) throws IOException {
+    for (byte[] bytes : logCache) {
+      reserve(RECORD_HEADER_SIZE + bytes.length);
+      checkSummer.reset();
+      checkSummer.update(bytes);
+      segment.putInt(bytes.length);
+      segment.putLong(checkSummer.getValue() ^ segmentId);
+      segment.put(bytes);
+    }
+    markEnd();
+    if (config.getForceWalPeriodInMs() == 0) {
+      segment.force();
+    }
+  }
+
+  @Override
+  public void write(ByteBuffer logBuffer) throws IOException {
+    while (logBuffer.hasRemaining()) {
+      int position = logBuffer.position();
+      int logSize = logBuffer.getInt(position);
+      reserve(RECORD_HEADER_SIZE + logSize);
+      segment.putInt(logSize);
+      segment.putLong(logBuffer.getLong(position + 4) ^ segmentId);
+      ByteBuffer bytes = logBuffer.duplicate();
+      bytes.position(position + RECORD_HEADER_SIZE);
+      bytes.limit(position + RECORD_HEADER_SIZE + logSize);
+      segment.put(bytes);
+      logBuffer.position(position + RECORD_HEADER_SIZE + logSize);
+    }
+    markEnd();
+  }
+
+  /**
+   * make sure the current segment can hold a record of the given size, the next segment is opened
+   * if it cannot.
+   */
+  private void reserve(int recordSize) throws IOException {
+    if (segment != null && segment.remaining() >= recordSize) {
+      return;
+    }
+    closeSegment();
+    openSegment(recordSize);
+  }
+
+  /**
+   * a zero length behind the last record tells readers where the logs end.
+   */
+  private void markEnd() {
+    if (segment.remaining() >= 4) {
+      segment.putInt(segment.position(), 0);
+    }
+  }
+
+  private void openSegment(int recordSize) throws IOException {
+    segmentId = getNextSegmentId();
+    nextSegmentId = segmentId + 1;
+    // a record larger than a segment gets a segment of its own
+    int size = Math.max(segmentSize, SEGMENT_HEADER_SIZE + recordSize);
+    File segmentFile = findFreeSegmentFile();
+    try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "rw")) {
+      if (raf.length() < size) {
+        raf.setLength(size);
+      } else {
+        size = (int) raf.length();
+      }
+      segment = raf.getChannel().map(MapMode.READ_WRITE, 0, size);
+    }
+    segment.putLong(segmentId);
+    markEnd();
+    logger.debug("Log directory {} opens segment {} in {}", logDirectory, segmentId,
+        segmentFile.getName());
+  }
+
+  private void closeSegment() throws IOException {
+    if (segment == null) {
+      return;
+    }
+    segment.force();
+    try {
+      CommonUtils.destroyBuffer(segment);
+    } catch (Exception e) {
+      // the mapping will be released when the buffer is collected
+      logger.debug("Cannot unmap wal segment {} of {}", segmentId, logDirectory, e);
+    }
+    segment = null;
+  }
+
+  /**
+   * a file holding no segment after the checkpoint, or a new file if there is no such file.
+   */
+  private File findFreeSegmentFile() throws IOException {
+    long checkpoint = readCheckpoint(logDirectory);
+    int index = 0;
+    File file;
+    while ((file = new File(logDirectory, SEGMENT_PREFIX + index)).exists()) {
+      if (readSegmentId(file) < checkpoint) {
+        return file;
+      }
+      index++;
+    }
+    return file;
+  }
+
+  /**
+   * the id of the segment that the logs written after now will start from.
+   */
+  public long getNextSegmentId() throws IOException {
+    if (nextSegmentId < 0) {
+      nextSegmentId = Math.max(getMaxSegmentId(logDirectory) + 1, readCheckpoint(logDirectory));
+    }
+    return nextSegmentId;
+  }
+
+  /**
+   * Mark the segments before the given id as no longer needed.
+   */
+  public void checkpoint(long firstLiveSegmentId) throws IOException {
+    writeCheckpoint(logDirectory, firstLiveSegmentId);
+  }
+
+  @Override
+  public void force() throws IOException {
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Force and unmap the current segment, the next write starts a new segment.
+   */
+  @Override
+  public void close() throws IOException {
+    closeSegment();
+  }
+
+  public static long readCheckpoint(File logDirectory) throws IOException {
+    File checkpointFile = new File(logDirectory, CHECKPOINT_FILE_NAME);
+    if (!checkpointFile.exists() || checkpointFile.length() < 8) {
+      return 0;
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(checkpointFile, "r")) {
+      return raf.readLong();
+    }
+  }
+
+  public static void writeCheckpoint(File logDirectory, long firstLiveSegmentId)
+      throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(
+        new File(logDirectory, CHECKPOINT_FILE_NAME), "rw")) {
+      raf.writeLong(firstLiveSegmentId);
+      raf.getFD().sync();
+    }
+  }
+
+  /**
+   * @return the id of the segment held by the file, -1 if the file is not a complete segment.
+   */
+  public static long readSegmentId(File segmentFile) throws IOException {
+    if (segmentFile.length() < SEGMENT_HEADER_SIZE) {
+      return -1;
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "r")) {
+      return raf.readLong();
+    }
+  }
+
+  public static List<File> listSegmentFiles(File logDirectory) {
+    List<File> segmentFiles = new ArrayList<>();
+    File[] files = logDirectory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+    if (files != null) {
+      for (File file : files) {
+        segmentFiles.add(file);
+      }
+    }
+    return segmentFiles;
+  }
+
+  /**
+   * @return the segment files holding logs at or after the checkpoint, in the order of segment id.
+   */
+  public static List<File> listLiveSegmentFiles(File logDirectory) throws IOException {
+    long checkpoint = readCheckpoint(logDirectory);
+    List<File> liveFiles = new ArrayList<>();
+    List<Long> liveIds = new ArrayList<>();
+    for (File file : listSegmentFiles(logDirectory)) {
+      long id = readSegmentId(file);
+      if (id >= checkpoint) {
+        int index = 0;
+        while (index < liveIds.size() && liveIds.get(index) < id) {
+          index++;
+        }
+        liveIds.add(index, id);
+        liveFiles.add(index, file);
+      }
+    }
+    return liveFiles;
+  }
+
+  /**
+   * @return the largest segment id in the directory, -1 if there is no segment.
+   */
+  public static long getMaxSegmentId(File logDirectory) throws IOException {
+    long maxId = -1;
+    for (File file : listSegmentFiles(logDirectory)) {
+      maxId = Math.max(maxId, readSegmentId(file));
+    }
+    return maxId;
+  }
+
+  @Override
+  public String toString() {
+    return "SegmentedLogWriter of " + logDirectory;
+  }
+}
@@ -24,6 +24,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
@@ -44,6 +46,10 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
 
   private Thread syncThread;
   private Thread forceThread;
+  /**
+   * runs the flush tasks of group-committing log nodes, each node has one task pending at most.
+   */
+  private ExecutorService groupCommitFlusher;
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   private final Runnable syncTask = ()->{
@@ -111,7 +117,8 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       throws IOException {
     WriteLogNode node = nodeMap.get(identifier);
     if (node == null && restoreFilePath != null && processorStoreFilePath != null) {
-      node = new ExclusiveWriteLogNode(identifier, restoreFilePath, processorStoreFilePath);
+      node = new ExclusiveWriteLogNode(identifier, restoreFilePath, processorStoreFilePath,
+          config.isEnableWalGroupCommit() ? getGroupCommitFlusher() : null);
       WriteLogNode oldNode = nodeMap.putIfAbsent(identifier, node);
       if (oldNode != null) {
         return oldNode;
@@ -120,6 +127,21 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
     return node;
   }
 
+  private synchronized ExecutorService getGroupCommitFlusher() {
+    if (groupCommitFlusher == null) {
+      groupCommitFlusher = IoTDBThreadPoolFactory
+          .newCachedThreadPool(ThreadName.WAL_GROUP_COMMIT.getName());
+    }
+    return groupCommitFlusher;
+  }
+
+  private synchronized void shutdownGroupCommitFlusher() {
+    if (groupCommitFlusher != null) {
+      groupCommitFlusher.shutdown();
+      groupCommitFlusher = null;
+    }
+  }
+
   @Override
   public void deleteNode(String identifier) throws IOException {
     WriteLogNode node = nodeMap.remove(identifier);
@@ -176,6 +198,7 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       }
     }
     nodeMap.clear();
+    shutdownGroupCommitFlusher();
     logger.info("LogNodeManager closed.");
   }
 
@@ -216,7 +239,8 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
         InstanceHolder.instance.syncThread = new Thread(InstanceHolder.instance.syncTask,
             ThreadName.WAL_DAEMON.getName());
         InstanceHolder.instance.syncThread.start();
-        if (config.getForceWalPeriodInMs() > 0 && !isActivated(forceThread)) {
+        if (config.getForceWalPeriodInMs() > 0 && !config.isEnableWalGroupCommit()
+            && !isActivated(forceThread)) {
           InstanceHolder.instance.forceThread = new Thread(InstanceHolder.instance.forceTask,
               ThreadName.WAL_FORCE_DAEMON.getName());
           InstanceHolder.instance.forceThread.start();
@@ -21,7 +21,9 @@ package org.apache.iotdb.db.writelog.node;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -32,10 +34,13 @@ import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.LogPosition;
+import org.apache.iotdb.db.writelog.io.GroupCommitLogWriter;
 import org.apache.iotdb.db.writelog.io.ILogWriter;
 import org.apache.iotdb.db.writelog.io.LogWriter;
+import org.apache.iotdb.db.writelog.io.SegmentedLogWriter;
 import org.apache.iotdb.db.writelog.recover.ExclusiveLogRecoverPerformer;
 import org.apache.iotdb.db.writelog.recover.RecoverPerformer;
+import org.apache.iotdb.db.writelog.transfer.LogSchemaDictionary;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +72,26 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   private ReadWriteLock forceLock = new ReentrantReadWriteLock();
 
+  /**
+   * whether logs are group committed by the writer instead of cached in logCache.
+   */
+  private boolean groupCommit;
+
+  /**
+   * the writer of log segments, null if logs are written to a single log file.
+   */
+  private SegmentedLogWriter segmentWriter;
+
+  /**
+   * the first segment holding logs written after the last flush started.
+   */
+  private long flushCheckpoint = -1;
+
+  /**
+   * encodes the names in typed insert logs as ids, null if not enabled or not yet loaded.
+   */
+  private volatile LogSchemaDictionary dictionary;
+
   /**
    * constructor of ExclusiveWriteLogNode.
    *
@@ -76,13 +101,37 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
    */
   public ExclusiveWriteLogNode(String identifier, String restoreFilePath,
                                String processorStoreFilePath) {
+    this(identifier, restoreFilePath, processorStoreFilePath, null);
+  }
+
+  /**
+   * constructor of ExclusiveWriteLogNode.
+   *
+   * @param identifier             ExclusiveWriteLogNode identifier
+   * @param restoreFilePath        restore file path
+   * @param processorStoreFilePath processor store file path
+   * @param groupCommitFlusher     executor to flush log groups, if null logs are cached and
+   *                               synced periodically instead of group committed
+   */
+  public ExclusiveWriteLogNode(String identifier, String restoreFilePath,
+      String processorStoreFilePath, Executor groupCommitFlusher) {
     this.identifier = identifier;
     this.logDirectory = config.getWalFolder() + File.separator + this.identifier;
     new File(logDirectory).mkdirs();
 
     recoverPerformer = new ExclusiveLogRecoverPerformer(restoreFilePath, processorStoreFilePath,
         this);
-    currentFileWriter = new LogWriter(logDirectory + File.separator + WAL_FILE_NAME);
+    groupCommit = groupCommitFlusher != null;
+    if (config.getWalSegmentSize() > 0) {
+      segmentWriter = new SegmentedLogWriter(logDirectory, config.getWalSegmentSize());
+      currentFileWriter = segmentWriter;
+    } else {
+      currentFileWriter = new LogWriter(logDirectory + File.separator + WAL_FILE_NAME);
+    }
+    if (groupCommit) {
+      currentFileWriter = new GroupCommitLogWriter(currentFileWriter,
+          config.getWalGroupCommitBufferSize(), groupCommitFlusher);
+    }
   }
 
   public void setRecoverPerformer(RecoverPerformer recoverPerformer) {
@@ -94,9 +143,12 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
    */
   @Override
   public LogPosition write(PhysicalPlan plan) throws IOException {
+    if (groupCommit) {
+      return groupCommit(plan);
+    }
     lockForWrite();
     try {
-      byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan);
+      byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan, getDictionary());
       logCache.add(logBytes);
 
       if (logCache.size() >= config.getFlushWalThreshold()) {
@@ -108,6 +160,58 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     return null;
   }
 
+  @Override
+  public void write(List<PhysicalPlan> plans) throws IOException {
+    List<byte[]> logs = new ArrayList<>(plans.size());
+    for (PhysicalPlan plan : plans) {
+      logs.add(PhysicalPlanLogTransfer.operatorToLog(plan, getDictionary()));
+    }
+    if (groupCommit) {
+      groupCommit(logs);
+      return;
+    }
+    lockForWrite();
+    try {
+      logCache.addAll(logs);
+
+      if (logCache.size() >= config.getFlushWalThreshold()) {
+        sync();
+      }
+    } finally {
+      unlockForWrite();
+    }
+  }
+
+  private LogPosition groupCommit(PhysicalPlan plan) throws IOException {
+    byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan, getDictionary());
+    groupCommit(Collections.singletonList(logBytes));
+    return null;
+  }
+
+  /*
+   * Writers share the read lock so that they can join the same group, close and delete wait for
+   * the groups in progress by taking the write lock.
+   */
+  private void groupCommit(List<byte[]> logs) throws IOException {
+    lock.readLock().lock();
+    try {
+      currentFileWriter.write(logs);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private LogSchemaDictionary getDictionary() throws IOException {
+    if (dictionary == null && config.isEnableWalSchemaDictionary()) {
+      synchronized (this) {
+        if (dictionary == null) {
+          dictionary = new LogSchemaDictionary(logDirectory);
+        }
+      }
+    }
+    return dictionary;
+  }
+
   @Override
   public void recover() throws RecoverException {
     close();
@@ -146,6 +250,15 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   @Override
   public void notifyStartFlush() {
     close();
+    if (segmentWriter != null) {
+      // logs written from now on go to new segments, which are kept by the next checkpoint
+      try {
+        flushCheckpoint = segmentWriter.getNextSegmentId();
+      } catch (IOException e) {
+        logger.error("Log node {} cannot read its log segments", identifier, e);
+      }
+      return;
+    }
     File oldLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME);
     File newLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME + OLD_SUFFIX);
     if (!oldLogFile.exists()) {
@@ -182,6 +295,7 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     lockForOther();
     try {
       logCache.clear();
+      dictionary = null;
       if (currentFileWriter != null) {
         currentFileWriter.close();
       }
@@ -251,6 +365,18 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   }
 
   private void discard() {
+    if (segmentWriter != null) {
+      if (flushCheckpoint < 0) {
+        return;
+      }
+      try {
+        segmentWriter.checkpoint(flushCheckpoint);
+        logger.info("Log node {} checkpointed at segment {}", identifier, flushCheckpoint);
+      } catch (IOException e) {
+        logger.error("Log node {} cannot write checkpoint", identifier, e);
+      }
+      return;
+    }
     File oldLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME + OLD_SUFFIX);
     if (!oldLogFile.exists()) {
       logger.info("No old log to be deleted");
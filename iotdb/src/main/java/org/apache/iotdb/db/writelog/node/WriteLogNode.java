@@ -36,6 +36,14 @@ public interface WriteLogNode {
    */
   LogPosition write(PhysicalPlan plan) throws IOException;
 
+  /**
+   * Write several logs at once, so that they are appended to the cache (or joined to a group
+   * commit) by one lock acquisition.
+   *
+   * @param plans -plans
+   */
+  void write(List<PhysicalPlan> plans) throws IOException;
+
   /**
    * First judge the stage of recovery by status of files, and then recover from that stage.
    */
@@ -57,7 +65,8 @@ public interface WriteLogNode {
   void force() throws IOException;
 
   /**
-   * When a FileNode attempts to start a flush, this method must be called to rename log file.
+   * When a FileNode attempts to start a flush, this method must be called to rename log file or
+   * to start a new log segment.
    */
   void notifyStartFlush() throws IOException;
 
@@ -37,7 +37,10 @@ import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.writelog.RecoverStage;
+import org.apache.iotdb.db.writelog.io.ILogReader;
 import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.io.SegmentLogReader;
+import org.apache.iotdb.db.writelog.io.SegmentedLogWriter;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.replay.ConcreteLogReplayer;
 import org.apache.iotdb.db.writelog.replay.LogReplayer;
@@ -50,8 +53,9 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
   public static final String RECOVER_SUFFIX = "-recover";
   public static final String FLAG_SEPERATOR = "-";
   private static final Logger logger = LoggerFactory.getLogger(ExclusiveLogRecoverPerformer.class);
-  // The two fields can be made static only because the recovery is a serial process.
+  // The fields can be made static only because the recovery is a serial process.
   private static RAFLogReader rafLogReader = new RAFLogReader();
+  private static SegmentLogReader segmentLogReader = new SegmentLogReader();
   private ExclusiveWriteLogNode writeLogNode;
   private String recoveryFlagPath;
   private String restoreFilePath;
@@ -90,6 +94,15 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     }
   }
 
+  private boolean hasLiveSegments(File logDir) throws RecoverException {
+    try {
+      return !SegmentedLogWriter.listLiveSegmentFiles(logDir).isEmpty();
+    } catch (IOException e) {
+      logger.error("Log node {} cannot read log segments", writeLogNode.getIdentifier(), e);
+      throw new RecoverException(e);
+    }
+  }
+
   private RecoverStage determineStage() throws RecoverException {
     File logDir = new File(writeLogNode.getLogDirectory());
     if (!logDir.exists()) {
@@ -101,10 +114,11 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     File[] files = logDir.listFiles((dir, name) -> name.contains(RECOVER_FLAG_NAME));
 
     if (files == null || files.length == 0) {
-      File[] logFiles = logDir
-          .listFiles((dir, name) -> name.contains(ExclusiveWriteLogNode.WAL_FILE_NAME));
+      String walFileName = ExclusiveWriteLogNode.WAL_FILE_NAME;
+      File[] logFiles = logDir.listFiles((dir, name) -> name.equals(walFileName)
+          || name.equals(walFileName + ExclusiveWriteLogNode.OLD_SUFFIX));
       // no flag is set, and there exists log file, start from beginning.
-      if (logFiles != null && logFiles.length > 0) {
+      if ((logFiles != null && logFiles.length > 0) || hasLiveSegments(logDir)) {
         return RecoverStage.BACK_UP;
       } else {
         // no flag is set, and there is no log file, do not recover.
@@ -259,20 +273,21 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     replayLog();
   }
 
-  private int replayLogFile(File logFile) throws RecoverException, IOException {
+  private int replayLogFile(File logFile, ILogReader logReader)
+      throws RecoverException, IOException {
     int failedCnt = 0;
     if (logFile.exists()) {
       try {
-        rafLogReader.open(logFile);
+        logReader.open(logFile);
       } catch (FileNotFoundException e) {
         logger
             .error("Log node {} cannot read old log file, because ", writeLogNode.getIdentifier(),
                 e);
         throw new RecoverException("Cannot read old log file, recovery aborted.");
       }
-      while (rafLogReader.hasNext()) {
+      while (logReader.hasNext()) {
         try {
-          PhysicalPlan physicalPlan = rafLogReader.next();
+          PhysicalPlan physicalPlan = logReader.next();
           if (physicalPlan == null) {
             logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
             throw new RecoverException("Cannot read old log file, recovery aborted.");
@@ -283,7 +298,7 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
           logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
         }
       }
-      rafLogReader.close();
+      logReader.close();
     }
     return failedCnt;
   }
@@ -295,7 +310,7 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
         writeLogNode.getLogDirectory() + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME
             + ExclusiveWriteLogNode.OLD_SUFFIX);
     try {
-      failedEntryCnt += replayLogFile(oldLogFile);
+      failedEntryCnt += replayLogFile(oldLogFile, rafLogReader);
     } catch (IOException e) {
       throw new RecoverException(e);
     }
@@ -303,7 +318,16 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     File newLogFile = new File(
         writeLogNode.getLogDirectory() + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME);
     try {
-      failedEntryCnt += replayLogFile(newLogFile);
+      failedEntryCnt += replayLogFile(newLogFile, rafLogReader);
+    } catch (IOException e) {
+      throw new RecoverException(e);
+    }
+    // then replay log segments after the checkpoint in the order they are written
+    try {
+      for (File segmentFile : SegmentedLogWriter
+          .listLiveSegmentFiles(new File(writeLogNode.getLogDirectory()))) {
+        failedEntryCnt += replayLogFile(segmentFile, segmentLogReader);
+      }
     } catch (IOException e) {
       throw new RecoverException(e);
     }
@@ -357,6 +381,16 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
         logger.error("Log node {} cannot delete new log file", writeLogNode.getLogDirectory());
         failedFiles.add(newLogFile.getPath());
     }
+    // log segments are kept for reuse, moving the checkpoint behind them is enough
+    try {
+      File logDir = new File(writeLogNode.getLogDirectory());
+      if (hasLiveSegments(logDir)) {
+        SegmentedLogWriter.writeCheckpoint(logDir, SegmentedLogWriter.getMaxSegmentId(logDir) + 1);
+      }
+    } catch (IOException e) {
+      logger.error("Log node {} cannot checkpoint log segments", writeLogNode.getLogDirectory());
+      failedFiles.add(SegmentedLogWriter.CHECKPOINT_FILE_NAME);
+    }
     if (!failedFiles.isEmpty()) {
       throw new RecoverException(
           "File clean failed. Failed files are " + failedFiles.toString());
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.TypedInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -45,7 +46,9 @@ public class ConcreteLogReplayer implements LogReplayer {
   @Override
   public void replay(PhysicalPlan plan, boolean isOverflow) throws ProcessorException {
     try {
-      if (plan instanceof InsertPlan) {
+      if (plan instanceof TypedInsertPlan) {
+        FileNodeManager.getInstance().insert(((TypedInsertPlan) plan).getRecord(), true);
+      } else if (plan instanceof InsertPlan) {
         InsertPlan insertPlan = (InsertPlan) plan;
         multiInsert(insertPlan);
       } else if (plan instanceof UpdatePlan) {
@@ -36,6 +36,7 @@ import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.TypedInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
@@ -45,8 +46,17 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 
 public class CodecInstances {
 
@@ -170,6 +180,138 @@ public class CodecInstances {
     }
   };
 
+  static final TypedInsertPlanCodec typedInsertPlanCodec = new TypedInsertPlanCodec();
+
+  /**
+   * Codec of TypedInsertPlan. Values are stored in their binary forms, and the device and
+   * measurement names are stored either as strings or as ids of a LogSchemaDictionary.
+   */
+  static class TypedInsertPlanCodec implements Codec<TypedInsertPlan> {
+
+    private static final byte NAMES_AS_STRINGS = 0;
+    private static final byte NAMES_AS_IDS = 1;
+
+    ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    @Override
+    public byte[] encode(TypedInsertPlan plan) {
+      try {
+        return encode(plan, null);
+      } catch (IOException e) {
+        // only the dictionary does IO
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /**
+     * @param dictionary encodes the names as ids if not null
+     */
+    byte[] encode(TypedInsertPlan plan, LogSchemaDictionary dictionary) throws IOException {
+      checkBufferAndPutType(localBuffer, SystemLogOperator.TYPED_INSERT);
+      ByteBuffer buffer = localBuffer.get();
+      TSRecord record = plan.getRecord();
+      buffer.put((byte) plan.getInsertType());
+      buffer.put(dictionary == null ? NAMES_AS_STRINGS : NAMES_AS_IDS);
+      buffer.putLong(record.time);
+      putName(buffer, record.deviceId, dictionary);
+      buffer.putInt(record.dataPointList.size());
+      for (DataPoint dataPoint : record.dataPointList) {
+        putName(buffer, dataPoint.getMeasurementId(), dictionary);
+        TSDataType dataType = dataPoint.getType();
+        buffer.put((byte) dataType.serialize());
+        switch (dataType) {
+          case BOOLEAN:
+            buffer.put((byte) ((boolean) dataPoint.getValue() ? 1 : 0));
+            break;
+          case INT32:
+            buffer.putInt((int) dataPoint.getValue());
+            break;
+          case INT64:
+            buffer.putLong((long) dataPoint.getValue());
+            break;
+          case FLOAT:
+            buffer.putFloat((float) dataPoint.getValue());
+            break;
+          case DOUBLE:
+            buffer.putDouble((double) dataPoint.getValue());
+            break;
+          case TEXT:
+            byte[] bytes = ((Binary) dataPoint.getValue()).getValues();
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            break;
+          default:
+            throw new UnsupportedOperationException("Unsupported data type " + dataType);
+        }
+      }
+      return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+    }
+
+    private void putName(ByteBuffer buffer, String name, LogSchemaDictionary dictionary)
+        throws IOException {
+      if (dictionary == null) {
+        putString(buffer, name);
+      } else {
+        buffer.putInt(dictionary.getId(name));
+      }
+    }
+
+    @Override
+    public TypedInsertPlan decode(byte[] bytes) throws IOException {
+      return decode(bytes, null);
+    }
+
+    /**
+     * @param dictionary the dictionary of the log, required if the names are stored as ids
+     */
+    TypedInsertPlan decode(byte[] bytes, LogSchemaDictionary dictionary) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      buffer.get(); // read and skip an int representing "type"
+      int insertType = buffer.get();
+      boolean namesAsIds = buffer.get() == NAMES_AS_IDS;
+      if (namesAsIds && dictionary == null) {
+        throw new IOException("The log refers to names by ids but no schema dictionary is given");
+      }
+      long time = buffer.getLong();
+      TSRecord record = new TSRecord(time, readName(buffer, namesAsIds, dictionary));
+      int size = buffer.getInt();
+      for (int i = 0; i < size; i++) {
+        String measurement = readName(buffer, namesAsIds, dictionary);
+        TSDataType dataType = TSDataType.deserialize(buffer.get());
+        switch (dataType) {
+          case BOOLEAN:
+            record.addTuple(new BooleanDataPoint(measurement, buffer.get() == 1));
+            break;
+          case INT32:
+            record.addTuple(new IntDataPoint(measurement, buffer.getInt()));
+            break;
+          case INT64:
+            record.addTuple(new LongDataPoint(measurement, buffer.getLong()));
+            break;
+          case FLOAT:
+            record.addTuple(new FloatDataPoint(measurement, buffer.getFloat()));
+            break;
+          case DOUBLE:
+            record.addTuple(new DoubleDataPoint(measurement, buffer.getDouble()));
+            break;
+          case TEXT:
+            byte[] value = new byte[buffer.getInt()];
+            buffer.get(value);
+            record.addTuple(new StringDataPoint(measurement, new Binary(value)));
+            break;
+          default:
+            throw new IOException("Unsupported data type " + dataType);
+        }
+      }
+      return new TypedInsertPlan(insertType, record);
+    }
+
+    private String readName(ByteBuffer buffer, boolean namesAsIds, LogSchemaDictionary dictionary)
+        throws IOException {
+      return namesAsIds ? dictionary.getName(buffer.getInt()) : readString(buffer);
+    }
+  }
+
   static final Codec<InsertPlan> multiInsertPlanCodec = new Codec<InsertPlan>() {
     ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
 
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.transfer;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.iotdb.db.utils.MemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LogSchemaDictionary assigns ids to the device and measurement names of a log node, so that
+ * typed insert logs can refer to names by ids. Names are assigned ids in the order they first
+ * appear and the assignments are appended to a dictionary file beside the logs, which is forced
+ * before any log using the new id is written. Ids are never reassigned, so every log of the node
+ * can be decoded with the dictionary file.
+ */
+public class LogSchemaDictionary {
+
+  public static final String DICTIONARY_FILE_NAME = "wal-dictionary";
+  private static final Logger logger = LoggerFactory.getLogger(LogSchemaDictionary.class);
+
+  private File dictionaryFile;
+  private Map<String, Integer> nameToId = new ConcurrentHashMap<>();
+  private List<String> names = new ArrayList<>();
+
+  /**
+   * create a dictionary of the log directory, entries in the existing dictionary file are loaded.
+   */
+  public LogSchemaDictionary(String logDirectory) throws IOException {
+    this.dictionaryFile = new File(logDirectory, DICTIONARY_FILE_NAME);
+    if (dictionaryFile.exists()) {
+      load();
+    }
+  }
+
+  /**
+   * @return the dictionary of the log directory, or null if the directory has no dictionary file.
+   */
+  public static LogSchemaDictionary load(File logDirectory) throws IOException {
+    if (logDirectory == null || !new File(logDirectory, DICTIONARY_FILE_NAME).exists()) {
+      return null;
+    }
+    return new LogSchemaDictionary(logDirectory.getPath());
+  }
+
+  private void load() throws IOException {
+    long validLength = 0;
+    try (DataInputStream inputStream = new DataInputStream(
+        new FileInputStream(dictionaryFile))) {
+      while (true) {
+        byte[] bytes;
+        try {
+          bytes = new byte[inputStream.readInt()];
+          inputStream.readFully(bytes);
+        } catch (EOFException e) {
+          break;
+        }
+        String name = new String(bytes, StandardCharsets.UTF_8);
+        nameToId.put(name, names.size());
+        names.add(name);
+        validLength += 4 + bytes.length;
+      }
+    }
+    if (validLength < dictionaryFile.length()) {
+      // the last entry is not completely written so no log uses it, drop it before appending
+      try (RandomAccessFile raf = new RandomAccessFile(dictionaryFile, "rw")) {
+        raf.setLength(validLength);
+      }
+    }
+    logger.debug("Loaded {} names from {}, file size is {}", names.size(), dictionaryFile,
+        MemUtils.bytesCntToStr(dictionaryFile.length()));
+  }
+
+  /**
+   * get the id of the name, a new id is assigned and persisted if the name has none.
+   */
+  public int getId(String name) throws IOException {
+    Integer id = nameToId.get(name);
+    if (id != null) {
+      return id;
+    }
+    return assignId(name);
+  }
+
+  private synchronized int assignId(String name) throws IOException {
+    Integer id = nameToId.get(name);
+    if (id != null) {
+      return id;
+    }
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer entry = ByteBuffer.allocate(4 + bytes.length);
+    entry.putInt(bytes.length);
+    entry.put(bytes);
+    try (FileOutputStream outputStream = new FileOutputStream(dictionaryFile, true)) {
+      outputStream.write(entry.array());
+      outputStream.getFD().sync();
+    }
+    id = names.size();
+    names.add(name);
+    nameToId.put(name, id);
+    return id;
+  }
+
+  public synchronized String getName(int id) throws IOException {
+    if (id < 0 || id >= names.size()) {
+      throw new IOException("Unknown name id " + id + " in " + dictionaryFile);
+    }
+    return names.get(id);
+  }
+}
@@ -41,7 +41,8 @@ public enum PhysicalPlanCodec {
   METADATAPLAN(SystemLogOperator.METADATA, CodecInstances.metadataPlanCodec),
   AUTHORPLAN(SystemLogOperator.AUTHOR, CodecInstances.authorPlanCodec),
   LOADDATAPLAN(SystemLogOperator.LOADDATA, CodecInstances.loadDataPlanCodec),
-  PROPERTYPLAN(SystemLogOperator.PROPERTY, CodecInstances.propertyPlanCodec);
+  PROPERTYPLAN(SystemLogOperator.PROPERTY, CodecInstances.propertyPlanCodec),
+  TYPEDINSERTPLAN(SystemLogOperator.TYPED_INSERT, CodecInstances.typedInsertPlanCodec);
 
   private static final HashMap<Integer, PhysicalPlanCodec> codecMap = new HashMap<>();
 
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.BufferOverflowException;
 import org.apache.iotdb.db.exception.WALOverSizedException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.TypedInsertPlan;
 
 public class PhysicalPlanLogTransfer {
 
@@ -32,7 +33,13 @@ public class PhysicalPlanLogTransfer {
     Codec<PhysicalPlan> codec;
     switch (plan.getOperatorType()) {
       case INSERT:
-        codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.INSERT).codec;
+        if (plan instanceof TypedInsertPlan) {
+          codec = (Codec<PhysicalPlan>) PhysicalPlanCodec
+              .fromOpcode(SystemLogOperator.TYPED_INSERT).codec;
+        } else {
+          codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.INSERT)
+              .codec;
+        }
         break;
       case UPDATE:
         codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.UPDATE).codec;
@@ -81,9 +88,37 @@ public class PhysicalPlanLogTransfer {
     }
   }
 
+  /**
+   * Same as operatorToLog(plan), except that the names of a TypedInsertPlan are encoded by the
+   * dictionary if it is not null.
+   */
+  public static byte[] operatorToLog(PhysicalPlan plan, LogSchemaDictionary dictionary)
+      throws IOException {
+    if (dictionary == null || !(plan instanceof TypedInsertPlan)) {
+      return operatorToLog(plan);
+    }
+    try {
+      return CodecInstances.typedInsertPlanCodec.encode((TypedInsertPlan) plan, dictionary);
+    } catch (BufferOverflowException e) {
+      throw new WALOverSizedException("Plan " + plan.toString() + " is too big to write to WAL");
+    }
+  }
+
   public static PhysicalPlan logToOperator(byte[] opInBytes) throws IOException {
+    return logToOperator(opInBytes, null);
+  }
+
+  /**
+   * @param dictionary the dictionary of the log node that wrote the log, may be null if the log
+   * node does not use one
+   */
+  public static PhysicalPlan logToOperator(byte[] opInBytes, LogSchemaDictionary dictionary)
+      throws IOException {
     // the first byte determines the opCode
     int opCode = opInBytes[0];
+    if (opCode == SystemLogOperator.TYPED_INSERT) {
+      return CodecInstances.typedInsertPlanCodec.decode(opInBytes, dictionary);
+    }
     Codec<PhysicalPlan> codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(opCode).codec;
     return codec.decode(opInBytes);
   }
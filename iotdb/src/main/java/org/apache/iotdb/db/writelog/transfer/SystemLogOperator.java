@@ -32,4 +32,5 @@ public class SystemLogOperator {
   public static final int AUTHOR = 4;
   public static final int LOADDATA = 5;
   public static final int PROPERTY = 6;
+  public static final int TYPED_INSERT = 7;
 }
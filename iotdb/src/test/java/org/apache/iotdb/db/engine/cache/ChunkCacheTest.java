@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.apache.iotdb.db.utils.EnvironmentUtils.TEST_QUERY_CONTEXT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkCacheTest {
+
+  private String processorName = "root.test";
+  private String device = "root.test.d0";
+  private String measurement = "s0";
+  private int recordNum = 100;
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException, StartupException {
+    EnvironmentUtils.envSetUp();
+
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    MManager.getInstance().addPathToMTree(device + "." + measurement,
+        TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+    FileNodeManager.getInstance()
+        .addTimeSeries(new Path(device, measurement), TSDataType.INT64, TSEncoding.PLAIN,
+            CompressionType.valueOf(TSFileConfig.compressor), Collections.emptyMap());
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testQuerySealedFileTwice() throws Exception {
+    for (int time = 1; time <= recordNum; time++) {
+      TSRecord record = new TSRecord(time, device);
+      record.addTuple(new LongDataPoint(measurement, time));
+      FileNodeManager.getInstance().insert(record, false);
+    }
+    FileNodeManager.getInstance().closeAll();
+
+    long missCount = ChunkCache.getInstance().getMissCount();
+    long hitCount = ChunkCache.getInstance().getHitCount();
+    assertEquals(recordNum, query());
+    assertTrue(ChunkCache.getInstance().getMissCount() > missCount);
+    assertEquals(hitCount, ChunkCache.getInstance().getHitCount());
+
+    missCount = ChunkCache.getInstance().getMissCount();
+    assertEquals(recordNum, query());
+    assertEquals(missCount, ChunkCache.getInstance().getMissCount());
+    assertTrue(ChunkCache.getInstance().getHitCount() > hitCount);
+  }
+
+  private int query() throws FileNodeManagerException, IOException {
+    QueryExpression queryExpression = QueryExpression
+        .create(Collections.singletonList(new Path(device, measurement)), null);
+    QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+    int count = 0;
+    while (dataSet.hasNext()) {
+      dataSet.next();
+      count++;
+    }
+    return count;
+  }
+}
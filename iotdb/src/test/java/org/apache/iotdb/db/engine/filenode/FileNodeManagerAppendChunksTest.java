@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.apache.iotdb.db.utils.EnvironmentUtils.TEST_QUERY_CONTEXT;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerAppendChunksTest {
+
+  private String processorName = "root.test";
+  private String device = "root.test.d0";
+  private String measurement = "s0";
+  private File externalFile = new File("target", "appendChunks.tsfile");
+  private OverflowQPExecutor executor = new OverflowQPExecutor();
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException, StartupException {
+    EnvironmentUtils.envSetUp();
+
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    MManager.getInstance().addPathToMTree(device + "." + measurement,
+        TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+    FileNodeManager.getInstance()
+        .addTimeSeries(new Path(device, measurement), TSDataType.INT64, TSEncoding.PLAIN,
+            CompressionType.valueOf(TSFileConfig.compressor), Collections.emptyMap());
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+    if (externalFile.exists()) {
+      externalFile.delete();
+    }
+  }
+
+  @Test
+  public void testAppendChunks() throws Exception {
+    for (long time = 1; time <= 100; time++) {
+      executor.multiInsert(device, time, new String[]{measurement},
+          new String[]{String.valueOf(time)});
+    }
+    FileNodeManager.getInstance().closeAll();
+
+    // one chunk overlapping the flushed data and one chunk after it
+    try (TsFileWriter writer = new TsFileWriter(externalFile)) {
+      writer.addMeasurement(new MeasurementSchema(measurement, TSDataType.INT64,
+          TSEncoding.PLAIN));
+      writeRecords(writer, 10, 20);
+      writer.flushForTest();
+      writeRecords(writer, 150, 160);
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(externalFile.getPath())) {
+      TsDeviceMetadataIndex index = reader.readFileMetadata().getDeviceMap().get(device);
+      List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
+      for (ChunkGroupMetaData chunkGroupMetaData : reader.readTsDeviceMetaData(index)
+          .getChunkGroupMetaDataList()) {
+        chunkMetaDataList.addAll(chunkGroupMetaData.getChunkMetaDataList());
+      }
+      assertEquals(2, chunkMetaDataList.size());
+
+      List<ChunkMetaData> remainingChunks = FileNodeManager.getInstance()
+          .appendChunksToOverflow(processorName, device, reader, chunkMetaDataList);
+      assertEquals(1, remainingChunks.size());
+      assertEquals(150, remainingChunks.get(0).getStartTime());
+    }
+
+    checkData();
+    // the appended chunks are found from the overflow file after it is reopened
+    FileNodeManager.getInstance().closeAll();
+    checkData();
+  }
+
+  private void checkData() throws FileNodeManagerException, IOException {
+    QueryExpression queryExpression = QueryExpression
+        .create(Collections.singletonList(new Path(device, measurement)), null);
+    QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+    int count = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      long time = record.getTimestamp();
+      long expected = time >= 10 && time <= 20 ? time + 1000 : time;
+      assertEquals(expected, record.getFields().get(0).getLongV());
+      count++;
+    }
+    assertEquals(100, count);
+  }
+
+  private void writeRecords(TsFileWriter writer, long startTime, long endTime) throws Exception {
+    for (long time = startTime; time <= endTime; time++) {
+      TSRecord record = new TSRecord(time, device);
+      record.addTuple(new LongDataPoint(measurement, time + 1000));
+      writer.write(record);
+    }
+  }
+}
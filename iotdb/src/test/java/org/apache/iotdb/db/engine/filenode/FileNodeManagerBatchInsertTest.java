@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.apache.iotdb.db.utils.EnvironmentUtils.TEST_QUERY_CONTEXT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerBatchInsertTest {
+
+  private String processorName = "root.test";
+  private String[] devices = {"root.test.d0", "root.test.d1"};
+  private String[] measurements = {"s0", "s1"};
+  private OverflowQPExecutor executor = new OverflowQPExecutor();
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException, StartupException {
+    EnvironmentUtils.envSetUp();
+
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (String device : devices) {
+      addTimeSeries(device, measurements[0], TSDataType.INT64);
+      addTimeSeries(device, measurements[1], TSDataType.TEXT);
+      addTimeSeries(device, "s2", TSDataType.BOOLEAN);
+    }
+  }
+
+  private void addTimeSeries(String device, String measurement, TSDataType dataType)
+      throws PathErrorException, IOException, MetadataArgsErrorException,
+      FileNodeManagerException {
+    MManager.getInstance().addPathToMTree(device + "." + measurement, dataType.toString(),
+        TSEncoding.PLAIN.toString());
+    FileNodeManager.getInstance()
+        .addTimeSeries(new Path(device, measurement), dataType, TSEncoding.PLAIN,
+            CompressionType.valueOf(TSFileConfig.compressor), Collections.emptyMap());
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testInsertBatch() throws Exception {
+    for (String device : devices) {
+      assertTrue(executor.processNonQuery(createPlan(device, 1, 100)));
+    }
+    checkCount(100);
+
+    // the flushed rows make the next batch partly overflow
+    FileNodeManager.getInstance().closeAll();
+    for (String device : devices) {
+      assertTrue(executor.processNonQuery(createPlan(device, 51, 150)));
+    }
+    checkCount(150);
+    FileNodeManager.getInstance().closeAll();
+    checkCount(150);
+  }
+
+  @Test(expected = ProcessorException.class)
+  public void testInsertBatchWithWrongColumnCount() throws Exception {
+    long[] times = {1, 2};
+    executor.processNonQuery(new BatchInsertPlan(devices[0], measurements, times,
+        new TSDataType[]{TSDataType.INT64}, new Object[]{new long[]{1, 2}}));
+  }
+
+  @Test
+  public void testInsertBatchWithFailedRows() throws Exception {
+    // the second row has a negative time and the third one is not a boolean
+    long[] times = {1, -2, 3, 4};
+    BatchInsertPlan plan = new BatchInsertPlan(devices[0], new String[]{measurements[0], "s2"},
+        times, new TSDataType[]{TSDataType.INT64, TSDataType.INT32},
+        new Object[]{new long[]{1, -2, 3, 4}, new int[]{0, 1, 2, 1}});
+    try {
+      executor.processNonQuery(plan);
+      fail();
+    } catch (ProcessorException e) {
+      // expected
+    }
+    assertArrayEquals(new boolean[]{true, false, false, true}, plan.getInsertedRows());
+
+    QueryExpression queryExpression = QueryExpression
+        .create(Collections.singletonList(new Path(devices[0], "s2")), null);
+    QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+    assertEquals("1\tfalse", dataSet.next().toString());
+    assertEquals("4\ttrue", dataSet.next().toString());
+    assertFalse(dataSet.hasNext());
+  }
+
+  @Test
+  public void testInsertBatchWithConvertedValues() throws Exception {
+    long[] times = {1, 2};
+    BatchInsertPlan plan = new BatchInsertPlan(devices[0], measurements, times,
+        new TSDataType[]{TSDataType.INT32, TSDataType.FLOAT},
+        new Object[]{new int[]{1, 2}, new float[]{1, 2}});
+    try {
+      executor.processNonQuery(plan);
+      fail();
+    } catch (ProcessorException e) {
+      // a FLOAT value can not be inserted into a TEXT timeseries
+      assertEquals("The FLOAT value of measurement s1 can not be inserted into a TEXT timeseries",
+          e.getMessage());
+    }
+    assertArrayEquals(new boolean[]{false, false}, plan.getInsertedRows());
+
+    plan = new BatchInsertPlan(devices[0], new String[]{measurements[0]}, times,
+        new TSDataType[]{TSDataType.INT32}, new Object[]{new int[]{1, 2}});
+    assertTrue(executor.processNonQuery(plan));
+    assertArrayEquals(new boolean[]{true, true}, plan.getInsertedRows());
+
+    QueryExpression queryExpression = QueryExpression
+        .create(Collections.singletonList(new Path(devices[0], measurements[0])), null);
+    QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+    assertEquals("1\t1", dataSet.next().toString());
+    assertEquals("2\t2", dataSet.next().toString());
+    assertFalse(dataSet.hasNext());
+  }
+
+  private BatchInsertPlan createPlan(String device, long startTime, long endTime) {
+    int rowCount = (int) (endTime - startTime + 1);
+    long[] times = new long[rowCount];
+    long[] longs = new long[rowCount];
+    Binary[] texts = new Binary[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = startTime + i;
+      longs[i] = times[i];
+      texts[i] = new Binary("v" + times[i]);
+    }
+    return new BatchInsertPlan(device, measurements, times,
+        new TSDataType[]{TSDataType.INT64, TSDataType.TEXT}, new Object[]{longs, texts});
+  }
+
+  private void checkCount(int expected) throws FileNodeManagerException, IOException {
+    for (String device : devices) {
+      QueryExpression queryExpression = QueryExpression
+          .create(Collections.singletonList(new Path(device, measurements[0])), null);
+      QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+      int count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        assertEquals(record.getTimestamp(), record.getFields().get(0).getLongV());
+        count++;
+      }
+      assertEquals(expected, count);
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.apache.iotdb.db.utils.EnvironmentUtils.TEST_QUERY_CONTEXT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerPartitionTest {
+
+  private static final long PARTITION_INTERVAL = 100;
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private long prevPartitionInterval;
+  private String processorName = "root.test";
+  private String[] devices = {"root.test.d0", "root.test.d1"};
+  private String measurement = "s0";
+  private OverflowQPExecutor executor = new OverflowQPExecutor();
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException, StartupException {
+    prevPartitionInterval = config.getPartitionInterval();
+    config.setPartitionInterval(PARTITION_INTERVAL);
+    EnvironmentUtils.envSetUp();
+
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (String device : devices) {
+      MManager.getInstance().addPathToMTree(device + "." + measurement,
+          TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+      FileNodeManager.getInstance()
+          .addTimeSeries(new Path(device, measurement), TSDataType.INT64, TSEncoding.PLAIN,
+              CompressionType.valueOf(TSFileConfig.compressor), Collections.emptyMap());
+    }
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+    config.setPartitionInterval(prevPartitionInterval);
+  }
+
+  @Test
+  public void testFilesOfPartitions() throws Exception {
+    // one batch across four partitions
+    assertTrue(executor.processNonQuery(createPlan(devices[0], 1, 350)));
+    // single records of a device lagging behind in the first partition
+    for (long time = 1; time <= 50; time++) {
+      executor.multiInsert(devices[1], time, new String[]{measurement},
+          new String[]{String.valueOf(time)});
+    }
+    FileNodeManager.getInstance().closeAll();
+
+    assertEquals(4, getSealedFiles(devices[0], null).size());
+    List<TsFileResource> files = getSealedFiles(devices[0], TimeFilter.gtEq(200L));
+    assertEquals(2, files.size());
+    for (TsFileResource file : files) {
+      assertTrue(file.getEndTime(devices[0]) >= 200);
+    }
+    assertEquals(1, getSealedFiles(devices[1], TimeFilter.ltEq(50L)).size());
+
+    assertEquals(350, count(devices[0], null));
+    assertEquals(151, count(devices[0], new GlobalTimeExpression(TimeFilter.gtEq(200L))));
+    assertEquals(50, count(devices[1], null));
+    assertEquals(20, count(devices[1], new GlobalTimeExpression(TimeFilter.gt(30L))));
+  }
+
+  @Test
+  public void testNegativeTimes() throws Exception {
+    FileNodeProcessor processor = new FileNodeProcessor(config.getFileNodeDir(), processorName);
+    // nothing has been written, so no time is in the working partition
+    assertFalse(processor.isInWorkingPartition(-150));
+    processor.closeBufferWriteOfEarlierPartition(-150);
+    // the partition of -150 is [-200, -100)
+    assertTrue(processor.isInWorkingPartition(-200));
+    assertTrue(processor.isInWorkingPartition(-101));
+    assertFalse(processor.isInWorkingPartition(-100));
+    assertFalse(processor.isInWorkingPartition(0));
+  }
+
+  @Test
+  public void testWorkingPartitionAfterRestart() throws Exception {
+    FileNodeProcessor processor = new FileNodeProcessor(config.getFileNodeDir(), processorName);
+    // the server stops while the file of the second partition is still written
+    TsFileResource sealedFile = new TsFileResource(null, false);
+    sealedFile.setStartTime(devices[0], 1);
+    sealedFile.setEndTime(devices[0], 99);
+    TsFileResource workingFile = new TsFileResource(null, false);
+    workingFile.setStartTime(devices[0], 100);
+    workingFile.setStartTime(devices[1], 150);
+    Map<String, Long> lastUpdateTimeMap = new HashMap<>();
+    lastUpdateTimeMap.put(devices[0], 120L);
+    lastUpdateTimeMap.put(devices[1], 160L);
+    FileNodeProcessorStore store = new FileNodeProcessorStore(false, lastUpdateTimeMap,
+        new TsFileResource(null, false), new ArrayList<>(Arrays.asList(sealedFile, workingFile)),
+        FileNodeProcessorStatus.NONE, 0);
+    try (OutputStream outputStream = new FileOutputStream(
+        processor.getFileNodeRestoreFilePath())) {
+      store.serialize(outputStream);
+    }
+
+    FileNodeProcessor restartedProcessor = new FileNodeProcessor(config.getFileNodeDir(),
+        processorName);
+    assertTrue(restartedProcessor.shouldRecovery());
+    assertTrue(restartedProcessor.isInWorkingPartition(50));
+    assertTrue(restartedProcessor.isInWorkingPartition(199));
+    assertFalse(restartedProcessor.isInWorkingPartition(200));
+  }
+
+  private List<TsFileResource> getSealedFiles(String device, Filter timeFilter)
+      throws FileNodeManagerException {
+    return FileNodeManager.getInstance()
+        .query(new SingleSeriesExpression(new Path(device, measurement), timeFilter),
+            TEST_QUERY_CONTEXT)
+        .getSeqDataSource().getSealedTsFiles();
+  }
+
+  private BatchInsertPlan createPlan(String device, long startTime, long endTime) {
+    int rowCount = (int) (endTime - startTime + 1);
+    long[] times = new long[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = startTime + i;
+    }
+    return new BatchInsertPlan(device, new String[]{measurement}, times,
+        new TSDataType[]{TSDataType.INT64}, new Object[]{times});
+  }
+
+  private int count(String device, IExpression expression)
+      throws FileNodeManagerException, IOException {
+    QueryExpression queryExpression = QueryExpression
+        .create(Collections.singletonList(new Path(device, measurement)), expression);
+    QueryDataSet dataSet = router.query(queryExpression, TEST_QUERY_CONTEXT);
+    int count = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      assertEquals(record.getTimestamp(), record.getFields().get(0).getLongV());
+      count++;
+    }
+    return count;
+  }
+}
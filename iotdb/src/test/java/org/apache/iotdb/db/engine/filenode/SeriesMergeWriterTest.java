@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.FakedIPointReader;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.write.chunk.ChunkBuffer;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SeriesMergeWriterTest {
+
+  private static final String DEVICE = "root.merge.d0";
+  private static final int CHUNK_NUM = 5;
+  private static final int POINTS_IN_CHUNK = 1000;
+
+  private String seqPath = "seriesMergeWriterTest.seq";
+  private String mergedPath = "seriesMergeWriterTest.merged";
+  private int maxNumberOfPointsInPage;
+  private MeasurementSchema measurementSchema = new MeasurementSchema("s0", TSDataType.INT64,
+      TSEncoding.PLAIN, CompressionType.SNAPPY);
+  private FileSchema fileSchema = new FileSchema();
+
+  @Before
+  public void setUp() throws IOException {
+    maxNumberOfPointsInPage = TSFileConfig.maxNumberOfPointsInPage;
+    TSFileConfig.maxNumberOfPointsInPage = 100;
+    fileSchema.registerMeasurement(measurementSchema);
+
+    // CHUNK_NUM chunks of 10 pages, the value of each point equals its time
+    TsFileIOWriter writer = new TsFileIOWriter(new File(seqPath));
+    writer.startFlushChunkGroup(DEVICE);
+    long startPos = writer.getPos();
+    for (int i = 0; i < CHUNK_NUM; i++) {
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(measurementSchema,
+          new ChunkBuffer(measurementSchema), TSFileConfig.pageSizeInByte);
+      for (long time = i * POINTS_IN_CHUNK; time < (i + 1) * POINTS_IN_CHUNK; time++) {
+        chunkWriter.write(time, time);
+      }
+      chunkWriter.writeToFileWriter(writer);
+    }
+    writer.endChunkGroup(new ChunkGroupFooter(DEVICE, writer.getPos() - startPos, CHUNK_NUM), 0);
+    writer.endFile(fileSchema);
+  }
+
+  @After
+  public void tearDown() {
+    TSFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+    new File(seqPath).delete();
+    new File(mergedPath).delete();
+  }
+
+  @Test
+  public void test() throws IOException {
+    int chunkNum;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(seqPath)) {
+      TsDeviceMetadata deviceMetadata = reader
+          .readTsDeviceMetaData(reader.readFileMetadata().getDeviceMap().get(DEVICE));
+      List<ChunkMetaData> chunkMetaDataList = deviceMetadata.getChunkGroupMetaDataList().get(0)
+          .getChunkMetaDataList();
+      // the data of chunk 3 till 3250 are deleted
+      chunkMetaDataList.get(3).setDeletedAt(3250);
+
+      TsFileIOWriter writer = new TsFileIOWriter(new File(mergedPath));
+      writer.startFlushChunkGroup(DEVICE);
+      long startPos = writer.getPos();
+      // the unsequence data overlap chunk 2 only, their values are time % 7
+      SeriesMergeWriter seriesMergeWriter = new SeriesMergeWriter(writer, measurementSchema,
+          new FakedIPointReader(2050, 10, 10, 7));
+      chunkNum = seriesMergeWriter.write(chunkMetaDataList, new ChunkLoaderImpl(reader));
+      writer.endChunkGroup(new ChunkGroupFooter(DEVICE, writer.getPos() - startPos, chunkNum), 0);
+      writer.endFile(fileSchema);
+      assertEquals(0, seriesMergeWriter.getStartTime());
+      assertEquals(CHUNK_NUM * POINTS_IN_CHUNK - 1, seriesMergeWriter.getEndTime());
+    }
+    // chunk 0, 1 and 4 are copied, chunk 2 and 3 are merged into one
+    assertEquals(4, chunkNum);
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(mergedPath)) {
+      TsDeviceMetadata deviceMetadata = reader
+          .readTsDeviceMetaData(reader.readFileMetadata().getDeviceMap().get(DEVICE));
+      ChunkGroupMetaData chunkGroupMetaData = deviceMetadata.getChunkGroupMetaDataList().get(0);
+      ChunkMetaData mergedChunk = chunkGroupMetaData.getChunkMetaDataList().get(2);
+      assertEquals(2000, mergedChunk.getStartTime());
+      assertEquals(3999, mergedChunk.getEndTime());
+      assertEquals(2000 - 251, mergedChunk.getNumOfPoints());
+      assertEquals(3999, BytesUtils.bytesToLong(mergedChunk.getDigest().getStatistics()
+          .get(StatisticConstant.MAX_VALUE).array()));
+
+      ReadOnlyTsFile readOnlyTsFile = new ReadOnlyTsFile(reader);
+      QueryDataSet dataSet = readOnlyTsFile.query(QueryExpression
+          .create(new ArrayList<>(Collections.singletonList(new Path(DEVICE, "s0"))), null));
+      for (long time = 0; time < CHUNK_NUM * POINTS_IN_CHUNK; time++) {
+        if (time >= 3000 && time <= 3250) {
+          continue;
+        }
+        RowRecord record = dataSet.next();
+        assertEquals(time, record.getTimestamp());
+        boolean overwritten = time >= 2050 && time <= 2140 && time % 10 == 0;
+        assertEquals(overwritten ? time % 7 : time, record.getFields().get(0).getLongV());
+      }
+      assertFalse(dataSet.hasNext());
+    }
+  }
+}
@@ -25,6 +25,7 @@ import java.util.Random;
 import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -87,6 +88,32 @@ public class PrimitiveMemTableTest {
     }
   }
 
+  @Test
+  public void concurrentWriteTest() throws InterruptedException {
+    IMemTable memTable = new PrimitiveMemTable();
+    int deviceNum = 8;
+    int dataSize = 10000;
+    Thread[] writers = new Thread[deviceNum];
+    for (int i = 0; i < deviceNum; i++) {
+      String deviceId = "d" + i;
+      writers[i] = new Thread(() -> {
+        for (int j = 0; j < dataSize; j++) {
+          memTable.write(deviceId, "s0", TSDataType.INT64, j, (long) j);
+        }
+      });
+      writers[i].start();
+    }
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    Assert.assertEquals(deviceNum * dataSize, memTable.size());
+    for (int i = 0; i < deviceNum; i++) {
+      Assert.assertEquals(dataSize, memTable
+          .query("d" + i, "s0", TSDataType.INT64, Collections.emptyMap())
+          .getSortedTimeValuePairList().size());
+    }
+  }
+
   private void write(IMemTable memTable, String deviceId, String sensorId, TSDataType dataType,
       int size) {
     int dataSize = 100;
@@ -126,6 +153,36 @@ public class PrimitiveMemTableTest {
     }
   }
 
+  @Test
+  public void deleteReleasesArraysTest() {
+    PrimitiveArrayPool pool = PrimitiveArrayPool.getInstance();
+    int arrayNum = 10;
+    // make sure that the pool holds enough arrays for the writes and the deletion, so that the
+    // counts below are exact
+    Object[] arrays = new Object[arrayNum + arrayNum / 2];
+    for (int i = 0; i < arrays.length; i++) {
+      arrays[i] = pool.getPrimitiveDataListByType(TSDataType.FLOAT);
+    }
+    for (Object array : arrays) {
+      pool.release(array);
+    }
+    int pooledNum = pool.getPooledArrayNum(TSDataType.FLOAT);
+
+    IMemTable memTable = new PrimitiveMemTable();
+    int dataSize = arrayNum * PrimitiveArrayPool.ARRAY_SIZE;
+    for (int i = 0; i < dataSize; i++) {
+      memTable.write("d1", "s1", TSDataType.FLOAT, i, String.valueOf(i));
+    }
+    Assert.assertEquals(pooledNum - arrayNum, pool.getPooledArrayNum(TSDataType.FLOAT));
+    // the remaining half of the data takes half of the arrays, the old chunk gives back all
+    Assert.assertTrue(memTable.delete("d1", "s1", dataSize / 2 - 1));
+    Assert.assertEquals(pooledNum - arrayNum / 2, pool.getPooledArrayNum(TSDataType.FLOAT));
+    Assert.assertEquals(dataSize / 2, memTable.query("d1", "s1", TSDataType.FLOAT,
+        Collections.emptyMap()).getSortedTimeValuePairList().size());
+    memTable.clear();
+    Assert.assertEquals(pooledNum, pool.getPooledArrayNum(TSDataType.FLOAT));
+  }
+
   @Test
   public void testFloatType() {
     IMemTable memTable = new PrimitiveMemTable();
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryPoolManagerTest {
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private int maxQueryParallelism;
+
+  @Before
+  public void setUp() {
+    maxQueryParallelism = config.getMaxQueryParallelism();
+  }
+
+  @After
+  public void tearDown() {
+    config.setMaxQueryParallelism(maxQueryParallelism);
+  }
+
+  @Test
+  public void testResultOrder() throws IOException, ProcessorException {
+    config.setMaxQueryParallelism(4);
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      int index = i;
+      tasks.add(() -> {
+        // later tasks finish earlier
+        Thread.sleep((100 - index) % 5);
+        return index;
+      });
+    }
+    List<Integer> results = QueryPoolManager.getInstance().invokeAll(tasks);
+    assertEquals(100, results.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (int) results.get(i));
+    }
+  }
+
+  @Test
+  public void testParallelismBound() throws IOException, ProcessorException {
+    int parallelism = Math.min(2, QueryPoolManager.getInstance().getThreadCnt());
+    config.setMaxQueryParallelism(parallelism);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      tasks.add(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(5);
+        running.decrementAndGet();
+        return null;
+      });
+    }
+    QueryPoolManager.getInstance().invokeAll(tasks);
+    assertTrue(maxRunning.get() <= parallelism);
+    assertEquals(0, running.get());
+  }
+
+  @Test
+  public void testSerialWithParallelismOne() throws IOException, ProcessorException {
+    config.setMaxQueryParallelism(1);
+    Thread caller = Thread.currentThread();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      tasks.add(() -> Thread.currentThread() == caller);
+    }
+    for (boolean inCaller : QueryPoolManager.getInstance().invokeAll(tasks)) {
+      assertTrue(inCaller);
+    }
+  }
+
+  @Test
+  public void testException() throws ProcessorException, InterruptedException {
+    config.setMaxQueryParallelism(4);
+    IOException exception = new IOException("broken series");
+    AtomicInteger finished = new AtomicInteger();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      int index = i;
+      tasks.add(() -> {
+        if (index == 5) {
+          throw exception;
+        }
+        Thread.sleep(2);
+        finished.incrementAndGet();
+        return null;
+      });
+    }
+    try {
+      QueryPoolManager.getInstance().invokeAll(tasks);
+      fail();
+    } catch (IOException e) {
+      assertSame(exception, e);
+    }
+    // the remaining tasks are not started after the failure, the running ones are waited for
+    int finishedAfterFailure = finished.get();
+    assertTrue(finishedAfterFailure < 19);
+    Thread.sleep(20);
+    assertEquals(finishedAfterFailure, finished.get());
+  }
+
+  @Test
+  public void testRestart() throws IOException, ProcessorException {
+    config.setMaxQueryParallelism(2);
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      int index = i;
+      tasks.add(() -> index);
+    }
+    QueryPoolManager manager = QueryPoolManager.getInstance();
+    manager.stop();
+    try {
+      manager.invokeAll(tasks);
+      fail();
+    } catch (RejectedExecutionException e) {
+      // the pool is stopped
+    } finally {
+      manager.start();
+    }
+    assertEquals(3, (int) manager.invokeAll(tasks).get(3));
+  }
+}
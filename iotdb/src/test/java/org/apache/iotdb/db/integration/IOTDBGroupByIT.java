@@ -35,6 +35,8 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.jdbc.Config;
@@ -207,6 +209,20 @@ public class IOTDBGroupByIT {
     }
   }
 
+  @Test
+  public void smallFetchSizeTest() throws SQLException {
+    // the intervals are calculated fetch_size at a time, so the batches end within the results
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int fetchSize = config.getFetchSize();
+    config.setFetchSize(3);
+    try {
+      countSumMeanTest();
+      firstLastTest();
+    } finally {
+      config.setFetchSize(fetchSize);
+    }
+  }
+
   @Test
   public void maxMinValeTimeTest() throws SQLException {
     String[] retArray1 = new String[]{
@@ -341,4 +341,30 @@ public class MManagerBasicTest {
       fail(e.getMessage());
     }
   }
+
+  @Test
+  public void testLookupsAfterDeletion() throws PathErrorException, IOException {
+    MManager manager = MManager.getInstance();
+    manager.setStorageLevelToMTree("root.laptop.d1");
+    manager.addPathToMTree("root.laptop.d1.s1", TSDataType.INT32, TSEncoding.RLE,
+        compressionType, Collections.emptyMap());
+    assertEquals(true, manager.getNodeByDeviceIdFromCache("root.laptop.d1").hasChild("s1"));
+    assertEquals(TSDataType.INT32, manager.getSeriesType("root.laptop.d1.s1"));
+    assertEquals("root.laptop.d1", manager.getFileNameByPath("root.laptop.d1.s1"));
+    assertEquals(true, manager.pathExist("root.laptop.d1.s1"));
+
+    manager.deletePathFromMTree("root.laptop.d1.s1");
+    assertEquals(false, manager.pathExist("root.laptop.d1.s1"));
+    try {
+      manager.getSeriesType("root.laptop.d1.s1");
+      fail();
+    } catch (PathErrorException e) {
+      // expected
+    }
+
+    manager.addPathToMTree("root.laptop.d1.s1", TSDataType.TEXT, TSEncoding.PLAIN,
+        compressionType, Collections.emptyMap());
+    assertEquals(TSDataType.TEXT, manager.getSeriesType("root.laptop.d1.s1"));
+    assertEquals("root.laptop.d1", manager.getFileNameByPath("root.laptop.d1.s1"));
+  }
 }
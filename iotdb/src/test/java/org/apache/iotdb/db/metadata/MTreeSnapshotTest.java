@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MTreeSnapshotTest {
+
+  private File snapshotFile;
+
+  @Before
+  public void setUp() {
+    File metadataDir = new File(IoTDBDescriptor.getInstance().getConfig().getMetadataDir());
+    metadataDir.mkdirs();
+    snapshotFile = new File(metadataDir, "test-" + MetadataConstant.MTREE_SNAPSHOT);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    snapshotFile.delete();
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testSerializeAndDeserialize() throws Exception {
+    MTree mtree = new MTree(MetadataConstant.ROOT);
+    mtree.setStorageGroup("root.laptop.d1");
+    mtree.setStorageGroup("root.laptop.d2");
+    mtree.addTimeseriesPath("root.laptop.d1.s1", "INT32", "RLE");
+    mtree.addTimeseriesPath("root.laptop.d1.s2", "TEXT", "PLAIN");
+    Map<String, String> props = new HashMap<>();
+    props.put("max_point_number", "3");
+    mtree.addTimeseriesPath("root.laptop.d2.s1", TSDataType.FLOAT, TSEncoding.RLE,
+        CompressionType.GZIP, props);
+    mtree.addTimeseriesPath("root.laptop.d2.g1.s1", TSDataType.INT64, TSEncoding.TS_2DIFF,
+        CompressionType.UNCOMPRESSED, null);
+
+    new MTreeSnapshot(mtree, 42).serializeTo(snapshotFile);
+    assertFalse(new File(snapshotFile.getPath() + MetadataConstant.METADATA_TEMP).exists());
+    MTreeSnapshot snapshot = MTreeSnapshot.deserializeFrom(snapshotFile);
+    MTree restored = snapshot.getMTree();
+
+    assertEquals(42, snapshot.getLogLineCount());
+    assertEquals(mtree.toString(), restored.toString());
+    assertTrue(restored.checkStorageGroup("root.laptop.d1"));
+    assertTrue(restored.checkStorageGroup("root.laptop.d2"));
+    assertFalse(restored.checkStorageGroup("root.laptop"));
+    assertEquals("root.laptop.d2", restored.getFileNameByPath("root.laptop.d2.g1.s1"));
+    assertSame(restored.getNodeByPath("root.laptop.d2").getDataFileName(),
+        restored.getNodeByPath("root.laptop.d2.g1.s1").getDataFileName());
+    for (String path : new String[]{"root.laptop.d1.s1", "root.laptop.d1.s2",
+        "root.laptop.d2.s1", "root.laptop.d2.g1.s1"}) {
+      assertEquals(mtree.getSchemaForOnePath(path), restored.getSchemaForOnePath(path));
+      assertEquals(mtree.getFileNameByPath(path), restored.getFileNameByPath(path));
+    }
+    assertEquals("3", restored.getSchemaForOnePath("root.laptop.d2.s1").getProps()
+        .get("max_point_number"));
+  }
+
+  @Test
+  public void testSnapshotCoversLog() throws Exception {
+    MManager manager = MManager.getInstance();
+    manager.setStorageLevelToMTree("root.vehicle.d0");
+    manager.addPathToMTree("root.vehicle.d0.s0", "INT32", "RLE");
+    manager.addPathToMTree("root.vehicle.d0.s1", "INT64", "RLE");
+    manager.flushObjectToFile();
+
+    String metadataDir = IoTDBDescriptor.getInstance().getConfig().getMetadataDir();
+    MTreeSnapshot snapshot = MTreeSnapshot
+        .deserializeFrom(new File(metadataDir, MetadataConstant.MTREE_SNAPSHOT));
+    assertEquals(3, snapshot.getLogLineCount());
+    assertTrue(snapshot.getMTree().isPathExist("root.vehicle.d0.s1"));
+    assertTrue(snapshot.getMTree().checkStorageGroup("root.vehicle.d0"));
+  }
+}
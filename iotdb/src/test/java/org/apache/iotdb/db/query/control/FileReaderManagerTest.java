@@ -26,6 +26,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -131,4 +139,34 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testMmapSealedFile() throws IOException, WriteProcessException {
+    String filePath = "target/test.mmap.tsfile";
+    File file = new File(filePath);
+    TsFileWriter writer = new TsFileWriter(file);
+    writer.addMeasurement(new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.PLAIN));
+    for (long time = 1; time <= 100; time++) {
+      TSRecord record = new TSRecord(time, "d0");
+      record.addTuple(new LongDataPoint("s0", time));
+      writer.write(record);
+    }
+    writer.close();
+
+    boolean enableMmapFileReader = dbConfig.isEnableMmapFileReader();
+    dbConfig.setEnableMmapFileReader(true);
+    try {
+      FileReaderManager manager = FileReaderManager.getInstance();
+      TsFileSequenceReader reader = manager.get(filePath, true);
+      Assert.assertEquals(filePath, reader.getFileName());
+      Assert.assertTrue(reader.readFileMetadata().containsDevice("d0"));
+      Assert.assertSame(reader, manager.get(filePath, true));
+
+      manager.closeFileAndRemoveReader(filePath);
+      Assert.assertFalse(manager.contains(filePath, true));
+    } finally {
+      dbConfig.setEnableMmapFileReader(enableMmapFileReader);
+      Files.deleteIfExists(file.toPath());
+    }
+  }
 }
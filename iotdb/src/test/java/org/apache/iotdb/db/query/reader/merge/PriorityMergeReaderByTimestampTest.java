@@ -27,6 +27,7 @@ import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -92,6 +93,48 @@ public class PriorityMergeReaderByTimestampTest {
 
   }
 
+  @Test
+  public void testBatch() throws IOException {
+    PriorityMergeReaderByTimestamp priorityReader = createReader();
+    PriorityMergeReaderByTimestamp batchReader = createReader();
+
+    Random random = new Random();
+    BatchData result = new BatchData(TSDataType.INT64, true);
+    int expectedCnt = 0;
+    long time = 4;
+    while (time < 1080 + 200 * 13 + 600) {
+      long[] timestamps = new long[1 + random.nextInt(100)];
+      int length = 0;
+      while (length < timestamps.length && time < 1080 + 200 * 13 + 600) {
+        timestamps[length++] = time;
+        time += random.nextInt(10) + 1;
+      }
+      batchReader.getValuesInTimestamps(timestamps, length, result);
+      for (int i = 0; i < length; i++) {
+        Object value = priorityReader.getValueInTimestamp(timestamps[i]);
+        if (value != null) {
+          expectedCnt++;
+          Assert.assertEquals(timestamps[i], result.currentTime());
+          Assert.assertEquals(value, result.currentValue());
+          result.next();
+        }
+      }
+      Assert.assertFalse(result.hasNext());
+    }
+    Assert.assertEquals(expectedCnt, result.length());
+  }
+
+  private PriorityMergeReaderByTimestamp createReader() {
+    PriorityMergeReaderByTimestamp priorityReader = new PriorityMergeReaderByTimestamp();
+    priorityReader.addReaderWithPriority(
+        new FakedPrioritySeriesReaderByTimestamp(100, 200, 5, 11), 1);
+    priorityReader.addReaderWithPriority(
+        new FakedPrioritySeriesReaderByTimestamp(850, 200, 7, 19), 2);
+    priorityReader.addReaderWithPriority(
+        new FakedPrioritySeriesReaderByTimestamp(1080, 200, 13, 31), 3);
+    return priorityReader;
+  }
+
   public static class FakedPrioritySeriesReaderByTimestamp implements EngineReaderByTimeStamp,
       IPointReader {
 
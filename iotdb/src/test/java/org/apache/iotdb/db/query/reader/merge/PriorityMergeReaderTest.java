@@ -20,8 +20,12 @@ package org.apache.iotdb.db.query.reader.merge;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
@@ -64,8 +68,52 @@ public class PriorityMergeReaderTest {
     Assert.assertEquals(162, cnt);
   }
 
+  /**
+   * merge many readers with overlapping timestamps, including readers of equal priority and empty
+   * readers, and compare with the result of overwriting a map in the order of priority.
+   */
+  @Test
+  public void testManyReaders() throws IOException {
+    Random random = new Random();
+    for (int readerNum = 1; readerNum <= 17; readerNum++) {
+      PriorityMergeReader priorityMergeReader = new PriorityMergeReader();
+      List<Integer> priorities = new ArrayList<>();
+      List<FakedPrioritySeriesReader> readers = new ArrayList<>();
+      for (int i = 0; i < readerNum; i++) {
+        readers.add(new FakedPrioritySeriesReader(random.nextInt(100), random.nextInt(50),
+            1 + random.nextInt(5), 7));
+        priorities.add(random.nextInt(4));
+      }
+
+      // points of higher priority, or of a later reader with the same priority, overwrite others
+      TreeMap<Long, TimeValuePair> expected = new TreeMap<>();
+      Integer[] order = new Integer[readerNum];
+      for (int i = 0; i < readerNum; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> priorities.get(a).equals(priorities.get(b)) ? a - b
+          : priorities.get(a) - priorities.get(b));
+      for (int index : order) {
+        for (TimeValuePair pair : readers.get(index).getPoints()) {
+          expected.put(pair.getTimestamp(), pair);
+        }
+      }
+
+      for (int i = 0; i < readerNum; i++) {
+        priorityMergeReader.addReaderWithPriority(readers.get(i), priorities.get(i));
+      }
+      for (Entry<Long, TimeValuePair> entry : expected.entrySet()) {
+        Assert.assertTrue(priorityMergeReader.hasNext());
+        Assert.assertEquals((long) entry.getKey(), priorityMergeReader.current().getTimestamp());
+        Assert.assertSame(entry.getValue(), priorityMergeReader.next());
+      }
+      Assert.assertFalse(priorityMergeReader.hasNext());
+    }
+  }
+
   public static class FakedPrioritySeriesReader implements IPointReader {
 
+    private List<TimeValuePair> points;
     private Iterator<TimeValuePair> iterator;
 
     FakedPrioritySeriesReader(long startTime, int size, int interval, int modValue) {
@@ -78,9 +126,14 @@ public class PriorityMergeReaderTest {
         // System.out.println(time + "," + time % modValue);
         time += interval;
       }
+      points = list;
       iterator = list.iterator();
     }
 
+    List<TimeValuePair> getPoints() {
+      return points;
+    }
+
     @Override
     public boolean hasNext() {
       return iterator.hasNext();
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Random;
 import org.apache.iotdb.db.query.reader.FakedSeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -88,4 +90,50 @@ public class SequenceDataReaderByTimestampTest {
     }
   }
 
+  /**
+   * Test getValuesInTimestamps(long[] timestamps, int length, BatchData result) method in
+   * SequenceDataReaderByTimestamp, whose result should be the same as getValueInTimestamp().
+   */
+  @Test
+  public void testBatch() throws IOException {
+    SequenceDataReaderByTimestamp sequenceReader = new SequenceDataReaderByTimestamp(
+        createReaders());
+    SequenceDataReaderByTimestamp batchReader = new SequenceDataReaderByTimestamp(
+        createReaders());
+
+    long endTime = 100 + 1005 * 7 + 100 * 17 + 59 * 19;
+    Random random = new Random();
+    BatchData result = new BatchData(TSDataType.INT64, true);
+    int expectedCnt = 0;
+    long time = 50;
+    while (time < endTime + 50) {
+      // blocks of timestamps that span the boundaries of the readers
+      long[] timestamps = new long[1 + random.nextInt(300)];
+      int length = 0;
+      while (length < timestamps.length && time < endTime + 50) {
+        timestamps[length++] = time;
+        time += 1 + random.nextInt(10);
+      }
+      batchReader.getValuesInTimestamps(timestamps, length, result);
+      for (int i = 0; i < length; i++) {
+        Object value = sequenceReader.getValueInTimestamp(timestamps[i]);
+        if (value != null) {
+          expectedCnt++;
+          Assert.assertEquals(timestamps[i], result.currentTime());
+          Assert.assertEquals(value, result.currentValue());
+          result.next();
+        }
+      }
+      Assert.assertFalse(result.hasNext());
+    }
+    Assert.assertEquals(expectedCnt, result.length());
+  }
+
+  private List<EngineReaderByTimeStamp> createReaders() {
+    List<EngineReaderByTimeStamp> readers = new ArrayList<>();
+    readers.add(new FakedSeriesReaderByTimestamp(100, 1000, 7, 11));
+    readers.add(new FakedSeriesReaderByTimestamp(100 + 1005 * 7, 100, 17, 3));
+    readers.add(new FakedSeriesReaderByTimestamp(100 + 1005 * 7 + 100 * 17, 60, 19, 23));
+    return readers;
+  }
 }
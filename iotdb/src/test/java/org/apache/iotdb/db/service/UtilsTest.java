@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.jdbc.ColumnarDataSet;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.junit.Test;
+
+public class UtilsTest {
+
+  private static final TSDataType[] DATA_TYPES = {TSDataType.BOOLEAN, TSDataType.INT32,
+      TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE, TSDataType.TEXT};
+
+  @Test
+  public void testConvertQueryDataSetToColumnar() throws IOException {
+    List<RowRecord> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      RowRecord record = new RowRecord(i * 10L);
+      for (int j = 0; j < DATA_TYPES.length; j++) {
+        record.addField(createField(DATA_TYPES[j], i, (i + j) % 3 == 0));
+      }
+      // a column without any value
+      record.addField(createField(null, i, true));
+      records.add(record);
+    }
+    QueryDataSet queryDataSet = new ListQueryDataSet(records);
+
+    List<RowRecord> fetched = new ArrayList<>();
+    TSQueryDataSet tsQueryDataSet = Utils.convertQueryDataSetToColumnar(queryDataSet, 30);
+    while (tsQueryDataSet.getRowCount() > 0) {
+      assertTrue(tsQueryDataSet.getRowCount() <= 30);
+      ColumnarDataSet columnarDataSet = new ColumnarDataSet(tsQueryDataSet);
+      while (columnarDataSet.hasNext()) {
+        columnarDataSet.next();
+        RowRecord record = new RowRecord(columnarDataSet.getTimestamp());
+        // read the columns backwards and twice to check that the decoding is order-independent
+        Field[] fields = new Field[columnarDataSet.getColumnCount()];
+        for (int j = fields.length - 1; j >= 0; j--) {
+          fields[j] = columnarDataSet.getField(j);
+          assertEquals(fields[j].toString(), columnarDataSet.getField(j).toString());
+        }
+        for (Field field : fields) {
+          record.addField(field);
+        }
+        fetched.add(record);
+      }
+      tsQueryDataSet = Utils.convertQueryDataSetToColumnar(queryDataSet, 30);
+    }
+
+    assertEquals(records.size(), fetched.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertEquals(records.get(i).toString(), fetched.get(i).toString());
+    }
+  }
+
+  @Test
+  public void testSkipUnreadColumns() throws IOException {
+    List<RowRecord> records = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      RowRecord record = new RowRecord(i);
+      record.addField(createField(TSDataType.TEXT, i, i % 2 == 0));
+      record.addField(createField(TSDataType.INT64, i, false));
+      records.add(record);
+    }
+    ColumnarDataSet columnarDataSet = new ColumnarDataSet(
+        Utils.convertQueryDataSetToColumnar(new ListQueryDataSet(records), 20));
+    for (int i = 0; i < 20; i++) {
+      columnarDataSet.next();
+      if (i % 5 == 4) {
+        // only read the text column now and then
+        Field field = columnarDataSet.getField(0);
+        assertEquals(i % 2 == 0, field.isNull());
+        if (!field.isNull()) {
+          assertEquals(String.valueOf(i), field.getStringValue());
+        }
+      }
+    }
+    assertFalse(columnarDataSet.hasNext());
+  }
+
+  @Test
+  public void testConvertToBatchInsertPlan() throws IOException {
+    int rowCount = 3;
+    PublicBAOS timeBAOS = new PublicBAOS();
+    DataOutputStream timeOutputStream = new DataOutputStream(timeBAOS);
+    List<String> measurements = new ArrayList<>();
+    List<String> typeList = new ArrayList<>();
+    List<ByteBuffer> valueList = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      timeOutputStream.writeLong(i * 10L);
+    }
+    for (TSDataType dataType : DATA_TYPES) {
+      PublicBAOS valueBAOS = new PublicBAOS();
+      DataOutputStream valueOutputStream = new DataOutputStream(valueBAOS);
+      for (int i = 0; i < rowCount; i++) {
+        switch (dataType) {
+          case BOOLEAN:
+            valueOutputStream.writeBoolean(i % 2 == 0);
+            break;
+          case INT32:
+            valueOutputStream.writeInt(-i);
+            break;
+          case INT64:
+            valueOutputStream.writeLong(i * 1000000000L);
+            break;
+          case FLOAT:
+            valueOutputStream.writeFloat(i + 0.5f);
+            break;
+          case DOUBLE:
+            valueOutputStream.writeDouble(i - 0.25);
+            break;
+          default:
+            valueOutputStream.writeInt(1);
+            valueOutputStream.writeByte('0' + i);
+            break;
+        }
+      }
+      measurements.add("s_" + dataType);
+      typeList.add(dataType.toString());
+      valueList.add(ByteBuffer.wrap(valueBAOS.getBuf(), 0, valueBAOS.size()));
+    }
+    TSDeviceBatch deviceBatch = new TSDeviceBatch("root.sg.d1", measurements, rowCount,
+        ByteBuffer.wrap(timeBAOS.getBuf(), 0, timeBAOS.size()), typeList, valueList);
+
+    BatchInsertPlan plan = Utils.convertToBatchInsertPlan(deviceBatch);
+    assertEquals("root.sg.d1", plan.getDeviceId());
+    assertArrayEquals(new long[]{0, 10, 20}, plan.getTimes());
+    assertArrayEquals(DATA_TYPES, plan.getDataTypes());
+    Object[] columns = plan.getColumns();
+    assertArrayEquals(new boolean[]{true, false, true}, (boolean[]) columns[0]);
+    assertArrayEquals(new int[]{0, -1, -2}, (int[]) columns[1]);
+    assertArrayEquals(new long[]{0, 1000000000L, 2000000000L}, (long[]) columns[2]);
+    assertArrayEquals(new float[]{0.5f, 1.5f, 2.5f}, (float[]) columns[3], 0);
+    assertArrayEquals(new double[]{-0.25, 0.75, 1.75}, (double[]) columns[4], 0);
+    assertArrayEquals(new Binary[]{new Binary("0"), new Binary("1"), new Binary("2")},
+        (Binary[]) columns[5]);
+  }
+
+  private Field createField(TSDataType dataType, int value, boolean isNull) {
+    if (isNull) {
+      Field field = new Field(null);
+      field.setNull();
+      return field;
+    }
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        field.setBoolV(value % 2 == 0);
+        break;
+      case INT32:
+        field.setIntV(-value);
+        break;
+      case INT64:
+        field.setLongV(value * 1000000000L);
+        break;
+      case FLOAT:
+        field.setFloatV(value + 0.5f);
+        break;
+      case DOUBLE:
+        field.setDoubleV(value - 0.25);
+        break;
+      default:
+        field.setBinaryV(new Binary(String.valueOf(value)));
+        break;
+    }
+    return field;
+  }
+
+  private static class ListQueryDataSet extends QueryDataSet {
+
+    private Iterator<RowRecord> iterator;
+
+    private ListQueryDataSet(List<RowRecord> records) {
+      super(new ArrayList<>());
+      this.iterator = records.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public RowRecord next() {
+      return iterator.next();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.sync.sender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalSnapshotWriterTest {
+
+  private String device = "root.test.d0";
+  private String measurement = "s0";
+  private File directory = new File("target", "incrementalSnapshot");
+  private File syncedFile = new File(directory, "synced.tsfile");
+  private File mergedFile = new File(directory, "merged.tsfile");
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    directory.mkdirs();
+    // the merged file keeps the first chunk of the synced file and rewrites the second one
+    writeFile(syncedFile, 0);
+    writeFile(mergedFile, 1);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testWrite() throws IOException {
+    // no chunk is known, the snapshot is a link to the tsfile
+    File snapshot = new File(directory, "snapshot1");
+    Set<String> syncedDigests = IncrementalSnapshotWriter
+        .write(syncedFile, snapshot, new HashSet<>());
+    assertEquals(2, syncedDigests.size());
+    assertEquals(syncedFile.length(), snapshot.length());
+
+    // only the rewritten chunk is kept
+    snapshot = new File(directory, "snapshot2");
+    Set<String> mergedDigests = IncrementalSnapshotWriter
+        .write(mergedFile, snapshot, syncedDigests);
+    assertEquals(2, mergedDigests.size());
+    mergedDigests.retainAll(syncedDigests);
+    assertEquals(1, mergedDigests.size());
+    List<ChunkMetaData> chunks = readChunks(snapshot);
+    assertEquals(1, chunks.size());
+    assertEquals(150, chunks.get(0).getStartTime());
+    assertEquals(160, chunks.get(0).getEndTime());
+
+    // all chunks are known, no snapshot is made
+    snapshot = new File(directory, "snapshot3");
+    IncrementalSnapshotWriter.write(syncedFile, snapshot, syncedDigests);
+    assertFalse(snapshot.exists());
+  }
+
+  @Test
+  public void testWriteIncompleteFile() throws IOException {
+    File file = new File(directory, "incomplete.tsfile");
+    FileUtils.writeStringToFile(file, "not a tsfile");
+    File snapshot = new File(directory, "snapshot");
+    assertTrue(IncrementalSnapshotWriter.write(file, snapshot, new HashSet<>()).isEmpty());
+    assertEquals(file.length(), snapshot.length());
+  }
+
+  private void writeFile(File file, long delta) throws IOException, WriteProcessException {
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.addMeasurement(new MeasurementSchema(measurement, TSDataType.INT64,
+          TSEncoding.PLAIN));
+      writeRecords(writer, 10, 20, 0);
+      writer.flushForTest();
+      writeRecords(writer, 150, 160, delta);
+    }
+  }
+
+  private void writeRecords(TsFileWriter writer, long startTime, long endTime, long delta)
+      throws IOException, WriteProcessException {
+    for (long time = startTime; time <= endTime; time++) {
+      TSRecord record = new TSRecord(time, device);
+      record.addTuple(new LongDataPoint(measurement, time + delta));
+      writer.write(record);
+    }
+  }
+
+  private List<ChunkMetaData> readChunks(File file) throws IOException {
+    List<ChunkMetaData> chunks = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      TsDeviceMetadataIndex index = reader.readFileMetadata().getDeviceMap().get(device);
+      for (ChunkGroupMetaData chunkGroupMetaData : reader.readTsDeviceMetaData(index)
+          .getChunkGroupMetaDataList()) {
+        chunks.addAll(chunkGroupMetaData.getChunkMetaDataList());
+      }
+    }
+    return chunks;
+  }
+}
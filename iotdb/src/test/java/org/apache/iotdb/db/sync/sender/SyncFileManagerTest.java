@@ -20,6 +20,8 @@ package org.apache.iotdb.db.sync.sender;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -38,6 +40,8 @@ public class SyncFileManagerTest {
   private static final String POST_BACK_DIRECTORY_TEST = Constans.SYNC_CLIENT + File.separator;
   private static final String LAST_FILE_INFO_TEST =
       POST_BACK_DIRECTORY_TEST + Constans.LAST_LOCAL_FILE_NAME;
+  private static final String CHUNK_DIGEST_INFO_TEST =
+      POST_BACK_DIRECTORY_TEST + Constans.LAST_CHUNK_DIGEST_NAME;
   private static final String SENDER_FILE_PATH_TEST = POST_BACK_DIRECTORY_TEST + "data";
   private SyncFileManager manager = SyncFileManager.getInstance();
   private static final Logger LOGGER = LoggerFactory.getLogger(SyncFileManagerTest.class);
@@ -363,6 +367,36 @@ public class SyncFileManagerTest {
     }
   }
 
+  @Test // It tests two classes : backupChunkDigestInfo and getLastChunkDigestList
+  public void testBackupChunkDigestInfo() throws IOException {
+    String storageGroup = "0";
+    String mergedFile = SENDER_FILE_PATH_TEST + File.separator + "merged";
+    String newFile = SENDER_FILE_PATH_TEST + File.separator + "new";
+    Map<String, Set<String>> currentFiles = new HashMap<>();
+    currentFiles.put(storageGroup, new HashSet<>(Arrays.asList(mergedFile, newFile)));
+    manager.setCurrentLocalFiles(currentFiles);
+
+    // lastChunkDigests is empty
+    manager.getLastChunkDigestList(CHUNK_DIGEST_INFO_TEST);
+    assert (manager.getLastChunkDigests().isEmpty());
+
+    Map<String, Set<String>> digests = new HashMap<>();
+    digests.put(mergedFile, new HashSet<>(Arrays.asList("a1", "b2")));
+    digests.put(newFile, new HashSet<>());
+    // the digests of a file which is not local any more are dropped
+    digests.put(SENDER_FILE_PATH_TEST + File.separator + "deleted",
+        new HashSet<>(Collections.singletonList("c3")));
+    manager.updateChunkDigests(storageGroup, digests);
+    manager.backupChunkDigestInfo(CHUNK_DIGEST_INFO_TEST);
+
+    manager.getLastChunkDigestList(CHUNK_DIGEST_INFO_TEST);
+    Map<String, Set<String>> lastDigests = manager.getLastChunkDigests().get(storageGroup);
+    assert (manager.getLastChunkDigests().size() == 1);
+    assert (lastDigests.size() == 2);
+    assert (lastDigests.get(mergedFile).equals(digests.get(mergedFile)));
+    assert (lastDigests.get(newFile).isEmpty());
+  }
+
   private boolean isEmpty(Map<String, Set<String>> sendingFileList) {
     for (Entry<String, Set<String>> entry : sendingFileList.entrySet()) {
       if (!entry.getValue().isEmpty()) {
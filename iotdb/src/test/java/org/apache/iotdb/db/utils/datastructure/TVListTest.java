@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TVListTest {
+
+  @Test
+  public void testPutAndGet() {
+    int count = 10000;
+    TVList intList = TVList.newList(TSDataType.INT32);
+    TVList binaryList = TVList.newList(TSDataType.TEXT);
+    for (int i = 0; i < count; i++) {
+      intList.putInt(i, i);
+      binaryList.putBinary(i, Binary.valueOf(String.valueOf(i)));
+    }
+    Assert.assertEquals(count, intList.size());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, intList.getTime(i));
+      Assert.assertEquals(i, intList.getInt(i));
+      Assert.assertEquals(String.valueOf(i), binaryList.getBinary(i).getStringValue());
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testInconsistentType() {
+    TVList longList = TVList.newList(TSDataType.INT64);
+    longList.putDouble(1, 1.0);
+  }
+
+  @Test
+  public void testClearAndReuse() {
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 3;
+    TVList doubleList = TVList.newList(TSDataType.DOUBLE);
+    for (int i = 0; i < count; i++) {
+      doubleList.putDouble(i, i * 0.5);
+    }
+    int pooledBefore = PrimitiveArrayPool.getInstance().getPooledArrayNum(TSDataType.DOUBLE);
+    doubleList.clear();
+    Assert.assertEquals(0, doubleList.size());
+    Assert.assertEquals(pooledBefore + 3,
+        PrimitiveArrayPool.getInstance().getPooledArrayNum(TSDataType.DOUBLE));
+
+    // the list is still usable and takes its arrays from the pool
+    for (int i = 0; i < count; i++) {
+      doubleList.putDouble(count - i, i);
+    }
+    Assert.assertEquals(pooledBefore,
+        PrimitiveArrayPool.getInstance().getPooledArrayNum(TSDataType.DOUBLE));
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(count - i, doubleList.getTime(i));
+      Assert.assertEquals(i, doubleList.getDouble(i), 0);
+    }
+  }
+
+  @Test
+  public void testSortAndRemoveDuplicates() {
+    Random random = new Random(1);
+    TVList longList = TVList.newList(TSDataType.INT64);
+    Map<Long, Long> expected = new TreeMap<>();
+    for (int i = 0; i < 10000; i++) {
+      long time = random.nextInt(5000);
+      longList.putLong(time, i);
+      expected.put(time, (long) i);
+    }
+    Assert.assertFalse(longList.isSorted());
+    longList.sort();
+    Assert.assertTrue(longList.isSorted());
+    Assert.assertEquals(expected.size(), longList.size());
+    int index = 0;
+    for (Entry<Long, Long> entry : expected.entrySet()) {
+      Assert.assertEquals((long) entry.getKey(), longList.getTime(index));
+      Assert.assertEquals((long) entry.getValue(), longList.getLong(index));
+      index++;
+    }
+  }
+
+  @Test
+  public void testOrderedWithDuplicates() {
+    TVList floatList = TVList.newList(TSDataType.FLOAT);
+    for (int i = 0; i < 1000; i++) {
+      floatList.putFloat(i / 2, i);
+    }
+    floatList.sort();
+    Assert.assertEquals(500, floatList.size());
+    for (int i = 0; i < 500; i++) {
+      Assert.assertEquals(i, floatList.getTime(i));
+      Assert.assertEquals(i * 2 + 1, floatList.getFloat(i), 0);
+    }
+    // writing in time order after sorting keeps the list sorted
+    floatList.putFloat(500, 0);
+    Assert.assertTrue(floatList.isSorted());
+  }
+
+  @Test
+  public void testClone() {
+    TVList booleanList = TVList.newList(TSDataType.BOOLEAN);
+    for (int i = 0; i < 300; i++) {
+      booleanList.putBoolean(i, i % 3 == 0);
+    }
+    TVList cloneList = booleanList.clone();
+    booleanList.clear();
+    Assert.assertEquals(300, cloneList.size());
+    for (int i = 0; i < 300; i++) {
+      Assert.assertEquals(i, cloneList.getTime(i));
+      Assert.assertEquals(i % 3 == 0, cloneList.getBoolean(i));
+    }
+  }
+}
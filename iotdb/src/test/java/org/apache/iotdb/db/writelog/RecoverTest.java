@@ -37,6 +37,7 @@ import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.SegmentedLogWriter;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.recover.ExclusiveLogRecoverPerformer;
 import org.apache.iotdb.db.writelog.recover.RecoverPerformer;
@@ -129,6 +130,69 @@ public class RecoverTest {
     }
   }
 
+  @Test
+  public void testRecoverFromSegments() throws IOException, RecoverException {
+    // this test writes logs to segments, checkpoints after a flush and recovers from the logs
+    // written after the flush.
+    int walSegmentSize = config.getWalSegmentSize();
+    config.setWalSegmentSize(256);
+    File tempRestore = new File("testtemp", "restore");
+    File tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+
+    try {
+      MManager.getInstance().setStorageLevelToMTree("root.testLogNode");
+    } catch (PathErrorException ignored) {
+    }
+    ExclusiveWriteLogNode logNode = new ExclusiveWriteLogNode("root.testLogNode",
+        tempRestore.getPath(),
+        tempProcessorStore.getPath());
+
+    try {
+      List<PhysicalPlan> plansToCheck = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        logNode.write(new InsertPlan(1, "logTestDevice", i, new String[]{"s1"},
+            new String[]{String.valueOf(i)}));
+      }
+      logNode.notifyStartFlush();
+      for (int i = 20; i < 40; i++) {
+        InsertPlan insertPlan = new InsertPlan(1, "logTestDevice", i, new String[]{"s1"},
+            new String[]{String.valueOf(i)});
+        logNode.write(insertPlan);
+        plansToCheck.add(insertPlan);
+      }
+      logNode.forceSync();
+      logNode.notifyEndFlush(null);
+
+      ExclusiveLogRecoverPerformer performer = new ExclusiveLogRecoverPerformer(
+          tempRestore.getPath(),
+          tempProcessorStore.getPath(), logNode);
+      DummyLogReplayer dummyLogReplayer = new DummyLogReplayer();
+      dummyLogReplayer.plansToCheck = plansToCheck;
+      performer.setReplayer(dummyLogReplayer);
+      DummyFileNodeRecoverPerformer fileNodeRecoverPerformer = new DummyFileNodeRecoverPerformer();
+      performer.setFileNodeRecoverPerformer(fileNodeRecoverPerformer);
+      logNode.setRecoverPerformer(performer);
+
+      logNode.recover();
+      assertTrue(fileNodeRecoverPerformer.called);
+      // only the logs after the checkpoint are replayed
+      assertEquals(plansToCheck.size(), dummyLogReplayer.currPos);
+      // segments are kept for reuse, but none of them holds logs to recover
+      File logDir = new File(logNode.getLogDirectory());
+      assertTrue(SegmentedLogWriter.listLiveSegmentFiles(logDir).isEmpty());
+      assertTrue(!SegmentedLogWriter.listSegmentFiles(logDir).isEmpty());
+    } finally {
+      logNode.delete();
+      tempRestore.delete();
+      tempProcessorStore.delete();
+      tempRestore.getParentFile().delete();
+      config.setWalSegmentSize(walSegmentSize);
+    }
+  }
+
   @Test
   public void testRecoverFromRecoverFiles() throws IOException, RecoverException {
     // this test write a log file and try to recover from these logs as if a previous attempt is interrupted when
@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupCommitLogWriterTest {
+
+  private static String filePath = "grouplogtest.test";
+  private ExecutorService flusher;
+
+  @Before
+  public void setUp() {
+    new File(filePath).delete();
+    flusher = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    flusher.shutdownNow();
+    new File(filePath).delete();
+  }
+
+  @Test
+  public void testConcurrentWrite() throws Exception {
+    int threadNum = 8;
+    int logPerThread = 200;
+    // a small buffer so that writers have to wait for buffer switches
+    GroupCommitLogWriter writer = new GroupCommitLogWriter(new LogWriter(filePath), 256, flusher);
+    ExecutorService writers = Executors.newFixedThreadPool(threadNum);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      String device = "root.d" + i;
+      futures.add(writers.submit(() -> {
+        for (int j = 0; j < logPerThread; j++) {
+          InsertPlan plan = new InsertPlan(device, j, new String[]{"s1"},
+              new String[]{String.valueOf(j)});
+          writer.write(Collections.singletonList(PhysicalPlanLogTransfer.operatorToLog(plan)));
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    writers.shutdown();
+    writer.close();
+
+    Set<String> logs = new HashSet<>();
+    RAFLogReader reader = new RAFLogReader(new File(filePath));
+    while (reader.hasNext()) {
+      InsertPlan plan = (InsertPlan) reader.next();
+      logs.add(plan.getDeviceId() + "," + plan.getTime());
+    }
+    reader.close();
+    assertEquals(threadNum * logPerThread, logs.size());
+  }
+
+  @Test
+  public void testOversizedLog() throws IOException {
+    String[] measurements = new String[100];
+    String[] values = new String[100];
+    for (int i = 0; i < 100; i++) {
+      measurements[i] = "s" + i;
+      values[i] = String.valueOf(i);
+    }
+    List<PhysicalPlan> plans = new ArrayList<>();
+    plans.add(new InsertPlan("root.d1", 1, new String[]{"s1"}, new String[]{"1"}));
+    plans.add(new InsertPlan("root.d1", 2, measurements, values));
+    plans.add(new InsertPlan("root.d1", 3, new String[]{"s1"}, new String[]{"3"}));
+    GroupCommitLogWriter writer = new GroupCommitLogWriter(new LogWriter(filePath), 64, flusher);
+    for (PhysicalPlan plan : plans) {
+      writer.write(Collections.singletonList(PhysicalPlanLogTransfer.operatorToLog(plan)));
+    }
+    writer.close();
+
+    RAFLogReader reader = new RAFLogReader(new File(filePath));
+    int cnt = 0;
+    while (reader.hasNext()) {
+      InsertPlan plan = (InsertPlan) reader.next();
+      assertEquals(((InsertPlan) plans.get(cnt)).getMeasurements().length,
+          plan.getMeasurements().length);
+      cnt++;
+    }
+    reader.close();
+    assertEquals(plans.size(), cnt);
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.apache.commons.io.FileUtils;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentedLogWriterTest {
+
+  private static String dirPath = "segmentlogtest";
+  private File logDir = new File(dirPath);
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.deleteDirectory(logDir);
+    logDir.mkdirs();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(logDir);
+  }
+
+  private byte[] log(long time) throws IOException {
+    return PhysicalPlanLogTransfer.operatorToLog(new InsertPlan("root.d1", time,
+        new String[]{"s1"}, new String[]{String.valueOf(time)}));
+  }
+
+  private List<Long> readLiveLogs() throws IOException {
+    List<Long> times = new ArrayList<>();
+    for (File segmentFile : SegmentedLogWriter.listLiveSegmentFiles(logDir)) {
+      SegmentLogReader reader = new SegmentLogReader(segmentFile);
+      while (reader.hasNext()) {
+        times.add(((InsertPlan) reader.next()).getTime());
+      }
+      reader.close();
+    }
+    return times;
+  }
+
+  @Test
+  public void testWriteAcrossSegments() throws IOException {
+    SegmentedLogWriter writer = new SegmentedLogWriter(dirPath, 256);
+    List<Long> expected = new ArrayList<>();
+    for (long i = 0; i < 100; i++) {
+      writer.write(Collections.singletonList(log(i)));
+      expected.add(i);
+    }
+    writer.close();
+    assertTrue(SegmentedLogWriter.listSegmentFiles(logDir).size() > 1);
+    assertEquals(expected, readLiveLogs());
+  }
+
+  @Test
+  public void testCheckpointAndReuse() throws IOException {
+    SegmentedLogWriter writer = new SegmentedLogWriter(dirPath, 256);
+    for (long i = 0; i < 50; i++) {
+      writer.write(Collections.singletonList(log(i)));
+    }
+    // start a new segment as a flush does, then checkpoint at it
+    writer.close();
+    long checkpoint = writer.getNextSegmentId();
+    int fileNum = SegmentedLogWriter.listSegmentFiles(logDir).size();
+    writer.write(Collections.singletonList(log(1000)));
+    writer.checkpoint(checkpoint);
+    writer.close();
+    assertEquals(Collections.singletonList(1000L), readLiveLogs());
+
+    // freed segments are reused, and their stale logs are not read
+    for (long i = 1001; i < 1010; i++) {
+      writer.write(Collections.singletonList(log(i)));
+    }
+    writer.close();
+    assertEquals(fileNum + 1, SegmentedLogWriter.listSegmentFiles(logDir).size());
+    List<Long> expected = new ArrayList<>();
+    for (long i = 1000; i < 1010; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, readLiveLogs());
+
+    // a new writer continues after the existing segments
+    SegmentedLogWriter newWriter = new SegmentedLogWriter(dirPath, 256);
+    newWriter.write(Collections.singletonList(log(2000)));
+    newWriter.close();
+    expected.add(2000L);
+    assertEquals(expected, readLiveLogs());
+  }
+
+  @Test
+  public void testOversizedLogAndFramedWrite() throws IOException {
+    String[] measurements = new String[100];
+    String[] values = new String[100];
+    for (int i = 0; i < 100; i++) {
+      measurements[i] = "s" + i;
+      values[i] = String.valueOf(i);
+    }
+    byte[] bigLog = PhysicalPlanLogTransfer.operatorToLog(
+        new InsertPlan("root.d1", 1, measurements, values));
+    SegmentedLogWriter writer = new SegmentedLogWriter(dirPath, 64);
+    writer.write(Collections.singletonList(bigLog));
+
+    // framed logs, as written by GroupCommitLogWriter
+    ByteBuffer framedLogs = ByteBuffer.allocate(1024);
+    for (long i = 2; i < 4; i++) {
+      byte[] bytes = log(i);
+      CRC32 crc32 = new CRC32();
+      crc32.update(bytes);
+      framedLogs.putInt(bytes.length);
+      framedLogs.putLong(crc32.getValue());
+      framedLogs.put(bytes);
+    }
+    framedLogs.flip();
+    writer.write(framedLogs);
+    writer.close();
+
+    assertEquals(3, readLiveLogs().size());
+  }
+}
@@ -20,9 +20,14 @@ package org.apache.iotdb.db.writelog.transfer;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.auth.AuthException;
 import org.apache.iotdb.db.exception.ArgsErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
@@ -30,6 +35,7 @@ import org.apache.iotdb.db.exception.qp.QueryProcessorException;
 import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.TypedInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
@@ -37,6 +43,15 @@ import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
 import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.junit.Test;
 
 public class PhysicalPlanLogTransferTest {
@@ -155,4 +170,64 @@ public class PhysicalPlanLogTransferTest {
     assertEquals(propertyPlanTest, propertyPlan);
 
   }
+
+  private TypedInsertPlan createTypedInsertPlan() {
+    TSRecord record = new TSRecord(100, "root.vehicle.device");
+    record.addTuple(new BooleanDataPoint("s0", true));
+    record.addTuple(new IntDataPoint("s1", 1));
+    record.addTuple(new LongDataPoint("s2", 2L));
+    record.addTuple(new FloatDataPoint("s3", 3.5f));
+    record.addTuple(new DoubleDataPoint("s4", 4.25));
+    record.addTuple(new StringDataPoint("s5", new Binary("text")));
+    return new TypedInsertPlan(2, record);
+  }
+
+  private void checkTypedInsertPlan(TypedInsertPlan expected, TypedInsertPlan actual) {
+    assertEquals(expected.getInsertType(), actual.getInsertType());
+    assertEquals(expected.getDeviceId(), actual.getDeviceId());
+    assertEquals(expected.getTime(), actual.getTime());
+    List<DataPoint> expectedPoints = expected.getRecord().dataPointList;
+    List<DataPoint> actualPoints = actual.getRecord().dataPointList;
+    assertEquals(expectedPoints.size(), actualPoints.size());
+    for (int i = 0; i < expectedPoints.size(); i++) {
+      assertEquals(expectedPoints.get(i).getMeasurementId(),
+          actualPoints.get(i).getMeasurementId());
+      assertEquals(expectedPoints.get(i).getType(), actualPoints.get(i).getType());
+      assertEquals(expectedPoints.get(i).getValue(), actualPoints.get(i).getValue());
+    }
+  }
+
+  @Test
+  public void typedInsertPlan() throws IOException {
+    TypedInsertPlan plan = createTypedInsertPlan();
+    byte[] bytes = PhysicalPlanLogTransfer.operatorToLog(plan);
+    assertEquals(SystemLogOperator.TYPED_INSERT, bytes[0]);
+    checkTypedInsertPlan(plan, (TypedInsertPlan) PhysicalPlanLogTransfer.logToOperator(bytes));
+  }
+
+  @Test
+  public void typedInsertPlanWithDictionary() throws IOException {
+    File logDir = new File("dictionarytest");
+    logDir.mkdirs();
+    try {
+      TypedInsertPlan plan = createTypedInsertPlan();
+      LogSchemaDictionary dictionary = new LogSchemaDictionary(logDir.getPath());
+      byte[] bytes = PhysicalPlanLogTransfer.operatorToLog(plan, dictionary);
+      assertTrue(bytes.length < PhysicalPlanLogTransfer.operatorToLog(plan).length);
+
+      // the names are decoded by the dictionary loaded from file
+      LogSchemaDictionary loaded = LogSchemaDictionary.load(logDir);
+      checkTypedInsertPlan(plan,
+          (TypedInsertPlan) PhysicalPlanLogTransfer.logToOperator(bytes, loaded));
+      assertEquals(plan.getDeviceId(), loaded.getName(dictionary.getId(plan.getDeviceId())));
+      try {
+        PhysicalPlanLogTransfer.logToOperator(bytes);
+        fail("decoding names without a dictionary should fail");
+      } catch (IOException e) {
+        // expected
+      }
+    } finally {
+      FileUtils.deleteDirectory(logDir);
+    }
+  }
 }
\ No newline at end of file
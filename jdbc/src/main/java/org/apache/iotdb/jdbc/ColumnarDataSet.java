@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Cursor over a TSQueryDataSet in columnar form. A value is only decoded when it is read, so the
+ * columns that are never read cost nothing but skipping.
+ */
+public class ColumnarDataSet {
+
+  private int rowCount;
+  private ByteBuffer time;
+  private Column[] columns;
+  // the current row, -1 before the first call of next()
+  private int row = -1;
+
+  public ColumnarDataSet(TSQueryDataSet tsQueryDataSet) {
+    this.rowCount = tsQueryDataSet.getRowCount();
+    this.time = tsQueryDataSet.bufferForTime();
+    List<String> typeList = tsQueryDataSet.getTypeList();
+    List<ByteBuffer> valueList = tsQueryDataSet.getValueList();
+    List<ByteBuffer> bitmapList = tsQueryDataSet.getBitmapList();
+    this.columns = new Column[typeList.size()];
+    for (int i = 0; i < columns.length; i++) {
+      String type = typeList.get(i);
+      columns[i] = new Column(type.isEmpty() ? null : TSDataType.valueOf(type),
+          valueList.get(i), bitmapList.get(i));
+    }
+  }
+
+  public boolean hasNext() {
+    return row + 1 < rowCount;
+  }
+
+  public void next() {
+    row++;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  public long getTimestamp() {
+    return time.getLong(time.position() + row * 8);
+  }
+
+  /**
+   * get the value of a column at the current row.
+   *
+   * @param columnIndex -index of the column, starting from 0
+   */
+  public Field getField(int columnIndex) {
+    return columns[columnIndex].getField(row);
+  }
+
+  private static class Column {
+
+    private TSDataType dataType;
+    private ByteBuffer values;
+    private ByteBuffer bitmap;
+    // values of the rows before cursorRow have been decoded or skipped
+    private int cursorRow = 0;
+    private Field lastField;
+
+    private Column(TSDataType dataType, ByteBuffer values, ByteBuffer bitmap) {
+      this.dataType = dataType;
+      this.values = values.slice();
+      this.bitmap = bitmap;
+    }
+
+    private boolean hasValue(int row) {
+      return (bitmap.get(bitmap.position() + row / 8) & (1 << (row % 8))) != 0;
+    }
+
+    private Field getField(int row) {
+      if (row < cursorRow) {
+        // the value of the current row is read again
+        return lastField;
+      }
+      for (; cursorRow < row; cursorRow++) {
+        if (hasValue(cursorRow)) {
+          skipValue();
+        }
+      }
+      cursorRow++;
+      if (hasValue(row)) {
+        lastField = readValue();
+      } else {
+        lastField = new Field(null);
+        lastField.setNull();
+      }
+      return lastField;
+    }
+
+    private void skipValue() {
+      switch (dataType) {
+        case BOOLEAN:
+          values.position(values.position() + 1);
+          break;
+        case INT32:
+        case FLOAT:
+          values.position(values.position() + 4);
+          break;
+        case INT64:
+        case DOUBLE:
+          values.position(values.position() + 8);
+          break;
+        case TEXT:
+          int length = values.getInt();
+          values.position(values.position() + length);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("data type %s is not supported when convert data at client",
+                  dataType));
+      }
+    }
+
+    private Field readValue() {
+      Field field = new Field(dataType);
+      switch (dataType) {
+        case BOOLEAN:
+          field.setBoolV(values.get() != 0);
+          break;
+        case INT32:
+          field.setIntV(values.getInt());
+          break;
+        case INT64:
+          field.setLongV(values.getLong());
+          break;
+        case FLOAT:
+          field.setFloatV(values.getFloat());
+          break;
+        case DOUBLE:
+          field.setDoubleV(values.getDouble());
+          break;
+        case TEXT:
+          byte[] bytes = new byte[values.getInt()];
+          values.get(bytes);
+          field.setBinaryV(new Binary(bytes));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("data type %s is not supported when convert data at client",
+                  dataType));
+      }
+      return field;
+    }
+  }
+}
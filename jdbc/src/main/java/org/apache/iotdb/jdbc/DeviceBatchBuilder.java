@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+/**
+ * Packs the rows of one device which have the same measurements and data types into a
+ * TSDeviceBatch. The values are checked and packed when a row is added, so the server does not
+ * parse them again.
+ */
+class DeviceBatchBuilder {
+
+  private String deviceId;
+  private List<String> measurements;
+  private List<TSDataType> dataTypes;
+  private int rowCount;
+  private PublicBAOS timestamps = new PublicBAOS();
+  private DataOutputStream timestampOutputStream = new DataOutputStream(timestamps);
+  private PublicBAOS[] values;
+  private DataOutputStream[] valueOutputStreams;
+
+  DeviceBatchBuilder(String deviceId, List<String> measurements, List<TSDataType> dataTypes) {
+    this.deviceId = deviceId;
+    this.measurements = new ArrayList<>(measurements);
+    this.dataTypes = new ArrayList<>(dataTypes);
+    values = new PublicBAOS[measurements.size()];
+    valueOutputStreams = new DataOutputStream[measurements.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new PublicBAOS();
+      valueOutputStreams[i] = new DataOutputStream(values[i]);
+    }
+  }
+
+  /**
+   * @param values the values of the measurements, a Boolean, Integer, Long, Float or Double for
+   * the numeric data types and a String or Binary for TEXT
+   * @return the index of the row in the batch
+   * @throws SQLException if a value does not match the data type of its measurement
+   */
+  int addRow(long timestamp, List<Object> values) throws SQLException {
+    for (int i = 0; i < values.size(); i++) {
+      if (!matches(dataTypes.get(i), values.get(i))) {
+        throw new SQLException(String.format("The value %s of %s.%s is not of type %s",
+            values.get(i), deviceId, measurements.get(i), dataTypes.get(i)));
+      }
+    }
+    try {
+      timestampOutputStream.writeLong(timestamp);
+      for (int i = 0; i < values.size(); i++) {
+        writeValue(valueOutputStreams[i], dataTypes.get(i), values.get(i));
+      }
+    } catch (IOException e) {
+      // writing into memory does not fail
+      throw new SQLException(e);
+    }
+    return rowCount++;
+  }
+
+  private static boolean matches(TSDataType dataType, Object value) {
+    switch (dataType) {
+      case BOOLEAN:
+        return value instanceof Boolean;
+      case INT32:
+        return value instanceof Integer;
+      case INT64:
+        return value instanceof Long;
+      case FLOAT:
+        return value instanceof Float;
+      case DOUBLE:
+        return value instanceof Double;
+      case TEXT:
+        return value instanceof String || value instanceof Binary;
+      default:
+        return false;
+    }
+  }
+
+  private static void writeValue(DataOutputStream outputStream, TSDataType dataType,
+      Object value) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        outputStream.writeBoolean((Boolean) value);
+        break;
+      case INT32:
+        outputStream.writeInt((Integer) value);
+        break;
+      case INT64:
+        outputStream.writeLong((Long) value);
+        break;
+      case FLOAT:
+        outputStream.writeFloat((Float) value);
+        break;
+      case DOUBLE:
+        outputStream.writeDouble((Double) value);
+        break;
+      default:
+        byte[] bytes = value instanceof Binary ? ((Binary) value).getValues()
+            : ((String) value).getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+        break;
+    }
+  }
+
+  int getRowCount() {
+    return rowCount;
+  }
+
+  TSDeviceBatch build() {
+    List<String> typeList = new ArrayList<>(dataTypes.size());
+    List<ByteBuffer> valueList = new ArrayList<>(values.length);
+    for (int i = 0; i < values.length; i++) {
+      typeList.add(dataTypes.get(i).name());
+      valueList.add(ByteBuffer.wrap(values[i].getBuf(), 0, values[i].size()));
+    }
+    return new TSDeviceBatch(deviceId, measurements, rowCount,
+        ByteBuffer.wrap(timestamps.getBuf(), 0, timestamps.size()), typeList, valueList);
+  }
+}
@@ -42,38 +42,184 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedStatement {
 
   private final String sql;
   private static final String METHOD_NOT_SUPPORTED_STRING = "Method not supported";
+  private static final Pattern INSERT_PATTERN = Pattern.compile(
+      "^\\s*insert\\s+into\\s+([^\\s(]+)\\s*\\(([^)]*)\\)\\s*values\\s*\\(([^)]*)\\)\\s*$",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern INTEGER_PATTERN = Pattern.compile("^[-+]?\\d+$");
+  private static final Pattern DECIMAL_PATTERN = Pattern.compile(
+      "^[-+]?(\\d+\\.\\d*|\\.\\d+|\\d+)([eE][-+]?\\d+)?$");
 
   /**
    * save the SQL parameters as (paramLoc,paramValue) pairs.
    */
   private final Map<Integer, String> parameters = new HashMap<>();
+  /**
+   * The typed values of the parameters set by setBoolean, setInt, setLong, setFloat, setDouble
+   * and setString, which are sent by the insertBatch RPC without being formatted.
+   */
+  private final Map<Integer, Object> parameterValues = new HashMap<>();
+
+  /**
+   * If the SQL is an insertion of one row, like "insert into root.sg.d1(timestamp, s1) values(?,
+   * ?)", the batched rows are sent by the insertBatch RPC. These are the device, the measurements
+   * and the values (the first one is the time) of the template, otherwise insertDevice is null.
+   */
+  private String insertDevice;
+  private List<String> insertMeasurements;
+  private List<String> insertValues;
+  /**
+   * The values of the literals of the template, null for the parameters.
+   */
+  private List<Object> insertLiterals;
 
   public IoTDBPrepareStatement(IoTDBConnection connection, Iface client,
       TS_SessionHandle sessionHandle, String sql,
       ZoneId zoneId) {
     super(connection, client, sessionHandle, zoneId);
     this.sql = sql;
+    parseInsertTemplate();
+  }
+
+  private void parseInsertTemplate() {
+    Matcher matcher = INSERT_PATTERN.matcher(sql);
+    if (!matcher.matches()) {
+      return;
+    }
+    List<String> columns = splitAndTrim(matcher.group(2));
+    List<String> values = splitAndTrim(matcher.group(3));
+    // quoted values may contain commas, such templates are sent as SQL
+    if (columns.size() < 2 || columns.size() != values.size()
+        || !"timestamp".equalsIgnoreCase(columns.get(0))) {
+      return;
+    }
+    List<Object> literals = new ArrayList<>(values.size());
+    for (String value : values) {
+      if ("?".equals(value)) {
+        literals.add(null);
+        continue;
+      }
+      Object literal = parseLiteral(value);
+      if (literal == null) {
+        // e.g. a datetime, which is parsed by the server
+        return;
+      }
+      literals.add(literal);
+    }
+    insertDevice = matcher.group(1);
+    insertMeasurements = columns.subList(1, columns.size());
+    insertValues = values;
+    insertLiterals = literals;
+  }
+
+  /**
+   * @return the value of a literal of an insert statement, or null if it is not a plain string,
+   * boolean or number
+   */
+  private static Object parseLiteral(String literal) {
+    int length = literal.length();
+    if (length >= 2 && (literal.charAt(0) == '\'' || literal.charAt(0) == '"')
+        && literal.charAt(length - 1) == literal.charAt(0)) {
+      String content = literal.substring(1, length - 1);
+      if (content.indexOf(literal.charAt(0)) >= 0 || content.indexOf('\\') >= 0) {
+        return null;
+      }
+      return content;
+    }
+    if ("true".equalsIgnoreCase(literal) || "false".equalsIgnoreCase(literal)) {
+      return Boolean.valueOf(literal);
+    }
+    try {
+      if (INTEGER_PATTERN.matcher(literal).matches()) {
+        return Long.parseLong(literal);
+      }
+      if (DECIMAL_PATTERN.matcher(literal).matches()) {
+        return Double.parseDouble(literal);
+      }
+    } catch (NumberFormatException e) {
+      // out of range, sent as SQL
+    }
+    return null;
+  }
+
+  private static TSDataType getDataType(Object value) {
+    if (value instanceof Boolean) {
+      return TSDataType.BOOLEAN;
+    } else if (value instanceof Integer) {
+      return TSDataType.INT32;
+    } else if (value instanceof Long) {
+      return TSDataType.INT64;
+    } else if (value instanceof Float) {
+      return TSDataType.FLOAT;
+    } else if (value instanceof Double) {
+      return TSDataType.DOUBLE;
+    } else {
+      return TSDataType.TEXT;
+    }
+  }
+
+  private static List<String> splitAndTrim(String str) {
+    List<String> parts = new ArrayList<>(Arrays.asList(str.split(",")));
+    parts.replaceAll(String::trim);
+    return parts;
   }
 
   @Override
   public void addBatch() throws SQLException {
-    throw new SQLException(METHOD_NOT_SUPPORTED_STRING);
+    if (insertDevice == null) {
+      super.addBatch(createCompleteSql(sql, parameters));
+      return;
+    }
+    List<Object> row = new ArrayList<>(insertValues.size());
+    int parameterIndex = 1;
+    for (Object literal : insertLiterals) {
+      if (literal != null) {
+        row.add(literal);
+        continue;
+      }
+      if (!parameters.containsKey(parameterIndex)) {
+        throw new SQLException("Parameter #" + parameterIndex + " is unset");
+      }
+      Object value = parameterValues.get(parameterIndex++);
+      if (value == null) {
+        // e.g. a timestamp parameter, which is parsed by the server
+        super.addBatch(createCompleteSql(sql, parameters));
+        return;
+      }
+      row.add(value);
+    }
+    Object time = row.get(0);
+    if (!(time instanceof Long || time instanceof Integer)) {
+      super.addBatch(createCompleteSql(sql, parameters));
+      return;
+    }
+    List<Object> values = row.subList(1, row.size());
+    List<TSDataType> dataTypes = new ArrayList<>(values.size());
+    for (Object value : values) {
+      dataTypes.add(getDataType(value));
+    }
+    addInsertBatch(insertDevice, ((Number) time).longValue(), insertMeasurements, dataTypes,
+        values);
   }
 
   @Override
   public void clearParameters() throws SQLException {
     this.parameters.clear();
+    this.parameterValues.clear();
   }
 
   @Override
@@ -160,6 +306,7 @@ public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedSta
   @Override
   public void setBoolean(int parameterIndex, boolean x) throws SQLException {
     this.parameters.put(parameterIndex, Boolean.toString(x));
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
@@ -217,21 +364,25 @@ public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedSta
   @Override
   public void setDouble(int parameterIndex, double x) throws SQLException {
     this.parameters.put(parameterIndex, Double.toString(x));
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
   public void setFloat(int parameterIndex, float x) throws SQLException {
     this.parameters.put(parameterIndex, Float.toString(x));
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
   public void setInt(int parameterIndex, int x) throws SQLException {
     this.parameters.put(parameterIndex, Integer.toString(x));
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
   public void setLong(int parameterIndex, long x) throws SQLException {
     this.parameters.put(parameterIndex, Long.toString(x));
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
@@ -334,6 +485,7 @@ public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedSta
   @Override
   public void setString(int parameterIndex, String x) throws SQLException {
     this.parameters.put(parameterIndex, "'" + x.replace("'", "\\'") + "'");
+    this.parameterValues.put(parameterIndex, x);
   }
 
   @Override
@@ -352,6 +504,7 @@ public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedSta
         super.zoneId);
     this.parameters.put(parameterIndex, zonedDateTime
         .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    this.parameterValues.remove(parameterIndex);
   }
 
   @Override
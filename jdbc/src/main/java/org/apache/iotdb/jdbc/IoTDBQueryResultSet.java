@@ -77,6 +77,8 @@ public class IoTDBQueryResultSet implements ResultSet {
   private Map<String, Integer> columnInfoMap;
   private RowRecord record;
   private Iterator<RowRecord> recordItr;
+  // the fetched rows when the server sends them in columnar form
+  private ColumnarDataSet columnarDataSet;
   private int rowsFetched = 0;
   private int maxRows; // defined in TsfileStatement
   private int fetchSize;
@@ -701,8 +703,9 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   // the next record rule without constraints
   private boolean nextWithoutConstraints() throws SQLException {
-    if ((recordItr == null || !recordItr.hasNext()) && !emptyResultSet) {
+    if (!hasFetchedRow() && !emptyResultSet) {
       TSFetchResultsReq req = new TSFetchResultsReq(sql, fetchSize, queryId);
+      req.setColumnar(true);
 
       try {
         TSFetchResultsResp resp = client.fetchResults(req);
@@ -711,8 +714,15 @@ public class IoTDBQueryResultSet implements ResultSet {
           emptyResultSet = true;
         } else {
           TSQueryDataSet tsQueryDataSet = resp.getQueryDataSet();
-          List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
-          recordItr = records.iterator();
+          if (tsQueryDataSet.isSetRecords()) {
+            // the server does not support the columnar form
+            List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
+            recordItr = records.iterator();
+            columnarDataSet = null;
+          } else {
+            recordItr = null;
+            columnarDataSet = new ColumnarDataSet(tsQueryDataSet);
+          }
         }
       } catch (TException e) {
         throw new SQLException(
@@ -724,10 +734,21 @@ public class IoTDBQueryResultSet implements ResultSet {
       return false;
     }
 
-    record = recordItr.next();
+    if (columnarDataSet != null) {
+      columnarDataSet.next();
+    } else {
+      record = recordItr.next();
+    }
     return true;
   }
 
+  private boolean hasFetchedRow() {
+    if (columnarDataSet != null) {
+      return columnarDataSet.hasNext();
+    }
+    return recordItr != null && recordItr.hasNext();
+  }
+
   @Override
   // the next record rule considering both the maxRows constraint and the LIMIT&OFFSET constraint
   public boolean next() throws SQLException {
@@ -1214,7 +1235,7 @@ public class IoTDBQueryResultSet implements ResultSet {
   }
 
   private void checkRecord() throws SQLException {
-    if (record == null) {
+    if (record == null && columnarDataSet == null) {
       throw new SQLException("No record remains");
     }
   }
@@ -1233,16 +1254,24 @@ public class IoTDBQueryResultSet implements ResultSet {
   private String getValueByName(String columnName) throws SQLException {
     checkRecord();
     if (columnName.equals(TIMESTAMP_STR)) {
+      if (columnarDataSet != null) {
+        return String.valueOf(columnarDataSet.getTimestamp());
+      }
       return String.valueOf(record.getTimestamp());
     }
-    int tmp = columnInfoMap.get(columnName);
-    int i = 0;
-    for (Field field : record.getFields()) {
-      i++;
-      if (i == tmp - 1) {
-        return field.isNull() ? null : field.getStringValue();
+    int index = columnInfoMap.get(columnName) - 2;
+    Field field;
+    if (columnarDataSet != null) {
+      if (index >= columnarDataSet.getColumnCount()) {
+        return null;
+      }
+      field = columnarDataSet.getField(index);
+    } else {
+      if (index >= record.getFields().size()) {
+        return null;
       }
+      field = record.getFields().get(index);
     }
-    return null;
+    return field.isNull() ? null : field.getStringValue();
   }
 }
@@ -28,12 +28,16 @@ import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationResp;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
@@ -41,9 +45,11 @@ import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataReq;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSInsertBatchReq;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,7 +70,16 @@ public class IoTDBStatement implements Statement {
   private TSIService.Iface client = null;
   private TS_SessionHandle sessionHandle = null;
   private TSOperationHandle operationHandle = null;
-  private List<String> batchSQLList;
+  /**
+   * The statements added by addBatch and the rows added by addInsertBatch, in the order of
+   * addition.
+   */
+  private List<BatchEntry> batchEntries = new ArrayList<>();
+  /**
+   * The device batches of the rows added since the last statement, by the device, the
+   * measurements and the data types of the rows.
+   */
+  private Map<String, DeviceBatchBuilder> deviceBatches = new HashMap<>();
   private AtomicLong queryId = new AtomicLong(0);
   /**
    * Keep state so we can fail certain calls made after close().
@@ -98,7 +113,6 @@ public class IoTDBStatement implements Statement {
     this.client = client;
     this.sessionHandle = sessionHandle;
     this.fetchSize = fetchSize;
-    this.batchSQLList = new ArrayList<>();
     this.zoneId = zoneId;
   }
 
@@ -120,10 +134,42 @@ public class IoTDBStatement implements Statement {
 
   @Override
   public void addBatch(String sql) throws SQLException {
-    if (batchSQLList == null) {
-      batchSQLList = new ArrayList<>();
+    batchEntries.add(new BatchEntry(sql));
+    // the rows added after the statement are executed after it
+    deviceBatches = new HashMap<>();
+  }
+
+  /**
+   * Add a row of a device to the batch of this statement. Unlike the statements added by
+   * {@link #addBatch(String)}, the rows are sent through the insertBatch RPC column by column and
+   * grouped by device, so the server does not parse any SQL for them.
+   *
+   * <p>The statements and rows are executed in the order of addition, and the result of
+   * {@link #executeBatch()} has one value for each of them in that order.
+   *
+   * @param deviceId device of the row
+   * @param timestamp time of the row
+   * @param measurements measurements of the row
+   * @param dataTypes data types of the values, which are converted to the data types of the
+   * timeseries like the same literals in an insert statement
+   * @param values values of the measurements, a Boolean, Integer, Long, Float or Double for the
+   * numeric data types and a String or Binary for TEXT
+   */
+  public void addInsertBatch(String deviceId, long timestamp, List<String> measurements,
+      List<TSDataType> dataTypes, List<Object> values) throws SQLException {
+    if (measurements.size() != values.size() || dataTypes.size() != values.size()) {
+      throw new SQLException(String.format(
+          "The row of %s has %d measurements, %d data types but %d values", deviceId,
+          measurements.size(), dataTypes.size(), values.size()));
+    }
+    String key = deviceId + measurements + dataTypes;
+    DeviceBatchBuilder deviceBatch = deviceBatches.get(key);
+    if (deviceBatch == null) {
+      deviceBatch = new DeviceBatchBuilder(deviceId, measurements, dataTypes);
+      deviceBatches.put(key, deviceBatch);
     }
-    batchSQLList.add(sql);
+    int row = deviceBatch.addRow(timestamp, values);
+    batchEntries.add(new BatchEntry(deviceBatch, row));
   }
 
   @Override
@@ -146,10 +192,8 @@ public class IoTDBStatement implements Statement {
 
   @Override
   public void clearBatch() throws SQLException {
-    if (batchSQLList == null) {
-      batchSQLList = new ArrayList<>();
-    }
-    batchSQLList.clear();
+    batchEntries.clear();
+    deviceBatches = new HashMap<>();
   }
 
   @Override
@@ -266,13 +310,13 @@ public class IoTDBStatement implements Statement {
     checkConnection("executeBatch");
     isClosed = false;
     try {
-      return executeBatchSQL();
+      return executeBatchInternal();
     } catch (TException e) {
       boolean flag = connection.reconnect();
       reInit();
       if (flag) {
         try {
-          return executeBatchSQL();
+          return executeBatchInternal();
         } catch (TException e2) {
           throw new SQLException(
               "Fail to execute batch sqls after reconnecting. please check server status", e2);
@@ -284,10 +328,119 @@ public class IoTDBStatement implements Statement {
     }
   }
 
-  private int[] executeBatchSQL() throws TException, SQLException {
+  private int[] executeBatchInternal() throws TException, SQLException {
+    List<String> sqls = new ArrayList<>();
+    for (BatchEntry entry : batchEntries) {
+      if (entry.sql != null) {
+        sqls.add(entry.sql);
+      }
+    }
+    if (sqls.size() == batchEntries.size()) {
+      return executeBatchSQL(sqls);
+    }
+
+    // execute each run of consecutive statements or rows by one RPC, so that both the execution
+    // and the result follow the order of addition
+    int[] result = new int[batchEntries.size()];
+    boolean isAllSuccessful = true;
+    String errorMessage = null;
+    int start = 0;
+    while (start < batchEntries.size()) {
+      boolean isSQL = batchEntries.get(start).sql != null;
+      int end = start + 1;
+      while (end < batchEntries.size() && (batchEntries.get(end).sql != null) == isSQL) {
+        end++;
+      }
+      List<BatchEntry> run = batchEntries.subList(start, end);
+      TSExecuteBatchStatementResp execResp = isSQL ? executeBatchSQLRun(run)
+          : executeInsertBatch(run);
+      boolean success = execResp.getStatus().statusCode == TS_StatusCode.SUCCESS_STATUS;
+      if (!success && isAllSuccessful) {
+        isAllSuccessful = false;
+        errorMessage = execResp.getStatus().errorMessage;
+      }
+      int[] runResult = isSQL ? getSQLRunResult(execResp, run.size(), success)
+          : getInsertRunResult(execResp, run, success);
+      System.arraycopy(runResult, 0, result, start, runResult.length);
+      start = end;
+    }
+    if (!isAllSuccessful) {
+      throw new BatchUpdateException(errorMessage, result);
+    }
+    return result;
+  }
+
+  private TSExecuteBatchStatementResp executeBatchSQLRun(List<BatchEntry> run)
+      throws TException {
+    isCancelled = false;
+    List<String> sqls = new ArrayList<>(run.size());
+    for (BatchEntry entry : run) {
+      sqls.add(entry.sql);
+    }
+    return client.executeBatchStatement(new TSExecuteBatchStatementReq(sessionHandle, sqls));
+  }
+
+  private int[] getSQLRunResult(TSExecuteBatchStatementResp execResp, int size,
+      boolean success) {
+    int[] result = new int[size];
+    List<Integer> respResult = execResp.getResult();
+    for (int i = 0; i < size; i++) {
+      if (respResult != null && i < respResult.size()) {
+        result[i] = respResult.get(i);
+      } else {
+        result[i] = success ? Statement.SUCCESS_NO_INFO : Statement.EXECUTE_FAILED;
+      }
+    }
+    return result;
+  }
+
+  private TSExecuteBatchStatementResp executeInsertBatch(List<BatchEntry> run)
+      throws TException {
     isCancelled = false;
-    TSExecuteBatchStatementReq execReq = new TSExecuteBatchStatementReq(sessionHandle,
-        batchSQLList);
+    List<TSDeviceBatch> tsDeviceBatches = new ArrayList<>();
+    for (DeviceBatchBuilder deviceBatch : getDeviceBatches(run).keySet()) {
+      tsDeviceBatches.add(deviceBatch.build());
+    }
+    return client.insertBatch(new TSInsertBatchReq(sessionHandle, tsDeviceBatches));
+  }
+
+  /**
+   * @return the device batches of the rows of a run in the order of the request, each with the
+   * index of its first row in the result of the request
+   */
+  private Map<DeviceBatchBuilder, Integer> getDeviceBatches(List<BatchEntry> run) {
+    Map<DeviceBatchBuilder, Integer> batchOffsets = new LinkedHashMap<>();
+    int offset = 0;
+    for (BatchEntry entry : run) {
+      if (!batchOffsets.containsKey(entry.deviceBatch)) {
+        batchOffsets.put(entry.deviceBatch, offset);
+        offset += entry.deviceBatch.getRowCount();
+      }
+    }
+    return batchOffsets;
+  }
+
+  private int[] getInsertRunResult(TSExecuteBatchStatementResp execResp, List<BatchEntry> run,
+      boolean success) {
+    // the server returns one value for each row of each device batch
+    Map<DeviceBatchBuilder, Integer> batchOffsets = getDeviceBatches(run);
+    List<Integer> respResult = execResp.getResult();
+    int[] result = new int[run.size()];
+    for (int i = 0; i < result.length; i++) {
+      BatchEntry entry = run.get(i);
+      int index = batchOffsets.get(entry.deviceBatch) + entry.row;
+      if (respResult != null && index < respResult.size()) {
+        result[i] = respResult.get(index);
+      } else {
+        result[i] = success ? Statement.SUCCESS_NO_INFO : Statement.EXECUTE_FAILED;
+      }
+    }
+    return result;
+  }
+
+  private int[] executeBatchSQL(List<String> sqls) throws TException, SQLException {
+    isCancelled = false;
+    TSExecuteBatchStatementReq execReq = new TSExecuteBatchStatementReq(sessionHandle, sqls);
     TSExecuteBatchStatementResp execResp = client.executeBatchStatement(execReq);
     if (execResp.getStatus().statusCode == TS_StatusCode.SUCCESS_STATUS) {
       if (execResp.getResult() == null) {
@@ -587,4 +740,24 @@ public class IoTDBStatement implements Statement {
     }
   }
 
+  /**
+   * A statement or a row of the batch.
+   */
+  private static class BatchEntry {
+
+    // the statement, or null if the entry is a row
+    private String sql;
+    // the device batch of the row and the index of the row in it
+    private DeviceBatchBuilder deviceBatch;
+    private int row;
+
+    private BatchEntry(String sql) {
+      this.sql = sql;
+    }
+
+    private BatchEntry(DeviceBatchBuilder deviceBatch, int row) {
+      this.deviceBatch = deviceBatch;
+      this.row = row;
+    }
+  }
 }
@@ -18,27 +18,38 @@
  */
 package org.apache.iotdb.jdbc;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
 import java.sql.BatchUpdateException;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSInsertBatchReq;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.thrift.TException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -147,4 +158,113 @@ public class BatchTest {
     }
     fail();
   }
+
+  @Test
+  public void testInsertBatch() throws SQLException, TException {
+    IoTDBStatement statement = (IoTDBStatement) connection.createStatement();
+    resp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    resp.setResult(Arrays.asList(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO,
+        Statement.SUCCESS_NO_INFO));
+    when(client.insertBatch(any(TSInsertBatchReq.class))).thenReturn(resp);
+
+    List<String> measurements = Arrays.asList("status", "temperature");
+    List<TSDataType> dataTypes = Arrays.asList(TSDataType.BOOLEAN, TSDataType.TEXT);
+    statement.addInsertBatch("root.ln.wf01.wt01", 1, measurements, dataTypes,
+        Arrays.asList(true, "a"));
+    statement.addInsertBatch("root.ln.wf01.wt02", 1, measurements, dataTypes,
+        Arrays.asList(false, "b"));
+    statement.addInsertBatch("root.ln.wf01.wt01", 2, measurements, dataTypes,
+        Arrays.asList(false, new Binary("c")));
+    int[] result = statement.executeBatch();
+    assertEquals(3, result.length);
+
+    ArgumentCaptor<TSInsertBatchReq> argument = ArgumentCaptor.forClass(TSInsertBatchReq.class);
+    verify(client).insertBatch(argument.capture());
+    verify(client, never()).executeBatchStatement(any(TSExecuteBatchStatementReq.class));
+    List<TSDeviceBatch> deviceBatches = argument.getValue().getDeviceBatches();
+    assertEquals(2, deviceBatches.size());
+    TSDeviceBatch deviceBatch = deviceBatches.get(0);
+    assertEquals("root.ln.wf01.wt01", deviceBatch.getDeviceId());
+    assertEquals(measurements, deviceBatch.getMeasurements());
+    assertEquals(2, deviceBatch.getRowCount());
+    assertEquals(Arrays.asList("BOOLEAN", "TEXT"), deviceBatch.getTypeList());
+    ByteBuffer timestamps = deviceBatch.bufferForTimestamps();
+    assertEquals(1L, timestamps.getLong());
+    assertEquals(2L, timestamps.getLong());
+    ByteBuffer status = deviceBatch.getValueList().get(0);
+    assertEquals(1, status.get());
+    assertEquals(0, status.get());
+    ByteBuffer temperature = deviceBatch.getValueList().get(1);
+    assertEquals(1, temperature.getInt());
+    assertEquals('a', temperature.get());
+    assertEquals(1, temperature.getInt());
+    assertEquals('c', temperature.get());
+    statement.clearBatch();
+  }
+
+  @Test(expected = SQLException.class)
+  public void testInsertBatchWithWrongType() throws SQLException {
+    IoTDBStatement statement = (IoTDBStatement) connection.createStatement();
+    statement.addInsertBatch("root.ln.wf01.wt01", 1, Arrays.asList("status"),
+        Arrays.asList(TSDataType.INT64), Arrays.asList(1));
+  }
+
+  @Test
+  public void testInsertBatchFailure() throws SQLException, TException {
+    IoTDBStatement statement = (IoTDBStatement) connection.createStatement();
+    resp = new TSExecuteBatchStatementResp(Status_ERROR);
+    // the rows of wt01 come first, then the row of wt02
+    resp.setResult(Arrays.asList(Statement.EXECUTE_FAILED, Statement.SUCCESS_NO_INFO,
+        Statement.SUCCESS_NO_INFO));
+    when(client.insertBatch(any(TSInsertBatchReq.class))).thenReturn(resp);
+
+    List<TSDataType> dataTypes = Arrays.asList(TSDataType.BOOLEAN);
+    statement.addInsertBatch("root.ln.wf01.wt01", 1, Arrays.asList("status"), dataTypes,
+        Arrays.asList(true));
+    statement.addInsertBatch("root.ln.wf01.wt02", 1, Arrays.asList("status"), dataTypes,
+        Arrays.asList(true));
+    statement.addInsertBatch("root.ln.wf01.wt01", 2, Arrays.asList("status"), dataTypes,
+        Arrays.asList(false));
+    try {
+      statement.executeBatch();
+    } catch (BatchUpdateException e) {
+      int[] result = e.getUpdateCounts();
+      assertEquals(Statement.EXECUTE_FAILED, result[0]);
+      assertEquals(Statement.SUCCESS_NO_INFO, result[1]);
+      assertEquals(Statement.SUCCESS_NO_INFO, result[2]);
+      return;
+    }
+    fail();
+  }
+
+  @Test
+  public void testMixedBatchOrder() throws SQLException, TException {
+    IoTDBStatement statement = (IoTDBStatement) connection.createStatement();
+    TSExecuteBatchStatementResp insertResp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    insertResp.setResult(Arrays.asList(Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED));
+    TSExecuteBatchStatementResp sqlResp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    sqlResp.setResult(Arrays.asList(1));
+    when(client.insertBatch(any(TSInsertBatchReq.class))).thenReturn(insertResp);
+    when(client.executeBatchStatement(any(TSExecuteBatchStatementReq.class)))
+        .thenReturn(sqlResp);
+
+    List<String> measurements = Arrays.asList("status");
+    List<TSDataType> dataTypes = Arrays.asList(TSDataType.BOOLEAN);
+    statement.addInsertBatch("root.ln.wf01.wt01", 1, measurements, dataTypes,
+        Arrays.asList(true));
+    statement.addBatch("DELETE FROM root.ln.wf01.wt01.status WHERE time < 2");
+    statement.addInsertBatch("root.ln.wf01.wt01", 2, measurements, dataTypes,
+        Arrays.asList(true));
+    statement.addInsertBatch("root.ln.wf01.wt01", 3, measurements, dataTypes,
+        Arrays.asList(false));
+    int[] result = statement.executeBatch();
+
+    // the rows before and after the statement are not merged, so that they run in order
+    assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, 1, Statement.SUCCESS_NO_INFO,
+        Statement.EXECUTE_FAILED}, result);
+    ArgumentCaptor<TSInsertBatchReq> argument = ArgumentCaptor.forClass(TSInsertBatchReq.class);
+    verify(client, times(2)).insertBatch(argument.capture());
+    assertEquals(1, argument.getAllValues().get(0).getDeviceBatches().get(0).getRowCount());
+    assertEquals(2, argument.getAllValues().get(1).getDeviceBatches().get(0).getRowCount());
+  }
 }
@@ -20,16 +20,24 @@ package org.apache.iotdb.jdbc;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.iotdb.service.rpc.thrift.TSDeviceBatch;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSGetOperationStatusResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
+import org.apache.iotdb.service.rpc.thrift.TSInsertBatchReq;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
@@ -312,4 +320,93 @@ public class IoTDBPrepareStatementTest {
         "INSERT INTO root.ln.wf01.wt01(timestamp,a,b,c,d,e,f) VALUES(2017-11-01T00:13:00,false,123,123234345,123.423,-1323.0,'abc')",
         argument.getValue().getStatement());
   }
+
+  @Test
+  public void testInsertBatch() throws Exception {
+    TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    resp.setResult(Collections.singletonList(java.sql.Statement.SUCCESS_NO_INFO));
+    when(client.insertBatch(any(TSInsertBatchReq.class))).thenReturn(resp);
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp, status, temperature) values(?, ?, ?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    for (int i = 1; i <= 3; i++) {
+      ps.setLong(1, i);
+      ps.setBoolean(2, i % 2 == 0);
+      ps.setFloat(3, i);
+      ps.addBatch();
+    }
+    assertEquals(3, ps.executeBatch().length);
+
+    ArgumentCaptor<TSInsertBatchReq> argument = ArgumentCaptor.forClass(TSInsertBatchReq.class);
+    verify(client).insertBatch(argument.capture());
+    TSDeviceBatch deviceBatch = argument.getValue().getDeviceBatches().get(0);
+    assertEquals("root.ln.wf01.wt01", deviceBatch.getDeviceId());
+    assertEquals(Arrays.asList("status", "temperature"), deviceBatch.getMeasurements());
+    assertEquals(3, deviceBatch.getRowCount());
+    assertEquals(Arrays.asList("BOOLEAN", "FLOAT"), deviceBatch.getTypeList());
+    ByteBuffer timestamps = deviceBatch.bufferForTimestamps();
+    ByteBuffer status = deviceBatch.getValueList().get(0);
+    ByteBuffer temperature = deviceBatch.getValueList().get(1);
+    for (int i = 1; i <= 3; i++) {
+      assertEquals(i, timestamps.getLong());
+      assertEquals(i % 2 == 0 ? 1 : 0, status.get());
+      assertEquals(i, temperature.getFloat(), 0);
+    }
+  }
+
+  @Test
+  public void testInsertBatchWithLiterals() throws Exception {
+    TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    when(client.insertBatch(any(TSInsertBatchReq.class))).thenReturn(resp);
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp, status, temperature, hardware) "
+        + "values(?, true, 1.5, ?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setInt(1, 1);
+    ps.setString(2, "v1");
+    ps.addBatch();
+    ps.executeBatch();
+
+    ArgumentCaptor<TSInsertBatchReq> argument = ArgumentCaptor.forClass(TSInsertBatchReq.class);
+    verify(client).insertBatch(argument.capture());
+    TSDeviceBatch deviceBatch = argument.getValue().getDeviceBatches().get(0);
+    assertEquals(Arrays.asList("BOOLEAN", "DOUBLE", "TEXT"), deviceBatch.getTypeList());
+    assertEquals(1L, deviceBatch.bufferForTimestamps().getLong());
+    assertEquals(1.5, deviceBatch.getValueList().get(1).getDouble(), 0);
+  }
+
+  @Test
+  public void testInsertBatchWithDatetime() throws Exception {
+    TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    when(client.executeBatchStatement(any(TSExecuteBatchStatementReq.class))).thenReturn(resp);
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp, status) values(?, ?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setTimestamp(1, new Timestamp(0));
+    ps.setBoolean(2, true);
+    ps.addBatch();
+    ps.executeBatch();
+
+    // the datetime is parsed by the server, so the row is sent as SQL
+    verify(client, never()).insertBatch(any(TSInsertBatchReq.class));
+    verify(client).executeBatchStatement(any(TSExecuteBatchStatementReq.class));
+  }
+
+  @Test
+  public void testBatchNonInsert() throws Exception {
+    TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    when(client.executeBatchStatement(any(TSExecuteBatchStatementReq.class))).thenReturn(resp);
+    String sql = "DELETE FROM root.ln.wf01.wt01.status WHERE time < ?";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setLong(1, 100);
+    ps.addBatch();
+    ps.executeBatch();
+
+    ArgumentCaptor<TSExecuteBatchStatementReq> argument = ArgumentCaptor
+        .forClass(TSExecuteBatchStatementReq.class);
+    verify(client).executeBatchStatement(argument.capture());
+    assertEquals(Collections.singletonList("DELETE FROM root.ln.wf01.wt01.status WHERE time < 100"),
+        argument.getValue().getStatements());
+  }
 }
@@ -147,6 +147,36 @@ struct TSExecuteBatchStatementReq{
   2: required list<string> statements
 }
 
+// A batch of rows of one device, stored column by column in the layout of TSQueryDataSet. Every
+// row has a value for each measurement.
+struct TSDeviceBatch {
+  1: required string deviceId
+  2: required list<string> measurements
+  3: required i32 rowCount
+  // big-endian i64 timestamps of the rows
+  4: required binary timestamps
+  // data type of the values of each measurement. A value is converted to the data type of the
+  // timeseries as the same literal in an insert statement would be, e.g. an INT32 value is
+  // accepted by an INT64 or a DOUBLE timeseries, but a DOUBLE value is not accepted by an INT32
+  // one.
+  5: required list<string> typeList
+  // big-endian values of each measurement. Booleans take one byte and texts are the UTF-8 bytes
+  // prefixed by their i32 length, not quoted.
+  6: required list<binary> valueList
+}
+
+// InsertBatch()
+//
+// Insert rows of several devices without parsing any SQL. The result in
+// TSExecuteBatchStatementResp has one value for each row, in the order of the device batches and
+// of the rows in each batch.
+struct TSInsertBatchReq {
+  // The session to execute the insertion against
+  1: required TS_SessionHandle sessionHandle
+
+  2: required list<TSDeviceBatch> deviceBatches
+}
+
 
 struct TSGetOperationStatusReq {
   // Session to run this request against
@@ -197,14 +227,27 @@ struct TSRowRecord{
   2: required list<TSDataValue> values
 }
 
+// A batch of fetched rows. It is sent row by row in records, or column by column in the other
+// fields when TSFetchResultsReq.columnar is set.
 struct TSQueryDataSet{
-	1: required list<TSRowRecord> records
+	1: optional list<TSRowRecord> records
+	2: optional i32 rowCount
+	// big-endian i64 timestamps of the rows
+	3: optional binary time
+	// data type of each column, empty if the column has no value in this batch
+	4: optional list<string> typeList
+	// big-endian values of each column, only for the rows that have a value. Booleans take one
+	// byte and texts are prefixed by their i32 length.
+	5: optional list<binary> valueList
+	// bit (row % 8) of byte (row / 8) is set if the column has a value at the row
+	6: optional list<binary> bitmapList
 }
 
 struct TSFetchResultsReq{
 	1: required string statement
 	2: required i32 fetch_size
 	3: required i64 queryId
+	4: optional bool columnar
 }
 
 struct TSFetchResultsResp{
@@ -261,6 +304,8 @@ service TSIService {
 
 	TSExecuteBatchStatementResp executeBatchStatement(1:TSExecuteBatchStatementReq req);
 
+	TSExecuteBatchStatementResp insertBatch(1:TSInsertBatchReq req);
+
 	TSExecuteStatementResp executeQueryStatement(1:TSExecuteStatementReq req);
 
 	TSExecuteStatementResp executeUpdateStatement(1:TSExecuteStatementReq req);
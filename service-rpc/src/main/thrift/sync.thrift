@@ -32,7 +32,14 @@ service SyncService{
 	bool checkIdentity(1:string uuid, 2:string address)
 	string syncSchema(1:string md5, 2:binary buff, 3:SyncDataStatus status)
 	string syncData(1:string md5, 2:list<string> filename, 3:binary buff, 4:SyncDataStatus status)
+	// pipelined transfer: a chunk is appended only if it starts at the received length of the file
+	// and its CRC32 checksum matches, otherwise it is dropped
+	oneway void syncDataChunk(1:list<string> filename, 2:long offset, 3:binary buff, 4:long checksum)
+	long getReceivedLength(1:list<string> filename)
+	bool finishSyncData(1:list<string> filename, 2:long length)
 	bool load()
 	void cleanUp()
 	bool init(1:string storageGroup)
+	// like init, but keeps the files received before the connection was lost
+	bool resume(1:string storageGroup)
 }
\ No newline at end of file
@@ -0,0 +1,360 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.cache;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe cache bounded by the total weight of its values and evicted by segmented LRU.
+ * <br/>
+ * New entries enter a probation segment and are only promoted to a protected segment, which takes
+ * at most 80% of the capacity, when they are read again. A scan that reads many entries once only
+ * evicts other probation entries and leaves the frequently read ones alone.
+ * <br/>
+ * Reads are lock free. Their effect on the recency order is skipped when another thread is
+ * reordering the segments. Concurrent misses on one key are loaded only once, the other threads
+ * wait for that load. A load which overlaps a removal returns its value without caching it, as the
+ * value may have been read before the removal.
+ */
+public abstract class SegmentedLRUCache<K, T> implements Cache<K, T> {
+
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private final long capacity;
+  private final long protectedCapacity;
+
+  private final ConcurrentHashMap<K, Node<K, T>> cache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<K, CompletableFuture<T>> loadingMap = new ConcurrentHashMap<>();
+
+  /**
+   * guards the two segments and their weights.
+   */
+  private final ReentrantLock segmentLock = new ReentrantLock();
+  private final Node<K, T> probation = new Node<>(null, null, 0);
+  private final Node<K, T> protectedSegment = new Node<>(null, null, 0);
+  private long probationWeight = 0;
+  private long protectedWeight = 0;
+  /**
+   * incremented under the segment lock by every removal.
+   */
+  private volatile long removalCount = 0;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * @param capacity the maximum total weight of the cached values
+   */
+  public SegmentedLRUCache(long capacity) {
+    this.capacity = capacity;
+    this.protectedCapacity = (long) (capacity * PROTECTED_RATIO);
+    probation.prev = probation.next = probation;
+    protectedSegment.prev = protectedSegment.next = protectedSegment;
+  }
+
+  @Override
+  public T get(K key) throws IOException {
+    Node<K, T> node = cache.get(key);
+    if (node != null) {
+      hitCount.incrementAndGet();
+      if (segmentLock.tryLock()) {
+        try {
+          promote(node);
+        } finally {
+          segmentLock.unlock();
+        }
+      }
+      return node.value;
+    }
+    missCount.incrementAndGet();
+    return load(key);
+  }
+
+  private T load(K key) throws IOException {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    CompletableFuture<T> loading = loadingMap.putIfAbsent(key, future);
+    if (loading != null) {
+      return waitForLoading(loading);
+    }
+    try {
+      long removalCountBeforeLoad = removalCount;
+      // the value may be loaded by another thread between the miss and now
+      Node<K, T> node = cache.get(key);
+      T value;
+      if (node != null) {
+        value = node.value;
+      } else {
+        long startTime = System.nanoTime();
+        value = loadObjectByKey(key);
+        totalLoadTime.addAndGet(System.nanoTime() - startTime);
+        loadCount.incrementAndGet();
+        if (value != null) {
+          put(key, value, removalCountBeforeLoad);
+        }
+      }
+      future.complete(value);
+      return value;
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      loadingMap.remove(key, future);
+    }
+  }
+
+  private T waitForLoading(CompletableFuture<T> loading) throws IOException {
+    try {
+      return loading.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the cache to load", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * function for putting a key-value pair. A value heavier than the whole capacity is not cached.
+   */
+  public void put(K key, T value) {
+    put(key, value, -1);
+  }
+
+  /**
+   * @param expectedRemovalCount the value is not cached if there have been removals since
+   * removalCount was expectedRemovalCount, or -1 to cache it anyway
+   */
+  private void put(K key, T value, long expectedRemovalCount) {
+    long weight = getWeight(key, value);
+    segmentLock.lock();
+    try {
+      if (expectedRemovalCount >= 0 && removalCount != expectedRemovalCount) {
+        return;
+      }
+      Node<K, T> old = cache.remove(key);
+      if (old != null) {
+        unlink(old);
+      }
+      if (weight > capacity) {
+        return;
+      }
+      Node<K, T> node = new Node<>(key, value, weight);
+      cache.put(key, node);
+      linkLast(probation, node);
+      probationWeight += weight;
+      evict();
+    } finally {
+      segmentLock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    segmentLock.lock();
+    try {
+      removalCount++;
+      // the gets after the removal start a new load instead of waiting for the current one
+      loadingMap.remove(key);
+      Node<K, T> node = cache.remove(key);
+      if (node != null) {
+        unlink(node);
+      }
+    } finally {
+      segmentLock.unlock();
+    }
+  }
+
+  /**
+   * remove all the entries whose keys match the filter.
+   */
+  public void removeIf(Predicate<K> filter) {
+    segmentLock.lock();
+    try {
+      removalCount++;
+      loadingMap.keySet().removeIf(filter);
+      for (Node<K, T> node : cache.values()) {
+        if (filter.test(node.key)) {
+          cache.remove(node.key);
+          unlink(node);
+        }
+      }
+    } finally {
+      segmentLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    segmentLock.lock();
+    try {
+      removalCount++;
+      loadingMap.clear();
+      cache.clear();
+      // the nodes may still be promoted by the readers which got them before the clear
+      while (probation.next != probation) {
+        unlink(probation.next);
+      }
+      while (protectedSegment.next != protectedSegment) {
+        unlink(protectedSegment.next);
+      }
+    } finally {
+      segmentLock.unlock();
+    }
+  }
+
+  private void promote(Node<K, T> node) {
+    if (node.prev == null || cache.get(node.key) != node) {
+      // removed or evicted after it was read
+      return;
+    }
+    if (node.isProtected) {
+      unlink(node);
+      linkLast(protectedSegment, node);
+      protectedWeight += node.weight;
+      return;
+    }
+    unlink(node);
+    node.isProtected = true;
+    linkLast(protectedSegment, node);
+    protectedWeight += node.weight;
+    // demote the least recently read protected entries to make room
+    while (protectedWeight > protectedCapacity) {
+      Node<K, T> demoted = protectedSegment.next;
+      unlink(demoted);
+      linkLast(probation, demoted);
+      probationWeight += demoted.weight;
+    }
+  }
+
+  private void evict() {
+    while (probationWeight + protectedWeight > capacity) {
+      Node<K, T> victim = probation.next != probation ? probation.next : protectedSegment.next;
+      unlink(victim);
+      cache.remove(victim.key, victim);
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  private void linkLast(Node<K, T> segment, Node<K, T> node) {
+    node.isProtected = segment == protectedSegment;
+    node.prev = segment.prev;
+    node.next = segment;
+    segment.prev.next = node;
+    segment.prev = node;
+  }
+
+  private void unlink(Node<K, T> node) {
+    if (node.prev == null) {
+      return;
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = null;
+    node.next = null;
+    if (node.isProtected) {
+      protectedWeight -= node.weight;
+    } else {
+      probationWeight -= node.weight;
+    }
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the total weight of the cached values
+   */
+  public long getWeight() {
+    segmentLock.lock();
+    try {
+      return probationWeight + protectedWeight;
+    } finally {
+      segmentLock.unlock();
+    }
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  /**
+   * @return the total time spent in loadObjectByKey, in nanoseconds
+   */
+  public long getTotalLoadTime() {
+    return totalLoadTime.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * load the value of a missed key, or return null if there is no value, which is not cached.
+   */
+  public abstract T loadObjectByKey(K key) throws IOException;
+
+  /**
+   * @return the weight of a value, in the unit of the capacity
+   */
+  public abstract long getWeight(K key, T value);
+
+  private static class Node<K, T> {
+
+    private final K key;
+    private final T value;
+    private final long weight;
+    private boolean isProtected;
+    private Node<K, T> prev;
+    private Node<K, T> next;
+
+    private Node(K key, T value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+}
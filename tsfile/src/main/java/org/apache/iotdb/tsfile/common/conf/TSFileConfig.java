@@ -127,10 +127,20 @@ public class TSFileConfig {
    */
   public static double dftSatisfyRate = 0.1;
   /**
-   * Data compression method, TsFile supports UNCOMPRESSED or SNAPPY. Default value is UNCOMPRESSED
-   * which means no compression
+   * Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, GZIP, LZ4 or ZSTD. Default value
+   * is UNCOMPRESSED which means no compression
    */
   public static String compressor = "UNCOMPRESSED";
+  /**
+   * Compression level of ZSTD, from 1 (fastest) to 22 (smallest). Default value is 3.
+   */
+  public static int zstdLevel = 3;
+  /**
+   * Path of a dictionary trained by zstd for the chunks compressed by ZSTD, empty means no
+   * dictionary. Each page records the dictionary it is compressed with, and can only be read with
+   * a dictionary of the same content.
+   */
+  public static String zstdDictionaryPath = "";
   /**
    * Line count threshold for checking page memory occupied size.
    */
@@ -28,6 +28,7 @@ import java.net.URL;
 import java.util.Properties;
 import java.util.Set;
 import org.apache.iotdb.tsfile.common.constant.SystemConstant;
+import org.apache.iotdb.tsfile.compress.ZstdDictionary;
 import org.apache.iotdb.tsfile.utils.Loader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -134,6 +135,11 @@ public class TSFileDescriptor {
       TSFileConfig.valueEncoder = properties
           .getProperty("value_encoder", TSFileConfig.valueEncoder);
       TSFileConfig.compressor = properties.getProperty("compressor", TSFileConfig.compressor);
+      TSFileConfig.zstdLevel = Integer
+          .parseInt(properties.getProperty("zstd_level", Integer.toString(TSFileConfig.zstdLevel)));
+      TSFileConfig.zstdDictionaryPath = properties
+          .getProperty("zstd_dictionary_path", TSFileConfig.zstdDictionaryPath).trim();
+      ZstdDictionary.reload();
     } catch (IOException e) {
       LOGGER.warn("Cannot load config file, use default configuration", e);
     } catch (Exception e) {
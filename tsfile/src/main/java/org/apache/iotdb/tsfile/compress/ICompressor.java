@@ -19,11 +19,17 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import com.github.luben.zstd.Zstd;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import net.jpountz.lz4.LZ4Factory;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.xerial.snappy.Snappy;
 
 /**
@@ -51,6 +57,12 @@ public interface ICompressor extends Serializable {
         return new NoCompressor();
       case SNAPPY:
         return new SnappyCompressor();
+      case GZIP:
+        return new GZIPCompressor();
+      case LZ4:
+        return new LZ4Compressor();
+      case ZSTD:
+        return new ZSTDCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -84,6 +96,8 @@ public interface ICompressor extends Serializable {
    */
   class NoCompressor implements ICompressor {
 
+    private static final long serialVersionUID = -6052493498736462154L;
+
     @Override
     public byte[] compress(byte[] data) {
       return data;
@@ -112,6 +126,8 @@ public interface ICompressor extends Serializable {
 
   class SnappyCompressor implements ICompressor {
 
+    private static final long serialVersionUID = 8519483212957317393L;
+
     @Override
     public byte[] compress(byte[] data) throws IOException {
       if (data == null) {
@@ -140,4 +156,234 @@ public interface ICompressor extends Serializable {
       return CompressionType.SNAPPY;
     }
   }
+
+  /**
+   * compress data into the gzip format with java.util.zip, which saves more space than SNAPPY and
+   * LZ4 at the cost of slower compression and decompression.
+   */
+  class GZIPCompressor implements ICompressor {
+
+    private static final long serialVersionUID = 3204581523645183722L;
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return compress(data, 0, data.length);
+    }
+
+    private byte[] compress(byte[] data, int offset, int length) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 32);
+      try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+        gzipOut.write(data, offset, length);
+      }
+      return out.toByteArray();
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed)
+        throws IOException {
+      byte[] result = compress(data, offset, length);
+      System.arraycopy(result, 0, compressed, 0, result.length);
+      return result.length;
+    }
+
+    /**
+     * data and compressed may be heap or direct buffers. java.util.zip only takes arrays, so both
+     * are copied through heap arrays. As with SNAPPY, the compressed data lies between the position
+     * and the limit of compressed afterwards.
+     */
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      byte[] input = new byte[data.remaining()];
+      data.get(input);
+      byte[] result = compress(input, 0, input.length);
+      int position = compressed.position();
+      compressed.put(result);
+      compressed.limit(compressed.position());
+      compressed.position(position);
+      return result.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      // the bound of deflate plus the gzip header and trailer
+      return uncompressedDataSize + (uncompressedDataSize >> 12) + (uncompressedDataSize >> 14)
+          + (uncompressedDataSize >> 25) + 13 + 18;
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.GZIP;
+    }
+  }
+
+  /**
+   * compress data into the LZ4 block format with lz4-java, preceded by the uncompressed length as
+   * an int. LZ4 compresses a bit less than SNAPPY but decompresses faster.
+   */
+  class LZ4Compressor implements ICompressor {
+
+    private static final long serialVersionUID = -2616378437129468447L;
+
+    private static final net.jpountz.lz4.LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance()
+        .fastCompressor();
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int length = compress(data, 0, data.length, compressed);
+      return Arrays.copyOf(compressed, length);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) {
+      BytesUtils.intToBytes(length, compressed, 0);
+      return Integer.BYTES + COMPRESSOR.compress(data, offset, length, compressed, Integer.BYTES,
+          compressed.length - Integer.BYTES);
+    }
+
+    /**
+     * data and compressed may be heap or direct buffers, which lz4-java reads and writes in place.
+     * As with SNAPPY, the compressed data lies between the position and the limit of compressed
+     * afterwards.
+     */
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) {
+      int length = data.remaining();
+      int position = compressed.position();
+      compressed.putInt(position, length);
+      int compressedLength = Integer.BYTES + COMPRESSOR.compress(data, data.position(), length,
+          compressed, position + Integer.BYTES, compressed.remaining() - Integer.BYTES);
+      data.position(data.limit());
+      compressed.limit(position + compressedLength);
+      return compressedLength;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return Integer.BYTES + COMPRESSOR.maxCompressedLength(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.LZ4;
+    }
+  }
+
+  /**
+   * compress data into a ZSTD frame, preceded by the uncompressed length and the id of the
+   * dictionary as ints. ZSTD saves about as much space as GZIP and decompresses several times
+   * faster. The level and the optional dictionary are set by zstd_level and zstd_dictionary_path.
+   */
+  class ZSTDCompressor implements ICompressor {
+
+    private static final long serialVersionUID = 6719734914327843561L;
+
+    /**
+     * the uncompressed length and the dictionary id before the frame.
+     */
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int length = compress(data, 0, data.length, compressed);
+      return Arrays.copyOf(compressed, length);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed)
+        throws IOException {
+      ZstdDictionary dictionary = ZstdDictionary.get();
+      BytesUtils.intToBytes(length, compressed, 0);
+      BytesUtils.intToBytes(dictionary.getId(), compressed, Integer.BYTES);
+      long result;
+      if (dictionary.getCompressDict() == null) {
+        result = Zstd.compressByteArray(compressed, HEADER_SIZE, compressed.length - HEADER_SIZE,
+            data, offset, length, dictionary.getLevel());
+      } else {
+        result = Zstd.compressFastDict(compressed, HEADER_SIZE, data, offset, length,
+            dictionary.getCompressDict());
+      }
+      if (Zstd.isError(result)) {
+        throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(result));
+      }
+      return HEADER_SIZE + (int) result;
+    }
+
+    /**
+     * data and compressed may be heap or direct buffers. If both are direct, zstd reads and writes
+     * them in place. Otherwise the arrays of heap buffers are used, and a direct buffer is copied
+     * through a heap array. As with SNAPPY, the compressed data lies between the position and the
+     * limit of compressed afterwards.
+     */
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (data.isDirect() && compressed.isDirect()) {
+        return compressDirect(data, compressed);
+      }
+      byte[] input;
+      int offset;
+      int length = data.remaining();
+      if (data.hasArray()) {
+        input = data.array();
+        offset = data.arrayOffset() + data.position();
+        data.position(data.limit());
+      } else {
+        input = new byte[length];
+        offset = 0;
+        data.get(input);
+      }
+      byte[] output = new byte[getMaxBytesForCompression(length)];
+      int compressedLength = compress(input, offset, length, output);
+      int position = compressed.position();
+      compressed.put(output, 0, compressedLength);
+      compressed.limit(compressed.position());
+      compressed.position(position);
+      return compressedLength;
+    }
+
+    private int compressDirect(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      ZstdDictionary dictionary = ZstdDictionary.get();
+      int length = data.remaining();
+      int position = compressed.position();
+      int frameOffset = position + HEADER_SIZE;
+      long result;
+      if (dictionary.getCompressDict() == null) {
+        result = Zstd.compressDirectByteBuffer(compressed, frameOffset,
+            compressed.limit() - frameOffset, data, data.position(), length,
+            dictionary.getLevel());
+      } else {
+        result = Zstd.compressDirectByteBufferFastDict(compressed, frameOffset,
+            compressed.limit() - frameOffset, data, data.position(), length,
+            dictionary.getCompressDict());
+      }
+      if (Zstd.isError(result)) {
+        throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(result));
+      }
+      compressed.putInt(position, length);
+      compressed.putInt(position + Integer.BYTES, dictionary.getId());
+      data.position(data.limit());
+      compressed.limit(frameOffset + (int) result);
+      return HEADER_SIZE + (int) result;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return HEADER_SIZE + (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
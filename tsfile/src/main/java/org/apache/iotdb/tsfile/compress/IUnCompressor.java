@@ -19,10 +19,19 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
@@ -47,6 +56,12 @@ public interface IUnCompressor {
         return new NoUnCompressor();
       case SNAPPY:
         return new SnappyUnCompressor();
+      case GZIP:
+        return new GZIPUnCompressor();
+      case LZ4:
+        return new LZ4UnCompressor();
+      case ZSTD:
+        return new ZSTDUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -188,4 +203,341 @@ public interface IUnCompressor {
       return CompressionType.SNAPPY;
     }
   }
+
+  class GZIPUnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GZIPUnCompressor.class);
+
+    /**
+     * the last 4 bytes of a gzip member hold the uncompressed size in little endian.
+     */
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      if (length < 4) {
+        throw new IOException("Malformed GZIP data of " + length + " bytes");
+      }
+      int end = offset + length;
+      return (array[end - 4] & 0xFF) | (array[end - 3] & 0xFF) << 8
+          | (array[end - 2] & 0xFF) << 16 | (array[end - 1] & 0xFF) << 24;
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.remaining() < 4) {
+        throw new IOException("Malformed GZIP data of " + buffer.remaining() + " bytes");
+      }
+      int end = buffer.limit();
+      return (buffer.get(end - 4) & 0xFF) | (buffer.get(end - 3) & 0xFF) << 8
+          | (buffer.get(end - 2) & 0xFF) << 16 | (buffer.get(end - 1) & 0xFF) << 24;
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null || bytes.length == 0) {
+        return new byte[0];
+      }
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression GZIPUnCompressor: errors occurs when uncompress input byte", e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(byteArray, offset, length);
+      try (GZIPInputStream in = new GZIPInputStream(
+          new ByteArrayInputStream(byteArray, offset, length))) {
+        int read = 0;
+        while (read < uncompressedLength) {
+          int n = in.read(output, outOffset + read, uncompressedLength - read);
+          if (n < 0) {
+            throw new IOException("GZIP data ends before " + uncompressedLength + " bytes");
+          }
+          read += n;
+        }
+      }
+      return uncompressedLength;
+    }
+
+    /**
+     * compressed and uncompressed may be heap or direct buffers. java.util.zip only takes arrays,
+     * so both are copied through heap arrays. As with SNAPPY, the uncompressed data lies between
+     * the position and the limit of uncompressed afterwards.
+     */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      byte[] input = new byte[compressed.remaining()];
+      compressed.get(input);
+      byte[] output = new byte[getUncompressedLength(input, 0, input.length)];
+      int length = uncompress(input, 0, input.length, output, 0);
+      uncompressed.put(output, 0, length);
+      uncompressed.limit(uncompressed.position());
+      uncompressed.position(uncompressed.position() - length);
+      return length;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.GZIP;
+    }
+  }
+
+  class LZ4UnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LZ4UnCompressor.class);
+
+    private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance()
+        .safeDecompressor();
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      if (length < Integer.BYTES) {
+        throw new IOException("Malformed LZ4 data of " + length + " bytes");
+      }
+      return BytesUtils.bytesToInt(array, offset);
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        throw new IOException("Malformed LZ4 data of " + buffer.remaining() + " bytes");
+      }
+      return buffer.getInt(buffer.position());
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null || bytes.length == 0) {
+        return new byte[0];
+      }
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression LZ4UnCompressor: errors occurs when uncompress input byte", e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(byteArray, offset, length);
+      if (uncompressedLength < 0 || output.length - outOffset < uncompressedLength) {
+        throw new IOException("Malformed LZ4 block: uncompressed length " + uncompressedLength);
+      }
+      int result;
+      try {
+        result = DECOMPRESSOR.decompress(byteArray, offset + Integer.BYTES,
+            length - Integer.BYTES, output, outOffset, uncompressedLength);
+      } catch (LZ4Exception e) {
+        throw new IOException("Malformed LZ4 block", e);
+      }
+      checkLength(result, uncompressedLength);
+      return uncompressedLength;
+    }
+
+    /**
+     * compressed and uncompressed may be heap or direct buffers, which lz4-java reads and writes
+     * in place. As with SNAPPY, the uncompressed data lies between the position and the limit of
+     * uncompressed afterwards.
+     */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int uncompressedLength = getUncompressedLength(compressed);
+      if (uncompressedLength < 0) {
+        throw new IOException("Malformed LZ4 block: uncompressed length " + uncompressedLength);
+      }
+      if (uncompressed.remaining() < uncompressedLength) {
+        throw new BufferOverflowException();
+      }
+      int position = uncompressed.position();
+      int result;
+      try {
+        result = DECOMPRESSOR.decompress(compressed, compressed.position() + Integer.BYTES,
+            compressed.remaining() - Integer.BYTES, uncompressed, position, uncompressedLength);
+      } catch (LZ4Exception e) {
+        throw new IOException("Malformed LZ4 block", e);
+      }
+      checkLength(result, uncompressedLength);
+      compressed.position(compressed.limit());
+      uncompressed.limit(position + uncompressedLength);
+      return uncompressedLength;
+    }
+
+    private static void checkLength(int result, int uncompressedLength) throws IOException {
+      if (result != uncompressedLength) {
+        throw new IOException(String.format("Malformed LZ4 block: %d bytes instead of %d",
+            result, uncompressedLength));
+      }
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.LZ4;
+    }
+  }
+
+  class ZSTDUnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZSTDUnCompressor.class);
+
+    private static final int HEADER_SIZE = ICompressor.ZSTDCompressor.HEADER_SIZE;
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      if (length < HEADER_SIZE) {
+        throw new IOException("Malformed ZSTD data of " + length + " bytes");
+      }
+      return BytesUtils.bytesToInt(array, offset);
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.remaining() < HEADER_SIZE) {
+        throw new IOException("Malformed ZSTD data of " + buffer.remaining() + " bytes");
+      }
+      return buffer.getInt(buffer.position());
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null || bytes.length == 0) {
+        return new byte[0];
+      }
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression ZSTDUnCompressor: errors occurs when uncompress input byte", e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(byteArray, offset, length);
+      if (uncompressedLength < 0 || output.length - outOffset < uncompressedLength) {
+        throw new IOException("Malformed ZSTD frame: uncompressed length " + uncompressedLength);
+      }
+      ZstdDictDecompress dictionary = ZstdDictionary
+          .getDecompressDict(BytesUtils.bytesToInt(byteArray, offset + Integer.BYTES));
+      int frameOffset = offset + HEADER_SIZE;
+      int frameLength = length - HEADER_SIZE;
+      long result;
+      if (dictionary == null) {
+        result = Zstd.decompressByteArray(output, outOffset, uncompressedLength, byteArray,
+            frameOffset, frameLength);
+      } else {
+        result = Zstd.decompressFastDict(output, outOffset, byteArray, frameOffset, frameLength,
+            dictionary);
+      }
+      checkResult(result, uncompressedLength);
+      return uncompressedLength;
+    }
+
+    /**
+     * compressed and uncompressed may be heap or direct buffers. If both are direct, zstd reads
+     * and writes them in place. Otherwise the arrays of heap buffers are used, and a direct buffer
+     * is copied through a heap array. As with SNAPPY, the uncompressed data lies between the
+     * position and the limit of uncompressed afterwards.
+     */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        return uncompressDirect(compressed, uncompressed);
+      }
+      byte[] input;
+      int offset;
+      int length = compressed.remaining();
+      if (compressed.hasArray()) {
+        input = compressed.array();
+        offset = compressed.arrayOffset() + compressed.position();
+        compressed.position(compressed.limit());
+      } else {
+        input = new byte[length];
+        offset = 0;
+        compressed.get(input);
+      }
+      int uncompressedLength = getUncompressedLength(input, offset, length);
+      if (uncompressed.hasArray()) {
+        if (uncompressed.remaining() < uncompressedLength) {
+          throw new BufferOverflowException();
+        }
+        uncompress(input, offset, length, uncompressed.array(),
+            uncompressed.arrayOffset() + uncompressed.position());
+      } else {
+        byte[] output = new byte[uncompressedLength];
+        uncompress(input, offset, length, output, 0);
+        uncompressed.mark();
+        uncompressed.put(output);
+        uncompressed.reset();
+      }
+      uncompressed.limit(uncompressed.position() + uncompressedLength);
+      return uncompressedLength;
+    }
+
+    private int uncompressDirect(ByteBuffer compressed, ByteBuffer uncompressed)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(compressed);
+      if (uncompressedLength < 0) {
+        throw new IOException("Malformed ZSTD frame: uncompressed length " + uncompressedLength);
+      }
+      if (uncompressed.remaining() < uncompressedLength) {
+        throw new BufferOverflowException();
+      }
+      int position = compressed.position();
+      ZstdDictDecompress dictionary = ZstdDictionary
+          .getDecompressDict(compressed.getInt(position + Integer.BYTES));
+      int outPosition = uncompressed.position();
+      long result;
+      if (dictionary == null) {
+        result = Zstd.decompressDirectByteBuffer(uncompressed, outPosition, uncompressedLength,
+            compressed, position + HEADER_SIZE, compressed.remaining() - HEADER_SIZE);
+      } else {
+        result = Zstd.decompressDirectByteBufferFastDict(uncompressed, outPosition,
+            uncompressedLength, compressed, position + HEADER_SIZE,
+            compressed.remaining() - HEADER_SIZE, dictionary);
+      }
+      checkResult(result, uncompressedLength);
+      compressed.position(compressed.limit());
+      uncompressed.limit(outPosition + uncompressedLength);
+      return uncompressedLength;
+    }
+
+    private static void checkResult(long result, int uncompressedLength) throws IOException {
+      if (Zstd.isError(result)) {
+        throw new IOException("ZSTD decompression failed: " + Zstd.getErrorName(result));
+      }
+      if (result != uncompressedLength) {
+        throw new IOException(String.format("Malformed ZSTD frame: %d bytes instead of %d",
+            result, uncompressedLength));
+      }
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
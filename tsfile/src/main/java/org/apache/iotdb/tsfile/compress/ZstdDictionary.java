@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.CRC32;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+
+/**
+ * The dictionary of ZSTD set by zstd_dictionary_path, with the level set by zstd_level. It is
+ * read on first use and then shared by all the compressors and uncompressors without locking, as
+ * the native dictionaries are expensive to build. It is only read again after {@link #reload()}.
+ *
+ * <p>Each ZSTD page records the id of the dictionary it is compressed with, so that it is never
+ * decoded with another dictionary, e.g. after the setting changes or on another node.
+ */
+public final class ZstdDictionary {
+
+  /**
+   * the id recorded in the pages compressed without a dictionary.
+   */
+  static final int NO_DICTIONARY = 0;
+
+  private static volatile ZstdDictionary current;
+
+  private final String path;
+  private final int id;
+  private final int level;
+  private final ZstdDictCompress compressDict;
+  private final ZstdDictDecompress decompressDict;
+
+  private ZstdDictionary(String path, int id, int level, ZstdDictCompress compressDict,
+      ZstdDictDecompress decompressDict) {
+    this.path = path;
+    this.id = id;
+    this.level = level;
+    this.compressDict = compressDict;
+    this.decompressDict = decompressDict;
+  }
+
+  /**
+   * @return the dictionary of the current configuration
+   */
+  static ZstdDictionary get() throws IOException {
+    ZstdDictionary dictionary = current;
+    if (dictionary == null) {
+      synchronized (ZstdDictionary.class) {
+        dictionary = current;
+        if (dictionary == null) {
+          dictionary = load();
+          current = dictionary;
+        }
+      }
+    }
+    return dictionary;
+  }
+
+  /**
+   * drop the loaded dictionary, so that the next page is compressed or uncompressed with the
+   * dictionary and level of the current configuration.
+   */
+  public static synchronized void reload() {
+    current = null;
+  }
+
+  /**
+   * @param pageId the dictionary id recorded in a page
+   * @return the dictionary to uncompress the page with, or null if it was compressed without one
+   * @throws IOException if the page was compressed with another dictionary than the configured one
+   */
+  static ZstdDictDecompress getDecompressDict(int pageId) throws IOException {
+    if (pageId == NO_DICTIONARY) {
+      return null;
+    }
+    ZstdDictionary dictionary = get();
+    if (dictionary.id != pageId) {
+      throw new IOException(String.format(
+          "The ZSTD page is compressed with the dictionary %08x, but zstd_dictionary_path %s",
+          pageId, dictionary.id == NO_DICTIONARY ? "is empty"
+              : String.format("\"%s\" is the dictionary %08x", dictionary.path, dictionary.id)));
+    }
+    return dictionary.decompressDict;
+  }
+
+  private static ZstdDictionary load() throws IOException {
+    String path = TSFileConfig.zstdDictionaryPath;
+    int level = TSFileConfig.zstdLevel;
+    if (path == null || path.isEmpty()) {
+      return new ZstdDictionary("", NO_DICTIONARY, level, null, null);
+    }
+    byte[] dictionary = Files.readAllBytes(Paths.get(path));
+    // the id identifies the content of the dictionary, so the same file under another path still
+    // reads the pages, and 0 is left for the pages without a dictionary
+    CRC32 crc32 = new CRC32();
+    crc32.update(dictionary);
+    int id = (int) crc32.getValue();
+    if (id == NO_DICTIONARY) {
+      id = 1;
+    }
+    return new ZstdDictionary(path, id, level, new ZstdDictCompress(dictionary, level),
+        new ZstdDictDecompress(dictionary));
+  }
+
+  int getId() {
+    return id;
+  }
+
+  int getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the dictionary to compress with, or null if there is no dictionary
+   */
+  ZstdDictCompress getCompressDict() {
+    return compressDict;
+  }
+}
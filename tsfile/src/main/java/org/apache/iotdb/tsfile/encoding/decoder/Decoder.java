@@ -130,6 +130,76 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supproted by Decoder");
   }
 
+  /**
+   * decode at most {@code length} boolean values into {@code values} starting at {@code offset}.
+   *
+   * @return the number of decoded values, which is less than length only if the buffer runs out
+   */
+  public int readBooleans(ByteBuffer buffer, boolean[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readBoolean(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most {@code length} int values into {@code values} starting at {@code offset}.
+   *
+   * @return the number of decoded values, which is less than length only if the buffer runs out
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readInt(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most {@code length} long values into {@code values} starting at {@code offset}.
+   *
+   * @return the number of decoded values, which is less than length only if the buffer runs out
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readLong(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most {@code length} float values into {@code values} starting at {@code offset}.
+   *
+   * @return the number of decoded values, which is less than length only if the buffer runs out
+   */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most {@code length} double values into {@code values} starting at {@code offset}.
+   *
+   * @return the number of decoded values, which is less than length only if the buffer runs out
+   */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
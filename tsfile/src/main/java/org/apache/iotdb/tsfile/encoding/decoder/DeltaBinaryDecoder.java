@@ -114,6 +114,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int length) {
+      int count = 0;
+      while (count < length) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + count++] = loadIntBatch(buffer);
+        } else {
+          // copy the decoded rest of the pack at once
+          int copyNum = Math.min(length - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, copyNum);
+          nextReadIndex += copyNum;
+          count += copyNum;
+        }
+      }
+      return count;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -231,6 +251,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int length) {
+      int count = 0;
+      while (count < length) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + count++] = loadIntBatch(buffer);
+        } else {
+          // copy the decoded rest of the pack at once
+          int copyNum = Math.min(length - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, copyNum);
+          nextReadIndex += copyNum;
+          count += copyNum;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -89,11 +89,8 @@ public class DoublePrecisionDecoder extends GorillaDecoder {
 
     if (!nextFlag2) {
       // case: '10'
-      long tmp = 0;
-      for (int i = 0; i < TSFileConfig.DOUBLE_LENGTH - leadingZeroNum - tailingZeroNum; i++) {
-        long bit = readBit(buffer) ? 1 : 0;
-        tmp |= (bit << (TSFileConfig.DOUBLE_LENGTH - 1 - leadingZeroNum - i));
-      }
+      int len = TSFileConfig.DOUBLE_LENGTH - leadingZeroNum - tailingZeroNum;
+      long tmp = len == 0 ? 0 : readLongFromStream(buffer, len) << tailingZeroNum;
       tmp ^= preValue;
       preValue = tmp;
     } else {
@@ -50,6 +50,12 @@ public class FloatDecoder extends Decoder {
    */
   private boolean isMaxPointNumberRead;
 
+  /**
+   * reusable buffers that the inner decoder decodes a batch into.
+   */
+  private int[] intBuffer;
+  private long[] longBuffer;
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -96,6 +102,34 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    readMaxPointValue(buffer);
+    if (intBuffer == null || intBuffer.length < length) {
+      intBuffer = new int[length];
+    }
+    int count = decoder.readInts(buffer, intBuffer, 0, length);
+    for (int i = 0; i < count; i++) {
+      values[offset + i] = (float) (intBuffer[i] / maxPointValue);
+    }
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    readMaxPointValue(buffer);
+    if (longBuffer == null || longBuffer.length < length) {
+      longBuffer = new long[length];
+    }
+    int count = decoder.readLongs(buffer, longBuffer, 0, length);
+    for (int i = 0; i < count; i++) {
+      values[offset + i] = longBuffer[i] / maxPointValue;
+    }
+    return count;
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
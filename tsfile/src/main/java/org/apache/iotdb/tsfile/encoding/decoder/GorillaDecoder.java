@@ -103,12 +103,7 @@ public abstract class GorillaDecoder extends Decoder {
    * @throws IOException cannot read from stream
    */
   protected int readIntFromStream(ByteBuffer buffer, int len) throws IOException {
-    int num = 0;
-    for (int i = 0; i < len; i++) {
-      int bit = readBit(buffer) ? 1 : 0;
-      num |= bit << (len - 1 - i);
-    }
-    return num;
+    return (int) readLongFromStream(buffer, len);
   }
 
   /**
@@ -121,9 +116,19 @@ public abstract class GorillaDecoder extends Decoder {
    */
   protected long readLongFromStream(ByteBuffer buffer, int len) throws IOException {
     long num = 0;
-    for (int i = 0; i < len; i++) {
-      long bit = (long) (readBit(buffer) ? 1 : 0);
-      num |= bit << (len - 1 - i);
+    int bitsLeft = len;
+    while (bitsLeft > 0) {
+      if (numberLeftInBuffer == 0 && !isEnd) {
+        fillBuffer(buffer);
+      }
+      if (isEmpty() || numberLeftInBuffer <= 0) {
+        throw new IOException("Reading from empty buffer");
+      }
+      // take all the wanted bits left in the current byte at once
+      int bitNum = Math.min(bitsLeft, numberLeftInBuffer);
+      numberLeftInBuffer -= bitNum;
+      num = (num << bitNum) | ((this.buffer >> numberLeftInBuffer) & ((1 << bitNum) - 1));
+      bitsLeft -= bitNum;
     }
     return num;
   }
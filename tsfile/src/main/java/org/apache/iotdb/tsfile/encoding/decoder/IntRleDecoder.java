@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.encoding.bitpacking.IntPacker;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
@@ -104,6 +105,40 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // take as many values as possible from the current rle run or bit-packed group
+      int readNum = Math.min(currentCount, length - count);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(values, offset + count, offset + count + readNum, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + count,
+              readNum);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding IntRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= readNum;
+      count += readNum;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
@@ -117,6 +118,75 @@ public class PlainDecoder extends Decoder {
     return new Binary(buf);
   }
 
+  @Override
+  public int readBooleans(ByteBuffer buffer, boolean[] values, int offset, int length) {
+    int count = Math.min(length, buffer.remaining());
+    for (int i = 0; i < count; i++) {
+      values[offset + i] = buffer.get() != 0;
+    }
+    return count;
+  }
+
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readInts(buffer, values, offset, length);
+    }
+    ByteOrder order = buffer.order();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    int count = Math.min(length, buffer.remaining() / Integer.BYTES);
+    buffer.asIntBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Integer.BYTES);
+    buffer.order(order);
+    return count;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readLongs(buffer, values, offset, length);
+    }
+    ByteOrder order = buffer.order();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    int count = Math.min(length, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Long.BYTES);
+    buffer.order(order);
+    return count;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readFloats(buffer, values, offset, length);
+    }
+    ByteOrder order = buffer.order();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    int count = Math.min(length, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Float.BYTES);
+    buffer.order(order);
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readDoubles(buffer, values, offset, length);
+    }
+    ByteOrder order = buffer.order();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    int count = Math.min(length, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Double.BYTES);
+    buffer.order(order);
+    return count;
+  }
+
   @Override
   public boolean hasNext(ByteBuffer buffer) throws IOException {
     return buffer.remaining() > 0;
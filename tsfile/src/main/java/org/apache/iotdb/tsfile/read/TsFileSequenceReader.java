@@ -45,6 +45,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.reader.DefaultTsFileInput;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -104,6 +105,18 @@ public class TsFileSequenceReader implements AutoCloseable{
     this(input, true);
   }
 
+  /**
+   * Create a file reader of the given file which reads it through the given input, e.g., a
+   * {@link MmapTsFileInput}.
+   *
+   * @param file the data file
+   * @param input the input of the file
+   */
+  public TsFileSequenceReader(String file, TsFileInput input) throws IOException {
+    this(input, true);
+    this.file = file;
+  }
+
   /**
    * construct function for TsFileSequenceReader.
    *
@@ -389,10 +402,14 @@ public class TsFileSequenceReader implements AutoCloseable{
       case UNCOMPRESSED:
         return buffer;
       default:
-        // FIXME if the buffer is not array-implemented.
-        unCompressor.uncompress(buffer.array(), buffer.position(), buffer.remaining(),
-            uncompressedBuffer.array(),
-            0);
+        if (!buffer.hasArray()) {
+          // e.g., a slice of a memory-mapped file
+          byte[] compressed = new byte[buffer.remaining()];
+          buffer.get(compressed);
+          buffer = ByteBuffer.wrap(compressed);
+        }
+        unCompressor.uncompress(buffer.array(), buffer.arrayOffset() + buffer.position(),
+            buffer.remaining(), uncompressedBuffer.array(), 0);
         return uncompressedBuffer;
     }
   }
@@ -437,6 +454,17 @@ public class TsFileSequenceReader implements AutoCloseable{
    * @return data that been read.
    */
   private ByteBuffer readData(long position, int size) throws IOException {
+    if (tsFileInput instanceof MmapTsFileInput) {
+      // slice the data out of the mapping rather than copying it
+      MmapTsFileInput mmapInput = (MmapTsFileInput) tsFileInput;
+      if (position == -1) {
+        long currentPosition = mmapInput.position();
+        ByteBuffer buffer = mmapInput.slice(currentPosition, size);
+        mmapInput.position(currentPosition + size);
+        return buffer;
+      }
+      return mmapInput.slice(position, size);
+    }
     ByteBuffer buffer = ByteBuffer.allocate(size);
     if (position == -1) {
       if (ReadWriteIOUtils.readAsPossible(tsFileInput, buffer) != size) {
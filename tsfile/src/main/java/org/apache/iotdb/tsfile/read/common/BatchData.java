@@ -505,6 +505,37 @@ public class BatchData {
     }
   }
 
+  /**
+   * put the current time and value of the given BatchData, which has the same data type.
+   *
+   * @param batchData the source of the point
+   */
+  public void putCurrentPoint(BatchData batchData) {
+    putTime(batchData.currentTime());
+    switch (dataType) {
+      case BOOLEAN:
+        putBoolean(batchData.getBoolean());
+        break;
+      case INT32:
+        putInt(batchData.getInt());
+        break;
+      case INT64:
+        putLong(batchData.getLong());
+        break;
+      case FLOAT:
+        putFloat(batchData.getFloat());
+        break;
+      case DOUBLE:
+        putDouble(batchData.getDouble());
+        break;
+      case TEXT:
+        putBinary(batchData.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   /**
    * set an object.
    *
@@ -30,7 +30,7 @@ import org.apache.iotdb.tsfile.read.common.Chunk;
 public class ChunkLoaderImpl implements ChunkLoader {
 
   private static final int DEFAULT_CHUNK_CACHE_SIZE = 100000;
-  private TsFileSequenceReader reader;
+  protected TsFileSequenceReader reader;
   private LRUCache<ChunkMetaData, Chunk> chunkCache;
 
   public ChunkLoaderImpl(TsFileSequenceReader fileSequenceReader) {
@@ -51,11 +51,18 @@ public class ChunkLoaderImpl implements ChunkLoader {
 
       @Override
       public Chunk loadObjectByKey(ChunkMetaData metaData) throws IOException {
-        return reader.readMemChunk(metaData);
+        return loadChunk(metaData);
       }
     };
   }
 
+  /**
+   * read a chunk that is not in the cache of this loader.
+   */
+  protected Chunk loadChunk(ChunkMetaData metaData) throws IOException {
+    return reader.readMemChunk(metaData);
+  }
+
   @Override
   public Chunk getChunk(ChunkMetaData chunkMetaData) throws IOException {
     Chunk chunk = chunkCache.get(chunkMetaData);
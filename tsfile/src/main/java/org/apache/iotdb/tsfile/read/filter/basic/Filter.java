@@ -44,6 +44,46 @@ public interface Filter {
    */
   boolean satisfy(long time, Object value);
 
+  /**
+   * The same as {@link #satisfy(long, Object)} for a boolean value, without boxing it if the filter
+   * supports that.
+   */
+  default boolean satisfyBoolean(long time, boolean value) {
+    return satisfy(time, (Object) value);
+  }
+
+  /**
+   * The same as {@link #satisfy(long, Object)} for an int value, without boxing it if the filter
+   * supports that.
+   */
+  default boolean satisfyInt(long time, int value) {
+    return satisfy(time, (Object) value);
+  }
+
+  /**
+   * The same as {@link #satisfy(long, Object)} for a long value, without boxing it if the filter
+   * supports that.
+   */
+  default boolean satisfyLong(long time, long value) {
+    return satisfy(time, (Object) value);
+  }
+
+  /**
+   * The same as {@link #satisfy(long, Object)} for a float value, without boxing it if the filter
+   * supports that.
+   */
+  default boolean satisfyFloat(long time, float value) {
+    return satisfy(time, (Object) value);
+  }
+
+  /**
+   * The same as {@link #satisfy(long, Object)} for a double value, without boxing it if the filter
+   * supports that.
+   */
+  default boolean satisfyDouble(long time, double value) {
+    return satisfy(time, (Object) value);
+  }
+
   /**
    * To examine whether the min time and max time are satisfied with the filter.
    *
@@ -39,6 +39,67 @@ public abstract class UnaryFilter<T extends Comparable<T>> implements Filter, Se
     this.filterType = filterType;
   }
 
+  /**
+   * whether a point satisfies the filter, given the result of comparing the time or value of the
+   * point with {@code value}.
+   */
+  protected abstract boolean satisfyCompareResult(int compareResult);
+
+  @Override
+  public boolean satisfyBoolean(long time, boolean value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyCompareResult(Long.compare(time, (Long) this.value));
+    }
+    if (this.value instanceof Boolean) {
+      return satisfyCompareResult(Boolean.compare(value, (Boolean) this.value));
+    }
+    return satisfy(time, (Object) value);
+  }
+
+  @Override
+  public boolean satisfyInt(long time, int value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyCompareResult(Long.compare(time, (Long) this.value));
+    }
+    if (this.value instanceof Integer) {
+      return satisfyCompareResult(Integer.compare(value, (Integer) this.value));
+    }
+    return satisfy(time, (Object) value);
+  }
+
+  @Override
+  public boolean satisfyLong(long time, long value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyCompareResult(Long.compare(time, (Long) this.value));
+    }
+    if (this.value instanceof Long) {
+      return satisfyCompareResult(Long.compare(value, (Long) this.value));
+    }
+    return satisfy(time, (Object) value);
+  }
+
+  @Override
+  public boolean satisfyFloat(long time, float value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyCompareResult(Long.compare(time, (Long) this.value));
+    }
+    if (this.value instanceof Float) {
+      return satisfyCompareResult(Float.compare(value, (Float) this.value));
+    }
+    return satisfy(time, (Object) value);
+  }
+
+  @Override
+  public boolean satisfyDouble(long time, double value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyCompareResult(Long.compare(time, (Long) this.value));
+    }
+    if (this.value instanceof Double) {
+      return satisfyCompareResult(Double.compare(value, (Double) this.value));
+    }
+    return satisfy(time, (Object) value);
+  }
+
   public T getValue() {
     return value;
   }
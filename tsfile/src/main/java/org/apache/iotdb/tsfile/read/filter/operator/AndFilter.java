@@ -43,6 +43,31 @@ public class AndFilter extends BinaryFilter {
     return left.satisfy(time, value) && right.satisfy(time, value);
   }
 
+  @Override
+  public boolean satisfyBoolean(long time, boolean value) {
+    return left.satisfyBoolean(time, value) && right.satisfyBoolean(time, value);
+  }
+
+  @Override
+  public boolean satisfyInt(long time, int value) {
+    return left.satisfyInt(time, value) && right.satisfyInt(time, value);
+  }
+
+  @Override
+  public boolean satisfyLong(long time, long value) {
+    return left.satisfyLong(time, value) && right.satisfyLong(time, value);
+  }
+
+  @Override
+  public boolean satisfyFloat(long time, float value) {
+    return left.satisfyFloat(time, value) && right.satisfyFloat(time, value);
+  }
+
+  @Override
+  public boolean satisfyDouble(long time, double value) {
+    return left.satisfyDouble(time, value) && right.satisfyDouble(time, value);
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return left.satisfyStartEndTime(startTime, endTime) && right
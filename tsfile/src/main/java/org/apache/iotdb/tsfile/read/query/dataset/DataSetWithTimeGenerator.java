@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.List;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
@@ -35,10 +36,21 @@ import org.apache.iotdb.tsfile.utils.Binary;
  */
 public class DataSetWithTimeGenerator extends QueryDataSet {
 
+  /**
+   * the number of timestamps whose values are fetched together.
+   */
+  private static final int TIMESTAMP_BLOCK_SIZE = 1024;
+
   private TimeGenerator timeGenerator;
   private List<SeriesReaderByTimestamp> readers;
   private List<Boolean> cached;
 
+  private long[] timestamps = new long[TIMESTAMP_BLOCK_SIZE];
+  private int blockLength;
+  private int rowIndex;
+  // values of the current block of timestamps, one column for each path
+  private BatchData[] columns;
+
   /**
    * constructor of DataSetWithTimeGenerator.
    *
@@ -55,34 +67,95 @@ public class DataSetWithTimeGenerator extends QueryDataSet {
     this.cached = cached;
     this.timeGenerator = timeGenerator;
     this.readers = readers;
+    this.columns = new BatchData[paths.size()];
   }
 
   @Override
   public boolean hasNext() throws IOException {
-    return timeGenerator.hasNext();
+    return rowIndex < blockLength || timeGenerator.hasNext();
   }
 
   @Override
   public RowRecord next() throws IOException {
-    long timestamp = timeGenerator.next();
+    if (rowIndex >= blockLength) {
+      fetchBlock();
+    }
+    long timestamp = timestamps[rowIndex++];
     RowRecord rowRecord = new RowRecord(timestamp);
 
-    for (int i = 0; i < paths.size(); i++) {
+    for (int i = 0; i < columns.length; i++) {
+      BatchData column = columns[i];
+      if (column.hasNext() && column.currentTime() == timestamp) {
+        rowRecord.addField(getCurrentField(column));
+        column.next();
+      } else {
+        rowRecord.addField(getField(null, dataTypes.get(i)));
+      }
+    }
+
+    return rowRecord;
+  }
 
-      // get value from readers in time generator
-      if (cached.get(i)) {
-        Object value = timeGenerator.getValue(paths.get(i), timestamp);
-        rowRecord.addField(getField(value, dataTypes.get(i)));
-        continue;
+  /**
+   * generate the next block of timestamps and get the values of all paths in them.
+   */
+  private void fetchBlock() throws IOException {
+    blockLength = 0;
+    rowIndex = 0;
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = new BatchData(dataTypes.get(i), true);
+    }
+
+    while (blockLength < timestamps.length && timeGenerator.hasNext()) {
+      long timestamp = timeGenerator.next();
+      timestamps[blockLength++] = timestamp;
+
+      // the readers in time generator only hold the value of the current timestamp
+      for (int i = 0; i < columns.length; i++) {
+        if (cached.get(i)) {
+          Object value = timeGenerator.getValue(paths.get(i), timestamp);
+          if (value != null) {
+            columns[i].putTime(timestamp);
+            columns[i].putAnObject(value);
+          }
+        }
       }
+    }
 
-      // get value from series reader without filter
-      SeriesReaderByTimestamp seriesReaderByTimestamp = readers.get(i);
-      Object value = seriesReaderByTimestamp.getValueInTimestamp(timestamp);
-      rowRecord.addField(getField(value, dataTypes.get(i)));
+    // get values from series readers without filter
+    for (int i = 0; i < columns.length; i++) {
+      if (!cached.get(i)) {
+        readers.get(i).getValuesInTimestamps(timestamps, blockLength, columns[i]);
+      }
     }
+  }
 
-    return rowRecord;
+  private Field getCurrentField(BatchData column) {
+    TSDataType dataType = column.getDataType();
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case DOUBLE:
+        field.setDoubleV(column.getDouble());
+        break;
+      case FLOAT:
+        field.setFloatV(column.getFloat());
+        break;
+      case INT64:
+        field.setLongV(column.getLong());
+        break;
+      case INT32:
+        field.setIntV(column.getInt());
+        break;
+      case BOOLEAN:
+        field.setBoolV(column.getBoolean());
+        break;
+      case TEXT:
+        field.setBinaryV(column.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException("UnSupported" + String.valueOf(dataType));
+    }
+    return field;
   }
 
   private Field getField(Object value, TSDataType dataType) {
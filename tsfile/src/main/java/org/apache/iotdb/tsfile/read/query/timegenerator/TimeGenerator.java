@@ -33,6 +33,19 @@ public interface TimeGenerator {
 
   long next() throws IOException;
 
+  /**
+   * fill the given array with the next timestamps, at most timestamps.length of them.
+   *
+   * @return the number of timestamps filled, 0 if there is no more timestamp
+   */
+  default int next(long[] timestamps) throws IOException {
+    int length = 0;
+    while (length < timestamps.length && hasNext()) {
+      timestamps[length++] = next();
+    }
+    return length;
+  }
+
   Object getValue(Path path, long time) throws IOException;
 
 }
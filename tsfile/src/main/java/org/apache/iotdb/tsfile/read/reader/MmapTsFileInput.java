@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A TsFileInput which maps the whole file into memory, so that chunks and pages can be sliced out
+ * of the mapping by {@link #slice(long, int)} rather than copied. Only for sealed files no larger
+ * than Integer.MAX_VALUE bytes, as the mapping does not follow changes of the file size.
+ *
+ * <p>The mapping is not unmapped explicitly on close, because slices of it may still be referenced,
+ * e.g., by cached chunks. It is released when the mapping and all its slices are garbage-collected.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private FileChannel channel;
+  private volatile MappedByteBuffer mappedBuffer;
+
+  public MmapTsFileInput(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(
+            String.format("File %s of %d bytes is too large to be mapped", file, size));
+      }
+      mappedBuffer = channel.map(MapMode.READ_ONLY, 0, size);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * get the data in [position, position + size) of the file without copying it.
+   *
+   * @return a read-only buffer whose position is 0 and limit is size
+   */
+  public ByteBuffer slice(long position, int size) throws IOException {
+    ByteBuffer buffer = duplicate();
+    if (position < 0 || position + size > buffer.capacity()) {
+      throw new IOException(
+          String.format("Data [%d, %d) is out of the file of %d bytes", position,
+              position + size, buffer.capacity()));
+    }
+    buffer.position((int) position);
+    buffer.limit((int) position + size);
+    return buffer.slice();
+  }
+
+  private ByteBuffer duplicate() throws IOException {
+    MappedByteBuffer buffer = mappedBuffer;
+    if (buffer == null) {
+      throw new IOException("The input has been closed");
+    }
+    return buffer.asReadOnlyBuffer();
+  }
+
+  @Override
+  public long size() throws IOException {
+    return duplicate().capacity();
+  }
+
+  @Override
+  public long position() throws IOException {
+    return channel.position();
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    channel.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = channel.position();
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      channel.position(position + readSize);
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    ByteBuffer buffer = duplicate();
+    if (position >= buffer.capacity()) {
+      return -1;
+    }
+    int readSize = (int) Math.min(dst.remaining(), buffer.capacity() - position);
+    buffer.position((int) position);
+    buffer.limit((int) position + readSize);
+    dst.put(buffer);
+    return readSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Byte.BYTES);
+    if (read(buffer) <= 0) {
+      return -1;
+    }
+    return buffer.get(0) & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() throws IOException {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() throws IOException {
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public void close() throws IOException {
+    mappedBuffer = null;
+    channel.close();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    if (read(buffer) != Integer.BYTES) {
+      throw new IOException("reach the end of the file.");
+    }
+    buffer.flip();
+    return buffer.getInt();
+  }
+}
@@ -21,12 +21,12 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -126,6 +126,23 @@ public abstract class ChunkReader {
     return pageHeader;
   }
 
+  /**
+   * get the data of the next page as it is stored, without uncompressing or decoding it.
+   */
+  public ByteBuffer nextPageData() throws IOException {
+    int compressedPageBodyLength = pageHeader.getCompressedSize();
+    if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
+      throw new IOException(
+          "unexpected byte read length when read compressedPageBody. Expected:"
+              + compressedPageBodyLength + ". Actual:" + chunkDataBuffer.remaining());
+    }
+    ByteBuffer pageData = chunkDataBuffer.slice();
+    pageData.limit(compressedPageBodyLength);
+    skipBytesInStreamByLength(compressedPageBodyLength);
+    hasCachedPageHeader = false;
+    return pageData;
+  }
+
   public void skipPageData() {
     skipBytesInStreamByLength(pageHeader.getCompressedSize());
     hasCachedPageHeader = false;
@@ -139,20 +156,27 @@ public abstract class ChunkReader {
 
   private PageReader constructPageReaderForNextPage(int compressedPageBodyLength)
       throws IOException {
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
-
     // already in memory
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
       throw new IOException(
           "unexpected byte read length when read compressedPageBody. Expected:"
-              + Arrays.toString(compressedPageBody) + ". Actual:" + chunkDataBuffer
+              + compressedPageBodyLength + ". Actual:" + chunkDataBuffer
               .remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+    ByteBuffer pageData;
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // read the page in place, without copying it out of the chunk
+      pageData = chunkDataBuffer.slice();
+      pageData.limit(compressedPageBodyLength);
+      skipBytesInStreamByLength(compressedPageBodyLength);
+    } else {
+      byte[] compressedPageBody = new byte[compressedPageBodyLength];
+      chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+      pageData = ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody));
+    }
     valueDecoder.reset();
-    PageReader reader = new PageReader(ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody)),
-        chunkHeader.getDataType(),
+    PageReader reader = new PageReader(pageData, chunkHeader.getDataType(),
         valueDecoder, timeDecoder, filter);
     reader.setDeletedAt(deletedAt);
     return reader;
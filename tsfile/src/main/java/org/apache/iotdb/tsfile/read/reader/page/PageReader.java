@@ -30,6 +30,11 @@ import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 public class PageReader {
 
+  /**
+   * number of points decoded at a time.
+   */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private TSDataType dataType;
 
   /** decoder for value column */
@@ -50,6 +55,16 @@ public class PageReader {
 
   private long deletedAt = -1;
 
+  /**
+   * reusable arrays that a batch of times and values are decoded into.
+   */
+  private long[] timeBatch;
+  private boolean[] booleanBatch;
+  private int[] intBatch;
+  private long[] longBatch;
+  private float[] floatBatch;
+  private double[] doubleBatch;
+
   public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
       Decoder timeDecoder,
       Filter filter) {
@@ -89,12 +104,7 @@ public class PageReader {
    * may return an empty BatchData
    */
   public BatchData nextBatch() throws IOException {
-    if (filter == null) {
-      data = getAllPageData();
-    } else {
-      data = getAllPageDataWithFilter();
-    }
-
+    data = getAllPageData();
     return data;
   }
 
@@ -102,55 +112,37 @@ public class PageReader {
     return data;
   }
 
+  /**
+   * decode the page batch by batch into the reusable primitive arrays and put the undeleted points
+   * that satisfy the filter into a BatchData.
+   */
   private BatchData getAllPageData() throws IOException {
-
     BatchData pageData = new BatchData(dataType, true);
+    if (timeBatch == null) {
+      timeBatch = new long[DECODE_BATCH_SIZE];
+    }
 
     while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
+      int size = timeDecoder.readLongs(timeBuffer, timeBatch, 0, DECODE_BATCH_SIZE);
 
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putBoolean(aBoolean);
-          }
+          readBooleans(pageData, size);
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putInt(anInt);
-          }
+          readInts(pageData, size);
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putLong(aLong);
-          }
+          readLongs(pageData, size);
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putFloat(aFloat);
-          }
+          readFloats(pageData, size);
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putDouble(aDouble);
-          }
+          readDoubles(pageData, size);
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putBinary(aBinary);
-          }
+          readTexts(pageData, size);
           break;
         default:
           throw new UnSupportedDataTypeException(String.valueOf(dataType));
@@ -159,84 +151,89 @@ public class PageReader {
     return pageData;
   }
 
-  private BatchData getAllPageDataWithFilter() throws IOException {
-    BatchData pageData = new BatchData(dataType, true);
-
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          readBoolean(pageData, timestamp);
-          break;
-        case INT32:
-          readInt(pageData, timestamp);
-          break;
-        case INT64:
-          readLong(pageData, timestamp);
-          break;
-        case FLOAT:
-          readFloat(pageData, timestamp);
-          break;
-        case DOUBLE:
-          readDouble(pageData, timestamp);
-          break;
-        case TEXT:
-          readText(pageData, timestamp);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+  private void readBooleans(BatchData pageData, int size) throws IOException {
+    if (booleanBatch == null) {
+      booleanBatch = new boolean[DECODE_BATCH_SIZE];
+    }
+    int valueSize = valueDecoder.readBooleans(valueBuffer, booleanBatch, 0, size);
+    for (int i = 0; i < valueSize; i++) {
+      long timestamp = timeBatch[i];
+      if (timestamp > deletedAt && (filter == null || filter
+          .satisfyBoolean(timestamp, booleanBatch[i]))) {
+        pageData.putTime(timestamp);
+        pageData.putBoolean(booleanBatch[i]);
       }
     }
-
-    return pageData;
   }
 
-  private void readBoolean(BatchData pageData, long timestamp) {
-    boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBoolean)) {
-      pageData.putTime(timestamp);
-      pageData.putBoolean(aBoolean);
+  private void readInts(BatchData pageData, int size) throws IOException {
+    if (intBatch == null) {
+      intBatch = new int[DECODE_BATCH_SIZE];
     }
-  }
-
-  private void readInt(BatchData pageData, long timestamp) {
-    int anInt = valueDecoder.readInt(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, anInt)) {
-      pageData.putTime(timestamp);
-      pageData.putInt(anInt);
+    int valueSize = valueDecoder.readInts(valueBuffer, intBatch, 0, size);
+    for (int i = 0; i < valueSize; i++) {
+      long timestamp = timeBatch[i];
+      if (timestamp > deletedAt && (filter == null || filter
+          .satisfyInt(timestamp, intBatch[i]))) {
+        pageData.putTime(timestamp);
+        pageData.putInt(intBatch[i]);
+      }
     }
   }
 
-  private void readLong(BatchData pageData, long timestamp) {
-    long aLong = valueDecoder.readLong(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aLong)) {
-      pageData.putTime(timestamp);
-      pageData.putLong(aLong);
+  private void readLongs(BatchData pageData, int size) throws IOException {
+    if (longBatch == null) {
+      longBatch = new long[DECODE_BATCH_SIZE];
+    }
+    int valueSize = valueDecoder.readLongs(valueBuffer, longBatch, 0, size);
+    for (int i = 0; i < valueSize; i++) {
+      long timestamp = timeBatch[i];
+      if (timestamp > deletedAt && (filter == null || filter
+          .satisfyLong(timestamp, longBatch[i]))) {
+        pageData.putTime(timestamp);
+        pageData.putLong(longBatch[i]);
+      }
     }
   }
 
-  private void readFloat(BatchData pageData, long timestamp) {
-    float aFloat = valueDecoder.readFloat(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aFloat)) {
-      pageData.putTime(timestamp);
-      pageData.putFloat(aFloat);
+  private void readFloats(BatchData pageData, int size) throws IOException {
+    if (floatBatch == null) {
+      floatBatch = new float[DECODE_BATCH_SIZE];
+    }
+    int valueSize = valueDecoder.readFloats(valueBuffer, floatBatch, 0, size);
+    for (int i = 0; i < valueSize; i++) {
+      long timestamp = timeBatch[i];
+      if (timestamp > deletedAt && (filter == null || filter
+          .satisfyFloat(timestamp, floatBatch[i]))) {
+        pageData.putTime(timestamp);
+        pageData.putFloat(floatBatch[i]);
+      }
     }
   }
 
-  private void readDouble(BatchData pageData, long timestamp) {
-    double aDouble = valueDecoder.readDouble(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aDouble)) {
-      pageData.putTime(timestamp);
-      pageData.putDouble(aDouble);
+  private void readDoubles(BatchData pageData, int size) throws IOException {
+    if (doubleBatch == null) {
+      doubleBatch = new double[DECODE_BATCH_SIZE];
+    }
+    int valueSize = valueDecoder.readDoubles(valueBuffer, doubleBatch, 0, size);
+    for (int i = 0; i < valueSize; i++) {
+      long timestamp = timeBatch[i];
+      if (timestamp > deletedAt && (filter == null || filter
+          .satisfyDouble(timestamp, doubleBatch[i]))) {
+        pageData.putTime(timestamp);
+        pageData.putDouble(doubleBatch[i]);
+      }
     }
   }
 
-  private void readText(BatchData pageData, long timestamp) {
-    Binary aBinary = valueDecoder.readBinary(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBinary)) {
-      pageData.putTime(timestamp);
-      pageData.putBinary(aBinary);
+  private void readTexts(BatchData pageData, int size) {
+    for (int i = 0; i < size; i++) {
+      long timestamp = timeBatch[i];
+      Binary aBinary = valueDecoder.readBinary(valueBuffer);
+      if (timestamp > deletedAt && (filter == null || filter.satisfy(timestamp, aBinary))) {
+        pageData.putTime(timestamp);
+        pageData.putBinary(aBinary);
+      }
     }
   }
 
@@ -104,6 +104,49 @@ public class SeriesReaderByTimestamp {
     return null;
   }
 
+  /**
+   * get the values of a block of timestamps in one call, which saves the per point overhead of
+   * {@link #getValueInTimestamp(long)}. For each timestamp that has a point, the time and value are
+   * put into the result; timestamps without a point are skipped.
+   *
+   * @param timestamps timestamps in ascending order, which are larger than the timestamps given
+   * before
+   * @param length the number of timestamps to use in the array
+   * @param result the BatchData with time to put the points into
+   */
+  public void getValuesInTimestamps(long[] timestamps, int length, BatchData result)
+      throws IOException {
+    int index = 0;
+    while (index < length) {
+      long timestamp = timestamps[index];
+      if (data == null || !data.hasNext()) {
+        this.currentTimestamp = timestamp;
+        if (chunkReader != null) {
+          // skip the pages that end before the timestamp
+          ((ChunkReaderByTimestamp) chunkReader).setCurrentTimestamp(timestamp);
+        }
+        if (chunkReader != null && chunkReader.hasNextBatch()) {
+          data = chunkReader.nextBatch();
+        } else if (constructNextSatisfiedChunkReader()) {
+          data = null;
+        } else {
+          return;
+        }
+        continue;
+      }
+      long time = data.currentTime();
+      if (time < timestamp) {
+        data.next();
+        continue;
+      }
+      if (time == timestamp) {
+        result.putCurrentPoint(data);
+        data.next();
+      }
+      index++;
+    }
+  }
+
   /**
    * Judge if the series reader has next time-value pair.
    *
@@ -159,6 +159,33 @@ public class ChunkBuffer {
     return headerSize + uncompressedSize;
   }
 
+  /**
+   * write a page that is already encoded and compressed in the format of this chunk, e.g., a page
+   * copied from another chunk, into the PageWriter's output stream as it is.
+   *
+   * @param data the compressed data of the page
+   * @param header the header of the page
+   * @return byte size of the page header and the page body.
+   */
+  public int writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
+      throws PageException {
+    numOfPages++;
+    if (this.minTimestamp == -1) {
+      this.minTimestamp = header.getMinTimestamp();
+    }
+    this.maxTimestamp = header.getMaxTimestamp();
+    this.totalValueCount += header.getNumOfValues();
+    int dataSize = data.remaining();
+    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
+      header.serializeTo(pageBuffer);
+      channel.write(data);
+    } catch (IOException e) {
+      throw new PageException(
+          "meet IO Exception when appending a page, error message:" + e.getMessage());
+    }
+    return header.getSerializedSize() + dataSize;
+  }
+
   private void resetTimeStamp() {
     if (totalValueCount == 0) {
       minTimestamp = -1;
@@ -20,9 +20,11 @@ package org.apache.iotdb.tsfile.write.chunk;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -260,6 +262,23 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /**
+   * seal the current page and append a page that is already encoded and compressed with the
+   * encoding and compressor of this chunk, without decoding it.
+   *
+   * @param data the compressed data of the page
+   * @param header the header of the page
+   */
+  public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
+      throws PageException {
+    sealCurrentPage();
+    chunkBuffer.writePageHeaderAndDataIntoBuff(data, header);
+    // statistics deserialized from a page header are not marked as initialized
+    Statistics<?> statistics = header.getStatistics();
+    statistics.setEmpty(false);
+    chunkStatistics.mergeStatistics(statistics);
+  }
+
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
@@ -52,7 +52,9 @@ public class DefaultTsFileOutput implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    throw new UnsupportedOperationException();
+    while (b.hasRemaining()) {
+      outputStream.getChannel().write(b);
+    }
   }
 
   @Override
@@ -42,6 +42,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -176,6 +177,28 @@ public class TsFileIOWriter {
     return header.getSerializedSize();
   }
 
+  /**
+   * write a chunk read from another tsfile as it is, without decoding its pages.
+   *
+   * @param chunk the chunk, whose data holds all of its pages
+   * @param chunkMetadata the metadata of the chunk in the tsfile it is read from
+   */
+  public void writeChunk(Chunk chunk, ChunkMetaData chunkMetadata) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ByteBuffer data = chunk.getData().duplicate();
+    currentChunkMetaData = new ChunkMetaData(chunkHeader.getMeasurementID(),
+        chunkHeader.getDataType(), out.getPosition(), chunkMetadata.getStartTime(),
+        chunkMetadata.getEndTime());
+    currentChunkMetaData.setDigest(chunkMetadata.getDigest());
+    ChunkHeader header = new ChunkHeader(chunkHeader.getMeasurementID(), data.remaining(),
+        chunkHeader.getDataType(), chunkHeader.getCompressionType(),
+        chunkHeader.getEncodingType(), chunkHeader.getNumOfPages());
+    header.serializeTo(out.wrapAsStream());
+    out.write(data);
+    LOG.debug("finish copying series chunk:{}, file position {}", header, out.getPosition());
+    endChunk(chunkMetadata.getNumOfPoints());
+  }
+
   /**
    * end chunk and write some log.
    *
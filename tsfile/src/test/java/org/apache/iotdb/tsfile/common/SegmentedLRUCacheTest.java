@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.tsfile.common.cache.SegmentedLRUCache;
+import org.junit.Test;
+
+public class SegmentedLRUCacheTest {
+
+  private AtomicInteger loadCount = new AtomicInteger();
+
+  private SegmentedLRUCache<Integer, Integer> createCache(long capacity) {
+    return new SegmentedLRUCache<Integer, Integer>(capacity) {
+      @Override
+      public Integer loadObjectByKey(Integer key) {
+        loadCount.incrementAndGet();
+        return key * 10;
+      }
+
+      @Override
+      public long getWeight(Integer key, Integer value) {
+        // key 0 is heavier than the whole cache
+        return key == 0 ? Long.MAX_VALUE : 1 + key % 2;
+      }
+    };
+  }
+
+  @Test
+  public void testWeightBound() throws IOException {
+    SegmentedLRUCache<Integer, Integer> cache = createCache(100);
+    for (int i = 1; i <= 1000; i++) {
+      assertEquals(i * 10, (int) cache.get(i));
+      assertTrue(cache.getWeight() <= 100);
+    }
+    assertEquals(1000, cache.getMissCount());
+    assertEquals(1000, cache.getLoadCount());
+    assertTrue(cache.getEvictionCount() > 0);
+
+    assertEquals(0, (int) cache.get(0));
+    assertEquals(0, (int) cache.get(0));
+    assertTrue(cache.getWeight() <= 100);
+    assertEquals(1002, cache.getLoadCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void testScanResistance() throws IOException {
+    SegmentedLRUCache<Integer, Integer> cache = createCache(100);
+    // read a working set twice so that it is protected
+    for (int round = 0; round < 2; round++) {
+      for (int i = 2; i <= 40; i += 2) {
+        cache.get(i);
+      }
+    }
+    // a scan reading each key once
+    for (int i = 1000; i < 2000; i++) {
+      cache.get(i);
+    }
+    long loadCountBeforeRead = cache.getLoadCount();
+    for (int i = 2; i <= 40; i += 2) {
+      assertEquals(i * 10, (int) cache.get(i));
+    }
+    assertEquals(loadCountBeforeRead, cache.getLoadCount());
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    SegmentedLRUCache<Integer, Integer> cache = createCache(100);
+    for (int i = 1; i <= 10; i++) {
+      cache.get(i);
+    }
+    cache.remove(1);
+    cache.removeIf(key -> key > 5);
+    assertEquals(4, cache.size());
+    assertEquals(2 + 1 + 2 + 1, cache.getWeight());
+    cache.get(1);
+    assertEquals(11, cache.getLoadCount());
+  }
+
+  @Test
+  public void testConcurrentLoadOnce() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<Integer, Integer>(100) {
+      @Override
+      public Integer loadObjectByKey(Integer key) throws IOException {
+        loadCount.incrementAndGet();
+        try {
+          loading.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        return key;
+      }
+
+      @Override
+      public long getWeight(Integer key, Integer value) {
+        return 1;
+      }
+    };
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      futures.add(pool.submit(() -> cache.get(7)));
+    }
+    Thread.sleep(100);
+    loading.countDown();
+    for (Future<Integer> future : futures) {
+      assertEquals(7, (int) future.get());
+    }
+    pool.shutdown();
+    assertEquals(1, loadCount.get());
+    assertEquals(8, cache.getHitCount() + cache.getMissCount());
+  }
+
+  @Test
+  public void testRemoveWhileLoading() throws Exception {
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch removed = new CountDownLatch(1);
+    SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<Integer, Integer>(100) {
+      @Override
+      public Integer loadObjectByKey(Integer key) throws IOException {
+        int version = loadCount.incrementAndGet();
+        if (version == 1) {
+          loadStarted.countDown();
+          try {
+            removed.await();
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+        }
+        return version;
+      }
+
+      @Override
+      public long getWeight(Integer key, Integer value) {
+        return 1;
+      }
+    };
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    Future<Integer> staleLoad = pool.submit(() -> cache.get(7));
+    loadStarted.await();
+    // e.g. the file of the key is deleted while its old content is being read
+    cache.remove(7);
+    // a get after the removal does not wait for the stale load
+    assertEquals(2, (int) cache.get(7));
+    removed.countDown();
+    assertEquals(1, (int) staleLoad.get());
+    pool.shutdown();
+    assertEquals(2, (int) cache.get(7));
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getWeight());
+  }
+
+  @Test
+  public void testReuseAfterClear() throws IOException {
+    SegmentedLRUCache<Integer, Integer> cache = createCache(10);
+    for (int round = 0; round < 3; round++) {
+      for (int i = 1; i <= 4; i++) {
+        // read twice to protect the entries
+        cache.get(i);
+        cache.get(i);
+      }
+      cache.clear();
+      assertEquals(0, cache.getWeight());
+    }
+    for (int i = 1; i <= 4; i++) {
+      cache.get(i);
+      cache.get(i);
+    }
+    assertEquals(4, cache.size());
+    assertEquals(2 + 1 + 2 + 1, cache.getWeight());
+  }
+}
@@ -18,10 +18,19 @@
  */
 package org.apache.iotdb.tsfile.compress;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.junit.After;
 import org.junit.Before;
@@ -81,4 +90,189 @@ public class CompressTest {
     assertEquals(inputString, result);
   }
 
+  @Test
+  public void gzipCompressorTest() throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.GZIP);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.GZIP);
+    byte[] input = inputString.getBytes("UTF-8");
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    int size = compressor.compress(input, 0, input.length, compressed);
+    assertEquals(input.length, unCompressor.getUncompressedLength(compressed, 0, size));
+    byte[] uncompressed = new byte[input.length];
+    assertEquals(input.length, unCompressor.uncompress(compressed, 0, size, uncompressed, 0));
+    assertEquals(inputString, new String(uncompressed, "UTF-8"));
+    assertArrayEquals(input, unCompressor.uncompress(compressor.compress(input)));
+  }
+
+  @Test
+  public void lz4CompressorTest() throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.LZ4);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.LZ4);
+    byte[] input = inputString.getBytes("UTF-8");
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    int size = compressor.compress(input, 0, input.length, compressed);
+    assertEquals(input.length, unCompressor.getUncompressedLength(compressed, 0, size));
+    byte[] uncompressed = new byte[input.length];
+    assertEquals(input.length, unCompressor.uncompress(compressed, 0, size, uncompressed, 0));
+    assertEquals(inputString, new String(uncompressed, "UTF-8"));
+    assertArrayEquals(input, unCompressor.uncompress(compressor.compress(input)));
+  }
+
+  @Test
+  public void zstdCompressorTest() throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    byte[] input = inputString.getBytes("UTF-8");
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    int size = compressor.compress(input, 0, input.length, compressed);
+    assertEquals(input.length, unCompressor.getUncompressedLength(compressed, 0, size));
+    byte[] uncompressed = new byte[input.length];
+    assertEquals(input.length, unCompressor.uncompress(compressed, 0, size, uncompressed, 0));
+    assertEquals(inputString, new String(uncompressed, "UTF-8"));
+    assertArrayEquals(input, unCompressor.uncompress(compressor.compress(input)));
+  }
+
+  private void setZstdDictionary(String path) {
+    TSFileConfig.zstdDictionaryPath = path;
+    ZstdDictionary.reload();
+  }
+
+  @Test
+  public void zstdDictionaryTest() throws IOException {
+    File dictionary = File.createTempFile("zstd", ".dict");
+    String path = TSFileConfig.zstdDictionaryPath;
+    try {
+      Files.write(dictionary.toPath(), inputString.getBytes("UTF-8"));
+      setZstdDictionary(dictionary.getPath());
+      ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+      byte[] input = inputString.getBytes("UTF-8");
+      byte[] compressed = compressor.compress(input);
+      assertArrayEquals(input, unCompressor.uncompress(compressed));
+    } finally {
+      setZstdDictionary(path);
+      Files.delete(dictionary.toPath());
+    }
+  }
+
+  private void assertDictionaryMismatch(IUnCompressor unCompressor, byte[] compressed) {
+    try {
+      unCompressor.uncompress(compressed, 0, compressed.length, new byte[1000], 0);
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage(),
+          e.getMessage().startsWith("The ZSTD page is compressed with the dictionary"));
+    }
+  }
+
+  @Test
+  public void zstdDictionaryChangeTest() throws IOException {
+    File dictionary = File.createTempFile("zstd", ".dict");
+    File otherDictionary = File.createTempFile("zstd", ".dict");
+    String path = TSFileConfig.zstdDictionaryPath;
+    try {
+      Files.write(dictionary.toPath(), inputString.getBytes("UTF-8"));
+      Files.write(otherDictionary.toPath(), "another dictionary".getBytes("UTF-8"));
+      ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+      byte[] input = inputString.getBytes("UTF-8");
+      byte[] withoutDictionary = compressor.compress(input);
+      setZstdDictionary(dictionary.getPath());
+      byte[] withDictionary = compressor.compress(input);
+
+      // the setting only takes effect after a reload
+      TSFileConfig.zstdDictionaryPath = otherDictionary.getPath();
+      assertArrayEquals(input, unCompressor.uncompress(withDictionary));
+
+      ZstdDictionary.reload();
+      assertDictionaryMismatch(unCompressor, withDictionary);
+      setZstdDictionary("");
+      assertDictionaryMismatch(unCompressor, withDictionary);
+      // the same content under another path is the same dictionary
+      Files.copy(dictionary.toPath(), otherDictionary.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+      setZstdDictionary(otherDictionary.getPath());
+      assertArrayEquals(input, unCompressor.uncompress(withDictionary));
+      // the pages without a dictionary are read whatever the setting is
+      assertArrayEquals(input, unCompressor.uncompress(withoutDictionary));
+    } finally {
+      setZstdDictionary(path);
+      Files.delete(dictionary.toPath());
+      Files.delete(otherDictionary.toPath());
+    }
+  }
+
+  private ByteBuffer allocate(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  private void assertZstdByteBuffers(byte[] input) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    for (int i = 0; i < 8; i++) {
+      String message = String.format("case %d", i);
+      ByteBuffer source = allocate(input.length, (i & 1) != 0);
+      source.put(input);
+      source.flip();
+      // the output does not start at 0, so the offsets in the buffers are checked
+      ByteBuffer compressed = allocate(compressor.getMaxBytesForCompression(input.length) + 3,
+          (i & 2) != 0);
+      compressed.position(3);
+      int size = compressor.compress(source, compressed);
+      assertEquals(message, 0, source.remaining());
+      assertEquals(message, 3, compressed.position());
+      assertEquals(message, size, compressed.remaining());
+
+      ByteBuffer uncompressed = allocate(input.length + 2, (i & 4) != 0);
+      uncompressed.position(2);
+      assertEquals(message, input.length, unCompressor.uncompress(compressed, uncompressed));
+      assertEquals(message, 2, uncompressed.position());
+      byte[] result = new byte[uncompressed.remaining()];
+      uncompressed.get(result);
+      assertArrayEquals(message, input, result);
+    }
+  }
+
+  @Test
+  public void zstdByteBufferTest() throws IOException {
+    byte[] input = inputString.getBytes("UTF-8");
+    assertZstdByteBuffers(input);
+    File dictionary = File.createTempFile("zstd", ".dict");
+    String path = TSFileConfig.zstdDictionaryPath;
+    try {
+      Files.write(dictionary.toPath(), input);
+      setZstdDictionary(dictionary.getPath());
+      assertZstdByteBuffers(input);
+    } finally {
+      setZstdDictionary(path);
+      Files.delete(dictionary.toPath());
+    }
+  }
+
+  @Test
+  public void directByteBufferTest() throws IOException {
+    byte[] input = new byte[10000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte) (i % 100 < 50 ? i % 7 : i);
+    }
+    for (CompressionType type : new CompressionType[]{CompressionType.SNAPPY,
+        CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD}) {
+      ICompressor compressor = ICompressor.getCompressor(type);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      ByteBuffer source = ByteBuffer.allocateDirect(input.length);
+      source.put(input);
+      source.flip();
+      ByteBuffer compressed = ByteBuffer
+          .allocateDirect(compressor.getMaxBytesForCompression(input.length));
+      int size = compressor.compress(source, compressed);
+      assertEquals(type.toString(), size, compressed.remaining());
+      assertEquals(type.toString(), input.length, unCompressor.getUncompressedLength(compressed));
+      ByteBuffer uncompressed = ByteBuffer.allocateDirect(input.length);
+      assertEquals(input.length, unCompressor.uncompress(compressed, uncompressed));
+      byte[] result = new byte[input.length];
+      uncompressed.get(result);
+      assertArrayEquals(type.toString(), input, result);
+    }
+  }
+
 }
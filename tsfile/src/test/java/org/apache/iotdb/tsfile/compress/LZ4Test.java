@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.junit.Test;
+
+public class LZ4Test {
+
+  private final Random random = new Random(7);
+  private final ICompressor compressor = ICompressor.getCompressor(CompressionType.LZ4);
+  private final IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.LZ4);
+
+  /**
+   * a page of 53 bytes encoded by hand in the LZ4 block format: 3 literals followed by an
+   * overlapping match of 30 bytes at offset 3, then 20 literals. Both lengths need an extra byte.
+   */
+  private final byte[] referencePage = concat(new byte[]{0, 0, 0, 53, 0x3F, 'a', 'b', 'c', 3, 0,
+      11, (byte) 0xF0, 5}, "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8));
+  private final String referenceData = "abcabcabcabcabcabcabcabcabcabcabc0123456789abcdefghij";
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  private int compress(byte[] input, byte[] compressed) throws IOException {
+    int size = compressor.compress(input, 0, input.length, compressed);
+    assertTrue(size <= compressor.getMaxBytesForCompression(input.length));
+    return size;
+  }
+
+  private void assertRoundTrip(byte[] input) throws IOException {
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    int size = compress(input, compressed);
+    assertEquals(input.length, unCompressor.getUncompressedLength(compressed, 0, size));
+    byte[] output = new byte[input.length + 2];
+    assertEquals(input.length, unCompressor.uncompress(compressed, 0, size, output, 2));
+    assertArrayEquals(input, Arrays.copyOfRange(output, 2, output.length));
+  }
+
+  @Test
+  public void testEmptyAndShort() throws IOException {
+    for (int length = 0; length < 20; length++) {
+      byte[] input = new byte[length];
+      random.nextBytes(input);
+      assertRoundTrip(input);
+    }
+  }
+
+  @Test
+  public void testRandom() throws IOException {
+    byte[] input = new byte[100000];
+    random.nextBytes(input);
+    assertRoundTrip(input);
+  }
+
+  @Test
+  public void testCompressible() throws IOException {
+    // long runs produce overlapping matches and lengths over 15 + 255
+    byte[] input = new byte[200000];
+    Arrays.fill(input, 0, 70000, (byte) 1);
+    for (int i = 70000; i < input.length; i++) {
+      input[i] = (byte) (i % 3 == 0 ? random.nextInt(4) : i % 17);
+    }
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    assertTrue(compress(input, compressed) < input.length / 2);
+    assertRoundTrip(input);
+  }
+
+  @Test
+  public void testFarMatches() throws IOException {
+    // a repeated block that lies beyond the max distance of 65535
+    byte[] block = new byte[1000];
+    random.nextBytes(block);
+    byte[] input = new byte[block.length * 2 + 70000];
+    System.arraycopy(block, 0, input, 0, block.length);
+    for (int i = block.length; i < block.length + 70000; i++) {
+      input[i] = (byte) random.nextInt();
+    }
+    System.arraycopy(block, 0, input, block.length + 70000, block.length);
+    assertRoundTrip(input);
+  }
+
+  @Test
+  public void testReferenceBlock() throws IOException {
+    byte[] output = new byte[referenceData.length()];
+    assertEquals(output.length,
+        unCompressor.uncompress(referencePage, 0, referencePage.length, output, 0));
+    assertEquals(referenceData, new String(output, StandardCharsets.UTF_8));
+
+    ByteBuffer compressed = ByteBuffer.allocateDirect(referencePage.length);
+    compressed.put(referencePage);
+    compressed.flip();
+    ByteBuffer uncompressed = ByteBuffer.allocateDirect(output.length);
+    assertEquals(output.length, unCompressor.uncompress(compressed, uncompressed));
+    uncompressed.get(output);
+    assertEquals(referenceData, new String(output, StandardCharsets.UTF_8));
+  }
+
+  private void assertMalformed(byte[] page) {
+    try {
+      unCompressor.uncompress(page, 0, page.length, new byte[100], 0);
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Malformed LZ4 block"));
+    }
+  }
+
+  @Test
+  public void testMalformed() {
+    // the block is truncated
+    assertMalformed(Arrays.copyOf(referencePage, referencePage.length - 1));
+    // the match refers to bytes before the start of the output
+    byte[] page = referencePage.clone();
+    page[8] = 4;
+    assertMalformed(page);
+    // the block holds fewer bytes than the page claims
+    page = referencePage.clone();
+    page[3] = 54;
+    assertMalformed(page);
+    // the uncompressed length is negative
+    page = referencePage.clone();
+    page[0] = (byte) 0x80;
+    assertMalformed(page);
+  }
+}
@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.common.EndianType;
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check that decoding a batch of values gives the same values as decoding them one by one.
+ */
+public class BatchDecodeTest {
+
+  private static final int COUNT = 3000;
+  // not a divisor of the pack or group sizes of any encoding
+  private static final int BATCH_SIZE = 37;
+
+  @Test
+  public void testInt() throws IOException {
+    int[] values = new int[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      // runs of repeated values followed by distinct ones
+      values[i] = (i / 100) % 2 == 0 ? i / 100 : i * 7 - 5000;
+    }
+    checkInts(new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.INT32, 0),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkInts(new IntRleEncoder(EndianType.LITTLE_ENDIAN),
+        new IntRleDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkInts(new DeltaBinaryEncoder.IntDeltaEncoder(), new DeltaBinaryDecoder.IntDeltaDecoder(),
+        values);
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    long[] values = new long[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      values[i] = (i / 100) % 2 == 0 ? Long.MAX_VALUE - i / 100 : i * 100000000L;
+    }
+    checkLongs(new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.INT64, 0),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkLongs(new LongRleEncoder(EndianType.LITTLE_ENDIAN),
+        new LongRleDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkLongs(new DeltaBinaryEncoder.LongDeltaEncoder(),
+        new DeltaBinaryDecoder.LongDeltaDecoder(), values);
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[] values = new float[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      values[i] = (i / 100) % 2 == 0 ? 1.5f : i / 10.0f - 100;
+    }
+    checkFloats(new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.FLOAT, 0),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkFloats(new FloatEncoder(TSEncoding.RLE, TSDataType.FLOAT, 2),
+        new FloatDecoder(TSEncoding.RLE, TSDataType.FLOAT), values);
+    checkFloats(new FloatEncoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT, 2),
+        new FloatDecoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT), values);
+    checkFloats(new SinglePrecisionEncoder(), new SinglePrecisionDecoder(), values);
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    double[] values = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      values[i] = (i / 100) % 2 == 0 ? 1.5 : i / 1000.0 - 1;
+    }
+    checkDoubles(new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.DOUBLE, 0),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN), values);
+    checkDoubles(new FloatEncoder(TSEncoding.RLE, TSDataType.DOUBLE, 3),
+        new FloatDecoder(TSEncoding.RLE, TSDataType.DOUBLE), values);
+    checkDoubles(new FloatEncoder(TSEncoding.TS_2DIFF, TSDataType.DOUBLE, 3),
+        new FloatDecoder(TSEncoding.TS_2DIFF, TSDataType.DOUBLE), values);
+    checkDoubles(new DoublePrecisionEncoder(), new DoublePrecisionDecoder(), values);
+  }
+
+  @Test
+  public void testBoolean() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.BOOLEAN, 0);
+    for (int i = 0; i < COUNT; i++) {
+      encoder.encode(i % 3 == 0, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new PlainDecoder(EndianType.LITTLE_ENDIAN);
+    boolean[] batch = new boolean[BATCH_SIZE];
+    int index = 0;
+    int size;
+    while ((size = decoder.readBooleans(buffer, batch, 0, BATCH_SIZE)) > 0) {
+      for (int i = 0; i < size; i++) {
+        Assert.assertEquals(index % 3 == 0, batch[i]);
+        index++;
+      }
+    }
+    Assert.assertEquals(COUNT, index);
+  }
+
+  private void checkInts(Encoder encoder, Decoder decoder, int[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    // mix single reads with batch reads
+    int[] decoded = new int[values.length];
+    int index = 0;
+    while (decoder.hasNext(buffer)) {
+      decoded[index++] = decoder.readInt(buffer);
+      index += decoder
+          .readInts(buffer, decoded, index, Math.min(BATCH_SIZE, values.length - index));
+    }
+    Assert.assertEquals(values.length, index);
+    Assert.assertArrayEquals(values, decoded);
+  }
+
+  private void checkLongs(Encoder encoder, Decoder decoder, long[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    long[] decoded = new long[values.length];
+    int index = 0;
+    while (decoder.hasNext(buffer)) {
+      decoded[index++] = decoder.readLong(buffer);
+      index += decoder
+          .readLongs(buffer, decoded, index, Math.min(BATCH_SIZE, values.length - index));
+    }
+    Assert.assertEquals(values.length, index);
+    Assert.assertArrayEquals(values, decoded);
+  }
+
+  private void checkFloats(Encoder encoder, Decoder decoder, float[] values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (float value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    float[] decoded = new float[values.length];
+    int index = 0;
+    while (index < values.length && decoder.hasNext(buffer)) {
+      index += decoder
+          .readFloats(buffer, decoded, index, Math.min(BATCH_SIZE, values.length - index));
+    }
+    Assert.assertEquals(values.length, index);
+    Assert.assertArrayEquals(values, decoded, 0.0001f);
+  }
+
+  private void checkDoubles(Encoder encoder, Decoder decoder, double[] values)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    double[] decoded = new double[values.length];
+    int index = 0;
+    while (index < values.length && decoder.hasNext(buffer)) {
+      index += decoder
+          .readDoubles(buffer, decoded, index, Math.min(BATCH_SIZE, values.length - index));
+    }
+    Assert.assertEquals(values.length, index);
+    Assert.assertArrayEquals(values, decoded, 0.000001);
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.read;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,6 +39,10 @@ import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
 import org.apache.iotdb.tsfile.write.TsFileWriter;
@@ -114,4 +119,64 @@ public class TsFileSequenceReaderTest {
   }
 
 
-}
\ No newline at end of file
+  @Test
+  public void testReadThroughMmap() throws IOException {
+    TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH);
+    TsFileSequenceReader mmapReader = new TsFileSequenceReader(FILE_PATH,
+        new MmapTsFileInput(Paths.get(FILE_PATH)));
+    Assert.assertEquals(FILE_PATH, mmapReader.getFileName());
+    Assert.assertEquals(reader.fileSize(), mmapReader.fileSize());
+    Assert.assertEquals(reader.readFileMetadata().getDeviceMap().keySet(),
+        mmapReader.readFileMetadata().getDeviceMap().keySet());
+
+    byte marker;
+    int pageNum = 0;
+    while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+      Assert.assertEquals(marker, mmapReader.readMarker());
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+          ChunkHeader header = reader.readChunkHeader();
+          Assert.assertEquals(header.getMeasurementID(),
+              mmapReader.readChunkHeader().getMeasurementID());
+          for (int j = 0; j < header.getNumOfPages(); j++) {
+            PageHeader pageHeader = reader.readPageHeader(header.getDataType());
+            mmapReader.readPageHeader(header.getDataType());
+            ByteBuffer page = reader.readPage(pageHeader, header.getCompressionType());
+            ByteBuffer mmapPage = mmapReader.readPage(pageHeader, header.getCompressionType());
+            if (header.getCompressionType() == CompressionType.UNCOMPRESSED) {
+              // not copied out of the mapping
+              Assert.assertFalse(mmapPage.hasArray());
+            }
+            Assert.assertEquals(page, mmapPage);
+            pageNum++;
+          }
+          break;
+        case MetaMarker.CHUNK_GROUP_FOOTER:
+          reader.readChunkGroupFooter();
+          mmapReader.readChunkGroupFooter();
+          break;
+        default:
+          MetaMarker.handleUnexpectedMarker(marker);
+      }
+      Assert.assertEquals(reader.position(), mmapReader.position());
+    }
+    Assert.assertTrue(pageNum > 0);
+    reader.close();
+
+    // query through the mapping
+    ReadOnlyTsFile mmapTsFile = new ReadOnlyTsFile(mmapReader);
+    QueryExpression queryExpression = QueryExpression.create().addSelectedPath(new Path("d1.s1"))
+        .addSelectedPath(new Path("d1.s4"));
+    QueryDataSet expected = tsFile.query(queryExpression);
+    QueryDataSet actual = mmapTsFile.query(queryExpression);
+    int count = 0;
+    while (expected.hasNext()) {
+      Assert.assertTrue(actual.hasNext());
+      Assert.assertEquals(expected.next().toString(), actual.next().toString());
+      count++;
+    }
+    Assert.assertFalse(actual.hasNext());
+    Assert.assertEquals(rowCount, count);
+    mmapTsFile.close();
+  }
+}
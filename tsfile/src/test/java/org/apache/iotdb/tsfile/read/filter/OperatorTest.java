@@ -45,6 +45,36 @@ public class OperatorTest {
     Assert.assertEquals(false, filter3.satisfy(100, false));
   }
 
+  @Test
+  public void testPrimitiveSatisfy() {
+    Filter longFilter = FilterFactory.and(TimeFilter.gtEq(10L), ValueFilter.lt(100L));
+    Assert.assertTrue(longFilter.satisfyLong(10, 99L));
+    Assert.assertFalse(longFilter.satisfyLong(9, 99L));
+    Assert.assertFalse(longFilter.satisfyLong(10, 100L));
+
+    Filter intFilter = FilterFactory.or(ValueFilter.eq(5), ValueFilter.gt(10));
+    Assert.assertTrue(intFilter.satisfyInt(1, 5));
+    Assert.assertTrue(intFilter.satisfyInt(1, 11));
+    Assert.assertFalse(intFilter.satisfyInt(1, 10));
+
+    Filter floatFilter = FilterFactory.not(ValueFilter.ltEq(0.5f));
+    Assert.assertTrue(floatFilter.satisfyFloat(1, 0.6f));
+    Assert.assertFalse(floatFilter.satisfyFloat(1, 0.5f));
+
+    Filter doubleFilter = ValueFilter.notEq(0.5);
+    Assert.assertTrue(doubleFilter.satisfyDouble(1, 0.6));
+    Assert.assertFalse(doubleFilter.satisfyDouble(1, 0.5));
+
+    Filter booleanFilter = ValueFilter.eq(true);
+    Assert.assertTrue(booleanFilter.satisfyBoolean(1, true));
+    Assert.assertFalse(booleanFilter.satisfyBoolean(1, false));
+
+    // a time filter does not look at the value
+    Filter timeFilter = TimeFilter.lt(10L);
+    Assert.assertTrue(timeFilter.satisfyDouble(9, 100.0));
+    Assert.assertFalse(timeFilter.satisfyInt(10, 1));
+  }
+
   @Test
   public void testGt() {
     Filter timeGt = TimeFilter.gt(TESTED_TIMESTAMP);
@@ -104,4 +104,52 @@ public class ReaderByTimestampTest {
     System.out.println("SeriesReadWithFilterTest. [Time used]: " + (endTimestamp - startTimestamp)
         + " ms. [Read Count]: " + count);
   }
+
+  @Test
+  public void readByTimestampsInBatch() throws IOException {
+    ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d1.s1"));
+    FileSeriesReader seriesReader = new FileSeriesReaderWithoutFilter(seriesChunkLoader,
+        chunkMetaDataList);
+
+    // look up every third point and the time before it, skipping the points in between
+    List<Long> timeList = new ArrayList<>();
+    List<Long> expectedTimes = new ArrayList<>();
+    List<Object> expectedValues = new ArrayList<>();
+    int index = 0;
+    while (seriesReader.hasNextBatch()) {
+      BatchData data = seriesReader.nextBatch();
+      while (data.hasNext()) {
+        if (index++ % 3 == 0) {
+          timeList.add(data.currentTime() - 1);
+          timeList.add(data.currentTime());
+          expectedTimes.add(data.currentTime());
+          expectedValues.add(data.currentValue());
+        }
+        data.next();
+      }
+    }
+
+    SeriesReaderByTimestamp readerByTimestamp = new SeriesReaderByTimestamp(seriesChunkLoader,
+        chunkMetaDataList);
+    BatchData result = new BatchData(readerByTimestamp.getDataType(), true);
+    long[] timestamps = new long[1000];
+    int length = 0;
+    for (long time : timeList) {
+      timestamps[length++] = time;
+      if (length == timestamps.length) {
+        readerByTimestamp.getValuesInTimestamps(timestamps, length, result);
+        length = 0;
+      }
+    }
+    readerByTimestamp.getValuesInTimestamps(timestamps, length, result);
+
+    Assert.assertEquals(expectedTimes.size(), result.length());
+    for (int i = 0; i < expectedTimes.size(); i++) {
+      Assert.assertEquals((long) expectedTimes.get(i), result.currentTime());
+      Assert.assertEquals(expectedValues.get(i), result.currentValue());
+      result.next();
+    }
+  }
 }
@@ -37,6 +37,9 @@ import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -142,6 +145,34 @@ public class PageReaderTest {
     test.test();
   }
 
+  @Test
+  public void testFilterAndDeletion() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.DOUBLE, 0));
+    for (int i = 0; i < 10000; i++) {
+      pageWriter.write(i, (double) (i % 100));
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+
+    PageReader pageReader = new PageReader(page, TSDataType.DOUBLE,
+        new PlainDecoder(EndianType.LITTLE_ENDIAN), new DeltaBinaryDecoder.LongDeltaDecoder(),
+        FilterFactory.and(TimeFilter.lt(9000L), ValueFilter.gtEq(90.0)));
+    pageReader.setDeletedAt(1999);
+    BatchData data = pageReader.nextBatch();
+
+    int count = 0;
+    while (data.hasNext()) {
+      Assert.assertTrue(data.currentTime() > 1999 && data.currentTime() < 9000);
+      Assert.assertEquals(data.currentTime() % 100, data.getDouble(), 0);
+      Assert.assertTrue(data.getDouble() >= 90);
+      data.next();
+      count++;
+    }
+    // times 2000 to 8999 whose value is in [90, 99]
+    Assert.assertEquals(70 * 10, count);
+  }
+
   private abstract static class LoopWriteReadTest {
 
     private Encoder encoder;
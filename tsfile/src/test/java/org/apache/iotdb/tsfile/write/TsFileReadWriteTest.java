@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
@@ -120,6 +121,49 @@ public class TsFileReadWriteTest {
     assertTrue(f.delete());
   }
 
+  @Test
+  public void compressorPerSeriesTest() throws IOException, WriteProcessException {
+    CompressionType[] compressionTypes = {CompressionType.UNCOMPRESSED, CompressionType.SNAPPY,
+        CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD};
+    int count = 100000;
+    try (TsFileWriter tsFileWriter = new TsFileWriter(f)) {
+      for (int j = 0; j < compressionTypes.length; j++) {
+        tsFileWriter.addMeasurement(new MeasurementSchema("sensor_" + j, TSDataType.INT64,
+            TSEncoding.PLAIN, compressionTypes[j]));
+      }
+      for (long i = 1; i <= count; i++) {
+        TSRecord tsRecord = new TSRecord(i, "device_1");
+        for (int j = 0; j < compressionTypes.length; j++) {
+          tsRecord.addTuple(new LongDataPoint("sensor_" + j, i % 1000));
+        }
+        tsFileWriter.write(tsRecord);
+      }
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(path)) {
+      for (int j = 0; j < compressionTypes.length; j++) {
+        assertEquals(compressionTypes[j], reader.readFileMetadata().getMeasurementSchema()
+            .get("sensor_" + j).getCompressor());
+      }
+      ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
+      ArrayList<Path> paths = new ArrayList<>();
+      for (int j = 0; j < compressionTypes.length; j++) {
+        paths.add(new Path("device_1.sensor_" + j));
+      }
+      QueryDataSet queryDataSet = readTsFile.query(QueryExpression.create(paths, null));
+      long i = 1;
+      while (queryDataSet.hasNext()) {
+        RowRecord r = queryDataSet.next();
+        assertEquals(i, r.getTimestamp());
+        for (int j = 0; j < compressionTypes.length; j++) {
+          assertEquals(i % 1000, r.getFields().get(j).getLongV());
+        }
+        i++;
+      }
+      assertEquals(count + 1, i);
+    }
+  }
+
   private void writeData(TSDataType dataType, DataPointProxy proxy) throws IOException, WriteProcessException {
     int floatCount = 1024 * 1024 * 13 + 1023;
     // add measurements into file schema